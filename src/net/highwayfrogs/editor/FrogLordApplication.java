@@ -7,7 +7,9 @@ import javafx.stage.Stage;
 import lombok.Getter;
 import net.highwayfrogs.editor.games.generic.GameInstance;
 import net.highwayfrogs.editor.gui.GameConfigController;
+import net.highwayfrogs.editor.gui.texture.TextureImageCache;
 import net.highwayfrogs.editor.system.Config;
+import net.highwayfrogs.editor.system.Config.ConfigValueNode;
 import net.highwayfrogs.editor.utils.DataSizeUnit;
 import net.highwayfrogs.editor.utils.FXUtils;
 import net.highwayfrogs.editor.utils.FileUtils;
@@ -51,6 +53,7 @@ public class FrogLordApplication extends Application {
     @Getter private static File workingDirectory = new File("./");
     @Getter private static FrogLordApplication application;
     @Getter private static final List<GameInstance> activeGameInstances = new CopyOnWriteArrayList<>();
+    public static final String CONFIG_IMAGE_CACHE_SIZE_MB = "imageCacheSizeMB";
 
     public static void main(String[] args) {
         launch(FrogLordApplication.class, args);
@@ -74,9 +77,25 @@ public class FrogLordApplication extends Application {
 
         mainConfigFile = new File(mainApplicationFolder, "main.cfg");
         mainConfig = Config.loadConfigFromTextFile(mainConfigFile, true);
+        applyImageCacheSize();
         openLoadGameSettingsMenu();
     }
 
+    /**
+     * Applies the decoded image memory limit from the main config, if one has been set.
+     */
+    private static void applyImageCacheSize() {
+        ConfigValueNode sizeNode = mainConfig.getOptionalKeyValueNode(CONFIG_IMAGE_CACHE_SIZE_MB);
+        if (sizeNode == null)
+            return;
+
+        try {
+            TextureImageCache.setMaximumCacheSizeInBytes(sizeNode.getAsInteger() * DataSizeUnit.MEGABYTE.getIncrement());
+        } catch (IllegalArgumentException ex) {
+            Utils.handleError(null, ex, false, "The '%s' value in '%s' is not a valid size, so the default image cache size will be used.", CONFIG_IMAGE_CACHE_SIZE_MB, mainConfigFile.getName());
+        }
+    }
+
     @SuppressWarnings("ThrowFromFinallyBlock")
     private static void resolveMainFolder() {
         // Can we write file data to the working directory?
@@ -116,7 +135,9 @@ public class FrogLordApplication extends Application {
      */
     @SuppressWarnings("CallToPrintStackTrace")
     public static void onShutdown() {
-        Logger.getLogger(FrogLordApplication.class.getSimpleName()).info("FrogLord is shutting down...");
+        Logger logger = Logger.getLogger(FrogLordApplication.class.getSimpleName());
+        logger.info("FrogLord is shutting down...");
+        logger.info("Image Cache: " + TextureImageCache.getMetricsSummary());
         saveMainConfig();
         
         // Logger shutdown.
@@ -11,6 +11,7 @@ import net.highwayfrogs.editor.file.vlo.ImageWorkHorse.TransparencyFilter;
 import net.highwayfrogs.editor.games.sony.SCGameData.SCSharedGameData;
 import net.highwayfrogs.editor.games.sony.SCGameType;
 import net.highwayfrogs.editor.gui.texture.ITextureSource;
+import net.highwayfrogs.editor.gui.texture.TextureImageCache;
 import net.highwayfrogs.editor.utils.ColorUtils;
 import net.highwayfrogs.editor.utils.DataUtils;
 import net.highwayfrogs.editor.utils.FXUtils;
@@ -25,6 +26,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 
@@ -50,7 +52,8 @@ public class GameImage extends SCSharedGameData implements Cloneable, ITextureSo
     @Getter private int abr; // ABR.
 
     private transient int tempImageDataPointer = -1;
-    private transient BufferedImage cachedImage;
+
+    private static final AtomicLong MODIFICATION_COUNT = new AtomicLong(); // Increased whenever any image changes.
 
     public static final int MAX_DIMENSION = 256;
     private static final int PC_BYTES_PER_PIXEL = 4;
@@ -438,21 +441,29 @@ public class GameImage extends SCSharedGameData implements Cloneable, ITextureSo
     }
 
     /**
-     * Invalidate the cached image.
+     * Invalidate the cached image, and any filtered versions of it.
      */
     public void invalidateCache() {
-        this.cachedImage = null;
+        MODIFICATION_COUNT.incrementAndGet();
+        TextureImageCache.invalidate(this);
+    }
+
+    /**
+     * Gets a number which changes whenever any image is changed.
+     * Anything created from images (such as thumbnails) can keep this value to tell when it is out of date.
+     * @return modificationCount
+     */
+    public static long getModificationCount() {
+        return MODIFICATION_COUNT.get();
     }
 
     /**
      * Export this image exactly how it is saved in the database.
+     * The image is decoded when first used, and kept in the shared texture cache.
      * @return bufferedImage
      */
     public BufferedImage toBufferedImage() {
-        if (this.cachedImage != null)
-            return this.cachedImage;
-
-        return this.cachedImage = makeUnmodifiedImage();
+        return TextureImageCache.getImage(this, null, this::makeUnmodifiedImage);
     }
 
     /**
@@ -461,7 +472,9 @@ public class GameImage extends SCSharedGameData implements Cloneable, ITextureSo
      * @return bufferedImage
      */
     public BufferedImage toBufferedImage(ImageFilterSettings settings) {
-        return applyFilters(toBufferedImage(), settings);
+        // The filters also depend on the flags and in-game dimensions, so they're included in the key. Changing them will use a different cache entry.
+        long filterKey = settings.getCacheKey() | ((this.flags & 0xFFFFL) << 8) | ((this.ingameWidth & 0xFFL) << 24) | ((this.ingameHeight & 0xFFL) << 32);
+        return TextureImageCache.getImage(this, filterKey, () -> applyFilters(toBufferedImage(), settings));
     }
 
     /**
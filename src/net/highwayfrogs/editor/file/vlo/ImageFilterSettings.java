@@ -1,11 +1,10 @@
 package net.highwayfrogs.editor.file.vlo;
 
 import lombok.Getter;
+import net.highwayfrogs.editor.Constants;
 import net.highwayfrogs.editor.file.vlo.ImageWorkHorse.TransparencyFilter;
 
 import java.awt.image.BufferedImage;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Contains information about what operations should and should not be applied.
@@ -19,7 +18,6 @@ public class ImageFilterSettings {
     private boolean allowFlip;
     private boolean allowScrunch;
     private boolean scaleToMaxSize;
-    private final Map<BufferedImage, BufferedImage> renderCache = new HashMap<>();
 
     public ImageFilterSettings(ImageState state) {
         this.state = state;
@@ -47,8 +45,6 @@ public class ImageFilterSettings {
      * @return this
      */
     public ImageFilterSettings setTrimEdges(boolean newState) {
-        if (newState != isTrimEdges())
-            invalidateRenderCache();
         this.trimEdges = newState;
         return this;
     }
@@ -59,8 +55,6 @@ public class ImageFilterSettings {
      * @return this
      */
     public ImageFilterSettings setAllowTransparency(boolean newState) {
-        if (newState != isAllowTransparency())
-            invalidateRenderCache();
         this.allowTransparency = newState;
         return this;
     }
@@ -72,8 +66,6 @@ public class ImageFilterSettings {
      * @return this
      */
     public ImageFilterSettings setScaleToMaxSize(boolean newState) {
-        if (newState != isScaleToMaxSize())
-            invalidateRenderCache();
         this.scaleToMaxSize = newState;
         return this;
     }
@@ -84,8 +76,6 @@ public class ImageFilterSettings {
      * @return this
      */
     public ImageFilterSettings setAllowFlip(boolean newState) {
-        if (newState != isAllowFlip())
-            invalidateRenderCache();
         this.allowFlip = newState;
         return this;
     }
@@ -96,17 +86,18 @@ public class ImageFilterSettings {
      * @return this
      */
     public ImageFilterSettings setAllowScrunch(boolean newState) {
-        if (newState != isAllowScrunch())
-            invalidateRenderCache();
         this.allowScrunch = newState;
         return this;
     }
 
     /**
-     * Invalidate the render cache, such as when settings change.
+     * Gets a value which is unique to the current combination of settings.
+     * Filtered images are cached by this value, so changing the settings will automatically use different cached images.
+     * @return cacheKey
      */
-    public void invalidateRenderCache() {
-        this.renderCache.clear();
+    public int getCacheKey() {
+        return (this.state.ordinal() << 5) | (this.trimEdges ? Constants.BIT_FLAG_0 : 0) | (this.allowTransparency ? Constants.BIT_FLAG_1 : 0)
+                | (this.allowFlip ? Constants.BIT_FLAG_2 : 0) | (this.allowScrunch ? Constants.BIT_FLAG_3 : 0) | (this.scaleToMaxSize ? Constants.BIT_FLAG_4 : 0);
     }
 
     /**
@@ -116,10 +107,6 @@ public class ImageFilterSettings {
      * @return filteredImage
      */
     public BufferedImage applyFilters(GameImage gameImage, BufferedImage firstImage) {
-        BufferedImage result = this.renderCache.get(firstImage);
-        if (result != null)
-            return result;
-
         BufferedImage image = firstImage;
         if (isTrimEdges() && isExport())
             image = ImageWorkHorse.trimEdges(gameImage, image);
@@ -137,7 +124,6 @@ public class ImageFilterSettings {
         if (transparencyGoal)
             image = ImageWorkHorse.applyFilter(image, new TransparencyFilter());
 
-        this.renderCache.put(firstImage, image);
         return image;
     }
 
@@ -6,6 +6,7 @@ import net.highwayfrogs.editor.Constants;
 import net.highwayfrogs.editor.file.vlo.ImageFilterSettings.ImageState;
 import net.highwayfrogs.editor.games.sony.SCGameFile.SCSharedGameFile;
 import net.highwayfrogs.editor.games.sony.SCGameInstance;
+import net.highwayfrogs.editor.games.sony.shared.mwd.MWDFile;
 import net.highwayfrogs.editor.games.sony.shared.ui.file.VLOController;
 import net.highwayfrogs.editor.gui.ImageResource;
 import net.highwayfrogs.editor.gui.SelectionMenu;
@@ -49,6 +50,11 @@ public class VLOArchive extends SCSharedGameFile {
         super(instance);
     }
 
+    @Override
+    public boolean isParallelLoadSupported() {
+        return true;
+    }
+
     @Override
     public void load(DataReader reader) {
         String readSignature = reader.readTerminatedString(SIGNATURE_LENGTH);
@@ -98,6 +104,10 @@ public class VLOArchive extends SCSharedGameFile {
             this.images.add(image);
         }
 
+        MWDFile archive = getArchive();
+        if (archive != null) // The texture lookup may contain the old images.
+            archive.invalidateTextureIndex();
+
         // Skip CLUT data.
         if (clutAddress >= 0)
             requireReaderIndex(reader, clutAddress, "Expected CLUT data");
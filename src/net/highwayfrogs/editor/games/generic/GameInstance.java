@@ -10,6 +10,7 @@ import net.highwayfrogs.editor.FrogLordApplication;
 import net.highwayfrogs.editor.file.config.Config;
 import net.highwayfrogs.editor.gui.GameUIController;
 import net.highwayfrogs.editor.gui.MainMenuController;
+import net.highwayfrogs.editor.gui.components.ThumbnailLoader;
 import net.highwayfrogs.editor.scripting.NoodleScriptEngine;
 import net.highwayfrogs.editor.utils.FXUtils;
 import net.highwayfrogs.editor.utils.StringUtils;
@@ -91,6 +92,7 @@ public abstract class GameInstance implements IGameInstance {
             // So, this is our hack for now (or indefinitely), until it's the right time to dig into JavaFX to figure out why.
             stage.setOnCloseRequest(event -> {
                 FrogLordApplication.getActiveGameInstances().remove(this); // Window getting closed.
+                ThumbnailLoader.clear(); // Thumbnails reference the data they were created from, which shouldn't be kept after the game is closed.
                 if (FrogLordApplication.getActiveGameInstances().isEmpty()) {
                     Platform.runLater(() -> {
                         Platform.exit(); // For some reason, this isn't enough to shut down even though it should be.
@@ -529,11 +529,10 @@ public class GreatQuestUtils {
             return foundResult;
 
         // Global search.
-        for (GreatQuestArchiveFile file : mainInstance.getMainArchive().getFiles()) {
-            if (!(file instanceof GreatQuestChunkedFile) || (parentFile == file))
+        for (GreatQuestChunkedFile chunkedFile : mainInstance.getMainArchive().getChunkedFilesWithResource(resourceHash)) {
+            if (parentFile == chunkedFile)
                 continue;
 
-            GreatQuestChunkedFile chunkedFile = (GreatQuestChunkedFile) file;
             foundResult = chunkedFile.getResourceByHash(resourceHash);
             if (foundResult != null)
                 return foundResult;
@@ -559,11 +558,10 @@ public class GreatQuestUtils {
 
         // Global search.
         GreatQuestInstance mainInstance = parentFile.getGameInstance();
-        for (GreatQuestArchiveFile file : mainInstance.getMainArchive().getFiles()) {
-            if (!(file instanceof GreatQuestChunkedFile) || (parentFile == file) || !"00.dat".equalsIgnoreCase(file.getFileName()))
+        for (GreatQuestChunkedFile chunkedFile : mainInstance.getMainArchive().getChunkedFilesWithResource(resourceHash)) {
+            if ((parentFile == chunkedFile) || !"00.dat".equalsIgnoreCase(chunkedFile.getFileName()))
                 continue;
 
-            GreatQuestChunkedFile chunkedFile = (GreatQuestChunkedFile) file;
             foundResult = chunkedFile.getResourceByHash(resourceHash);
             if (foundResult != null)
                 return foundResult;
@@ -590,11 +588,10 @@ public class GreatQuestUtils {
         }
 
         // Global search.
-        for (GreatQuestArchiveFile file : mainInstance.getMainArchive().getFiles()) {
-            if (!(file instanceof GreatQuestChunkedFile) || (parentFile == file))
+        for (GreatQuestChunkedFile chunkedFile : mainInstance.getMainArchive().getChunkedFilesWithResource(resourceHash)) {
+            if (parentFile == chunkedFile)
                 continue;
 
-            GreatQuestChunkedFile chunkedFile = (GreatQuestChunkedFile) file;
             genericResult = chunkedFile.getResourceByHash(resourceHash);
             TResult transformedResult = genericResult != null ? transformer.apply(genericResult) : null;
             if (transformedResult != null)
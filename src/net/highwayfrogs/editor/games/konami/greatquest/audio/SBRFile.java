@@ -37,6 +37,7 @@ import net.highwayfrogs.editor.system.AbstractStringConverter;
 import net.highwayfrogs.editor.utils.*;
 
 import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.Clip;
 import javax.sound.sampled.LineListener;
 import java.io.File;
@@ -495,6 +496,11 @@ public class SBRFile extends GreatQuestLooseGameFile implements IBasicSoundList
             return this.cachedClip = AudioUtils.getClipFromRawAudioData(format, convertedAudioData);
         }
 
+        @Override
+        public AudioInputStream createAudioStream() {
+            return this.ADPCMData != null ? VAGUtil.createAudioInputStream(this.ADPCMData, getSampleRate()) : null;
+        }
+
         private void clearCachedClip() {
             if (this.cachedClip != null) {
                 this.cachedClip.stop();
@@ -515,7 +521,7 @@ public class SBRFile extends GreatQuestLooseGameFile implements IBasicSoundList
         @Override
         public void importFromWav(File file) throws IOException {
             byte[] rawFileBytes = Files.readAllBytes(file.toPath());
-            this.ADPCMData = VAGUtil.wavToVag(AudioUtils.getRawAudioDataFromWavFile(rawFileBytes));
+            this.ADPCMData = VAGUtil.wavToVag(rawFileBytes);
 
             AudioFormat newFormat = AudioUtils.getAudioFormatFromWavFile(rawFileBytes);
             if (newFormat != null)
@@ -648,6 +654,15 @@ public class SBRFile extends GreatQuestLooseGameFile implements IBasicSoundList
             return null;
         }
 
+        @Override
+        public AudioInputStream createAudioStream() {
+            if (this.waveFormatEx == null || this.ADPCMData == null)
+                return null;
+
+            // Returns null for the formats Java can't play (such as the Microsoft ADPCM used by the game), so getClip() can warn about it.
+            return AudioUtils.getPlayableAudioStream(AudioUtils.createWavInputStream(this.waveFormatEx, this.ADPCMData));
+        }
+
         private void clearCachedClip() {
             if (this.cachedClip != null) {
                 this.cachedClip.stop();
@@ -17,6 +17,7 @@ import net.highwayfrogs.editor.games.konami.greatquest.entity.kcEntity3DDesc;
 import net.highwayfrogs.editor.games.konami.greatquest.entity.kcEntity3DInst;
 import net.highwayfrogs.editor.games.konami.greatquest.entity.kcEntityDescType;
 import net.highwayfrogs.editor.games.konami.greatquest.file.GreatQuestArchiveFile;
+import net.highwayfrogs.editor.games.konami.greatquest.file.GreatQuestAssetBinFile;
 import net.highwayfrogs.editor.games.konami.greatquest.file.GreatQuestGameFile;
 import net.highwayfrogs.editor.games.konami.greatquest.generic.kcCResourceGeneric;
 import net.highwayfrogs.editor.games.konami.greatquest.generic.kcCResourceGeneric.kcCResourceGenericType;
@@ -49,6 +50,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -61,10 +67,13 @@ import java.util.stream.Collectors;
 public class GreatQuestChunkedFile extends GreatQuestArchiveFile implements IFileExport {
     private final List<kcCResource> chunks = new ArrayList<>();
     private final List<kcCResource> immutableChunks = Collections.unmodifiableList(this.chunks);
+    private final Map<Integer, List<kcCResource>> resourcesByHash = new HashMap<>();
 
     private static final String RESOURCE_PATH_NAME = "chunkedResourceImportExportPath";
     public static final SavedFilePath RESOURCE_IMPORT_PATH = new SavedFilePath(RESOURCE_PATH_NAME, "Please select the folder with the assets to import");
     public static final SavedFilePath RESOURCE_EXPORT_PATH = new SavedFilePath(RESOURCE_PATH_NAME, "Please select the folder to export assets to");
+    private static final boolean PARALLEL_MAP_EXPORT_ENABLED = true;
+    private static final int MAP_EXPORT_THREAD_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
 
     private static final Comparator<kcCResource> RESOURCE_ORDERING = Comparator
             .comparingInt((kcCResource resource) -> resource.getChunkType().ordinal()) // Sort by resource type.
@@ -77,6 +86,7 @@ public class GreatQuestChunkedFile extends GreatQuestArchiveFile implements IFil
     @Override
     public void load(DataReader reader) {
         this.chunks.clear();
+        clearResourceIndex();
 
         // Prepare chunks.
         Map<kcCResource, byte[]> cachedRawDataMap = new HashMap<>();
@@ -101,6 +111,7 @@ public class GreatQuestChunkedFile extends GreatQuestArchiveFile implements IFil
             } else {
                 cachedRawDataMap.put(newChunk, readBytes);
                 this.chunks.add(newChunk);
+                indexResource(newChunk);
 
                 // Apply the hash from the table of contents.
                 if (tocChunk != null && tocChunk.getHashes().size() > tocPos)
@@ -237,7 +248,7 @@ public class GreatQuestChunkedFile extends GreatQuestArchiveFile implements IFil
 
     @Override
     public void exportToFolder(File folder) throws IOException {
-        saveMapObj(folder); // TODO: Here's the slowdown.
+        saveMapObj(folder); // Skipped if saveMapObjFiles() already exported it.
         exportChunksToDirectory(folder);
 
         kcScriptList scriptList = getScriptList();
@@ -312,6 +323,61 @@ public class GreatQuestChunkedFile extends GreatQuestArchiveFile implements IFil
         }
     }
 
+    /**
+     * Creates .obj files for the maps in several files at once.
+     * The .obj files are saved to the same folders that GreatQuestArchiveFile.export() uses, so exporting the files afterward will not export the maps again.
+     * Because the .obj text is streamed to disk, memory use grows with the number of threads, not the size of the maps.
+     * @param baseFolder The base folder that game assets are saved to.
+     * @param files The files to export the maps from.
+     * @param onFileExported Called after each file is done, possibly from another thread. Can be null.
+     */
+    public static void saveMapObjFiles(File baseFolder, List<GreatQuestChunkedFile> files, Consumer<GreatQuestChunkedFile> onFileExported) {
+        int threadCount = PARALLEL_MAP_EXPORT_ENABLED ? Math.min(MAP_EXPORT_THREAD_COUNT, files.size()) : 1;
+        if (threadCount <= 1) {
+            for (GreatQuestChunkedFile file : files) {
+                file.saveMapObjToExportFolder(baseFolder);
+                if (onFileExported != null)
+                    onFileExported.accept(file);
+            }
+
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>(files.size());
+            for (GreatQuestChunkedFile file : files) {
+                futures.add(executor.submit(() -> {
+                    file.saveMapObjToExportFolder(baseFolder);
+                    if (onFileExported != null)
+                        onFileExported.accept(file);
+                }));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException ex) {
+                    throw new RuntimeException("Failed to export the map in '" + files.get(i).getDebugName() + "'.", ex.getCause());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while exporting maps.", ex);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void saveMapObjToExportFolder(File baseFolder) {
+        if (getSceneManager() == null)
+            return;
+
+        File exportFolder = getExportFolder(baseFolder);
+        FileUtils.makeDirectory(exportFolder);
+        saveMapObj(exportFolder);
+    }
+
     /**
      * Saves all the action sequences to a file.
      * @param file     The file to save to.
@@ -349,6 +415,13 @@ public class GreatQuestChunkedFile extends GreatQuestArchiveFile implements IFil
         if (hash == 0 || hash == -1)
             return null; // TOC chunks conflict since they don't have a hash / aren't loaded.
 
+        List<kcCResource> resources = this.resourcesByHash.get(hash);
+        if (resources == null || resources.isEmpty())
+            return null;
+        if (resources.size() == 1)
+            return (TResource) resources.get(0);
+
+        // Multiple resources share the hash, so return the first one in chunk order.
         for (int i = 0; i < this.chunks.size(); i++) {
             kcCResource resource = this.chunks.get(i);
             if (resource.getHash() == hash)
@@ -358,6 +431,63 @@ public class GreatQuestChunkedFile extends GreatQuestArchiveFile implements IFil
         return null;
     }
 
+    /**
+     * Called when the hash of a resource in this file changes, to keep the hash lookup up to date.
+     * @param resource the resource whose hash changed
+     * @param oldHash the previous hash
+     * @param newHash the new hash
+     */
+    void onResourceHashChange(kcCResource resource, int oldHash, int newHash) {
+        if (unindexResource(resource, oldHash))
+            indexResource(resource, newHash);
+    }
+
+    private void indexResource(kcCResource resource) {
+        indexResource(resource, resource.getHash());
+    }
+
+    private void indexResource(kcCResource resource, int hash) {
+        List<kcCResource> resources = this.resourcesByHash.computeIfAbsent(hash, key -> new ArrayList<>(1));
+        resources.add(resource);
+
+        GreatQuestAssetBinFile mainArchive = getGameInstance().getMainArchive();
+        if (resources.size() == 1 && mainArchive != null)
+            mainArchive.registerResourceHash(this, hash);
+    }
+
+    private boolean unindexResource(kcCResource resource, int hash) {
+        List<kcCResource> resources = this.resourcesByHash.get(hash);
+        if (resources == null)
+            return false;
+
+        boolean removed = false;
+        for (int i = 0; i < resources.size(); i++) {
+            if (resources.get(i) == resource) {
+                resources.remove(i);
+                removed = true;
+                break;
+            }
+        }
+
+        if (resources.isEmpty()) {
+            this.resourcesByHash.remove(hash);
+            GreatQuestAssetBinFile mainArchive = getGameInstance().getMainArchive();
+            if (mainArchive != null)
+                mainArchive.unregisterResourceHash(this, hash);
+        }
+
+        return removed;
+    }
+
+    private void clearResourceIndex() {
+        GreatQuestAssetBinFile mainArchive = getGameInstance().getMainArchive();
+        if (mainArchive != null)
+            for (Integer hash : this.resourcesByHash.keySet())
+                mainArchive.unregisterResourceHash(this, hash);
+
+        this.resourcesByHash.clear();
+    }
+
     /**
      * Gets the scene manager for this map, if it exists.
      */
@@ -456,6 +586,7 @@ public class GreatQuestChunkedFile extends GreatQuestArchiveFile implements IFil
         }
 
         this.chunks.add(insertionIndex, resource);
+        indexResource(resource);
     }
 
     /**
@@ -513,6 +644,7 @@ public class GreatQuestChunkedFile extends GreatQuestArchiveFile implements IFil
             throw new IllegalArgumentException("[Shouldn't happen] The resource we removed (" + removedResource + ") was not the one we expected to remove!! (" + resourceIndex + ")");
         }
 
+        unindexResource(resource, resource.getHash());
         return true;
     }
 
@@ -303,7 +303,7 @@ public class kcCResOctTreeSceneMgr extends kcCResource implements IMultiLineInfo
         private kcVertexFormatComponent[] components;
         private int fvfStride;
         @Setter private kcPrimitiveType primitiveType;
-        private final List<kcVertex> vertices = new ArrayList<>();
+        private final kcVertexBuffer vertexBuffer = new kcVertexBuffer();
 
         /**
          * Set the FVF value for this vtxBuf.
@@ -320,7 +320,14 @@ public class kcCResOctTreeSceneMgr extends kcCResource implements IMultiLineInfo
          * Get the number of vertices tracked in the buffer.
          */
         public int getVertexCount() {
-            return this.vertices.size();
+            return this.vertexBuffer.getVertexCount();
+        }
+
+        /**
+         * Gets the vertices tracked in the buffer, as views into the vertex buffer.
+         */
+        public List<kcVertex> getVertices() {
+            return this.vertexBuffer.getVertices();
         }
 
         /**
@@ -363,15 +370,11 @@ public class kcCResOctTreeSceneMgr extends kcCResource implements IMultiLineInfo
                 throw new RuntimeException("The byte length (" + byteLength + ") for the prim didn't match the byte size shown in the header (" + (otaPrimHeaderSize - (reader.getIndex() - startReadIndex)) + ").");
 
             // Read vertices.
-            this.vertices.clear();
+            this.vertexBuffer.clear();
             if (this.primitiveType != kcPrimitiveType.TRIANGLE_LIST) // This never occurs in any known version of the game.
                 throw new RuntimeException("Cannot read mesh with " + this.primitiveType + " yet.");
 
-            for (int i = 0; i < numOfVertices; i++) {
-                kcVertex vertex = new kcVertex();
-                vertex.load(reader, this.components, this.fvf, false);
-                this.vertices.add(vertex);
-            }
+            this.vertexBuffer.load(reader, numOfVertices, this.components, this.fvf, false);
         }
 
         /**
@@ -391,15 +394,15 @@ public class kcCResOctTreeSceneMgr extends kcCResource implements IMultiLineInfo
             writer.writeUnsignedInt(this.fvf);
             writer.writeInt(this.fvfStride);
             writer.writeInt(this.primitiveType.ordinal());
-            writer.writeInt(kcModel.calculatePrimCount(this.vertices.size(), this.primitiveType)); // primitiveCount
+            writer.writeInt(kcModel.calculatePrimCount(this.vertexBuffer.getVertexCount(), this.primitiveType)); // primitiveCount
             int vtxByteLengthAddress = writer.writeNullPointer();
             for (int j = 0; j < RESERVED_PRIM_HEADER_FIELDS; j++)
                 writer.writeInt(0); // These are known to be empty.
 
             // Write vertices.
-            for (int i = 0; i < this.vertices.size(); i++) {
+            for (int i = 0; i < this.vertexBuffer.getVertexCount(); i++) {
                 int vertexWriteStartIndex = writer.getIndex();
-                this.vertices.get(i).save(writer, this.components, this.fvf, false);
+                this.vertexBuffer.save(writer, i, this.components, this.fvf, false);
                 int vertexBytesWritten = writer.getIndex() - vertexWriteStartIndex;
                 if (vertexBytesWritten != this.fvfStride)
                     throw new RuntimeException("The fvfStride expected us to write " + this.fvfStride + " per vertex, but we actually wrote " + vertexBytesWritten + ".");
@@ -421,9 +424,9 @@ public class kcCResOctTreeSceneMgr extends kcCResource implements IMultiLineInfo
             builder.append(padding).append("Components: ").append(Arrays.toString(this.components)).append(Constants.NEWLINE);
             builder.append(padding).append("FVF Stride: ").append(this.fvfStride).append(Constants.NEWLINE);
             builder.append(padding).append("Primitive Type: ").append(this.primitiveType).append(Constants.NEWLINE);
-            builder.append(padding).append("Vertices (").append(this.vertices.size()).append("):").append(Constants.NEWLINE);
-            for (int i = 0; i < this.vertices.size(); i++)
-                this.vertices.get(i).writePrefixedInfoLine(builder, "", newPadding);
+            builder.append(padding).append("Vertices (").append(this.vertexBuffer.getVertexCount()).append("):").append(Constants.NEWLINE);
+            for (int i = 0; i < this.vertexBuffer.getVertexCount(); i++)
+                this.vertexBuffer.getVertex(i).writePrefixedInfoLine(builder, "", newPadding);
         }
     }
 }
\ No newline at end of file
@@ -56,7 +56,12 @@ public abstract class kcCResource extends GameData<GreatQuestInstance> implement
 
     public kcCResource(GreatQuestChunkedFile parentFile, KCResourceID chunkType) {
         super(parentFile != null ? parentFile.getGameInstance() : null);
-        this.selfHash = new GreatQuestHash<>(this); // kcCBaseResource::Init, kcCResource::Init
+        GreatQuestHash<kcCResource> selfHash = new GreatQuestHash<>(this); // kcCBaseResource::Init, kcCResource::Init
+        selfHash.getHashChangeListeners().add((hash, oldHash, newHash) -> {
+            if (this.parentFile != null)
+                this.parentFile.onResourceHashChange(this, oldHash, newHash);
+        });
+        this.selfHash = selfHash;
         this.chunkType = chunkType;
         this.parentFile = parentFile;
         setName(DEFAULT_RESOURCE_NAME, false, false); // By default, resources are 'unnamed'. See kcCResource::Init()
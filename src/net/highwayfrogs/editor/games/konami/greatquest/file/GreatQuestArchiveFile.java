@@ -24,6 +24,7 @@ import net.highwayfrogs.editor.utils.logging.InstanceLogger.LazyInstanceLogger;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
@@ -38,6 +39,7 @@ public abstract class GreatQuestArchiveFile extends GreatQuestGameFile implement
     @Getter private boolean collision; // This is true iff there are multiple files that share the hash.
     @Getter @Setter private boolean compressed;
     private ILogger cachedLogger;
+    private int cachedArchiveIndex = -1;
 
     public GreatQuestArchiveFile(GreatQuestInstance instance) {
         super(instance);
@@ -166,12 +168,31 @@ public abstract class GreatQuestArchiveFile extends GreatQuestGameFile implement
             this.fileName = filePath.substring(filePath.lastIndexOf("\\") + 1);
     }
 
+    /**
+     * Returns true iff this file can be loaded on a worker thread while other files are being loaded.
+     * This should only be true if load() reads nothing except the file's own data, and never looks up, names, or links to other files or resources.
+     * Anything which needs other files should be done in afterLoad1() or afterLoad2() instead.
+     */
+    public boolean isParallelLoadSupported() {
+        return false;
+    }
+
     /**
      * Gets the archive into the main archive.
      * @return archiveIndex
      */
     public int getArchiveIndex() {
-        return getMainArchive() != null ? getMainArchive().getFiles().indexOf(this) : -1;
+        GreatQuestAssetBinFile mainArchive = getMainArchive();
+        if (mainArchive == null)
+            return -1;
+
+        // Files are not reordered once the archive is loaded, so the index is cached, and only searched for again if it is no longer valid.
+        List<GreatQuestArchiveFile> files = mainArchive.getFiles();
+        int archiveIndex = this.cachedArchiveIndex;
+        if (archiveIndex < 0 || archiveIndex >= files.size() || files.get(archiveIndex) != this)
+            this.cachedArchiveIndex = archiveIndex = files.indexOf(this);
+
+        return archiveIndex;
     }
 
     /**
@@ -227,18 +248,26 @@ public abstract class GreatQuestArchiveFile extends GreatQuestGameFile implement
         return "Usable";
     }
 
+    /**
+     * Gets the folder which the custom export of this file is saved to.
+     * @param baseFolder The base folder that game assets are saved to.
+     * @return exportFolder
+     */
+    public File getExportFolder(File baseFolder) {
+        return new File(GreatQuestUtils.getExportFile(baseFolder, this).getParentFile(), getExportFolderName() + "/");
+    }
+
     /**
      * Exports the file to a folder.
      * @param baseFolder The base folder that game assets are saved to.
      */
     public void export(File baseFolder) {
         File targetFile = GreatQuestUtils.getExportFile(baseFolder, this);
-        File targetFolder = targetFile.getParentFile();
         if (this.rawData != null && (!targetFile.exists() || targetFile.length() != this.rawData.length))
             exportOriginalFileData(targetFile);
 
         if (this instanceof IFileExport) {
-            File exportFolder = new File(targetFolder, getExportFolderName() + "/");
+            File exportFolder = getExportFolder(baseFolder);
             FileUtils.makeDirectory(exportFolder);
 
             try {
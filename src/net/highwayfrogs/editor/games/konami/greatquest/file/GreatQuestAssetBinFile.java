@@ -1,5 +1,6 @@
 package net.highwayfrogs.editor.games.konami.greatquest.file;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import net.highwayfrogs.editor.Constants;
 import net.highwayfrogs.editor.games.generic.data.GameData;
@@ -20,6 +21,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Parses FTGQ's main game data file. It's called "data.bin" in all of the builds we've seen.
@@ -34,6 +36,7 @@ public class GreatQuestAssetBinFile extends GameData<GreatQuestInstance> {
     private final List<GreatQuestArchiveFile> files = new ArrayList<>();
     private final Map<Integer, GreatQuestArchiveFile> nameMap = new HashMap<>();
     private final Map<Integer, List<GreatQuestArchiveFile>> fileCollisions = new HashMap<>();
+    @Getter(AccessLevel.NONE) private final Map<Integer, List<GreatQuestChunkedFile>> chunkedFilesByResourceHash = new HashMap<>(); // Lists are replaced instead of modified, so they can be read while being updated.
 
     private static final Comparator<GreatQuestAssetBinFileHeader> FILE_ORDERING =
             Comparator.comparingInt(GreatQuestAssetBinFileHeader::getOffset)
@@ -42,6 +45,9 @@ public class GreatQuestAssetBinFile extends GameData<GreatQuestInstance> {
                     .thenComparingInt(GreatQuestAssetBinFileHeader::hashCode);
 
     public static final int NAME_SIZE = 0x108;
+    private static final boolean PARALLEL_LOAD_ENABLED = true;
+    private static final int THREAD_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final ExecutorService LOAD_THREAD_POOL = Executors.newWorkStealingPool(THREAD_COUNT);
 
     public GreatQuestAssetBinFile(GreatQuestInstance gameInstance) {
         super(gameInstance);
@@ -106,8 +112,15 @@ public class GreatQuestAssetBinFile extends GameData<GreatQuestInstance> {
         this.files.clear();
         this.fileCollisions.clear();
         this.nameMap.clear();
-        for (int i = 0; i < fileHeaders.size(); i++)
-            fileHeaders.get(i).prepareFile(reader, progressBar);
+        synchronized (this.chunkedFilesByResourceHash) {
+            this.chunkedFilesByResourceHash.clear();
+        }
+        if (PARALLEL_LOAD_ENABLED) {
+            prepareFilesInParallel(reader, fileHeaders, progressBar);
+        } else {
+            for (int i = 0; i < fileHeaders.size(); i++)
+                fileHeaders.get(i).prepareFile(reader, progressBar);
+        }
 
         // Read global paths.
         requireReaderIndex(reader, globalPathStartAddress, "Expected global path table");
@@ -119,8 +132,12 @@ public class GreatQuestAssetBinFile extends GameData<GreatQuestInstance> {
         // Process (load) files. (File loading occurs only after we have an object for every single game file, so that file hash references can be resolved regardless of file order.)
         if (progressBar != null)
             progressBar.setTotalProgress(this.files.size());
-        for (int i = 0; i < this.files.size(); i++)
-            loadFile(this.files.get(i), progressBar);
+        if (PARALLEL_LOAD_ENABLED) {
+            loadFilesInParallel(progressBar);
+        } else {
+            for (int i = 0; i < this.files.size(); i++)
+                loadFile(this.files.get(i), progressBar);
+        }
 
         // Handle post-load setup.
         kcLoadContext context = new kcLoadContext(this);
@@ -148,6 +165,74 @@ public class GreatQuestAssetBinFile extends GameData<GreatQuestInstance> {
         context.onComplete();
     }
 
+    /**
+     * Gets the chunked files which contain at least one resource with the given hash, in archive order.
+     * @param resourceHash the resource hash to lookup
+     * @return chunkedFiles, an empty list if there are none
+     */
+    public List<GreatQuestChunkedFile> getChunkedFilesWithResource(int resourceHash) {
+        if (resourceHash == 0 || resourceHash == -1)
+            return Collections.emptyList();
+
+        List<GreatQuestChunkedFile> chunkedFiles;
+        synchronized (this.chunkedFilesByResourceHash) {
+            chunkedFiles = this.chunkedFilesByResourceHash.get(resourceHash);
+        }
+
+        return chunkedFiles != null ? chunkedFiles : Collections.emptyList();
+    }
+
+    /**
+     * Records that a chunked file in this archive now contains a resource with the given hash.
+     * Called by GreatQuestChunkedFile as its resources are added or have their hash changed.
+     * @param chunkedFile the chunked file containing the resource
+     * @param resourceHash the hash of the resource
+     */
+    public void registerResourceHash(GreatQuestChunkedFile chunkedFile, int resourceHash) {
+        int archiveIndex = chunkedFile.getArchiveIndex();
+        if (archiveIndex < 0)
+            return; // Files outside the archive are not searched globally.
+
+        synchronized (this.chunkedFilesByResourceHash) {
+            List<GreatQuestChunkedFile> oldFiles = this.chunkedFilesByResourceHash.get(resourceHash);
+            if (oldFiles != null && oldFiles.contains(chunkedFile))
+                return;
+
+            // Keep the files in archive order, so the first file found matches what a search of every file would find.
+            List<GreatQuestChunkedFile> newFiles = new ArrayList<>(oldFiles != null ? oldFiles.size() + 1 : 1);
+            if (oldFiles != null)
+                newFiles.addAll(oldFiles);
+
+            int insertionIndex = newFiles.size();
+            while (insertionIndex > 0 && newFiles.get(insertionIndex - 1).getArchiveIndex() > archiveIndex)
+                insertionIndex--;
+
+            newFiles.add(insertionIndex, chunkedFile);
+            this.chunkedFilesByResourceHash.put(resourceHash, Collections.unmodifiableList(newFiles));
+        }
+    }
+
+    /**
+     * Records that a chunked file in this archive no longer contains any resource with the given hash.
+     * @param chunkedFile the chunked file which previously contained the resource
+     * @param resourceHash the hash of the resource
+     */
+    public void unregisterResourceHash(GreatQuestChunkedFile chunkedFile, int resourceHash) {
+        synchronized (this.chunkedFilesByResourceHash) {
+            List<GreatQuestChunkedFile> oldFiles = this.chunkedFilesByResourceHash.get(resourceHash);
+            if (oldFiles == null || !oldFiles.contains(chunkedFile))
+                return;
+
+            if (oldFiles.size() == 1) {
+                this.chunkedFilesByResourceHash.remove(resourceHash);
+            } else {
+                List<GreatQuestChunkedFile> newFiles = new ArrayList<>(oldFiles);
+                newFiles.remove(chunkedFile);
+                this.chunkedFilesByResourceHash.put(resourceHash, Collections.unmodifiableList(newFiles));
+            }
+        }
+    }
+
     private GreatQuestAssetBinFileHeader readFileHeader(DataReader reader, String name, int nameHash, boolean hasCollision, ProgressBarComponent progressBar) {
         GreatQuestAssetBinFileHeader header = new GreatQuestAssetBinFileHeader(this, name, nameHash, hasCollision);
         header.load(reader);
@@ -157,6 +242,63 @@ public class GreatQuestAssetBinFile extends GameData<GreatQuestInstance> {
         return header;
     }
 
+    private void prepareFilesInParallel(DataReader reader, List<GreatQuestAssetBinFileHeader> fileHeaders, ProgressBarComponent progressBar) {
+        // Reading must happen in order, but decompression can happen on worker threads.
+        List<Future<byte[]>> fileDataTasks = new ArrayList<>(fileHeaders.size());
+        for (int i = 0; i < fileHeaders.size(); i++) {
+            GreatQuestAssetBinFileHeader fileHeader = fileHeaders.get(i);
+            byte[] rawFileBytes = fileHeader.readFileBytes(reader);
+            if (fileHeader.isCompressed()) {
+                fileDataTasks.add(LOAD_THREAD_POOL.submit(() -> GreatQuestUtils.zlibDecompress(rawFileBytes, fileHeader.size)));
+            } else {
+                fileDataTasks.add(CompletableFuture.completedFuture(rawFileBytes));
+            }
+        }
+
+        // Files are created & registered in order, since the file list order is the archive order.
+        for (int i = 0; i < fileHeaders.size(); i++) {
+            byte[] fileBytes = waitForTask(fileDataTasks, i);
+            fileDataTasks.set(i, null); // Allow the memory to be freed once the file no longer needs it.
+            fileHeaders.get(i).createFile(fileBytes, progressBar);
+        }
+    }
+
+    private void loadFilesInParallel(ProgressBarComponent progressBar) {
+        // Files which reference other files (such as chunked files) are loaded in order on this thread, as their load order can change the result.
+        // They are loaded before any self-contained files (such as images), because they apply file names which the self-contained files may check while loading.
+        for (int i = 0; i < this.files.size(); i++) {
+            GreatQuestArchiveFile file = this.files.get(i);
+            if (!file.isParallelLoadSupported())
+                loadFile(file, progressBar);
+        }
+
+        // Self-contained files are then loaded on worker threads.
+        List<Future<?>> loadTasks = new ArrayList<>();
+        for (int i = 0; i < this.files.size(); i++) {
+            GreatQuestArchiveFile file = this.files.get(i);
+            if (file.isParallelLoadSupported())
+                loadTasks.add(LOAD_THREAD_POOL.submit(() -> loadFile(file, progressBar)));
+        }
+
+        for (int i = 0; i < loadTasks.size(); i++)
+            waitForTask(loadTasks, i);
+    }
+
+    private static <T> T waitForTask(List<? extends Future<? extends T>> tasks, int index) {
+        try {
+            return tasks.get(index).get();
+        } catch (InterruptedException ex) {
+            for (int i = index; i < tasks.size(); i++)
+                if (tasks.get(i) != null)
+                    tasks.get(i).cancel(true);
+
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading the main archive.", ex);
+        } catch (ExecutionException ex) {
+            throw new RuntimeException("Failed to load a file in the main archive.", ex.getCause());
+        }
+    }
+
     private void loadFile(GreatQuestArchiveFile file, ProgressBarComponent progressBar) {
         if (progressBar != null)
             progressBar.setStatusMessage("Reading '" + file.getExportName() + "'");
@@ -413,17 +555,38 @@ public class GreatQuestAssetBinFile extends GameData<GreatQuestInstance> {
          * @return newFileObject
          */
         public GreatQuestArchiveFile prepareFile(DataReader reader, ProgressBarComponent progressBar) {
-            boolean isCompressed = (this.compressedSize != 0); // ZLib compression.
+            byte[] fileBytes = readFileBytes(reader);
+            if (isCompressed())
+                fileBytes = GreatQuestUtils.zlibDecompress(fileBytes, this.size);
 
+            return createFile(fileBytes, progressBar);
+        }
+
+        /**
+         * Tests if the file data is compressed with ZLib.
+         */
+        public boolean isCompressed() {
+            return this.compressedSize != 0;
+        }
+
+        /**
+         * Reads the file data exactly as it is stored in the archive, without decompressing it.
+         * @param reader the reader to read the file data from
+         * @return rawFileBytes
+         */
+        public byte[] readFileBytes(DataReader reader) {
             requireReaderIndex(reader, this.offset, "Expected file data for '" + this.name + "'");
-            byte[] fileBytes;
-            if (isCompressed) {
-                byte[] compressedFileBytes = reader.readBytes(this.compressedSize);
-                fileBytes = GreatQuestUtils.zlibDecompress(compressedFileBytes, this.size);
-            } else {
-                fileBytes = reader.readBytes(this.size);
-            }
+            return reader.readBytes(isCompressed() ? this.compressedSize : this.size);
+        }
 
+        /**
+         * Creates the file object from its (decompressed) data, and registers it to the archive.
+         * @param fileBytes the decompressed file data
+         * @param progressBar the progress bar to update the display for
+         * @return newFileObject
+         */
+        public GreatQuestArchiveFile createFile(byte[] fileBytes, ProgressBarComponent progressBar) {
+            boolean isCompressed = isCompressed();
             GreatQuestArchiveFile readFile;
             if (DataUtils.testSignature(fileBytes, GreatQuestImageFile.SIGNATURE_STR)) {
                 readFile = new GreatQuestImageFile(getGameInstance());
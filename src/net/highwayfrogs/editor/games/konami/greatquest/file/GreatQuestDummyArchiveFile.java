@@ -23,6 +23,11 @@ public class GreatQuestDummyArchiveFile extends GreatQuestArchiveFile {
         this.length = length;
     }
 
+    @Override
+    public boolean isParallelLoadSupported() {
+        return true;
+    }
+
     @Override
     public void load(DataReader reader) {
         this.data = reader.readBytes(this.length);
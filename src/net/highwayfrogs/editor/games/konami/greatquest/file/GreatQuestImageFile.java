@@ -1,6 +1,7 @@
 package net.highwayfrogs.editor.games.konami.greatquest.file;
 
 import javafx.scene.image.Image;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +15,7 @@ import net.highwayfrogs.editor.games.konami.greatquest.ui.GreatQuestImageControl
 import net.highwayfrogs.editor.gui.ImageResource;
 import net.highwayfrogs.editor.gui.components.PropertyListViewerComponent.PropertyList;
 import net.highwayfrogs.editor.gui.texture.ITextureSource;
+import net.highwayfrogs.editor.gui.texture.TextureImageCache;
 import net.highwayfrogs.editor.utils.ColorUtils;
 import net.highwayfrogs.editor.utils.DataUtils;
 import net.highwayfrogs.editor.utils.FileUtils;
@@ -50,7 +52,9 @@ public class GreatQuestImageFile extends GreatQuestArchiveFile implements IFileE
     // Also, the game has no code to save this format, only code to read it.
     // It's also possible saving this format was exclusive to the debug build, but I am not certain.
     @NonNull private GreatQuestImageFile.GreatQuestImageFileFormat fileFormat = GreatQuestImageFileFormat.ENGINE;
-    @NonNull private BufferedImage image = DEFAULT_IMAGE;
+    @Getter(AccessLevel.NONE) private BufferedImage image; // Only set if the image was replaced or could not be decoded lazily. Otherwise, it is decoded from encodedImage when needed.
+    @Getter(AccessLevel.NONE) private EncodedImage encodedImage;
+    @Getter(AccessLevel.NONE) private transient byte[] lazyLoadFileBytes;
 
     private static final int HEADER_SIZE = 0x20;
     private static final byte TYPE_CODE_HAS_COLOR_TABLE = (byte) 1;
@@ -73,11 +77,30 @@ public class GreatQuestImageFile extends GreatQuestArchiveFile implements IFileE
         super(instance);
     }
 
+    /**
+     * Gets the image, decoding it if necessary.
+     * Decoded images are kept in the shared texture cache, and may be decoded again later if they are removed from it.
+     */
+    public BufferedImage getImage() {
+        if (this.image != null)
+            return this.image;
+
+        EncodedImage encodedImage = this.encodedImage;
+        if (encodedImage != null)
+            return TextureImageCache.getImage(this, null, encodedImage::decode);
+
+        return DEFAULT_IMAGE;
+    }
+
     /**
      * Gets the format of the image.
      */
     public kcImageFormat getFormat() {
-        return kcImageFormat.getFormatFromBufferedImage(this.image);
+        EncodedImage encodedImage = this.encodedImage;
+        if (this.image == null && encodedImage != null)
+            return encodedImage.format;
+
+        return kcImageFormat.getFormatFromBufferedImage(getImage());
     }
 
     /**
@@ -87,8 +110,27 @@ public class GreatQuestImageFile extends GreatQuestArchiveFile implements IFileE
         return getFormat().getBitsPerPixel();
     }
 
+    @Override
+    public boolean isParallelLoadSupported() {
+        return true;
+    }
+
+    @Override
+    public void loadFileFromBytes(byte[] fileBytes) {
+        this.lazyLoadFileBytes = fileBytes; // The file bytes are kept by the archive, so the pixel data can be decoded from them later without copying it.
+        try {
+            super.loadFileFromBytes(fileBytes);
+        } finally {
+            this.lazyLoadFileBytes = null;
+        }
+    }
+
     @Override
     public void load(DataReader reader) {
+        this.image = null;
+        this.encodedImage = null;
+        TextureImageCache.invalidate(this);
+
         // kcCResourceTexture::Prepare() -> -> Chunk file texture loading.
         // LoadInterfaceTexture() -> kcImportTextureDynamic() -> CreateTextureFromStream() -> Hardcoded menu textures.
         // kcImportMaterialTexture() -> kcImportTexture() -> CreateTextureFromStream()
@@ -122,7 +164,7 @@ public class GreatQuestImageFile extends GreatQuestArchiveFile implements IFileE
             reader.skipBytes(paddedMipLod * Constants.INTEGER_SIZE); // Area for pointers to each of the mip levels? (It seems to mostly just be padding though.)
 
             // Load image.
-            loadImage(reader, width, height, bitsPerPixel, null);
+            prepareImage(reader, this.lazyLoadFileBytes, width, height, bitsPerPixel, null);
         } else if (this.fileFormat == GreatQuestImageFileFormat.TGA) {
             reader.setIndex(startIndex); // Restore to the start of the file, so we can read it.
             kcLoad8BitImageHeader(reader);
@@ -237,52 +279,69 @@ public class GreatQuestImageFile extends GreatQuestArchiveFile implements IFileE
         }
 
         DataReader newDataReader = new DataReader(new ArraySource(bitmapData));
-        loadImage(newDataReader, width, height, bitsPerPixel, colorPalette);
+        prepareImage(newDataReader, bitmapData, width, height, bitsPerPixel, colorPalette);
 
         if (reader.getRemaining() == TGA_FILE_SIGNATURE.length())
             reader.verifyString(TGA_FILE_SIGNATURE);
     }
 
-    private void loadImage(DataReader reader, int width, int height, int bitsPerPixel, IndexColorModel colorModel) {
+    private void prepareImage(DataReader reader, byte[] sourceBytes, int width, int height, int bitsPerPixel, IndexColorModel colorModel) {
         kcImageFormat format = kcImageFormat.getFormatFromBitsPerPixel(bitsPerPixel);
+        verifyColorModel(format, colorModel);
 
-        if (format == kcImageFormat.INDEXED8) {
-            if (colorModel == null)
-                throw new RuntimeException("The image format for " + getDebugName() + " was " + format + ", but there was no color lookup table.");
-            this.image = new BufferedImage(width, height, format.getBufferedImageType(), colorModel);
+        // If the pixel data can be found again later, skip it for now, and only decode it when the image is used.
+        int imageSizeInBytes = (width * height * bitsPerPixel) / Constants.BITS_PER_BYTE;
+        if (sourceBytes != null && reader.getRemaining() >= imageSizeInBytes) {
+            this.encodedImage = new EncodedImage(sourceBytes, reader.getIndex(), width, height, format, colorModel);
+            reader.skipBytes(imageSizeInBytes);
         } else {
-            if (colorModel != null)
-                throw new RuntimeException("The image format for " + getDebugName() + " was " + format + ", but there was a color lookup table??");
+            this.image = loadImage(reader, width, height, format, colorModel);
+        }
+    }
+
+    private void verifyColorModel(kcImageFormat format, IndexColorModel colorModel) {
+        if (format == kcImageFormat.INDEXED8 && colorModel == null)
+            throw new RuntimeException("The image format for " + getDebugName() + " was " + format + ", but there was no color lookup table.");
+        if (format != kcImageFormat.INDEXED8 && colorModel != null)
+            throw new RuntimeException("The image format for " + getDebugName() + " was " + format + ", but there was a color lookup table??");
+    }
 
-            this.image = new BufferedImage(width, height, format.getBufferedImageType());
+    private BufferedImage loadImage(DataReader reader, int width, int height, kcImageFormat format, IndexColorModel colorModel) {
+        BufferedImage image;
+        if (format == kcImageFormat.INDEXED8) {
+            image = new BufferedImage(width, height, format.getBufferedImageType(), colorModel);
+        } else {
+            image = new BufferedImage(width, height, format.getBufferedImageType());
         }
 
         switch (format) {
             case A8R8G8B8:
-                int[] rawPixelBufferArgb = ImageWorkHorse.getPixelIntegerArray(this.image);
+                int[] rawPixelBufferArgb = ImageWorkHorse.getPixelIntegerArray(image);
                 for (int y = 0; y < height; y++)
                     for (int x = 0; x < width; x++)
-                        rawPixelBufferArgb[((height - y - 1) * width) + x] = reader.hasMore() ? reader.readInt() : 0; // Faster version of this.image.setRGB(x, height - y - 1,  ...)
+                        rawPixelBufferArgb[((height - y - 1) * width) + x] = reader.hasMore() ? reader.readInt() : 0; // Faster version of image.setRGB(x, height - y - 1,  ...)
                 break;
             case R8G8B8:
-                int[] rawPixelBufferRgb = ImageWorkHorse.getPixelIntegerArray(this.image);
+                int[] rawPixelBufferRgb = ImageWorkHorse.getPixelIntegerArray(image);
                 for (int y = 0; y < height; y++) {
                     for (int x = 0; x < width; x++) {
                         byte red = reader.readByte();
                         byte green = reader.readByte();
                         byte blue = reader.readByte();
-                        rawPixelBufferRgb[((height - y - 1) * width) + x] = ColorUtils.toRGB(red, green, blue); // Faster version of this.image.setRGB(x, height - y - 1, ...)
+                        rawPixelBufferRgb[((height - y - 1) * width) + x] = ColorUtils.toRGB(red, green, blue); // Faster version of image.setRGB(x, height - y - 1, ...)
                     }
                 }
                 break;
             case INDEXED8:
                 byte[] pixelBufferIndex8 = new byte[width];
                 for (int y = 0; y < height; y++)
-                    this.image.getRaster().setDataElements(0, height - y - 1, width, 1, reader.readBytes(pixelBufferIndex8)); // Faster version of this.image.setRGB(x, height - y - 1, colorModel.getRGB(reader.readUnsignedByte()) (Order of magnitude faster)
+                    image.getRaster().setDataElements(0, height - y - 1, width, 1, reader.readBytes(pixelBufferIndex8)); // Faster version of image.setRGB(x, height - y - 1, colorModel.getRGB(reader.readUnsignedByte()) (Order of magnitude faster)
                 break;
             default:
                 throw new RuntimeException("Cannot load unsupported from image format " + format + ".");
         }
+
+        return image;
     }
 
     @Override
@@ -290,8 +349,8 @@ public class GreatQuestImageFile extends GreatQuestArchiveFile implements IFileE
         if ((this.fileFormat == GreatQuestImageFileFormat.ENGINE) || getGameInstance().isPC()) { // Based on kcImageSave(_kcImage p, int handle)
             writer.writeInt(SIGNATURE);
             int headerSizeAddress = writer.writeNullPointer();
-            writer.writeInt(this.image.getWidth()); // width
-            writer.writeInt(this.image.getHeight()); // height
+            writer.writeInt(getWidth()); // width
+            writer.writeInt(getHeight()); // height
             writer.writeInt(getBitsPerPixel()); // bits per pixel
 
             // kcImagePrepare()/kcImageSave() has some weird behavior here, this recreates it.
@@ -310,6 +369,7 @@ public class GreatQuestImageFile extends GreatQuestArchiveFile implements IFileE
 
     @SuppressWarnings("ExtractMethodRecommender")
     private void kcSave8BitImageHeader(DataWriter writer) {
+        BufferedImage image = getImage();
         kcImageFormat format = getFormat();
         int bitsPerPixel = format.getBitsPerPixel();
         writer.writeByte(Constants.NULL_BYTE); // idSize - Always zero.
@@ -318,15 +378,15 @@ public class GreatQuestImageFile extends GreatQuestArchiveFile implements IFileE
         writer.writeBytes(format.getColMap());
         writer.writeShort((short) 0); // xOrigin - Always zero.
         writer.writeShort((short) 0); // yOrigin - Always zero.
-        writer.writeUnsignedShort(this.image.getWidth()); // image width
-        writer.writeUnsignedShort(this.image.getHeight()); // image height
+        writer.writeUnsignedShort(image.getWidth()); // image width
+        writer.writeUnsignedShort(image.getHeight()); // image height
         writer.writeByte((byte) format.getBitsPerPixel());
         writer.writeByte(format.getDescriptor());
 
         int max = 0;
         if (format.getTypeCode() == TYPE_CODE_NO_COLOR_TABLE) {
             // Each pixel has a color value, so apply the fix to all the remaining data.
-            max = ((this.image.getWidth() * this.image.getHeight() * format.getBitsPerPixel()) >> 3) / (bitsPerPixel == 24 ? 3 : 4);
+            max = ((image.getWidth() * image.getHeight() * format.getBitsPerPixel()) >> 3) / (bitsPerPixel == 24 ? 3 : 4);
         } else if (format.getTypeCode() == TYPE_CODE_HAS_COLOR_TABLE) {
             // Each pixel is an index into the palette / color lookup table, which is hardcoded as having 256 colors.
             // Only read up til there.
@@ -353,7 +413,7 @@ public class GreatQuestImageFile extends GreatQuestArchiveFile implements IFileE
 
             writer.writeBytes(bitmapData);
         } else if (format.getTypeCode() == TYPE_CODE_HAS_COLOR_TABLE) {
-            IndexColorModel colorModel = ((IndexColorModel) this.image.getColorModel());
+            IndexColorModel colorModel = ((IndexColorModel) image.getColorModel());
 
             int bytesPerPixel = 3;
             if (format.getColMap()[4] == 32)
@@ -377,21 +437,22 @@ public class GreatQuestImageFile extends GreatQuestArchiveFile implements IFileE
 
 
     private void saveImage(DataWriter writer) {
+        BufferedImage image = getImage();
         kcImageFormat format = getFormat();
-        int width = this.image.getWidth();
-        int height = this.image.getHeight();
+        int width = image.getWidth();
+        int height = image.getHeight();
         switch (format) {
             case A8R8G8B8:
-                int[] rawImageDataArgb = ImageWorkHorse.getReadOnlyPixelIntegerArray(this.image);
+                int[] rawImageDataArgb = ImageWorkHorse.getReadOnlyPixelIntegerArray(image);
                 for (int y = 0; y < height; y++)
                     for (int x = 0; x < width; x++)
-                        writer.writeInt(rawImageDataArgb[((height - y - 1) * width) + x]); // Faster version of this.image.getRGB(x, height - y - 1)
+                        writer.writeInt(rawImageDataArgb[((height - y - 1) * width) + x]); // Faster version of image.getRGB(x, height - y - 1)
                 break;
             case R8G8B8:
-                int[] rawImageDataRgb = ImageWorkHorse.getReadOnlyPixelIntegerArray(this.image);
+                int[] rawImageDataRgb = ImageWorkHorse.getReadOnlyPixelIntegerArray(image);
                 for (int y = 0; y < height; y++) {
                     for (int x = 0; x < width; x++) {
-                        int rgb = rawImageDataRgb[((height - y - 1) * width) + x]; // Faster version of this.image.getRGB(x, height - y - 1);
+                        int rgb = rawImageDataRgb[((height - y - 1) * width) + x]; // Faster version of image.getRGB(x, height - y - 1);
                         writer.writeByte(ColorUtils.getRed(rgb));
                         writer.writeByte(ColorUtils.getGreen(rgb));
                         writer.writeByte(ColorUtils.getBlue(rgb));
@@ -401,7 +462,7 @@ public class GreatQuestImageFile extends GreatQuestArchiveFile implements IFileE
             case INDEXED8:
                 byte[] scanlineBufferIndex8 = new byte[width];
                 for (int y = 0; y < height; y++)
-                    writer.writeBytes((byte[]) this.image.getRaster().getDataElements(0, height - y - 1, width, 1, scanlineBufferIndex8)); // Faster version of: writer.writeByte(((byte[]) this.image.getRaster().getDataElements(x, height - y - 1, null))[0]);
+                    writer.writeBytes((byte[]) image.getRaster().getDataElements(0, height - y - 1, width, 1, scanlineBufferIndex8)); // Faster version of: writer.writeByte(((byte[]) image.getRaster().getDataElements(x, height - y - 1, null))[0]);
                 break;
             default:
                 throw new RuntimeException("Cannot save unsupported from image format " + format + ".");
@@ -418,7 +479,7 @@ public class GreatQuestImageFile extends GreatQuestArchiveFile implements IFileE
      * @param saveTo The file to save the image to.
      */
     public void saveImageToFile(File saveTo) throws IOException {
-        ImageIO.write(this.image, "png", saveTo);
+        ImageIO.write(getImage(), "png", saveTo);
     }
 
     /**
@@ -443,6 +504,8 @@ public class GreatQuestImageFile extends GreatQuestArchiveFile implements IFileE
             throw new RuntimeException("The kcImageFormat '" + format + "' does not support the '" + getGameInstance().getPlatform() + "' game platform!");
 
         this.image = image;
+        this.encodedImage = null;
+        TextureImageCache.invalidate(this);
 
         // Automatically update the file format to match the necessary option for the newly applied image format.
         if (format == kcImageFormat.INDEXED8) {
@@ -485,17 +548,19 @@ public class GreatQuestImageFile extends GreatQuestArchiveFile implements IFileE
 
     @Override
     public BufferedImage makeImage() {
-        return this.image;
+        return getImage();
     }
 
     @Override
     public int getWidth() {
-        return this.image.getWidth();
+        EncodedImage encodedImage = this.encodedImage;
+        return (this.image == null && encodedImage != null) ? encodedImage.width : getImage().getWidth();
     }
 
     @Override
     public int getHeight() {
-        return this.image.getHeight();
+        EncodedImage encodedImage = this.encodedImage;
+        return (this.image == null && encodedImage != null) ? encodedImage.height : getImage().getHeight();
     }
 
     @Override
@@ -523,6 +588,28 @@ public class GreatQuestImageFile extends GreatQuestArchiveFile implements IFileE
         fireChangeEvent0(newImage);
     }
 
+    /**
+     * Pixel data which has not been decoded yet, along with what's needed to decode it.
+     */
+    @RequiredArgsConstructor
+    private class EncodedImage {
+        private final byte[] sourceBytes;
+        private final int startIndex;
+        private final int width;
+        private final int height;
+        private final kcImageFormat format;
+        private final IndexColorModel colorModel;
+
+        /**
+         * Decodes the pixel data into a new image.
+         */
+        public BufferedImage decode() {
+            DataReader reader = new DataReader(new ArraySource(this.sourceBytes));
+            reader.setIndex(this.startIndex);
+            return loadImage(reader, this.width, this.height, this.format, this.colorModel);
+        }
+    }
+
     private static final byte[] COL_MAP_BPP8 = {0x00, 0x00, 0x00, 0x01, 0x18};
     private static final byte[] COL_MAP_DEFAULT = {0x00, 0x00, 0x00, 0x00, 0x00};
 
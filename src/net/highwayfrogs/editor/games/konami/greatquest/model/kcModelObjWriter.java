@@ -7,17 +7,17 @@ import net.highwayfrogs.editor.games.generic.GameInstance;
 import net.highwayfrogs.editor.games.konami.greatquest.chunks.kcCResOctTreeSceneMgr;
 import net.highwayfrogs.editor.games.konami.greatquest.chunks.kcCResOctTreeSceneMgr.kcVtxBufFileStruct;
 import net.highwayfrogs.editor.utils.FileUtils;
+import net.highwayfrogs.editor.utils.data.writer.TextFileWriter;
 import net.highwayfrogs.editor.utils.logging.ClassNameLogger;
 import net.highwayfrogs.editor.utils.logging.ILogger;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.Arrays;
 import java.util.List;
 
 /**
  * A utility for converting kcModel objects into wavefront .obj text data.
+ * The text is streamed to the output files as it is generated, so large maps never need to be held in memory as text.
  * Created by Kneesnap on 6/22/2023.
  */
 public class kcModelObjWriter {
@@ -27,22 +27,17 @@ public class kcModelObjWriter {
      * @param fileName The name of the file to write
      * @param model The model to write mesh data from
      */
-    public static void writeMeshesToObj(File outputFolder, String fileName, kcModel model) {
+    public static void writeMeshesToObj(File outputFolder, String fileName, kcModel model) throws IOException {
         File objFile = new File(outputFolder, fileName + ".obj");
         File mtlFile = new File(outputFolder, fileName + ".mtl");
         if (objFile.exists() && mtlFile.exists())
             return;
 
-        StringBuilder objWriter = new StringBuilder();
-        StringBuilder mtlWriter = new StringBuilder();
-
-        writeMeshesToObj(outputFolder, fileName, objWriter, mtlWriter, model);
-
-        try {
-            Files.write(objFile.toPath(), Arrays.asList(objWriter.toString().split(Constants.NEWLINE)));
-            Files.write(mtlFile.toPath(), Arrays.asList(mtlWriter.toString().split(Constants.NEWLINE)));
-        } catch (IOException ex) {
-            throw new RuntimeException("Failed to export map to '" + objFile + "'.", ex);
+        try (TextFileWriter objWriter = new TextFileWriter(objFile); TextFileWriter mtlWriter = new TextFileWriter(mtlFile)) {
+            writeMeshesToObj(outputFolder, fileName, objWriter, mtlWriter, model);
+        } catch (Throwable th) {
+            deleteIncompleteFiles(objFile, mtlFile);
+            throw new IOException("Failed to export model to '" + objFile + "'.", th);
         }
     }
 
@@ -50,10 +45,10 @@ public class kcModelObjWriter {
      * Write the meshes in the model to .obj text.
      * @param outputFolder the folder to export the model to
      * @param objWriter the writer to write the obj text to
-     * @param mtlWriter the writer to write the obj text to
+     * @param mtlWriter the writer to write the mtl text to
      * @param model the model to write mesh data from
      */
-    public static void writeMeshesToObj(File outputFolder, String fileName, StringBuilder objWriter, StringBuilder mtlWriter, kcModel model) {
+    public static void writeMeshesToObj(File outputFolder, String fileName, TextFileWriter objWriter, TextFileWriter mtlWriter, kcModel model) {
         ModelObjContext context = new ModelObjContext(model, outputFolder, fileName, objWriter, mtlWriter);
         if (!setupContext(context, model.getComponents()))
             throw new RuntimeException("Cannot export model which doesn't have any position data.");
@@ -80,28 +75,29 @@ public class kcModelObjWriter {
         if (objFile.exists() && mtlFile.exists())
             return;
 
-        StringBuilder objWriter = new StringBuilder();
-        StringBuilder mtlWriter = new StringBuilder();
-
-        writeMapToObj(outputFolder, fileName, objWriter, mtlWriter, mapMesh);
-
-        try {
-            Files.write(objFile.toPath(), Arrays.asList(objWriter.toString().split(Constants.NEWLINE)));
-            Files.write(mtlFile.toPath(), Arrays.asList(mtlWriter.toString().split(Constants.NEWLINE)));
-        } catch (IOException ex) {
-            throw new RuntimeException("Failed to export map to '" + objFile + "'.", ex);
+        try (TextFileWriter objWriter = new TextFileWriter(objFile); TextFileWriter mtlWriter = new TextFileWriter(mtlFile)) {
+            writeMapToObj(outputFolder, fileName, objWriter, mtlWriter, mapMesh);
+        } catch (Throwable th) {
+            deleteIncompleteFiles(objFile, mtlFile);
+            throw new IOException("Failed to export map to '" + objFile + "'.", th);
         }
     }
 
+    private static void deleteIncompleteFiles(File objFile, File mtlFile) {
+        // Otherwise, the partially written files would be mistaken for a completed export next time.
+        FileUtils.deleteFile(objFile);
+        FileUtils.deleteFile(mtlFile);
+    }
+
     /**
      * Write the map mesh to .obj text.
      * @param outputFolder the folder to write the object to
      * @param fileName the name of the file to export to
      * @param objWriter the writer to write the obj text to
-     * @param mtlWriter the writer to write the obj text to
+     * @param mtlWriter the writer to write the mtl text to
      * @param mapMesh the map file to write data from
      */
-    public static void writeMapToObj(File outputFolder, String fileName, StringBuilder objWriter, StringBuilder mtlWriter, kcCResOctTreeSceneMgr mapMesh) {
+    public static void writeMapToObj(File outputFolder, String fileName, TextFileWriter objWriter, TextFileWriter mtlWriter, kcCResOctTreeSceneMgr mapMesh) {
         MapObjContext context = new MapObjContext(mapMesh, outputFolder, fileName, objWriter, mtlWriter);
 
         // Write header.
@@ -145,8 +141,8 @@ public class kcModelObjWriter {
     }
 
     private static void writePrims(ModelObjContext context) {
-        StringBuilder objWriter = context.getObjWriter();
-        StringBuilder mtlWriter = context.getMtlWriter();
+        TextFileWriter objWriter = context.getObjWriter();
+        TextFileWriter mtlWriter = context.getMtlWriter();
 
         int lastMaterialId = -1;
         List<kcModelPrim> primitives = context.getModel().getPrimitives();
@@ -176,13 +172,13 @@ public class kcModelObjWriter {
 
             // Write vertices.
             for (int j = 0; j < prim.getVertexCount(); j++)
-                writeVertex(context, prim.getVertices().get(j));
+                writeVertex(context, prim.getVertexBuffer(), j);
             objWriter.append(Constants.NEWLINE);
 
             // Write normals.
             if (context.hasNormals) {
                 for (int j = 0; j < prim.getVertexCount(); j++)
-                    writeVertexNormal(context, prim.getVertices().get(j));
+                    writeVertexNormal(context, prim.getVertexBuffer(), j);
 
                 objWriter.append(Constants.NEWLINE);
             }
@@ -190,7 +186,7 @@ public class kcModelObjWriter {
             // Write texture coordinates.
             if (context.hasTexCoords) {
                 for (int j = 0; j < prim.getVertexCount(); j++)
-                    writeTexCoord(context, prim.getVertices().get(j), false);
+                    writeTexCoord(context, prim.getVertexBuffer(), j, false);
 
                 objWriter.append(Constants.NEWLINE);
             }
@@ -202,8 +198,8 @@ public class kcModelObjWriter {
     }
 
     private static void writePrims(MapObjContext context) {
-        StringBuilder objWriter = context.getObjWriter();
-        StringBuilder mtlWriter = context.getMtlWriter();
+        TextFileWriter objWriter = context.getObjWriter();
+        TextFileWriter mtlWriter = context.getMtlWriter();
 
         int lastMaterialId = -1;
         for (int i = 0; i < context.getMap().getVertexBuffers().size(); i++) {
@@ -239,13 +235,13 @@ public class kcModelObjWriter {
 
             // Write vertices.
             for (int j = 0; j < vtxBuf.getVertexCount(); j++)
-                writeVertex(context, vtxBuf.getVertices().get(j));
+                writeVertex(context, vtxBuf.getVertexBuffer(), j);
             objWriter.append(Constants.NEWLINE);
 
             // Write normals.
             if (context.hasNormals) {
                 for (int j = 0; j < vtxBuf.getVertexCount(); j++)
-                    writeVertexNormal(context, vtxBuf.getVertices().get(j));
+                    writeVertexNormal(context, vtxBuf.getVertexBuffer(), j);
 
                 objWriter.append(Constants.NEWLINE);
             }
@@ -253,7 +249,7 @@ public class kcModelObjWriter {
             // Write texture coordinates.
             if (context.hasTexCoords) {
                 for (int j = 0; j < vtxBuf.getVertexCount(); j++)
-                    writeTexCoord(context, vtxBuf.getVertices().get(j), false);
+                    writeTexCoord(context, vtxBuf.getVertexBuffer(), j, false);
 
                 objWriter.append(Constants.NEWLINE);
             }
@@ -325,7 +321,7 @@ public class kcModelObjWriter {
     }
 
     private static void writeTriangleList(ObjWriterContext context, int vertexCount) {
-        StringBuilder objWriter = context.getObjWriter();
+        TextFileWriter objWriter = context.getObjWriter();
 
         for (int i = 0; i < vertexCount; i += 3) {
             objWriter.append('f');
@@ -337,7 +333,7 @@ public class kcModelObjWriter {
     }
 
     private static void writeTriangleStrip(ObjWriterContext context, int vertexCount) {
-        StringBuilder objWriter = context.getObjWriter();
+        TextFileWriter objWriter = context.getObjWriter();
 
         for (int i = 0; i < vertexCount - 2; i++) {
             objWriter.append('f');
@@ -366,7 +362,7 @@ public class kcModelObjWriter {
     }
 
     private static void writeVertexValue(ObjWriterContext context, int vertexId, int normalId, int texCoordId) {
-        StringBuilder objWriter = context.getObjWriter();
+        TextFileWriter objWriter = context.getObjWriter();
         objWriter.append(' ');
         objWriter.append(vertexId);
         if (context.hasNormals || context.hasTexCoords)
@@ -379,34 +375,34 @@ public class kcModelObjWriter {
         }
     }
 
-    private static void writeVertex(ObjWriterContext context, kcVertex vertex) {
-        StringBuilder objWriter = context.getObjWriter();
+    private static void writeVertex(ObjWriterContext context, kcVertexBuffer vertexBuffer, int index) {
+        TextFileWriter objWriter = context.getObjWriter();
         objWriter.append("v ");
-        objWriter.append(vertex.getX());
+        objWriter.append(vertexBuffer.getX(index));
         objWriter.append(" ");
-        objWriter.append(vertex.getY());
+        objWriter.append(vertexBuffer.getY(index));
         objWriter.append(" ");
-        objWriter.append(vertex.getZ());
+        objWriter.append(vertexBuffer.getZ(index));
         objWriter.append(Constants.NEWLINE);
     }
 
-    private static void writeVertexNormal(ObjWriterContext context, kcVertex vertex) {
-        StringBuilder objWriter = context.getObjWriter();
+    private static void writeVertexNormal(ObjWriterContext context, kcVertexBuffer vertexBuffer, int index) {
+        TextFileWriter objWriter = context.getObjWriter();
         objWriter.append("vn ");
-        objWriter.append(vertex.getNormalX());
+        objWriter.append(vertexBuffer.getNormalX(index));
         objWriter.append(" ");
-        objWriter.append(vertex.getNormalY());
+        objWriter.append(vertexBuffer.getNormalY(index));
         objWriter.append(" ");
-        objWriter.append(vertex.getNormalZ());
+        objWriter.append(vertexBuffer.getNormalZ(index));
         objWriter.append(Constants.NEWLINE);
     }
 
-    private static void writeTexCoord(ObjWriterContext context, kcVertex vertex, boolean secondTex) {
-        StringBuilder objWriter = context.getObjWriter();
+    private static void writeTexCoord(ObjWriterContext context, kcVertexBuffer vertexBuffer, int index, boolean secondTex) {
+        TextFileWriter objWriter = context.getObjWriter();
         objWriter.append("vt ");
-        objWriter.append(secondTex ? vertex.getU1() : vertex.getU0());
+        objWriter.append(secondTex ? vertexBuffer.getU1(index) : vertexBuffer.getU0(index));
         objWriter.append(" ");
-        objWriter.append(secondTex ? vertex.getV1() : vertex.getV0());
+        objWriter.append(secondTex ? vertexBuffer.getV1(index) : vertexBuffer.getV0(index));
         objWriter.append(Constants.NEWLINE);
     }
 
@@ -414,8 +410,8 @@ public class kcModelObjWriter {
     public abstract static class ObjWriterContext {
         @Getter private final File outputFolder;
         @Getter private final String fileName;
-        @Getter private final StringBuilder objWriter;
-        @Getter private final StringBuilder mtlWriter;
+        @Getter private final TextFileWriter objWriter;
+        @Getter private final TextFileWriter mtlWriter;
         private ILogger cachedLogger;
         public boolean hasNormals;
         public boolean hasTexCoords;
@@ -443,7 +439,7 @@ public class kcModelObjWriter {
     private static class ModelObjContext extends ObjWriterContext {
         private final kcModel model;
 
-        public ModelObjContext(kcModel model, File outputFolder, String fileName, StringBuilder objWriter, StringBuilder mtlWriter) {
+        public ModelObjContext(kcModel model, File outputFolder, String fileName, TextFileWriter objWriter, TextFileWriter mtlWriter) {
             super(outputFolder, fileName, objWriter, mtlWriter);
             this.model = model;
         }
@@ -458,7 +454,7 @@ public class kcModelObjWriter {
     private static class MapObjContext extends ObjWriterContext {
         private final kcCResOctTreeSceneMgr map;
 
-        public MapObjContext(kcCResOctTreeSceneMgr map, File outputFolder, String fileName, StringBuilder objWriter, StringBuilder mtlWriter) {
+        public MapObjContext(kcCResOctTreeSceneMgr map, File outputFolder, String fileName, TextFileWriter objWriter, TextFileWriter mtlWriter) {
             super(outputFolder, fileName, objWriter, mtlWriter);
             this.map = map;
         }
@@ -7,7 +7,6 @@ import net.highwayfrogs.editor.games.konami.greatquest.GreatQuestInstance;
 import net.highwayfrogs.editor.utils.data.reader.DataReader;
 import net.highwayfrogs.editor.utils.data.writer.DataWriter;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -19,7 +18,7 @@ import java.util.List;
  */
 public class kcModelPrim extends GameData<GreatQuestInstance> {
     @Getter private final kcModel model;
-    @Getter private final List<kcVertex> vertices = new ArrayList<>();
+    @Getter private final kcVertexBuffer vertexBuffer = new kcVertexBuffer();
     @Getter private int materialId; // uint
     @Getter private kcPrimitiveType primitiveType = kcPrimitiveType.TRIANGLE_LIST; // TRIANGLE_LIST and TRIANGLE_STRIP are the only ones used in any known build. It is unknown if the other primitive types are implemented.
     @Getter @Setter private short[] boneIds;
@@ -42,7 +41,7 @@ public class kcModelPrim extends GameData<GreatQuestInstance> {
     public void save(DataWriter writer) {
         writer.writeInt(this.materialId);
         writer.writeUnsignedInt(this.primitiveType.ordinal());
-        writer.writeUnsignedInt(this.vertices.size());
+        writer.writeUnsignedInt(this.vertexBuffer.getVertexCount());
     }
 
     void setParentNode(kcModelNode parentNode, boolean warnIfAlreadySet) {
@@ -62,11 +61,18 @@ public class kcModelPrim extends GameData<GreatQuestInstance> {
      * @return vertexCount
      */
     public long getVertexCount() {
-        return this.loadedVertexCount != -1 ? this.loadedVertexCount : this.vertices.size();
+        return this.loadedVertexCount != -1 ? this.loadedVertexCount : this.vertexBuffer.getVertexCount();
     }
 
     /**
-     * Loads the vertices individually from the raw vertex data.
+     * Gets the vertices held by this prim, as views into the vertex buffer.
+     */
+    public List<kcVertex> getVertices() {
+        return this.vertexBuffer.getVertices();
+    }
+
+    /**
+     * Loads the vertices from the raw vertex data.
      * @param reader The reader to read data from.
      * @return loadedVertexCount
      */
@@ -74,28 +80,22 @@ public class kcModelPrim extends GameData<GreatQuestInstance> {
         if (this.loadedVertexCount == -1)
             throw new RuntimeException("Cannot load vertices, the loading execution flow wasn't correct.");
 
-        for (int i = 0; i < this.loadedVertexCount; i++) {
-            kcVertex vertex = new kcVertex();
-            vertex.load(reader, this.model.getComponents(), this.model.getFvf(), true);
-            this.vertices.add(vertex);
-        }
-
+        this.vertexBuffer.load(reader, (int) this.loadedVertexCount, this.model.getComponents(), this.model.getFvf(), true);
         this.loadedVertexCount = -1;
-        return this.vertices.size();
+        return this.vertexBuffer.getVertexCount();
     }
 
     /**
-     * Writes the vertices individually to raw vertex data.
+     * Writes the vertices to raw vertex data.
      * @param writer The writer to write data from.
      */
     public void saveVertices(DataWriter writer) {
-        for (int i = 0; i < this.vertices.size(); i++)
-            this.vertices.get(i).save(writer, this.model.getComponents(), this.model.getFvf(), true);
+        this.vertexBuffer.save(writer, this.model.getComponents(), this.model.getFvf(), true);
     }
 
     @Override
     public String toString() {
-        return "kcModelPrim{" + this.primitiveType + ",material=" + this.materialId + ",vertices=" + this.vertices.size()
+        return "kcModelPrim{" + this.primitiveType + ",material=" + this.materialId + ",vertices=" + this.vertexBuffer.getVertexCount()
                 + (this.boneIds != null ? ",boneIds=" + Arrays.toString(this.boneIds) : "") + "}";
     }
 }
\ No newline at end of file
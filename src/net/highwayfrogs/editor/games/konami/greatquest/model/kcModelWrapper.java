@@ -40,6 +40,11 @@ public class kcModelWrapper extends GreatQuestArchiveFile implements IFileExport
         this.model = model;
     }
 
+    @Override
+    public boolean isParallelLoadSupported() {
+        return true;
+    }
+
     @Override
     public void load(DataReader reader) {
         reader.verifyString(SIGNATURE_STR);
@@ -0,0 +1,753 @@
+package net.highwayfrogs.editor.games.konami.greatquest.model;
+
+import lombok.Getter;
+import net.highwayfrogs.editor.utils.data.reader.DataReader;
+import net.highwayfrogs.editor.utils.data.writer.DataWriter;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Holds the vertex data for a group of vertices sharing the same vertex format.
+ * Instead of an object per vertex, each kind of data is kept in its own packed array, which is only created if the vertex format contains it.
+ * Positions and normals are stored as xyz triples and texture coordinates as uv pairs, so they can be copied directly into mesh arrays.
+ * kcVertex objects are only created when requested, as views into this buffer.
+ * Created by agent on 10/18/2026.
+ */
+public class kcVertexBuffer {
+    @Getter private int vertexCount;
+    @Getter private float[] positions; // [vertex][xyz]
+    private float[] positionWs; // Only present for POSITION_XYZWF.
+    @Getter private float[] normals; // [vertex][xyz]
+    @Getter private int[] diffuseColors; // [vertex] as ARGB
+    @Getter private float[] texCoords0; // [vertex][uv]
+    @Getter private float[] texCoords1; // [vertex][uv], only present for TEX2F.
+    @Getter private float[] weights; // [vertex][weight]
+    @Getter private int weightsPerVertex;
+    private float[] pointSizes;
+    private transient List<kcVertex> vertexView;
+
+    /**
+     * Gets the vertices in this buffer.
+     * The returned list is a read-only view, and the vertices in it are created on access.
+     */
+    public List<kcVertex> getVertices() {
+        if (this.vertexView == null)
+            this.vertexView = new kcVertexListView();
+
+        return this.vertexView;
+    }
+
+    /**
+     * Gets a view of an individual vertex.
+     * @param index the index of the vertex
+     * @return vertex
+     */
+    public kcVertex getVertex(int index) {
+        if (index < 0 || index >= this.vertexCount)
+            throw new IndexOutOfBoundsException("Vertex index " + index + " is not within [0, " + this.vertexCount + ").");
+
+        return new kcVertex(this, index);
+    }
+
+    /**
+     * Removes all vertices.
+     */
+    public void clear() {
+        this.vertexCount = 0;
+        this.positions = null;
+        this.positionWs = null;
+        this.normals = null;
+        this.diffuseColors = null;
+        this.texCoords0 = null;
+        this.texCoords1 = null;
+        this.weights = null;
+        this.weightsPerVertex = 0;
+        this.pointSizes = null;
+    }
+
+    private void allocate(int vertexCount, kcVertexFormatComponent[] components) {
+        clear();
+        this.vertexCount = vertexCount;
+        if (components == null)
+            return;
+
+        for (int i = 0; i < components.length; i++) {
+            switch (components[i]) {
+                case POSITION_XYZWF:
+                    this.positionWs = new float[vertexCount];
+                    if (this.positions == null)
+                        this.positions = new float[vertexCount * 3];
+                    break;
+                case POSITION_XYZF:
+                    if (this.positions == null)
+                        this.positions = new float[vertexCount * 3];
+                    break;
+                case NORMAL_XYZF:
+                case NORMAL_XYZWF:
+                    if (this.normals == null)
+                        this.normals = new float[vertexCount * 3];
+                    break;
+                case DIFFUSE_RGBF:
+                case DIFFUSE_RGBAF:
+                case DIFFUSE_RGBAI:
+                case DIFFUSE_RGBA255F:
+                    if (this.diffuseColors == null)
+                        this.diffuseColors = new int[vertexCount];
+                    break;
+                case TEX2F:
+                    this.texCoords1 = new float[vertexCount * 2];
+                    if (this.texCoords0 == null)
+                        this.texCoords0 = new float[vertexCount * 2];
+                    break;
+                case TEX1F:
+                case TEX1_STQP:
+                    if (this.texCoords0 == null)
+                        this.texCoords0 = new float[vertexCount * 2];
+                    break;
+                case WEIGHT1F:
+                case WEIGHT2F:
+                case WEIGHT3F:
+                case WEIGHT4F:
+                    this.weightsPerVertex = Math.max(this.weightsPerVertex, getWeightCount(components[i]));
+                    break;
+                case PSIZE:
+                    this.pointSizes = new float[vertexCount];
+                    break;
+                default:
+                    break; // Nothing is stored for this component.
+            }
+        }
+
+        if (this.weightsPerVertex > 0)
+            this.weights = new float[vertexCount * this.weightsPerVertex];
+    }
+
+    /**
+     * Loads vertex data for all vertices from the reader.
+     * @param reader The reader to load vertex data from.
+     * @param vertexCount The number of vertices to load.
+     * @param components The components describing the vertex data to load.
+     * @param fvf the flexible vertex format flags
+     * @param scaleVertex if vertex scaling should be applied to compressed positions.
+     */
+    public void load(DataReader reader, int vertexCount, kcVertexFormatComponent[] components, long fvf, boolean scaleVertex) {
+        allocate(vertexCount, components);
+        if (components == null)
+            return;
+
+        boolean compressed = (fvf & kcModel.FVF_FLAG_COMPRESSED) == kcModel.FVF_FLAG_COMPRESSED;
+        for (int i = 0; i < vertexCount; i++) {
+            for (int j = 0; j < components.length; j++) {
+                if (compressed) {
+                    loadCompressed(reader, i, components[j], scaleVertex);
+                } else {
+                    loadNormal(reader, i, components[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads vertex data from the reader for the given component.
+     * @param reader    The reader to load vertex data from.
+     * @param index     The index of the vertex to load.
+     * @param component The component describing the vertex data to load.
+     */
+    private void loadNormal(DataReader reader, int index, kcVertexFormatComponent component) {
+        float red;
+        float green;
+        float blue;
+
+        switch (component) {
+            case POSITION_XYZF: // 12
+                readFloats(reader, this.positions, index * 3, 3);
+                break;
+            case POSITION_XYZWF: // 16
+                readFloats(reader, this.positions, index * 3, 3);
+                this.positionWs[index] = reader.readFloat();
+                break;
+            case NORMAL_XYZF: // 12
+                readFloats(reader, this.normals, index * 3, 3);
+                break;
+            case NORMAL_XYZWF: // 16
+                readFloats(reader, this.normals, index * 3, 3);
+                reader.readFloat();
+                // Yes, despite this one sounding like it should include W, it doesn't actually appear to assign W.
+                // It only skips over it. I don't think I'm wrong because I read both the ghidra decompiled output and the raw assembly.
+                // There is no 'normalW' value, so perhaps this makes sense.
+                break;
+            case DIFFUSE_RGBF: // 12
+                red = reader.readFloat();
+                green = reader.readFloat();
+                blue = reader.readFloat();
+                this.diffuseColors[index] = (((int) (red * 255F)) << 16) | (((int) (green * 255F)) << 8) | (int) (blue * 255F);
+                break;
+            case DIFFUSE_RGBAF: // 16
+                // Note: The PC version may keep the ALPHA in the lowest bits of the diffuse color at runtime, though Ghidra may be showing bad decompiler output, and I don't care enough to dive deep enough to answer it.
+                // It shouldn't matter for us since it's runtime only, and the actual stored byte order should be correct.
+                red = reader.readFloat();
+                green = reader.readFloat();
+                blue = reader.readFloat();
+                float alpha = reader.readFloat();
+                this.diffuseColors[index] = (((int) (alpha * 255F)) << 24) | (((int) (red * 255F)) << 16) | (((int) (green * 255F)) << 8) | (int) (blue * 255F);
+                break;
+            case DIFFUSE_RGBAI: // 4
+                this.diffuseColors[index] = reader.readInt();
+                break;
+            case DIFFUSE_RGBA255F: // 16
+                red = reader.readFloat();
+                green = reader.readFloat();
+                blue = reader.readFloat();
+                alpha = reader.readFloat();
+                this.diffuseColors[index] = ((((int) alpha) & 0xFF) << 24) | ((((int) red) & 0xFF) << 16) | ((((int) green) & 0xFF) << 8) | (((int) blue) & 0xFF);
+                break;
+            case SPECULAR_RGBF: // 12
+            case SPECULAR_RGBAF: // 16
+            case SPECULAR_RGBAI: // 4
+            case SPECULAR_RGBA255F: // 16
+                // The actual code in the PS2 PAL version skips this.
+                // It prints an error message, but continues reading, assuming the stride is calculable, so it can skip.
+                // It is unknown if the PC version uses this yet.
+                reader.skipBytes(component.getStride());
+                throw new RuntimeException("Cannot read unsupported vertex format " + component + ".");
+            case WEIGHT1F: // 4
+            case WEIGHT2F: // 8
+            case WEIGHT3F: // 12
+            case WEIGHT4F: // 16
+                readFloats(reader, this.weights, index * this.weightsPerVertex, getWeightCount(component));
+                break;
+            case TEX1F: // 8
+                readFloats(reader, this.texCoords0, index * 2, 2);
+                break;
+            case TEX2F: // 16
+                readFloats(reader, this.texCoords0, index * 2, 2);
+                readFloats(reader, this.texCoords1, index * 2, 2);
+                break;
+            case TEX1_STQP: // 16
+                readFloats(reader, this.texCoords0, index * 2, 2);
+                reader.skipBytes(8); // Not sure why we skip it, but that's what the PS2 PAL version does.
+                break;
+            case MATRIX_INDICES: // 16
+                // Unused / unimplemented. This behavior matches PS2 PAL.
+                reader.skipBytes(16);
+                break;
+            case PSIZE: // 4
+                this.pointSizes[index] = reader.readFloat();
+                break;
+            default:
+                throw new RuntimeException("Cannot read vertex data due to unsupported kcVertexFormatComponent " + component);
+        }
+    }
+
+    // kcModelRender() -> Calls kcGraphicsSetRenderState(KCRS_COMPVERTSCALE, 0.006666667), then afterward it gets set back to 1.0.
+    // This sets the scale of compressed vertex floats. The real game somehow configures the PS2 to apply the compressed vertex scaling itself.
+    // However, we apply the scaling on load/save to just keep it simple.
+    private static final int COMPRESSED_POSITION_UP_SCALE = 150;
+    private static final double COMPRESSED_POSITION_DOWN_SCALE = 1D / COMPRESSED_POSITION_UP_SCALE; // The game uses .006666667 instead.
+    private static final int COMPRESSION_FIXED_PT_MAIN_UNIT = 4096;
+    private static final int COMPRESSION_FIXED_PT_OTHER_UNIT = 16;
+    private static final int COMPRESSION_FIXED_PT_POSITION_UNIT = COMPRESSION_FIXED_PT_OTHER_UNIT * COMPRESSED_POSITION_UP_SCALE;
+    private static final float COMPRESSION_MAIN_MULTIPLIER = 1F / COMPRESSION_FIXED_PT_MAIN_UNIT;
+    private static final float COMPRESSION_OTHER_MULTIPLIER = 1F / COMPRESSION_FIXED_PT_OTHER_UNIT;
+    private static final double COMPRESSION_POSITION_MULTIPLIER = COMPRESSED_POSITION_DOWN_SCALE / COMPRESSION_FIXED_PT_OTHER_UNIT;
+
+    private static void readFloats(DataReader reader, float[] output, int startIndex, int amount) {
+        for (int i = 0; i < amount; i++)
+            output[startIndex + i] = reader.readFloat();
+    }
+
+    private static void readCompressedFloats(DataReader reader, float[] output, int startIndex, int amount, double multiplier) {
+        for (int i = 0; i < amount; i++)
+            output[startIndex + i] = readCompressedFloat(reader, multiplier);
+    }
+
+    private static float readCompressedFloat(DataReader reader, double multiplier) {
+        return (float) (reader.readShort() * multiplier);
+    }
+
+    /**
+     * Loads compressed vertex data from the reader for the given component.
+     * This method has been verified against both the PS2 PAL and PC versions.
+     * @param reader    The reader to load vertex data from.
+     * @param index     The index of the vertex to load.
+     * @param component The component describing the vertex data to load.
+     * @param scaleVertex if vertex scaling should be applied to compressed positions.
+     */
+    private void loadCompressed(DataReader reader, int index, kcVertexFormatComponent component, boolean scaleVertex) {
+        short red;
+        short green;
+        short blue;
+        short alpha;
+        final double positionMultiplier = scaleVertex ? COMPRESSION_POSITION_MULTIPLIER : COMPRESSION_OTHER_MULTIPLIER;
+
+        switch (component) {
+            case POSITION_XYZF: // 6
+                readCompressedFloats(reader, this.positions, index * 3, 3, positionMultiplier);
+                break;
+            case POSITION_XYZWF: // 8
+                readCompressedFloats(reader, this.positions, index * 3, 3, positionMultiplier);
+                this.positionWs[index] = readCompressedFloat(reader, positionMultiplier);
+                break;
+            case NORMAL_XYZF: // 6
+                readCompressedFloats(reader, this.normals, index * 3, 3, COMPRESSION_MAIN_MULTIPLIER);
+                break;
+            case NORMAL_XYZWF: // 8
+                readCompressedFloats(reader, this.normals, index * 3, 3, COMPRESSION_MAIN_MULTIPLIER);
+                readCompressedFloat(reader, COMPRESSION_MAIN_MULTIPLIER); // Unused, there is no "normalW" value.
+                break;
+            case DIFFUSE_RGBAF: // 8
+                // Honestly... I don't think this works on the PS2 version. Perhaps it's just bad ghidra decompiler output, but the PS2 PAL version doesn't seem to handle values right.
+                // The PC version is also confusing.
+                // We follow the next code since it seems that might be what should happen here.
+            case DIFFUSE_RGBA255F: // 8
+                red = (short) (reader.readShort() & 0xFF);
+                green = (short) (reader.readShort() & 0xFF);
+                blue = (short) (reader.readShort() & 0xFF);
+                alpha = (short) (reader.readShort() & 0xFF);
+                this.diffuseColors[index] = (((int) alpha) << 24) | (((int) red) << 16) | (((int) green) << 8) | ((int) blue);
+                break;
+            case DIFFUSE_RGBF: // 6
+            case DIFFUSE_RGBAI: // 4
+            case SPECULAR_RGBF: // 6
+            case SPECULAR_RGBAF: // 8
+            case SPECULAR_RGBAI: // 4
+            case SPECULAR_RGBA255F: // 8
+                // The actual code in the PS2 PAL version skips this.
+                // It prints an error message, but continues reading, assuming the stride is calculable, so it can skip.
+                // It is unknown if the PC version uses this yet.
+                reader.skipBytes(component.getCompressedStride());
+                throw new RuntimeException("Cannot read unsupported vertex format " + component + ".");
+            case WEIGHT1F: // 2
+            case WEIGHT2F: // 4
+            case WEIGHT3F: // 6
+            case WEIGHT4F: // 8
+                readCompressedFloats(reader, this.weights, index * this.weightsPerVertex, getWeightCount(component), COMPRESSION_MAIN_MULTIPLIER);
+                break;
+            case TEX1F: // 4
+                readCompressedFloats(reader, this.texCoords0, index * 2, 2, COMPRESSION_MAIN_MULTIPLIER);
+                break;
+            case TEX2F: // 8
+                readCompressedFloats(reader, this.texCoords0, index * 2, 2, COMPRESSION_MAIN_MULTIPLIER);
+                readCompressedFloats(reader, this.texCoords1, index * 2, 2, COMPRESSION_MAIN_MULTIPLIER);
+                break;
+            case TEX1_STQP: // 8
+                readCompressedFloats(reader, this.texCoords0, index * 2, 2, COMPRESSION_MAIN_MULTIPLIER);
+                reader.skipBytes(4); // Not sure why we skip it, but that's what the PS2 PAL & PC versions do.
+                break;
+            case MATRIX_INDICES: // 8
+                // Unused / unimplemented. This behavior matches PS2 PAL & PC.
+                reader.skipBytes(8);
+                break;
+            case PSIZE: // 2
+                this.pointSizes[index] = readCompressedFloat(reader, COMPRESSION_OTHER_MULTIPLIER);
+                break;
+            default:
+                throw new RuntimeException("Cannot read compressed vertex data due to unsupported kcVertexFormatComponent " + component);
+        }
+    }
+
+    private static void writeCompressedFloat(DataWriter writer, float value) {
+        writeCompressedFloat(writer, value, COMPRESSION_FIXED_PT_MAIN_UNIT);
+    }
+
+    private static void writeCompressedFloat(DataWriter writer, float value, int unit) {
+        int temp = (int) Math.round((double) value * unit);
+        if (temp > Short.MAX_VALUE || temp < Short.MIN_VALUE)
+            throw new RuntimeException("Cannot save the value '" + value + "' while compression is enabled for the model, because this coordinate is too extreme to represent. in a 16 bit number. (" + temp + ")");
+
+        writer.writeShort((short) temp);
+    }
+
+    /**
+     * Saves vertex data for all vertices to the writer.
+     * @param writer     The writer to write vertex data to.
+     * @param components The components describing the vertex data to write.
+     * @param fvf the flexible vertex format flags
+     * @param scaleVertex if vertex scaling should be applied to compressed positions.
+     */
+    public void save(DataWriter writer, kcVertexFormatComponent[] components, long fvf, boolean scaleVertex) {
+        for (int i = 0; i < this.vertexCount; i++)
+            save(writer, i, components, fvf, scaleVertex);
+    }
+
+    /**
+     * Saves the data for a single vertex to the writer.
+     * @param writer     The writer to write vertex data to.
+     * @param index      The index of the vertex to write.
+     * @param components The components describing the vertex data to write.
+     * @param fvf the flexible vertex format flags
+     * @param scaleVertex if vertex scaling should be applied to compressed positions.
+     */
+    public void save(DataWriter writer, int index, kcVertexFormatComponent[] components, long fvf, boolean scaleVertex) {
+        if (components == null)
+            return;
+
+        boolean compressed = (fvf & kcModel.FVF_FLAG_COMPRESSED) == kcModel.FVF_FLAG_COMPRESSED;
+        for (int i = 0; i < components.length; i++) {
+            if (compressed) {
+                saveCompressed(writer, index, components[i], scaleVertex);
+            } else {
+                saveNormal(writer, index, components[i]);
+            }
+        }
+    }
+
+    /**
+     * Saves vertex data to the writer for the given component.
+     * @param writer    The writer to write vertex data to.
+     * @param index     The index of the vertex to write.
+     * @param component The component describing the vertex data to write.
+     */
+    private void saveNormal(DataWriter writer, int index, kcVertexFormatComponent component) {
+        int diffuse = getDiffuse(index);
+        switch (component) {
+            case POSITION_XYZF: // 12
+                writer.writeFloat(getX(index));
+                writer.writeFloat(getY(index));
+                writer.writeFloat(getZ(index));
+                break;
+            case POSITION_XYZWF: // 16
+                writer.writeFloat(getX(index));
+                writer.writeFloat(getY(index));
+                writer.writeFloat(getZ(index));
+                writer.writeFloat(getW(index));
+                break;
+            case NORMAL_XYZF: // 12
+                writer.writeFloat(getNormalX(index));
+                writer.writeFloat(getNormalY(index));
+                writer.writeFloat(getNormalZ(index));
+                break;
+            case NORMAL_XYZWF: // 16
+                writer.writeFloat(getNormalX(index));
+                writer.writeFloat(getNormalY(index));
+                writer.writeFloat(getNormalZ(index));
+                writer.writeFloat(1F); // Unused value for 'W'.
+                break;
+            case DIFFUSE_RGBF: // 12
+                writer.writeFloat(getColorComponent(diffuse, 16) / 255F);
+                writer.writeFloat(getColorComponent(diffuse, 8) / 255F);
+                writer.writeFloat(getColorComponent(diffuse, 0) / 255F);
+                break;
+            case DIFFUSE_RGBAF: // 16
+                writer.writeFloat(getColorComponent(diffuse, 16) / 255F);
+                writer.writeFloat(getColorComponent(diffuse, 8) / 255F);
+                writer.writeFloat(getColorComponent(diffuse, 0) / 255F);
+                writer.writeFloat(getColorComponent(diffuse, 24) / 255F);
+                break;
+            case DIFFUSE_RGBAI: // 4
+                writer.writeInt(diffuse);
+                break;
+            case DIFFUSE_RGBA255F: // 16
+                writer.writeFloat(getColorComponent(diffuse, 16));
+                writer.writeFloat(getColorComponent(diffuse, 8));
+                writer.writeFloat(getColorComponent(diffuse, 0));
+                writer.writeFloat(getColorComponent(diffuse, 24));
+                break;
+            case SPECULAR_RGBF: // 12
+            case SPECULAR_RGBAF: // 16
+            case SPECULAR_RGBAI: // 4
+            case SPECULAR_RGBA255F: // 16
+                // The actual code in the PS2 PAL version skips this.
+                // It prints an error message, but continues reading, assuming the stride is calculable, so it can skip.
+                // It is unknown if the PC version uses this yet.
+                writer.writeNull(component.getStride());
+                throw new RuntimeException("Cannot write unsupported vertex format " + component + ".");
+            case WEIGHT1F: // 4
+            case WEIGHT2F: // 8
+            case WEIGHT3F: // 12
+            case WEIGHT4F: // 16
+                int weightCount = getWeightCount(component);
+                for (int i = 0; i < weightCount; i++)
+                    writer.writeFloat(getSavedWeight(index, weightCount, i));
+                break;
+            case TEX1F: // 8
+                writer.writeFloat(getU0(index));
+                writer.writeFloat(getV0(index));
+                break;
+            case TEX2F: // 16
+                writer.writeFloat(getU0(index));
+                writer.writeFloat(getV0(index));
+                writer.writeFloat(getU1(index));
+                writer.writeFloat(getV1(index));
+                break;
+            case TEX1_STQP: // 16
+                writer.writeFloat(getU0(index));
+                writer.writeFloat(getV0(index));
+                writer.writeFloat(1F); // Unused (Value seen in C001.VTX)
+                writer.writeFloat(0F); // Unused (Value seen in C001.VTX)
+                break;
+            case MATRIX_INDICES: // 16
+                // Unused / unimplemented. This behavior matches PS2 PAL.
+                writer.writeNull(16);
+                break;
+            case PSIZE: // 4
+                writer.writeFloat(getPointSize(index));
+                break;
+            default:
+                throw new RuntimeException("Cannot read vertex data due to unsupported kcVertexFormatComponent " + component);
+        }
+    }
+
+    /**
+     * Saves compressed vertex data to the writer for the given component.
+     * @param writer    The writer to write vertex data to.
+     * @param index     The index of the vertex to write.
+     * @param component The component describing the vertex data to write.
+     * @param scaleVertex if vertex scaling should be applied to compressed positions.
+     */
+    private void saveCompressed(DataWriter writer, int index, kcVertexFormatComponent component, boolean scaleVertex) {
+        final int positionUnit = scaleVertex ? COMPRESSION_FIXED_PT_POSITION_UNIT : COMPRESSION_FIXED_PT_OTHER_UNIT;
+        int diffuse = getDiffuse(index);
+        switch (component) {
+            case POSITION_XYZF: // 6
+                writeCompressedFloat(writer, getX(index), positionUnit);
+                writeCompressedFloat(writer, getY(index), positionUnit);
+                writeCompressedFloat(writer, getZ(index), positionUnit);
+                break;
+            case POSITION_XYZWF: // 8
+                writeCompressedFloat(writer, getX(index), positionUnit);
+                writeCompressedFloat(writer, getY(index), positionUnit);
+                writeCompressedFloat(writer, getZ(index), positionUnit);
+                writeCompressedFloat(writer, getW(index), positionUnit);
+                break;
+            case NORMAL_XYZF: // 6
+                writeCompressedFloat(writer, getNormalX(index));
+                writeCompressedFloat(writer, getNormalY(index));
+                writeCompressedFloat(writer, getNormalZ(index));
+                break;
+            case NORMAL_XYZWF: // 8
+                writeCompressedFloat(writer, getNormalX(index));
+                writeCompressedFloat(writer, getNormalY(index));
+                writeCompressedFloat(writer, getNormalZ(index));
+                writeCompressedFloat(writer, 1F); // Unused value for 'W'.
+                break;
+            case DIFFUSE_RGBAF: // 8
+                // May not be valid.
+                writer.writeFloat((short) (getColorComponent(diffuse, 16) / 255F));
+                writer.writeFloat((short) (getColorComponent(diffuse, 8) / 255F));
+                writer.writeFloat((short) (getColorComponent(diffuse, 0) / 255F));
+                writer.writeFloat((short) (getColorComponent(diffuse, 24) / 255F));
+                break;
+            case DIFFUSE_RGBA255F: // 8
+                writer.writeShort((short) getColorComponent(diffuse, 16));
+                writer.writeShort((short) getColorComponent(diffuse, 8));
+                writer.writeShort((short) getColorComponent(diffuse, 0));
+                writer.writeShort((short) getColorComponent(diffuse, 24));
+                break;
+            case DIFFUSE_RGBF: // 6
+            case DIFFUSE_RGBAI: // 4
+            case SPECULAR_RGBF: // 6
+            case SPECULAR_RGBAF: // 8
+            case SPECULAR_RGBAI: // 4
+            case SPECULAR_RGBA255F: // 8
+                // The actual code in the PS2 PAL version skips this.
+                // It prints an error message, but continues reading, assuming the stride is calculable, so it can skip.
+                // It is unknown if the PC version uses this yet.
+                writer.writeNull(component.getCompressedStride());
+                throw new RuntimeException("Cannot write unsupported vertex format " + component + ".");
+            case WEIGHT1F: // 2
+            case WEIGHT2F: // 4
+            case WEIGHT3F: // 6
+            case WEIGHT4F: // 8
+                int weightCount = getWeightCount(component);
+                for (int i = 0; i < weightCount; i++)
+                    writeCompressedFloat(writer, getSavedWeight(index, weightCount, i));
+                break;
+            case TEX1F: // 4
+                writeCompressedFloat(writer, getU0(index));
+                writeCompressedFloat(writer, getV0(index));
+                break;
+            case TEX2F: // 8
+                writeCompressedFloat(writer, getU0(index));
+                writeCompressedFloat(writer, getV0(index));
+                writeCompressedFloat(writer, getU1(index));
+                writeCompressedFloat(writer, getV1(index));
+                break;
+            case TEX1_STQP: // 8
+                writeCompressedFloat(writer, getU0(index));
+                writeCompressedFloat(writer, getV0(index));
+                writeCompressedFloat(writer, 1F); // Unused
+                writeCompressedFloat(writer, 1F); // Unused
+                break;
+            case MATRIX_INDICES: // 8
+                // Unused / unimplemented. This behavior matches PS2 PAL.
+                writer.writeNull(8);
+                break;
+            case PSIZE: // 2
+                writeCompressedFloat(writer, getPointSize(index), COMPRESSION_FIXED_PT_OTHER_UNIT);
+                break;
+            default:
+                throw new RuntimeException("Cannot read vertex data due to unsupported kcVertexFormatComponent " + component);
+        }
+    }
+
+    private static int getWeightCount(kcVertexFormatComponent component) {
+        switch (component) {
+            case WEIGHT1F:
+                return 1;
+            case WEIGHT2F:
+                return 2;
+            case WEIGHT3F:
+                return 3;
+            case WEIGHT4F:
+                return 4;
+            default:
+                return 0;
+        }
+    }
+
+    private static int getColorComponent(int color, int shift) {
+        return (color >> shift) & 0xFF;
+    }
+
+    // If the weight count doesn't match the component being saved, the weights are written as zero.
+    private float getSavedWeight(int index, int weightCount, int weightIndex) {
+        return this.weightsPerVertex == weightCount ? this.weights[(index * this.weightsPerVertex) + weightIndex] : 0F;
+    }
+
+    /**
+     * Gets the x coordinate of a vertex position.
+     * @param index the index of the vertex
+     */
+    public float getX(int index) {
+        return this.positions != null ? this.positions[index * 3] : 0F;
+    }
+
+    /**
+     * Gets the y coordinate of a vertex position.
+     * @param index the index of the vertex
+     */
+    public float getY(int index) {
+        return this.positions != null ? this.positions[(index * 3) + 1] : 0F;
+    }
+
+    /**
+     * Gets the z coordinate of a vertex position.
+     * @param index the index of the vertex
+     */
+    public float getZ(int index) {
+        return this.positions != null ? this.positions[(index * 3) + 2] : 0F;
+    }
+
+    /**
+     * Gets the w coordinate of a vertex position.
+     * @param index the index of the vertex
+     */
+    public float getW(int index) {
+        if (this.positionWs != null)
+            return this.positionWs[index];
+
+        return this.positions != null ? 1F : 0F;
+    }
+
+    /**
+     * Gets the x component of a vertex normal.
+     * @param index the index of the vertex
+     */
+    public float getNormalX(int index) {
+        return this.normals != null ? this.normals[index * 3] : 0F;
+    }
+
+    /**
+     * Gets the y component of a vertex normal.
+     * @param index the index of the vertex
+     */
+    public float getNormalY(int index) {
+        return this.normals != null ? this.normals[(index * 3) + 1] : 0F;
+    }
+
+    /**
+     * Gets the z component of a vertex normal.
+     * @param index the index of the vertex
+     */
+    public float getNormalZ(int index) {
+        return this.normals != null ? this.normals[(index * 3) + 2] : 0F;
+    }
+
+    /**
+     * Gets the diffuse color of a vertex, in ARGB format.
+     * @param index the index of the vertex
+     */
+    public int getDiffuse(int index) {
+        return this.diffuseColors != null ? this.diffuseColors[index] : 0;
+    }
+
+    /**
+     * Gets the u coordinate of the first texture coordinate of a vertex.
+     * @param index the index of the vertex
+     */
+    public float getU0(int index) {
+        return this.texCoords0 != null ? this.texCoords0[index * 2] : 0F;
+    }
+
+    /**
+     * Gets the v coordinate of the first texture coordinate of a vertex.
+     * @param index the index of the vertex
+     */
+    public float getV0(int index) {
+        return this.texCoords0 != null ? this.texCoords0[(index * 2) + 1] : 0F;
+    }
+
+    /**
+     * Gets the u coordinate of the second texture coordinate of a vertex.
+     * @param index the index of the vertex
+     */
+    public float getU1(int index) {
+        return this.texCoords1 != null ? this.texCoords1[index * 2] : 0F;
+    }
+
+    /**
+     * Gets the v coordinate of the second texture coordinate of a vertex.
+     * @param index the index of the vertex
+     */
+    public float getV1(int index) {
+        return this.texCoords1 != null ? this.texCoords1[(index * 2) + 1] : 0F;
+    }
+
+    /**
+     * Gets the weights of a vertex.
+     * @param index the index of the vertex
+     * @return weights, or null if the vertex has no weights
+     */
+    public float[] getWeights(int index) {
+        if (this.weightsPerVertex == 0)
+            return null;
+
+        float[] result = new float[this.weightsPerVertex];
+        System.arraycopy(this.weights, index * this.weightsPerVertex, result, 0, this.weightsPerVertex);
+        return result;
+    }
+
+    /**
+     * Gets an individual weight of a vertex.
+     * @param index the index of the vertex
+     * @param weightIndex the index of the weight
+     * @param fallback the value to return if the vertex does not have the weight
+     * @return weight
+     */
+    public float getWeight(int index, int weightIndex, float fallback) {
+        return weightIndex >= 0 && weightIndex < this.weightsPerVertex ? this.weights[(index * this.weightsPerVertex) + weightIndex] : fallback;
+    }
+
+    /**
+     * Gets the point size of a vertex.
+     * @param index the index of the vertex
+     */
+    public float getPointSize(int index) {
+        return this.pointSizes != null ? this.pointSizes[index] : 0F;
+    }
+
+    private class kcVertexListView extends AbstractList<kcVertex> implements RandomAccess {
+        @Override
+        public kcVertex get(int index) {
+            return getVertex(index);
+        }
+
+        @Override
+        public int size() {
+            return kcVertexBuffer.this.vertexCount;
+        }
+    }
+}
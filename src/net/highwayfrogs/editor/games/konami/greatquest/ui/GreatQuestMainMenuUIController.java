@@ -5,6 +5,7 @@ import javafx.scene.control.Menu;
 import javafx.scene.control.MenuItem;
 import net.highwayfrogs.editor.games.konami.greatquest.GreatQuestGameType;
 import net.highwayfrogs.editor.games.konami.greatquest.GreatQuestInstance;
+import net.highwayfrogs.editor.games.konami.greatquest.chunks.GreatQuestChunkedFile;
 import net.highwayfrogs.editor.games.konami.greatquest.file.GreatQuestArchiveFile;
 import net.highwayfrogs.editor.games.konami.greatquest.file.GreatQuestAssetBinFile;
 import net.highwayfrogs.editor.games.konami.greatquest.file.GreatQuestGameFile;
@@ -18,6 +19,8 @@ import net.highwayfrogs.editor.utils.FileUtils.SavedFilePath;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents the editor main menu for The Great Quest.
@@ -52,7 +55,16 @@ public class GreatQuestMainMenuUIController extends MainMenuController<GreatQues
 
             getLogger().info("Attempting to export game files.");
             ProgressBarComponent.openProgressBarWindow(getGameInstance(), "File Export", progressBar -> {
-                progressBar.setTotalProgress(getMainArchive().getFiles().size());
+                List<GreatQuestChunkedFile> mapFiles = new ArrayList<>();
+                for (GreatQuestArchiveFile file : getMainArchive().getFiles())
+                    if (file instanceof GreatQuestChunkedFile && ((GreatQuestChunkedFile) file).getSceneManager() != null)
+                        mapFiles.add((GreatQuestChunkedFile) file);
+
+                progressBar.setTotalProgress(mapFiles.size() + getMainArchive().getFiles().size());
+
+                // The map meshes are the slowest part of the export, so they are exported in parallel ahead of time.
+                progressBar.setStatusMessage("Exporting " + mapFiles.size() + " map mesh(es)");
+                GreatQuestChunkedFile.saveMapObjFiles(exportDir, mapFiles, file -> progressBar.addCompletedProgress(1));
 
                 for (GreatQuestArchiveFile file : getMainArchive().getFiles()) {
                     progressBar.setStatusMessage("Exporting '" + file.getDebugName() + "'");
@@ -3,7 +3,7 @@ package net.highwayfrogs.editor.games.konami.greatquest.ui.mesh.map;
 import net.highwayfrogs.editor.games.konami.greatquest.chunks.GreatQuestChunkedFile;
 import net.highwayfrogs.editor.games.konami.greatquest.chunks.kcCResOctTreeSceneMgr;
 import net.highwayfrogs.editor.games.konami.greatquest.chunks.kcCResOctTreeSceneMgr.kcVtxBufFileStruct;
-import net.highwayfrogs.editor.games.konami.greatquest.model.kcVertex;
+import net.highwayfrogs.editor.games.konami.greatquest.model.kcVertexBuffer;
 import net.highwayfrogs.editor.gui.mesh.DynamicMeshAdapterNode;
 
 import java.util.List;
@@ -49,10 +49,10 @@ public class GreatQuestMapMaterialMeshNode extends DynamicMeshAdapterNode<kcVtxB
         DynamicMeshTypedDataEntry entry = new DynamicMeshTypedDataEntry(getMesh(), vtxBuf);
 
         // Write vertices and uvs.
-        for (int i = 0; i < vtxBuf.getVertices().size(); i++) {
-            kcVertex vertex = vtxBuf.getVertices().get(i);
-            entry.addVertexValue(vertex.getX(), vertex.getY(), vertex.getZ());
-            entry.addTexCoordValue(vertex.getU0(), -vertex.getV0());
+        kcVertexBuffer vertexBuffer = vtxBuf.getVertexBuffer();
+        for (int i = 0; i < vertexBuffer.getVertexCount(); i++) {
+            entry.addVertexValue(vertexBuffer.getX(i), vertexBuffer.getY(i), vertexBuffer.getZ(i));
+            entry.addTexCoordValue(vertexBuffer.getU0(i), -vertexBuffer.getV0(i));
         }
 
         // Write face data.
@@ -99,8 +99,8 @@ public class GreatQuestMapMaterialMeshNode extends DynamicMeshAdapterNode<kcVtxB
 
     @Override
     public void updateVertex(DynamicMeshTypedDataEntry entry, int localVertexIndex) {
-        kcVertex vertex = entry.getDataSource().getVertices().get(localVertexIndex);
-        entry.writeVertexXYZ(localVertexIndex, vertex.getX(), vertex.getY(), vertex.getZ());
+        kcVertexBuffer vertexBuffer = entry.getDataSource().getVertexBuffer();
+        entry.writeVertexXYZ(localVertexIndex, vertexBuffer.getX(localVertexIndex), vertexBuffer.getY(localVertexIndex), vertexBuffer.getZ(localVertexIndex));
     }
 
     @Override
@@ -108,8 +108,8 @@ public class GreatQuestMapMaterialMeshNode extends DynamicMeshAdapterNode<kcVtxB
         if (localTexCoordIndex < 0 || localTexCoordIndex >= entry.getDataSource().getVertexCount())
             throw new IllegalArgumentException("Unsupported local texCoordIndex " + localTexCoordIndex);
 
-        kcVertex vertex = entry.getDataSource().getVertices().get(localTexCoordIndex);
-        entry.writeTexCoordValue(localTexCoordIndex, vertex.getU0(), -vertex.getV0());
+        kcVertexBuffer vertexBuffer = entry.getDataSource().getVertexBuffer();
+        entry.writeTexCoordValue(localTexCoordIndex, vertexBuffer.getU0(localTexCoordIndex), -vertexBuffer.getV0(localTexCoordIndex));
     }
 
     /**
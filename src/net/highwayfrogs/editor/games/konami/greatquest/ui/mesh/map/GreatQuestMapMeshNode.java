@@ -3,7 +3,7 @@ package net.highwayfrogs.editor.games.konami.greatquest.ui.mesh.map;
 import net.highwayfrogs.editor.games.konami.greatquest.chunks.GreatQuestChunkedFile;
 import net.highwayfrogs.editor.games.konami.greatquest.chunks.kcCResOctTreeSceneMgr.kcVtxBufFileStruct;
 import net.highwayfrogs.editor.games.konami.greatquest.model.kcMaterial;
-import net.highwayfrogs.editor.games.konami.greatquest.model.kcVertex;
+import net.highwayfrogs.editor.games.konami.greatquest.model.kcVertexBuffer;
 import net.highwayfrogs.editor.gui.mesh.DynamicMeshAdapterNode;
 import net.highwayfrogs.editor.gui.texture.Texture;
 import net.highwayfrogs.editor.system.math.Vector2f;
@@ -44,10 +44,10 @@ public class GreatQuestMapMeshNode extends DynamicMeshAdapterNode<kcVtxBufFileSt
         Texture texture = getTexture(entry.getDataSource());
 
         // Write vertices and uvs.
-        for (int i = 0; i < vtxBuf.getVertices().size(); i++) {
-            kcVertex vertex = vtxBuf.getVertices().get(i);
-            entry.addVertexValue(vertex.getX(), vertex.getY(), vertex.getZ());
-            entry.addTexCoordValue(getTextureCoordinate(vertex, texture));
+        kcVertexBuffer vertexBuffer = vtxBuf.getVertexBuffer();
+        for (int i = 0; i < vertexBuffer.getVertexCount(); i++) {
+            entry.addVertexValue(vertexBuffer.getX(i), vertexBuffer.getY(i), vertexBuffer.getZ(i));
+            entry.addTexCoordValue(getTextureCoordinate(vertexBuffer, i, texture));
         }
 
         // Write face data.
@@ -99,8 +99,8 @@ public class GreatQuestMapMeshNode extends DynamicMeshAdapterNode<kcVtxBufFileSt
         return getMesh().getTextureAtlas().getTextureFromSourceOrFallback(material != null ? material.getTexture() : null);
     }
 
-    private Vector2f getTextureCoordinate(kcVertex vertex, Texture texture) {
-        this.tempVector.setXY(clamp(vertex.getU0(), false), clamp(vertex.getV0(), true));
+    private Vector2f getTextureCoordinate(kcVertexBuffer vertexBuffer, int vertexIndex, Texture texture) {
+        this.tempVector.setXY(clamp(vertexBuffer.getU0(vertexIndex), false), clamp(vertexBuffer.getV0(vertexIndex), true));
 
         // Get the UVs local to the texture.
         return getMesh().getTextureAtlas().getUV(texture, this.tempVector);
@@ -117,8 +117,8 @@ public class GreatQuestMapMeshNode extends DynamicMeshAdapterNode<kcVtxBufFileSt
 
     @Override
     public void updateVertex(DynamicMeshTypedDataEntry entry, int localVertexIndex) {
-        kcVertex vertex = entry.getDataSource().getVertices().get(localVertexIndex);
-        entry.writeVertexXYZ(localVertexIndex, vertex.getX(), vertex.getY(), vertex.getZ());
+        kcVertexBuffer vertexBuffer = entry.getDataSource().getVertexBuffer();
+        entry.writeVertexXYZ(localVertexIndex, vertexBuffer.getX(localVertexIndex), vertexBuffer.getY(localVertexIndex), vertexBuffer.getZ(localVertexIndex));
     }
 
     @Override
@@ -126,9 +126,8 @@ public class GreatQuestMapMeshNode extends DynamicMeshAdapterNode<kcVtxBufFileSt
         if (localTexCoordIndex < 0 || localTexCoordIndex >= entry.getDataSource().getVertexCount())
             throw new IllegalArgumentException("Unsupported local texCoordIndex " + localTexCoordIndex);
 
-        kcVertex vertex = entry.getDataSource().getVertices().get(localTexCoordIndex);
         Texture texture = getTexture(entry.getDataSource());
-        entry.writeTexCoordValue(localTexCoordIndex, getTextureCoordinate(vertex, texture));
+        entry.writeTexCoordValue(localTexCoordIndex, getTextureCoordinate(entry.getDataSource().getVertexBuffer(), localTexCoordIndex, texture));
     }
 
     /**
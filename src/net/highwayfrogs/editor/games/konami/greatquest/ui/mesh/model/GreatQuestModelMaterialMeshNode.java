@@ -53,10 +53,10 @@ public class GreatQuestModelMaterialMeshNode extends DynamicMeshAdapterNode<kcMo
         DynamicMeshTypedDataEntry entry = new DynamicMeshTypedDataEntry(getMesh(), modelPrim);
 
         // Write vertices and uvs.
-        for (int i = 0; i < modelPrim.getVertices().size(); i++) {
-            kcVertex vertex = modelPrim.getVertices().get(i);
+        kcVertexBuffer vertexBuffer = modelPrim.getVertexBuffer();
+        for (int i = 0; i < vertexBuffer.getVertexCount(); i++) {
             entry.addVertexValue(calculateVertexPos(modelPrim, i));
-            entry.addTexCoordValue(vertex.getU0(), -vertex.getV0());
+            entry.addTexCoordValue(vertexBuffer.getU0(i), -vertexBuffer.getV0(i));
         }
 
         // Write face data.
@@ -111,8 +111,8 @@ public class GreatQuestModelMaterialMeshNode extends DynamicMeshAdapterNode<kcMo
         if (localTexCoordIndex < 0 || localTexCoordIndex >= entry.getDataSource().getVertexCount())
             throw new IllegalArgumentException("Unsupported local texCoordIndex " + localTexCoordIndex);
 
-        kcVertex vertex = entry.getDataSource().getVertices().get(localTexCoordIndex);
-        entry.writeTexCoordValue(localTexCoordIndex, vertex.getU0(), -vertex.getV0());
+        kcVertexBuffer vertexBuffer = entry.getDataSource().getVertexBuffer();
+        entry.writeTexCoordValue(localTexCoordIndex, vertexBuffer.getU0(localTexCoordIndex), -vertexBuffer.getV0(localTexCoordIndex));
     }
 
     /**
@@ -124,8 +124,8 @@ public class GreatQuestModelMaterialMeshNode extends DynamicMeshAdapterNode<kcMo
 
 
     private Vector3f calculateVertexPos(kcModelPrim modelPrim, int localVertexIndex) {
-        kcVertex vertex = modelPrim.getVertices().get(localVertexIndex);
-        Vector3f localPos = this.tempVertex.setXYZ(vertex.getX(), vertex.getY(), vertex.getZ()); // Scaling must happen first for animations to apply at the right pivot points.
+        kcVertexBuffer vertexBuffer = modelPrim.getVertexBuffer();
+        Vector3f localPos = this.tempVertex.setXYZ(vertexBuffer.getX(localVertexIndex), vertexBuffer.getY(localVertexIndex), vertexBuffer.getZ(localVertexIndex)); // Scaling must happen first for animations to apply at the right pivot points.
 
         Vector3f result = this.tempTransformedVertex.setXYZ(localPos);
         kcCResourceSkeleton skeleton = getSkeleton();
@@ -134,7 +134,7 @@ public class GreatQuestModelMaterialMeshNode extends DynamicMeshAdapterNode<kcMo
             result = result.setXYZ(0, 0, 0); // The result is a sum of weighed bones.
 
             // Add bone.
-            float weight0 = vertex.getWeight() != null && vertex.getWeight().length > 0 ? vertex.getWeight()[0] : 1F;
+            float weight0 = vertexBuffer.getWeight(localVertexIndex, 0, 1F);
             float weight1 = (1F - weight0);
 
             Vector3f tmpWeightedVtx = this.tempWeighedVertex;
@@ -0,0 +1,75 @@
+package net.highwayfrogs.editor.games.psx.sound;
+
+import java.io.InputStream;
+
+/**
+ * Decodes VAG audio data into 16-bit little endian PCM one block at a time, as the data is read.
+ * Created by agent on 10/18/2026.
+ */
+public class VAGDecoderInputStream extends InputStream {
+    private final byte[] vagAudioData;
+    private final double[] decoderState = new double[VAGUtil.DECODER_STATE_SIZE];
+    private final byte[] pcmBlock = new byte[VAGUtil.PCM_BYTES_PER_BLOCK];
+    private int nextBlockOffset;
+    private int pcmBlockIndex;
+    private int pcmBlockLength;
+    private boolean endReached;
+
+    public VAGDecoderInputStream(byte[] vagAudioData) {
+        if (vagAudioData == null)
+            throw new NullPointerException("vagAudioData");
+
+        this.vagAudioData = vagAudioData;
+    }
+
+    @Override
+    public int read() {
+        if (!decodeNextBlockIfNecessary())
+            return -1;
+
+        return this.pcmBlock[this.pcmBlockIndex++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || length > buffer.length - offset)
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", buffer length: " + buffer.length);
+        if (length == 0)
+            return 0;
+
+        int bytesRead = 0;
+        while (bytesRead < length && decodeNextBlockIfNecessary()) {
+            int copyLength = Math.min(length - bytesRead, this.pcmBlockLength - this.pcmBlockIndex);
+            System.arraycopy(this.pcmBlock, this.pcmBlockIndex, buffer, offset + bytesRead, copyLength);
+            this.pcmBlockIndex += copyLength;
+            bytesRead += copyLength;
+        }
+
+        return bytesRead > 0 ? bytesRead : -1;
+    }
+
+    @Override
+    public int available() {
+        return this.pcmBlockLength - this.pcmBlockIndex;
+    }
+
+    private boolean decodeNextBlockIfNecessary() {
+        if (this.pcmBlockIndex < this.pcmBlockLength)
+            return true;
+        if (this.endReached || this.nextBlockOffset + VAGUtil.BYTES_PER_BLOCK > this.vagAudioData.length) {
+            this.endReached = true;
+            return false;
+        }
+
+        int decodedBytes = VAGUtil.decodeBlock(this.vagAudioData, this.nextBlockOffset, this.decoderState, this.pcmBlock);
+        this.nextBlockOffset += VAGUtil.BYTES_PER_BLOCK;
+        if (decodedBytes < 0) {
+            this.endReached = true;
+            return false;
+        }
+
+        this.pcmBlockIndex = 0;
+        this.pcmBlockLength = decodedBytes;
+        return true;
+    }
+}
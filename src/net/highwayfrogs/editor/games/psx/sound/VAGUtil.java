@@ -1,13 +1,17 @@
 package net.highwayfrogs.editor.games.psx.sound;
 
-import lombok.AllArgsConstructor;
-import lombok.Getter;
 import net.highwayfrogs.editor.Constants;
 import net.highwayfrogs.editor.utils.data.reader.ArraySource;
 import net.highwayfrogs.editor.utils.data.reader.DataReader;
 import net.highwayfrogs.editor.utils.data.writer.ArrayReceiver;
 import net.highwayfrogs.editor.utils.data.writer.DataWriter;
 
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
 /**
  * Utilities for the VAG file format.
  * References:
@@ -20,12 +24,32 @@ public class VAGUtil {
     private static final String RIFF_SIGNATURE = "RIFF";
     private static final String WAV_SIGNATURE = "WAVE";
     private static final String DATA_CHUNK_SIGNATURE = "data";
-    private static final int BUFFER_SIZE = 128 * 8;
+    private static final int SAMPLES_PER_BLOCK = 28;
+    static final int BYTES_PER_BLOCK = 16;
+    static final int PCM_BYTES_PER_BLOCK = SAMPLES_PER_BLOCK * 2; // Each sample decodes to a 16-bit PCM sample.
+    static final int DECODER_STATE_SIZE = 2;
+    private static final byte END_FLAG = 7;
+    private static final int HISTORY_SAMPLE_COUNT = 2; // The filters look at the two previous samples.
+    private static final int FILTER_COUNT = 5;
     private static final double[][] TABLE = new double[][]{{0.0, 0.0},
             {60D / 64D, 0D},
             {115D / 64D, -52D / 64D},
             {98D / 64D, -55D / 64D},
             {122D / 64D, -60D / 64D}};
+    private static final double[] NEGATED_TABLE_1 = new double[FILTER_COUNT];
+    private static final double[] NEGATED_TABLE_2 = new double[FILTER_COUNT];
+
+    private static final boolean PARALLEL_ENCODING_ENABLED = true;
+    private static final int BLOCKS_PER_PREDICTION_TASK = 1024; // About 1.3 seconds of 22050Hz audio.
+    private static final int THREAD_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final ForkJoinPool ENCODE_POOL = new ForkJoinPool(THREAD_COUNT);
+
+    static {
+        for (int i = 0; i < FILTER_COUNT; i++) {
+            NEGATED_TABLE_1[i] = -TABLE[i][0];
+            NEGATED_TABLE_2[i] = -TABLE[i][1];
+        }
+    }
 
     /**
      * Converts a playstation VAG sound to raw PCM.
@@ -44,11 +68,8 @@ public class VAGUtil {
      */
     public static byte[] rawVagToWav(byte[] vagAudioData, int sampleRate) {
         boolean includeWavHeader = (sampleRate > 0);
-        double[] samples = new double[28];
-        double s1 = 0;
-        double s2 = 0;
-
-        DataReader reader = new DataReader(new ArraySource(vagAudioData));
+        double[] decoderState = new double[DECODER_STATE_SIZE];
+        byte[] pcmBlock = new byte[PCM_BYTES_PER_BLOCK];
 
         ArrayReceiver dataReceiver = new ArrayReceiver();
         DataWriter writer = new DataWriter(dataReceiver);
@@ -73,35 +94,11 @@ public class VAGUtil {
             subChunk2SizeAddress = writer.writeNullPointer();
         }
 
-        while (reader.hasMore()) {
-            byte predictNr = reader.readByte();
-            int shiftFactor = (predictNr & 0b1111);
-            predictNr >>= 4;
-            byte flags = reader.readByte();
-
-            if (flags == 7)
+        for (int offset = 0; offset + BYTES_PER_BLOCK <= vagAudioData.length; offset += BYTES_PER_BLOCK) {
+            if (decodeBlock(vagAudioData, offset, decoderState, pcmBlock) < 0)
                 break; // End.
 
-            for (int i = 0; i < 28; i += 2) {
-                byte d = reader.readByte();
-                int s = (d & 0xF) << 12;
-                if ((s & 0x8000) == 0x8000)
-                    s |= 0xFFFF0000;
-                samples[i] = (s >> shiftFactor);
-                s = (d & 0xF0) << 8;
-                if ((s & 0x8000) == 0x8000)
-                    s |= 0xFFFF0000;
-                samples[i + 1] = (s >> shiftFactor);
-            }
-
-            for (int i = 0; i < 28; i++) {
-                samples[i] += (s1 * TABLE[predictNr][0]) + (s2 * TABLE[predictNr][1]);
-                s2 = s1;
-                s1 = samples[i];
-                int d = (int) (samples[i] + .5);
-                writer.writeByte((byte) (d & 0xFF));
-                writer.writeByte((byte) ((d >> 8) & 0xFF));
-            }
+            writer.writeBytes(pcmBlock); // Blocks always decode to PCM_BYTES_PER_BLOCK bytes.
         }
 
         // Write sizes.
@@ -114,24 +111,112 @@ public class VAGUtil {
         return dataReceiver.toArray();
     }
 
+    /**
+     * Creates a stream which decodes the VAG audio data to 16-bit PCM as it is read.
+     * Unlike rawVagToWav, the sound is not decoded all at once, so playback can start right away.
+     * @param vagAudioData The vag audio data to decode.
+     * @param sampleRate The sample rate of the audio.
+     * @return audioInputStream
+     */
+    public static AudioInputStream createAudioInputStream(byte[] vagAudioData, float sampleRate) {
+        AudioFormat format = new AudioFormat(sampleRate, 16, 1, true, false);
+        return new AudioInputStream(new VAGDecoderInputStream(vagAudioData), format, getSampleCount(vagAudioData));
+    }
+
+    /**
+     * Gets the number of samples (frames) which the VAG audio data decodes to.
+     * @param vagAudioData The vag audio data to count samples from.
+     * @return sampleCount
+     */
+    public static int getSampleCount(byte[] vagAudioData) {
+        int sampleCount = 0;
+        for (int offset = 0; offset + BYTES_PER_BLOCK <= vagAudioData.length; offset += BYTES_PER_BLOCK) {
+            if (vagAudioData[offset + 1] == END_FLAG)
+                break;
+
+            sampleCount += SAMPLES_PER_BLOCK;
+        }
+
+        return sampleCount;
+    }
+
+    /**
+     * Decodes a single block of VAG audio data to 16-bit little endian PCM.
+     * @param vagAudioData The vag audio data to decode from.
+     * @param offset The offset to the start of the block.
+     * @param decoderState The previous two decoded samples, which are updated as the block is decoded.
+     * @param output The array to write PCM data to. Must be at least PCM_BYTES_PER_BLOCK long.
+     * @return the number of bytes written, or -1 if the block marks the end of the audio
+     */
+    static int decodeBlock(byte[] vagAudioData, int offset, double[] decoderState, byte[] output) {
+        int predictNr = vagAudioData[offset] >> 4;
+        int shiftFactor = (vagAudioData[offset] & 0b1111);
+        if (vagAudioData[offset + 1] == END_FLAG)
+            return -1;
+
+        double coefficient1 = TABLE[predictNr][0];
+        double coefficient2 = TABLE[predictNr][1];
+        double s1 = decoderState[0];
+        double s2 = decoderState[1];
+        int outputIndex = 0;
+        for (int i = 0; i < SAMPLES_PER_BLOCK; i++) {
+            int data = vagAudioData[offset + 2 + (i >> 1)];
+            int nibble = ((i & 1) == 0) ? (data & 0xF) << 12 : (data & 0xF0) << 8;
+            double sample = (((short) nibble) >> shiftFactor) + ((s1 * coefficient1) + (s2 * coefficient2));
+            s2 = s1;
+            s1 = sample;
+
+            int d = (int) (sample + .5);
+            output[outputIndex++] = (byte) (d & 0xFF);
+            output[outputIndex++] = (byte) ((d >> 8) & 0xFF);
+        }
+
+        decoderState[0] = s1;
+        decoderState[1] = s2;
+        return outputIndex;
+    }
+
     /**
      * Converts a .wav file into VAG audio data.
      * @param wavBytes The file data to convert.
      * @return vagAudio
      */
     public static byte[] wavToVag(byte[] wavBytes) {
-        double[] samples = new double[28];
-        short[] fourBit = new short[28];
-        short[] wave = new short[BUFFER_SIZE + 28];
-        double s1 = 0;
-        double s2 = 0;
-        double oldS1 = 0;
-        double oldS2 = 0;
+        return encodeVag(readWavSamples(wavBytes));
+    }
 
-        DataReader reader = new DataReader(new ArraySource(wavBytes));
+    /**
+     * Converts many .wav files into VAG audio data, encoding them in parallel.
+     * @param wavFiles The file data to convert.
+     * @return vagAudio, in the same order as the supplied files
+     */
+    public static List<byte[]> wavToVag(List<byte[]> wavFiles) {
+        List<byte[]> results = new ArrayList<>(wavFiles.size());
+        if (!PARALLEL_ENCODING_ENABLED || wavFiles.size() <= 1) {
+            for (byte[] wavBytes : wavFiles)
+                results.add(wavToVag(wavBytes));
+            return results;
+        }
 
-        ArrayReceiver dataReceiver = new ArrayReceiver();
-        DataWriter writer = new DataWriter(dataReceiver);
+        List<Future<byte[]>> encodeTasks = new ArrayList<>(wavFiles.size());
+        for (byte[] wavBytes : wavFiles)
+            encodeTasks.add(ENCODE_POOL.submit(() -> wavToVag(wavBytes)));
+
+        try {
+            for (Future<byte[]> encodeTask : encodeTasks)
+                results.add(encodeTask.get());
+        } catch (InterruptedException | ExecutionException ex) {
+            for (Future<byte[]> encodeTask : encodeTasks)
+                encodeTask.cancel(true);
+
+            throw new RuntimeException("Failed to convert the .wav files to VAG audio.", ex);
+        }
+
+        return results;
+    }
+
+    private static short[] readWavSamples(byte[] wavBytes) {
+        DataReader reader = new DataReader(new ArraySource(wavBytes));
 
         // Read wav file.
         reader.verifyString(RIFF_SIGNATURE);
@@ -156,136 +241,166 @@ public class VAGUtil {
         if (channelCount != 1) // VAG Limitation.
             throw new RuntimeException("VAG Audio only supports one channel, but the supplied audio had " + channelCount + ".");
 
-
         reader.verifyString(DATA_CHUNK_SIGNATURE);
         int dataChunkSize = reader.readInt();
 
-        int sampleLen = (dataChunkSize / (bitsPerSample / Constants.BITS_PER_BYTE));
-        int flags = 0;
+        short[] samples = new short[dataChunkSize / (bitsPerSample / Constants.BITS_PER_BYTE)];
+        for (int i = 0; i < samples.length; i++)
+            samples[i] = reader.readShort();
 
-        int predictNr = 0;
-        int shiftFactor = 0;
-        while (sampleLen > 0) {
-            int size = Math.min(BUFFER_SIZE, sampleLen);
-            for (int i = 0; i < size; i++)
-                wave[i] = reader.readShort();
-
-            int i = size / 28;
-            if ((size % 28) != 0) {
-                for (int j = size % 28; j < 28; j++)
-                    wave[(28 * i) + j] = 0;
-                i++;
-            }
+        return samples;
+    }
 
-            for (int j = 0; j < i; j++) { // Pack 28 samples.
-                PredictResult pResult = findPredict(wave, j * 28, samples, predictNr, oldS1, oldS2);
-                oldS1 = pResult.getS1();
-                oldS2 = pResult.getS2();
-                predictNr = pResult.getPredictNr();
-                shiftFactor = pResult.getShiftFactor();
-
-                PackResult result = pack(samples, fourBit, predictNr, shiftFactor, s1, s2);
-                s1 = result.getS1();
-                s2 = result.getS2();
-
-                writer.writeByte((byte) ((predictNr << 4) | shiftFactor));
-                writer.writeByte((byte) flags);
-                for (int k = 0; k < 28; k += 2)
-                    writer.writeByte((byte) (((fourBit[k + 1] >> 8) & 0xF0) | ((fourBit[k] >> 12) & 0xF)));
-
-                sampleLen -= 28;
-                if (sampleLen < 28)
-                    flags = 1;
-            }
+    /**
+     * Encodes 16-bit PCM samples as VAG audio data.
+     * Choosing the filter & shift factor for a block only looks at the input samples, so blocks are split across threads for that step.
+     * Packing the blocks depends on the rounding error left by the previous block, so that step runs in order, but is cheap.
+     * @param pcmSamples The samples to encode.
+     * @return vagAudio
+     */
+    public static byte[] encodeVag(short[] pcmSamples) {
+        int blockCount = (pcmSamples.length + SAMPLES_PER_BLOCK - 1) / SAMPLES_PER_BLOCK;
+
+        // The samples are clamped ahead of time, with the two samples before the first block (always zero) included at the start.
+        double[] clampedSamples = new double[HISTORY_SAMPLE_COUNT + (blockCount * SAMPLES_PER_BLOCK)];
+        for (int i = 0; i < pcmSamples.length; i++)
+            clampedSamples[HISTORY_SAMPLE_COUNT + i] = Math.min(30720D, Math.max(-30719D, pcmSamples[i]));
+
+        byte[] predictNrs = new byte[blockCount];
+        byte[] shiftFactors = new byte[blockCount];
+        double[] filteredSamples = new double[blockCount * SAMPLES_PER_BLOCK];
+        PredictionTask predictionTask = new PredictionTask(clampedSamples, predictNrs, shiftFactors, filteredSamples, 0, blockCount);
+        if (!PARALLEL_ENCODING_ENABLED || blockCount < 2 * BLOCKS_PER_PREDICTION_TASK) {
+            predictionTask.compute();
+        } else if (ForkJoinTask.inForkJoinPool()) {
+            predictionTask.invoke(); // Already running on a pool thread, such as when encoding a batch.
+        } else {
+            ENCODE_POOL.invoke(predictionTask);
         }
 
-        writer.writeByte((byte) ((predictNr << 4) | shiftFactor));
-        writer.writeByte((byte) 7); // End flag.
-        writer.writeNull(14);
-        writer.closeReceiver();
-        return dataReceiver.toArray();
-    }
+        byte[] vagAudio = new byte[(blockCount + 1) * BYTES_PER_BLOCK];
+        packBlocks(pcmSamples.length, predictNrs, shiftFactors, filteredSamples, vagAudio);
 
-    private static PredictResult findPredict(short[] useSamples, int startIndex, double[] samples, int predictNr, double oldS1, double oldS2) {
-        double[][] buffer = new double[28][5];
-        double min = 10000000000D;
-        double s1 = oldS1;
-        double s2 = oldS2;
-
-        for (int i = 0; i < 5; i++) {
-            double max = 0;
-            s1 = oldS1;
-            s2 = oldS2;
-            for (int j = 0; j < 28; j++) {
-                double s0 = Math.min(30720D, Math.max(-30719D, useSamples[startIndex + j])); // s[t-0]
-                double ds = s0 + s1 * -TABLE[i][0] + s2 * -TABLE[i][1];
-                buffer[j][i] = ds;
-                if (fabs(ds) > max)
-                    max = fabs(ds);
-
-                s2 = s1; // new s[t-2]
-                s1 = s0; // new s[t-1]
-            }
+        // Write the end block.
+        int endBlockIndex = blockCount * BYTES_PER_BLOCK;
+        vagAudio[endBlockIndex] = blockCount > 0 ? (byte) ((predictNrs[blockCount - 1] << 4) | shiftFactors[blockCount - 1]) : 0;
+        vagAudio[endBlockIndex + 1] = END_FLAG;
+        return vagAudio;
+    }
 
-            if (max < min) {
-                min = max;
-                predictNr = i;
-            }
-            if (min <= 7) {
-                predictNr = 0;
-                break;
+    private static void findPredictions(double[] clampedSamples, byte[] predictNrs, byte[] shiftFactors, double[] filteredSamples, int startBlock, int endBlock) {
+        double[] buffer = new double[FILTER_COUNT * SAMPLES_PER_BLOCK]; // [filter * SAMPLES_PER_BLOCK + sample]
+        for (int block = startBlock; block < endBlock; block++) {
+            int sampleIndex = HISTORY_SAMPLE_COUNT + (block * SAMPLES_PER_BLOCK);
+            double min = 10000000000D;
+            int predictNr = 0;
+
+            for (int i = 0; i < FILTER_COUNT; i++) {
+                double coefficient1 = NEGATED_TABLE_1[i];
+                double coefficient2 = NEGATED_TABLE_2[i];
+                int bufferIndex = i * SAMPLES_PER_BLOCK;
+
+                // Each sample only depends on the input, not the previous result, so this loop has no dependency chain.
+                double max = 0;
+                for (int j = 0; j < SAMPLES_PER_BLOCK; j++) {
+                    int index = sampleIndex + j;
+                    double ds = clampedSamples[index] + clampedSamples[index - 1] * coefficient1 + clampedSamples[index - 2] * coefficient2;
+                    buffer[bufferIndex + j] = ds;
+                    max = Math.max(max, Math.abs(ds));
+                }
+
+                if (max < min) {
+                    min = max;
+                    predictNr = i;
+                }
+                if (min <= 7) {
+                    predictNr = 0;
+                    break;
+                }
             }
-        }
 
-        for (int i = 0; i < 28; i++)
-            samples[i] = buffer[i][predictNr];
+            System.arraycopy(buffer, predictNr * SAMPLES_PER_BLOCK, filteredSamples, block * SAMPLES_PER_BLOCK, SAMPLES_PER_BLOCK);
 
-        int min2 = (int) min;
-        int shiftMask = 0x4000;
+            int min2 = (int) min;
+            int shiftMask = 0x4000;
+            int shiftFactor;
+            for (shiftFactor = 0; shiftFactor < 12; shiftFactor++) {
+                if ((shiftMask & (min2 + (shiftMask >> 3))) != 0)
+                    break;
+                shiftMask = shiftMask >> 1;
+            }
 
-        int shiftFactor;
-        for (shiftFactor = 0; shiftFactor < 12; shiftFactor++) {
-            if ((shiftMask & (min2 + (shiftMask >> 3))) != 0)
-                break;
-            shiftMask = shiftMask >> 1;
+            predictNrs[block] = (byte) predictNr;
+            shiftFactors[block] = (byte) shiftFactor;
         }
-
-        return new PredictResult(predictNr, shiftFactor, s1, s2);
     }
 
-    @Getter
-    @AllArgsConstructor
-    private static class PredictResult {
-        private int predictNr;
-        private int shiftFactor;
-        private double s1;
-        private double s2;
-    }
-
-    private static PackResult pack(double[] samples, short[] fourBit, int predictNr, int shiftFactor, double s1, double s2) {
-        for (int i = 0; i < 28; i++) {
-            double s0 = samples[i] + s1 * -TABLE[predictNr][0] + s2 * -TABLE[predictNr][1];
-            double ds = s0 * (double) (1 << shiftFactor);
-            int di = Math.max(-32768, Math.min(32767, (((int) ds + 0x800) & 0xfffff000)));
-
-            fourBit[i] = (short) di;
+    private static void packBlocks(int sampleCount, byte[] predictNrs, byte[] shiftFactors, double[] filteredSamples, byte[] output) {
+        double s1 = 0;
+        double s2 = 0;
+        int flags = 0;
+        int remainingSamples = sampleCount;
+        for (int block = 0; block < predictNrs.length; block++) {
+            int predictNr = predictNrs[block];
+            int shiftFactor = shiftFactors[block];
+            double coefficient1 = NEGATED_TABLE_1[predictNr];
+            double coefficient2 = NEGATED_TABLE_2[predictNr];
+            double scale = (1 << shiftFactor);
+
+            int outputIndex = block * BYTES_PER_BLOCK;
+            output[outputIndex++] = (byte) ((predictNr << 4) | shiftFactor);
+            output[outputIndex++] = (byte) flags;
+
+            int sampleIndex = block * SAMPLES_PER_BLOCK;
+            int lowNibble = 0;
+            for (int i = 0; i < SAMPLES_PER_BLOCK; i++) {
+                double s0 = filteredSamples[sampleIndex + i] + s1 * coefficient1 + s2 * coefficient2;
+                int di = Math.max(-32768, Math.min(32767, (((int) (s0 * scale) + 0x800) & 0xfffff000)));
+                if ((i & 1) == 0) {
+                    lowNibble = (di >> 12) & 0xF;
+                } else {
+                    output[outputIndex++] = (byte) (((di >> 8) & 0xF0) | lowNibble);
+                }
+
+                di >>= shiftFactor;
+                s2 = s1;
+                s1 = (double) di - s0;
+            }
 
-            di >>= shiftFactor;
-            s2 = s1;
-            s1 = (double) di - s0;
+            remainingSamples -= SAMPLES_PER_BLOCK;
+            if (remainingSamples < SAMPLES_PER_BLOCK)
+                flags = 1;
         }
-
-        return new PackResult(s1, s2);
     }
 
-    @Getter
-    @AllArgsConstructor
-    private static class PackResult {
-        private double s1;
-        private double s2;
-    }
+    @SuppressWarnings("serial") // Tasks are never serialized.
+    private static class PredictionTask extends RecursiveAction {
+        private final double[] clampedSamples;
+        private final byte[] predictNrs;
+        private final byte[] shiftFactors;
+        private final double[] filteredSamples;
+        private final int startBlock;
+        private final int endBlock;
+
+        public PredictionTask(double[] clampedSamples, byte[] predictNrs, byte[] shiftFactors, double[] filteredSamples, int startBlock, int endBlock) {
+            this.clampedSamples = clampedSamples;
+            this.predictNrs = predictNrs;
+            this.shiftFactors = shiftFactors;
+            this.filteredSamples = filteredSamples;
+            this.startBlock = startBlock;
+            this.endBlock = endBlock;
+        }
 
-    private static double fabs(double val) {
-        return (val >= 0 ? val : -val);
+        @Override
+        protected void compute() {
+            if (!PARALLEL_ENCODING_ENABLED || this.endBlock - this.startBlock < 2 * BLOCKS_PER_PREDICTION_TASK) {
+                findPredictions(this.clampedSamples, this.predictNrs, this.shiftFactors, this.filteredSamples, this.startBlock, this.endBlock);
+                return;
+            }
+
+            int middleBlock = (this.startBlock + this.endBlock) >>> 1;
+            invokeAll(new PredictionTask(this.clampedSamples, this.predictNrs, this.shiftFactors, this.filteredSamples, this.startBlock, middleBlock),
+                    new PredictionTask(this.clampedSamples, this.predictNrs, this.shiftFactors, this.filteredSamples, middleBlock, this.endBlock));
+        }
     }
-}
\ No newline at end of file
+}
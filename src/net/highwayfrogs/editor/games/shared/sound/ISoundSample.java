@@ -3,9 +3,11 @@ package net.highwayfrogs.editor.games.shared.sound;
 import net.highwayfrogs.editor.games.generic.data.IGameObject;
 import net.highwayfrogs.editor.utils.AudioUtils;
 
+import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.Clip;
 import javax.sound.sampled.LineUnavailableException;
 import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 
@@ -28,6 +30,16 @@ public interface ISoundSample extends IGameObject {
         return AudioUtils.getClipFromRawAudioData(getAudioFormat(), getRawAudioPlaybackData());
     }
 
+    /**
+     * Creates a stream of the audio for playback.
+     * A new stream is created each time this is called.
+     * @return audioInputStream
+     */
+    default AudioInputStream getAudioInputStream() {
+        byte[] rawAudioData = getRawAudioPlaybackData();
+        return new AudioInputStream(new ByteArrayInputStream(rawAudioData), getAudioFormat(), rawAudioData.length / getAudioFormat().getFrameSize());
+    }
+
     /**
      * Gets the audio format used by this sample.
      * @return audioFormat
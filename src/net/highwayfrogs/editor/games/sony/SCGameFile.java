@@ -5,7 +5,9 @@ import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.MenuItem;
 import javafx.scene.image.Image;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import net.highwayfrogs.editor.games.sony.shared.mwd.WADFile;
 import net.highwayfrogs.editor.games.sony.shared.mwd.WADFile.WADEntry;
@@ -25,13 +27,14 @@ import net.highwayfrogs.editor.utils.FileUtils;
 import net.highwayfrogs.editor.utils.FileUtils.BrowserFileType;
 import net.highwayfrogs.editor.utils.FileUtils.SavedFilePath;
 import net.highwayfrogs.editor.utils.Utils;
-import net.highwayfrogs.editor.utils.data.writer.ArrayReceiver;
+import net.highwayfrogs.editor.utils.data.writer.ByteBufferReceiver;
 import net.highwayfrogs.editor.utils.data.writer.DataWriter;
 import net.highwayfrogs.editor.utils.logging.ILogger;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.Arrays;
 
 /**
  * Represents a file (data corresponding to MWI entry or contents of a filesystem entity).
@@ -44,7 +47,12 @@ public abstract class SCGameFile<TGameInstance extends SCGameInstance> extends S
     private byte[] rawFileData;
     private ISCFileDefinition fileDefinition;
     private WADEntry wadFileEntry;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) private byte[] cachedFileBytes; // The unpacked file bytes which cachedArchiveBytes was created from.
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) private byte[] cachedArchiveBytes; // The bytes last loaded from or written to the archive, compressed if the file is compressed.
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) private volatile Runnable deferredLoadTask; // Loads the file contents the first time they are needed. Null once the file has loaded.
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) private Thread deferredLoadThread; // The thread currently running deferredLoadTask.
 
+    private static final boolean INCREMENTAL_SAVE_ENABLED = true;
     public static final SavedFilePath SINGLE_FILE_IMPORT_PATH = new SavedFilePath("singleFileImportPath", "Choose the file to import.", BrowserFileType.ALL_FILES);
     public static final SavedFilePath SINGLE_FILE_EXPORT_PATH = new SavedFilePath("singleFileExportPath", "Choose the file to save the data as.", BrowserFileType.ALL_FILES);
 
@@ -59,6 +67,76 @@ public abstract class SCGameFile<TGameInstance extends SCGameInstance> extends S
         return true;
     }
 
+    /**
+     * Returns true iff this file can be loaded on a worker thread while other files are being loaded.
+     * This should only be true if load() reads nothing except the file's own data, and never looks up or registers other game files.
+     * Cross-file resolution should instead be done after the MWD has finished loading.
+     */
+    public boolean isParallelLoadSupported() {
+        return false;
+    }
+
+    /**
+     * Returns true iff this file can be saved on a worker thread while other files are being saved.
+     * This should be false if save() reads or changes data which belongs to another file (such as a peer file's header), since that file may be saved at the same time.
+     * Files which do not support it are saved on the calling thread, in MWI order.
+     */
+    public boolean isParallelSaveSupported() {
+        return true;
+    }
+
+    /**
+     * Returns true iff loading this file can be put off until the file is first used, instead of happening when the MWD loads.
+     * This is only used if isParallelLoadSupported() is also true, since the file may be loaded on a background thread.
+     * Nothing run while loading the MWD (including SCGameInstance.onMWDLoad) should need the file contents.
+     */
+    public boolean isLazyLoadSupported() {
+        return false;
+    }
+
+    /**
+     * Returns true iff the file contents have been loaded. This is only false while lazy loading is waiting for the file to be used.
+     */
+    public boolean isLoaded() {
+        return this.deferredLoadTask == null;
+    }
+
+    /**
+     * Puts off loading the file until ensureLoaded() is called.
+     * @param loadTask the task which loads the file contents
+     */
+    public void deferLoad(Runnable loadTask) {
+        if (loadTask == null)
+            throw new NullPointerException("loadTask");
+        if (this.deferredLoadTask != null)
+            throw new IllegalStateException("The file '" + getFileDisplayName() + "' already has a deferred load task.");
+
+        this.deferredLoadTask = loadTask;
+    }
+
+    /**
+     * Loads the file contents if they were lazily deferred and have not been loaded yet.
+     * Anything which gets a file without going through the MWDFile / SCGameInstance lookup methods should call this before using it.
+     */
+    public void ensureLoaded() {
+        Runnable loadTask = this.deferredLoadTask;
+        if (loadTask == null)
+            return; // Already loaded.
+
+        synchronized (loadTask) {
+            if (this.deferredLoadTask != loadTask || this.deferredLoadThread == Thread.currentThread())
+                return; // Either another thread loaded the file while we waited, or the file is being looked up while it loads.
+
+            this.deferredLoadThread = Thread.currentThread();
+            try {
+                loadTask.run();
+            } finally {
+                this.deferredLoadThread = null;
+                this.deferredLoadTask = null;
+            }
+        }
+    }
+
     @Override
     public ILogger getLogger() {
         return getFileDefinition().getLogger();
@@ -127,6 +205,7 @@ public abstract class SCGameFile<TGameInstance extends SCGameInstance> extends S
         if (original) {
             success = FileUtils.writeBytesToFile(getLogger(), outputFile, this.rawFileData, showPopupOnError);
         } else {
+            ensureLoaded();
             success = writeDataToFile(getLogger(), outputFile, showPopupOnError);
         }
 
@@ -134,6 +213,21 @@ public abstract class SCGameFile<TGameInstance extends SCGameInstance> extends S
             getLogger().info("Exported '%s'. (%s Version)", getFileDisplayName(), original ? "Original Raw" : "Current");
     }
 
+    /**
+     * Remembers the bytes the file was loaded from, so if saving produces the same bytes, they can be written again without compressing them.
+     * @param fileBytes the unpacked bytes the file was loaded from
+     * @param archiveBytes the bytes of the file as they appear in the archive (compressed, if the file is compressed)
+     */
+    public void cacheArchiveBytes(byte[] fileBytes, byte[] archiveBytes) {
+        if (fileBytes == null)
+            throw new NullPointerException("fileBytes");
+        if (archiveBytes == null)
+            throw new NullPointerException("archiveBytes");
+
+        this.cachedFileBytes = fileBytes;
+        this.cachedArchiveBytes = archiveBytes;
+    }
+
     /**
      * Gets the wad file which contains this file, if there is one.
      */
@@ -233,21 +327,57 @@ public abstract class SCGameFile<TGameInstance extends SCGameInstance> extends S
      * @param progressBar The progress bar to update, if there is one.
      */
     public void saveFile(DataWriter writer, ProgressBarComponent progressBar) {
+        writeSaveResult(writer, createSaveResult(progressBar), progressBar);
+    }
+
+    /**
+     * Saves the file contents to a byte array, and compresses it if the file is compressed.
+     * Nothing is written to the archive (or the MWI entry) here, so this can run on a worker thread while other files are saved.
+     * @param progressBar The progress bar to update, if there is one.
+     * @return saveResult
+     */
+    public SCGameFileSaveResult createSaveResult(ProgressBarComponent progressBar) {
+        return createSaveResult(progressBar, getFileDefinition().isCompressed());
+    }
+
+    /**
+     * Saves the file contents to a byte array, and compresses it if requested.
+     * If the saved bytes match the bytes last loaded or written, those archive bytes are reused instead of compressing again.
+     * Files which have not been loaded yet are written exactly as they were read, since they cannot have been changed.
+     * Nothing is written to the archive (or the MWI entry) here, so this can run on a worker thread while other files are saved.
+     * @param progressBar The progress bar to update, if there is one.
+     * @param compress If true, the saved bytes will be compressed with PP20 compression.
+     * @return saveResult
+     */
+    public SCGameFileSaveResult createSaveResult(ProgressBarComponent progressBar, boolean compress) {
         if (progressBar != null)
             progressBar.setStatusMessage("Saving '" + getFileDisplayName() + "'");
         long startTime = System.currentTimeMillis();
-        long compressionTime;
 
         try {
+            // Files which have not been loaded yet are written exactly as they were read.
+            byte[] cachedFileBytes = this.cachedFileBytes;
+            byte[] cachedArchiveBytes = this.cachedArchiveBytes;
+            if (INCREMENTAL_SAVE_ENABLED && cachedArchiveBytes != null && !isLoaded())
+                return new SCGameFileSaveResult(cachedFileBytes, null, cachedArchiveBytes, null, System.currentTimeMillis() - startTime, 0);
+
             // Save the file contents to a byte array.
-            ArrayReceiver receiver = new ArrayReceiver();
+            ensureLoaded();
+            // The buffer starts at the previous file size, so if the size is unchanged, the array is handed over without being copied.
+            MWIResourceEntry mwiEntry = getIndexEntry();
+            ByteBufferReceiver receiver = mwiEntry != null && mwiEntry.getUnpackedSize() > 0 ? new ByteBufferReceiver(mwiEntry.getUnpackedSize()) : new ByteBufferReceiver();
             this.save(new DataWriter(receiver));
 
             // Potentially compress the saved byte array.
-            byte[] fileBytes = receiver.toArray();
+            byte[] fileBytes = receiver.releaseArray();
+
+            // If saving produced the same bytes as last time, the previous archive bytes are still correct, so compression can be skipped.
+            if (INCREMENTAL_SAVE_ENABLED && cachedArchiveBytes != null && Arrays.equals(fileBytes, cachedFileBytes))
+                return new SCGameFileSaveResult(cachedFileBytes, null, cachedArchiveBytes, null, System.currentTimeMillis() - startTime, 0);
 
             PackResult packResult;
-            if (getFileDefinition().isCompressed()) {
+            long compressionTime;
+            if (compress) {
                 long compressionStartTime = System.currentTimeMillis();
                 packResult = PP20Packer.packData(fileBytes);
                 compressionTime = System.currentTimeMillis() - compressionStartTime;
@@ -256,21 +386,40 @@ public abstract class SCGameFile<TGameInstance extends SCGameInstance> extends S
                 compressionTime = 0;
             }
 
-            MWIResourceEntry mwiEntry = getIndexEntry();
-            if (mwiEntry != null)
-                mwiEntry.onSaveData(fileBytes, packResult);
+            return new SCGameFileSaveResult(fileBytes, packResult, null, null, System.currentTimeMillis() - startTime, compressionTime);
+        } catch (Throwable th) {
+            return new SCGameFileSaveResult(null, null, null, th, System.currentTimeMillis() - startTime, 0);
+        }
+    }
 
-            writer.writeBytes(packResult != null ? packResult.getPackedBytes() : fileBytes);
+    /**
+     * Writes a previously created save result to the archive, and updates the MWI entry to match it.
+     * @param writer The data writer to write the data to.
+     * @param saveResult The save result to write, created by createSaveResult().
+     * @param progressBar The progress bar to update, if there is one.
+     * @return true iff the file data was written successfully
+     */
+    public boolean writeSaveResult(DataWriter writer, SCGameFileSaveResult saveResult, ProgressBarComponent progressBar) {
+        if (saveResult == null)
+            throw new NullPointerException("saveResult");
+
+        long startTime = System.currentTimeMillis();
+        try {
+            if (saveResult.getError() != null)
+                throw saveResult.getError();
+
+            applySaveResult(saveResult);
+            writer.writeBytes(saveResult.getWrittenBytes());
         } catch (Throwable th) {
             Utils.handleError(getLogger(), th, true, "Failed to save file '%s' to MWD.", getFileDisplayName());
-            return;
+            return false;
         }
 
         // Report timing.
-        long endTime = System.currentTimeMillis();
         if (progressBar != null)
             progressBar.addCompletedProgress(1);
-        long timeTaken = (endTime - startTime);
+        long timeTaken = saveResult.getSaveTime() + (System.currentTimeMillis() - startTime);
+        long compressionTime = saveResult.getCompressionTime();
         if (timeTaken >= 10) {
             // No need to include the file name, as that's already part of the logger info.
             if (compressionTime > 0) {
@@ -279,6 +428,26 @@ public abstract class SCGameFile<TGameInstance extends SCGameInstance> extends S
                 getLogger().warning("Saving took %d ms.", timeTaken);
             }
         }
+
+        return true;
+    }
+
+    /**
+     * Updates the MWI entry to match a save result which is about to be written, and remembers the written bytes for the next save.
+     * @param saveResult The save result to apply, created by createSaveResult().
+     */
+    public void applySaveResult(SCGameFileSaveResult saveResult) {
+        if (saveResult == null)
+            throw new NullPointerException("saveResult");
+        if (saveResult.getError() != null)
+            throw new IllegalArgumentException("Cannot apply a save result which failed.", saveResult.getError());
+
+        MWIResourceEntry mwiEntry = getIndexEntry();
+        if (mwiEntry != null && !saveResult.isCachedDataReused()) // The MWI entry already matches the cached bytes.
+            mwiEntry.onSaveData(saveResult.getFileBytes(), saveResult.getPackResult());
+
+        this.cachedFileBytes = saveResult.getFileBytes();
+        this.cachedArchiveBytes = saveResult.getWrittenBytes();
     }
 
     /**
@@ -324,6 +493,37 @@ public abstract class SCGameFile<TGameInstance extends SCGameInstance> extends S
         return DefaultFileUIController.loadEditor(gameInstance, template, controller, fileToEdit);
     }
 
+    /**
+     * Contains the saved (and potentially compressed) contents of a file which have not been written to the archive yet.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class SCGameFileSaveResult {
+        private final byte[] fileBytes;
+        private final PackResult packResult;
+        private final byte[] cachedArchiveBytes;
+        private final Throwable error;
+        private final long saveTime;
+        private final long compressionTime;
+
+        /**
+         * Gets the bytes which should be written to the archive.
+         */
+        public byte[] getWrittenBytes() {
+            if (this.cachedArchiveBytes != null)
+                return this.cachedArchiveBytes;
+
+            return this.packResult != null ? this.packResult.getPackedBytes() : this.fileBytes;
+        }
+
+        /**
+         * Returns true iff the bytes previously loaded from (or written to) the archive are being written again.
+         */
+        public boolean isCachedDataReused() {
+            return this.cachedArchiveBytes != null;
+        }
+    }
+
     /**
      * Represents an SCGameFile which can be used by any SCGameInstance.
      */
@@ -11,6 +11,7 @@ import net.highwayfrogs.editor.games.sony.shared.LinkedTextureRemap;
 import net.highwayfrogs.editor.games.sony.shared.TextureRemapArray;
 import net.highwayfrogs.editor.games.sony.shared.mof2.MRModel;
 import net.highwayfrogs.editor.games.sony.shared.mwd.MWDFile;
+import net.highwayfrogs.editor.games.sony.shared.mwd.MWDUnpackCache;
 import net.highwayfrogs.editor.games.sony.shared.mwd.WADFile;
 import net.highwayfrogs.editor.games.sony.shared.mwd.mwi.MWIResourceEntry;
 import net.highwayfrogs.editor.games.sony.shared.mwd.mwi.MillenniumWadIndex;
@@ -22,7 +23,8 @@ import net.highwayfrogs.editor.utils.FileUtils;
 import net.highwayfrogs.editor.utils.Utils;
 import net.highwayfrogs.editor.utils.data.reader.ArraySource;
 import net.highwayfrogs.editor.utils.data.reader.DataReader;
-import net.highwayfrogs.editor.utils.data.reader.FileSource;
+import net.highwayfrogs.editor.utils.data.reader.DataSource;
+import net.highwayfrogs.editor.utils.data.reader.MappedFileSource;
 import net.highwayfrogs.editor.utils.data.writer.ArrayReceiver;
 import net.highwayfrogs.editor.utils.data.writer.DataWriter;
 import net.highwayfrogs.editor.utils.data.writer.FixedArrayReceiver;
@@ -313,7 +315,7 @@ public abstract class SCGameInstance extends GameInstance {
 
             writer.jumpTemp(textureRemap.getReaderIndex());
             for (int j = 0; j < textureRemap.getTextureIds().size(); j++)
-                writer.writeShort(textureRemap.getTextureIds().get(j));
+                writer.writeShort(textureRemap.getTextureIds().getShort(j));
             writer.jumpReturn();
         }
     }
@@ -330,7 +332,7 @@ public abstract class SCGameInstance extends GameInstance {
         short value = 0;
         reader.jumpTemp(textureRemap.getReaderIndex());
         while (reader.hasMore() && !isEndOfRemap(textureRemap, nextTextureRemap, reader, value = reader.readShort()))
-            textureRemap.getTextureIds().add(value);
+            textureRemap.getTextureIds().addShort(value);
 
         // The position we want to pass to the hook is the position the remap ends. '0' is included implicitly as padding by the compiler if it's not aligned.
         // So, if the value is 0 we can stay put, but if it wasn't zero, we read further remap data and should go back.
@@ -465,7 +467,7 @@ public abstract class SCGameInstance extends GameInstance {
      */
     @SuppressWarnings("unchecked")
     public <T extends SCGameFile<?>> T getGameFile(int resourceId) {
-        return (T) this.fileObjectsByFileEntries.get(getResourceEntryByID(resourceId));
+        return getGameFile(getResourceEntryByID(resourceId));
     }
 
     /**
@@ -482,7 +484,7 @@ public abstract class SCGameInstance extends GameInstance {
             throw new IllegalArgumentException("There was no file entry for resource ID: " + resourceId);
         }
 
-        SCGameFile<?> gameFile = this.fileObjectsByFileEntries.get(resourceEntry);
+        SCGameFile<?> gameFile = getGameFile(resourceEntry);
         if (!fileClass.isInstance(gameFile)) {
             if (allowNull)
                 return null;
@@ -500,7 +502,11 @@ public abstract class SCGameInstance extends GameInstance {
      */
     @SuppressWarnings("unchecked")
     public <T extends SCGameFile<?>> T getGameFile(MWIResourceEntry resourceEntry) {
-        return (T) this.fileObjectsByFileEntries.get(resourceEntry);
+        SCGameFile<?> gameFile = this.fileObjectsByFileEntries.get(resourceEntry);
+        if (gameFile != null)
+            gameFile.ensureLoaded();
+
+        return (T) gameFile;
     }
 
     /**
@@ -742,19 +748,20 @@ public abstract class SCGameInstance extends GameInstance {
         if (this.getVersionConfig().isMwdLooseFiles()) {
             mwdFile.loadFilesFromDirectory(progressBar);
         } else {
-            FileSource fileSource;
+            DataSource fileSource;
 
             try {
-                fileSource = new FileSource(this.mwdFile);
+                fileSource = new MappedFileSource(this.mwdFile); // The loaded MWD is never overwritten, so it is safe to map it.
             } catch (IOException ex) {
                 throw new RuntimeException("Failed to read MWD file '" + this.mwdFile + "'.");
             }
 
             // Load the MWD file.
-            mwdFile.loadMwdFile(new DataReader(fileSource), progressBar);
+            mwdFile.loadMwdFile(new DataReader(fileSource), MWDUnpackCache.open(this, this.mwdFile), progressBar);
         }
 
         this.onMWDLoad(mwdFile);
+        mwdFile.startLazyLoadWarmUp();
         return mwdFile;
     }
 
@@ -1,6 +1,5 @@
 package net.highwayfrogs.editor.games.sony.frogger;
 
-import javafx.scene.image.Image;
 import lombok.Cleanup;
 import lombok.Getter;
 import lombok.SneakyThrows;
@@ -70,7 +69,6 @@ public class FroggerGameInstance extends SCGameInstance {
     private final List<DemoTableEntry> demoTableEntries = new ArrayList<>();
     private final List<FormEntry> fullFormBook = new ArrayList<>();
     private final List<FroggerScript> scripts = new ArrayList<>();
-    private final Map<FroggerMapLevelID, Image> levelImageMap = new HashMap<>();
     private final Map<FroggerMapTheme, FormEntry[]> allowedForms = new HashMap<>();
     private final ThemeBook[] themeLibrary = new ThemeBook[FroggerMapTheme.values().length];
     private final PickupData[] pickupData = new PickupData[FroggerFlyScoreType.values().length];
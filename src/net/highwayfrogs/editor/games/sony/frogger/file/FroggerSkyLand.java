@@ -85,11 +85,7 @@ public class FroggerSkyLand extends SCGameFile<FroggerGameInstance> {
         if (getGameInstance().getSkyLandTextureRemap().getTextureIds().isEmpty())
             return null; // None, configuration was not set.
 
-        // Convert from a list to an array.
-        short[] result = new short[getGameInstance().getSkyLandTextureRemap().getTextureIds().size()];
-        for (int i = 0; i < result.length; i++)
-            result[i] = getGameInstance().getSkyLandTextureRemap().getTextureIds().get(i);
-        return result;
+        return getGameInstance().getSkyLandTextureRemap().getTextureIds().toShortArray();
     }
 
     /**
@@ -114,6 +114,16 @@ public class FroggerMapFile extends SCChunkedFile<FroggerGameInstance> {
         addFilePacket(this.animationPacket = new FroggerMapFilePacketAnimation(this, getMapConfig(resourceEntry).isMapAnimationSupported()));
     }
 
+    @Override
+    public boolean isParallelLoadSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean isLazyLoadSupported() {
+        return true;
+    }
+
     @Override
     protected PacketSizeType getPacketSizeForUnknownChunk(String identifier) {
         return PacketSizeType.NO_SIZE;
@@ -126,20 +136,25 @@ public class FroggerMapFile extends SCChunkedFile<FroggerGameInstance> {
 
     @Override
     public Image getCollectionViewIcon() {
-        FroggerMapLevelID level = getMapLevelID();
-
-        // Find level image, or create it if it's not found.
-        Image levelImage = getGameInstance().getLevelImageMap().get(level);
-        if (levelImage == null && getGameInstance().getLevelInfoMap().size() > 0) {
-            LevelInfo info = getGameInstance().getLevelInfoMap().get(level);
-            if (info != null) {
-                GameImage levelTextureImage = getGameInstance().getImageFromPointer(info.getLevelTexturePointer());
-                if (levelTextureImage != null)
-                    getGameInstance().getLevelImageMap().put(level, levelImage = FXUtils.toFXImage(Utils.resizeImage(levelTextureImage.toBufferedImage(), 32, 32), false));
-            }
+        // This is created in the background, and the result is cached by the collection view until the level texture changes.
+        LevelInfo info = getGameInstance().getLevelInfoMap().get(getMapLevelID());
+        if (info != null) {
+            GameImage levelTextureImage = getGameInstance().getImageFromPointer(info.getLevelTexturePointer());
+            if (levelTextureImage != null)
+                return FXUtils.toFXImage(Utils.resizeImage(levelTextureImage.toBufferedImage(), 32, 32), false);
         }
 
-        return levelImage != null ? levelImage : ImageResource.TREASURE_MAP_32.getFxImage();
+        return ImageResource.TREASURE_MAP_32.getFxImage();
+    }
+
+    @Override
+    public boolean isCollectionViewIconSlow() {
+        return true; // The level texture is decoded and resized.
+    }
+
+    @Override
+    public long getCollectionViewIconStamp() {
+        return GameImage.getModificationCount();
     }
 
     @Override
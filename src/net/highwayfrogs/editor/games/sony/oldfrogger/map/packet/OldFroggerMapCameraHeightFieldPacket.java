@@ -48,8 +48,7 @@ public class OldFroggerMapCameraHeightFieldPacket extends OldFroggerMapPacket {
         if (this.xSquareCount > 0 && this.zSquareCount > 0) {
             this.heightMap = new short[this.zSquareCount][this.xSquareCount];
             for (int z = 0; z < this.zSquareCount; z++)
-                for (int x = 0; x < this.xSquareCount; x++)
-                    this.heightMap[z][x] = reader.readShort();
+                reader.readShorts(this.heightMap[z], 0, this.xSquareCount);
         } else {
             // TODO: Why dis happen sometimes.
             this.heightMap = null;
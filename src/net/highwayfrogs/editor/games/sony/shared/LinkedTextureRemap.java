@@ -42,6 +42,8 @@ public class LinkedTextureRemap<TFile extends SCGameFile<?>> extends TextureRema
         if (file == null)
             return null;
 
+        file.ensureLoaded();
+
         if (!this.fileClass.isInstance(file))
             throw new ClassCastException("The file was of type " + Utils.getSimpleName(file) + ", but a(n) " + Utils.getSimpleName(this.fileClass) + " was requested.");
 
@@ -1,29 +1,33 @@
 package net.highwayfrogs.editor.games.sony.shared;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import net.highwayfrogs.editor.file.map.view.UnknownTextureSource;
 import net.highwayfrogs.editor.file.vlo.GameImage;
 import net.highwayfrogs.editor.file.vlo.VLOArchive;
 import net.highwayfrogs.editor.games.sony.SCGameInstance;
 import net.highwayfrogs.editor.games.sony.SCGameObject.SCSharedGameObject;
+import net.highwayfrogs.editor.games.sony.shared.mwd.MWDFile;
 import net.highwayfrogs.editor.gui.SelectionMenu;
 import net.highwayfrogs.editor.utils.FXUtils;
 import net.highwayfrogs.editor.utils.NumberUtils;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 import java.util.function.Consumer;
 
 /**
  * Represents a texture remap array.
+ * The texture ids are stored as a short[] instead of boxed values, since they are looked up for every polygon when building meshes.
+ * Resolved textures are cached per VLO, and the cache is cleared when the texture ids change, or when the VLOs change.
  * Created by Kneesnap on 10/25/2023.
  */
 @Getter
 public class TextureRemapArray extends SCSharedGameObject {
     private long loadAddress;
     private String name;
-    private final List<Short> textureIds = new ArrayList<>();
+    private final TextureIdList textureIds = new TextureIdList();
     private int textureIdSlotsAvailable = -1;
+    @Getter(AccessLevel.NONE) private final Map<VLOArchive, ResolvedTextureTable> resolvedTextureTables = new HashMap<>(); // Each VLO can resolve textures differently.
 
     public TextureRemapArray(SCGameInstance instance) {
         super(instance);
@@ -62,7 +66,7 @@ public class TextureRemapArray extends SCSharedGameObject {
      * @return The remapped (global) texture id, or null if this is not in the remap.
      */
     public Short getRemappedTextureId(int localTextureId) {
-        return localTextureId >= 0 && localTextureId < this.textureIds.size() ? this.textureIds.get(localTextureId) : null;
+        return localTextureId >= 0 && localTextureId < this.textureIds.size() ? this.textureIds.getShort(localTextureId) : null;
     }
 
     /**
@@ -72,10 +76,26 @@ public class TextureRemapArray extends SCSharedGameObject {
      * @return gameImageOrNull
      */
     public GameImage resolveTexture(int localTextureId, VLOArchive vloArchive) {
-        Short globalTextureId = getRemappedTextureId(localTextureId);
-        if (globalTextureId == null)
+        if (localTextureId < 0 || localTextureId >= this.textureIds.size())
             return null;
 
+        MWDFile mainArchive = getGameInstance().getMainArchive();
+        if (mainArchive == null) // Textures can't be cached until the MWD has loaded, since it could be missing VLOs.
+            return resolveTextureUncached(this.textureIds.getShort(localTextureId), vloArchive);
+
+        int textureIndexVersion = mainArchive.getTextureIndexVersion();
+        synchronized (this.resolvedTextureTables) {
+            ResolvedTextureTable table = this.resolvedTextureTables.get(vloArchive);
+            if (table == null || table.getTextureIndexVersion() != textureIndexVersion) {
+                table = new ResolvedTextureTable(this.textureIds.toShortArray(), vloArchive, textureIndexVersion);
+                this.resolvedTextureTables.put(vloArchive, table);
+            }
+
+            return table.getImages()[localTextureId];
+        }
+    }
+
+    private GameImage resolveTextureUncached(short globalTextureId, VLOArchive vloArchive) {
         // First try the one the user supplied.
         if (vloArchive != null) {
             GameImage gameImage = vloArchive.getImageByTextureId(globalTextureId, false);
@@ -87,6 +107,16 @@ public class TextureRemapArray extends SCSharedGameObject {
         return getGameInstance().getMainArchive().getImageByTextureId(globalTextureId);
     }
 
+    /**
+     * Clears the cached texture resolution, so textures are resolved again next time they are requested.
+     * This happens automatically when the texture ids change, or when the VLOs in the MWD change.
+     */
+    public void invalidateResolvedTextures() {
+        synchronized (this.resolvedTextureTables) {
+            this.resolvedTextureTables.clear();
+        }
+    }
+
     /**
      * Gets all textures available in the remap.
      * @param vloArchive the vlo archive to prefer to lookup textures from
@@ -130,7 +160,7 @@ public class TextureRemapArray extends SCSharedGameObject {
      */
     public int getRemapIndex(short globalTextureId) {
         for (int i = 0; i < this.textureIds.size(); i++)
-            if (this.textureIds.get(i) == globalTextureId)
+            if (this.textureIds.getShort(i) == globalTextureId)
                 return i;
         return -1;
     }
@@ -165,6 +195,140 @@ public class TextureRemapArray extends SCSharedGameObject {
         return getDebugName();
     }
 
+    /**
+     * The images resolved for each local texture id, for a particular VLO.
+     */
+    @Getter
+    private class ResolvedTextureTable {
+        private final GameImage[] images;
+        private final int textureIndexVersion;
+
+        public ResolvedTextureTable(short[] textureIds, VLOArchive vloArchive, int textureIndexVersion) {
+            this.images = new GameImage[textureIds.length];
+            this.textureIndexVersion = textureIndexVersion;
+
+            // Look up the textures in the preferred VLO all at once, keeping the first image for each id, just like VLOArchive.getImageByTextureId().
+            Map<Short, GameImage> vloImagesById = new HashMap<>();
+            if (vloArchive != null)
+                for (GameImage image : vloArchive.getImages())
+                    vloImagesById.putIfAbsent(image.getTextureId(), image);
+
+            MWDFile mainArchive = getGameInstance().getMainArchive();
+            for (int i = 0; i < textureIds.length; i++) {
+                GameImage image = vloImagesById.get(textureIds[i]);
+                this.images[i] = image != null ? image : mainArchive.getImageByTextureId(textureIds[i]);
+            }
+        }
+    }
+
+    /**
+     * A list of texture ids, stored as a short[] to avoid boxing.
+     * Any change made to the list clears the cached texture resolution.
+     */
+    public class TextureIdList extends AbstractList<Short> implements RandomAccess {
+        private short[] values = new short[8];
+        private int size;
+
+        /**
+         * Gets the texture id at the given index without boxing it.
+         * @param index the index of the texture id to get
+         * @return textureId
+         */
+        public short getShort(int index) {
+            if (index < 0 || index >= this.size)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+
+            return this.values[index];
+        }
+
+        /**
+         * Replaces the texture id at the given index without boxing it.
+         * @param index the index of the texture id to replace
+         * @param textureId the new texture id
+         * @return oldTextureId
+         */
+        public short setShort(int index, short textureId) {
+            short oldTextureId = getShort(index);
+            if (oldTextureId != textureId) {
+                this.values[index] = textureId;
+                invalidateResolvedTextures();
+            }
+
+            return oldTextureId;
+        }
+
+        /**
+         * Adds a texture id to the end of the list without boxing it.
+         * @param textureId the texture id to add
+         */
+        public void addShort(short textureId) {
+            ensureCapacity(this.size + 1);
+            this.values[this.size++] = textureId;
+            this.modCount++;
+            invalidateResolvedTextures();
+        }
+
+        /**
+         * Gets a copy of the texture ids as an array.
+         */
+        public short[] toShortArray() {
+            return Arrays.copyOf(this.values, this.size);
+        }
+
+        @Override
+        public Short get(int index) {
+            return getShort(index);
+        }
+
+        @Override
+        public Short set(int index, Short textureId) {
+            return setShort(index, textureId);
+        }
+
+        @Override
+        public void add(int index, Short textureId) {
+            if (index < 0 || index > this.size)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+
+            ensureCapacity(this.size + 1);
+            System.arraycopy(this.values, index, this.values, index + 1, this.size - index);
+            this.values[index] = textureId;
+            this.size++;
+            this.modCount++;
+            invalidateResolvedTextures();
+        }
+
+        @Override
+        public Short remove(int index) {
+            short oldTextureId = getShort(index);
+            System.arraycopy(this.values, index + 1, this.values, index, this.size - index - 1);
+            this.size--;
+            this.modCount++;
+            invalidateResolvedTextures();
+            return oldTextureId;
+        }
+
+        @Override
+        public void clear() {
+            if (this.size == 0)
+                return;
+
+            this.size = 0;
+            this.modCount++;
+            invalidateResolvedTextures();
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > this.values.length)
+                this.values = Arrays.copyOf(this.values, Math.max(capacity, this.values.length * 2));
+        }
+    }
+
     /**
      * Creates a remap based on the contents of a VLO archive.
      */
@@ -181,7 +345,7 @@ public class TextureRemapArray extends SCSharedGameObject {
          * Update the texture remap id array.
          */
         public void updateRemapArray() {
-            List<Short> values = getTextureIds();
+            TextureIdList values = getTextureIds();
 
             // Remove now unused texture slots.
             while (values.size() > this.vloArchive.getImages().size())
@@ -191,9 +355,9 @@ public class TextureRemapArray extends SCSharedGameObject {
             for (int i = 0; i < this.vloArchive.getImages().size(); i++) {
                 GameImage image = this.vloArchive.getImages().get(i);
                 if (i >= values.size()) {
-                    values.add(image.getTextureId());
-                } else if (image.getTextureId() != values.get(i)) { // Avoid autoboxing a new short if it matches to begin with.
-                    values.set(i, image.getTextureId());
+                    values.addShort(image.getTextureId());
+                } else {
+                    values.setShort(i, image.getTextureId());
                 }
             }
         }
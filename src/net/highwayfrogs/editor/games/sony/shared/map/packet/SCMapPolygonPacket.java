@@ -76,16 +76,14 @@ public class SCMapPolygonPacket<TGameInstance extends SCGameInstance> extends SC
             throw new RuntimeException("We expected to read the grid offset table, but it starts at " + NumberUtils.toHexString(gridOffsetTableStartIndex) + ", and the reader is at " + NumberUtils.toHexString(reader.getIndex()) + ".");
 
         for (int y = 0; y < this.vertexGridOffsetTable.length; y++)
-            for (int x = 0; x < this.vertexGridOffsetTable[y].length; x++)
-                this.vertexGridOffsetTable[y][x] = reader.readShort();
+            reader.readShorts(this.vertexGridOffsetTable[y]);
 
         // Read grid length table.
         if (reader.getIndex() != gridLengthTableStartIndex)
             throw new RuntimeException("We expected to read the grid length table, but it starts at " + NumberUtils.toHexString(gridLengthTableStartIndex) + ", and the reader is at " + NumberUtils.toHexString(reader.getIndex()) + ".");
 
         for (int y = 0; y < this.vertexGridLengthTable.length; y++)
-            for (int x = 0; x < this.vertexGridLengthTable[y].length; x++)
-                this.vertexGridLengthTable[y][x] = reader.readShort();
+            reader.readShorts(this.vertexGridLengthTable[y]);
 
         // Read UVs.
         if (reader.getIndex() != uvDataStartIndex)
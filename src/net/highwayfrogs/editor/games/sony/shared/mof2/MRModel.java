@@ -16,6 +16,7 @@ import net.highwayfrogs.editor.games.sony.SCGameInstance;
 import net.highwayfrogs.editor.games.sony.SCUtils;
 import net.highwayfrogs.editor.games.sony.frogger.FroggerGameInstance;
 import net.highwayfrogs.editor.games.sony.shared.mof2.animation.MRAnimatedMof;
+import net.highwayfrogs.editor.games.sony.shared.mof2.animation.MRAnimatedMofFrameCache;
 import net.highwayfrogs.editor.games.sony.shared.mof2.mesh.MRStaticMof;
 import net.highwayfrogs.editor.games.sony.shared.mof2.ui.MRModelFileUIController;
 import net.highwayfrogs.editor.games.sony.shared.mof2.ui.MRModelMeshController;
@@ -82,6 +83,7 @@ public class MRModel extends SCSharedGameFile {
 
         this.staticMof = null;
         this.animatedMof = null;
+        MRAnimatedMofFrameCache.invalidate(this);
         if (Arrays.equals(DUMMY_DATA, signature))
             return;
 
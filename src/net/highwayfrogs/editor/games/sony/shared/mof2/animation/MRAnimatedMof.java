@@ -101,7 +101,7 @@ public class MRAnimatedMof extends MRBaseModelData {
         for (int i = 0; i < staticMofCount; i++) {
             requireReaderIndex(reader, mofPointers[i], "Expected MRStaticMof[" + i + "]");
             int mofEndIndex = mofPointers.length > i + 1 ? mofPointers[i + 1] : staticMofTablePointer;
-            DataReader mofReader = reader.readBytesAndCreateNewReader(mofEndIndex - mofPointers[i]);
+            DataReader mofReader = reader.readSubReader(mofEndIndex - mofPointers[i]);
             MRStaticMof newMof = new MRStaticMof(getModel());
             this.staticMofs.add(newMof);
 
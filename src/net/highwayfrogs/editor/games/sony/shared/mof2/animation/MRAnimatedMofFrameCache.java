@@ -0,0 +1,208 @@
+package net.highwayfrogs.editor.games.sony.shared.mof2.animation;
+
+import lombok.Getter;
+import lombok.NonNull;
+import net.highwayfrogs.editor.file.standard.IVector;
+import net.highwayfrogs.editor.file.standard.SVector;
+import net.highwayfrogs.editor.file.standard.psx.PSXMatrix;
+import net.highwayfrogs.editor.games.sony.shared.mof2.MRModel;
+import net.highwayfrogs.editor.games.sony.shared.mof2.mesh.MRMofPart;
+import net.highwayfrogs.editor.games.sony.shared.mof2.mesh.MRMofPartCel;
+import net.highwayfrogs.editor.utils.DataUtils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Caches the vertex positions of XAR animations after the part transforms have been applied.
+ * Applying a transform requires creating a matrix and running it against every vertex, which adds up when scrubbing through an animation or showing many animated models at once.
+ * Instead, every frame of an animation is calculated once, and packed into a single array.
+ * The cache is shared between all models, and the least recently used animations are removed once it grows beyond its memory limit.
+ * Created by agent on 10/18/2026.
+ */
+public class MRAnimatedMofFrameCache {
+    private static final Map<BakedAnimationKey, MRBakedPartAnimation> BAKED_ANIMATIONS = new LinkedHashMap<>(16, .75F, true); // Access-ordered, so the first entry is the least recently used.
+    private static long cacheSizeInBytes;
+
+    private static final boolean FRAME_BAKING_ENABLED = true;
+    private static final long MAXIMUM_CACHE_SIZE_IN_BYTES = 32L * 1024 * 1024;
+    private static final int BYTES_PER_VERTEX = 3 * Short.BYTES;
+
+    /**
+     * Gets the baked vertex positions for a part animated by a XAR animation, baking them if they are not cached.
+     * @param part the mof part which is animated
+     * @param partCel the part cel containing the untransformed vertices
+     * @param xarAnimation the animation to apply to the part
+     * @return bakedAnimation, or null if the animation cannot be baked
+     */
+    public static synchronized MRBakedPartAnimation getBakedAnimation(@NonNull MRMofPart part, @NonNull MRMofPartCel partCel, @NonNull MRAnimatedMofXarAnimation xarAnimation) {
+        if (!FRAME_BAKING_ENABLED)
+            return null;
+
+        BakedAnimationKey key = new BakedAnimationKey(part, partCel, xarAnimation);
+        MRBakedPartAnimation bakedAnimation = BAKED_ANIMATIONS.get(key);
+        if (bakedAnimation != null)
+            return bakedAnimation;
+
+        int frameCount = xarAnimation.getFrameCount();
+        int celNumberMultiple = xarAnimation.isInterpolationEnabled() ? MRAnimatedMofXarAnimation.CEL_NUMBERS_PER_FRAME_WHEN_INTERPOLATING : 1;
+        if (frameCount <= 0 || xarAnimation.getCelNumbers().size() != frameCount * celNumberMultiple)
+            return null; // The frames wouldn't line up with the ones calculated without the cache.
+
+        long sizeInBytes = (long) frameCount * partCel.getVertices().size() * BYTES_PER_VERTEX;
+        if (sizeInBytes > MAXIMUM_CACHE_SIZE_IN_BYTES / 4)
+            return null; // Too large to be worth keeping, it would evict most of the cache.
+
+        bakedAnimation = new MRBakedPartAnimation(part, partCel, xarAnimation);
+        BAKED_ANIMATIONS.put(key, bakedAnimation);
+        cacheSizeInBytes += bakedAnimation.getSizeInBytes();
+        removeLeastRecentlyUsed();
+        return bakedAnimation;
+    }
+
+    /**
+     * Removes all baked animations for the given model.
+     * This should be called whenever the model's animation data changes.
+     * @param model the model to remove baked animations for
+     */
+    public static synchronized void invalidate(MRModel model) {
+        Iterator<MRBakedPartAnimation> iterator = BAKED_ANIMATIONS.values().iterator();
+        while (iterator.hasNext()) {
+            MRBakedPartAnimation bakedAnimation = iterator.next();
+            MRModel bakedModel = bakedAnimation.xarAnimation.getParentCelSet().getParentModelSet().getParentMof().getModel();
+            if (bakedModel == model || bakedAnimation.part.getParentMof().getModel() == model) {
+                cacheSizeInBytes -= bakedAnimation.getSizeInBytes();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all baked animations.
+     */
+    public static synchronized void clear() {
+        BAKED_ANIMATIONS.clear();
+        cacheSizeInBytes = 0;
+    }
+
+    /**
+     * Gets the number of bytes currently used by baked vertex positions.
+     */
+    public static synchronized long getCacheSizeInBytes() {
+        return cacheSizeInBytes;
+    }
+
+    private static void removeLeastRecentlyUsed() {
+        Iterator<Entry<BakedAnimationKey, MRBakedPartAnimation>> iterator = BAKED_ANIMATIONS.entrySet().iterator();
+        while (cacheSizeInBytes > MAXIMUM_CACHE_SIZE_IN_BYTES && iterator.hasNext()) {
+            cacheSizeInBytes -= iterator.next().getValue().getSizeInBytes();
+            iterator.remove();
+        }
+    }
+
+    private static class BakedAnimationKey {
+        private final MRMofPart part;
+        private final MRMofPartCel partCel;
+        private final MRAnimatedMofXarAnimation xarAnimation;
+
+        public BakedAnimationKey(MRMofPart part, MRMofPartCel partCel, MRAnimatedMofXarAnimation xarAnimation) {
+            this.part = part;
+            this.partCel = partCel;
+            this.xarAnimation = xarAnimation;
+        }
+
+        @Override
+        public int hashCode() {
+            return (((System.identityHashCode(this.part) * 31) + System.identityHashCode(this.partCel)) * 31) + System.identityHashCode(this.xarAnimation);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof BakedAnimationKey))
+                return false;
+
+            BakedAnimationKey otherKey = (BakedAnimationKey) other;
+            return this.part == otherKey.part && this.partCel == otherKey.partCel && this.xarAnimation == otherKey.xarAnimation;
+        }
+    }
+
+    /**
+     * Contains the vertex positions of a mof part for every frame of a XAR animation.
+     * Positions are stored as [frame][vertex][xyz], using the same fixed point values as SVector.
+     */
+    public static class MRBakedPartAnimation {
+        private final MRMofPart part;
+        private final MRAnimatedMofXarAnimation xarAnimation;
+        @Getter private final int frameCount;
+        @Getter private final int vertexCount;
+        private final short[] positions;
+
+        private MRBakedPartAnimation(MRMofPart part, MRMofPartCel partCel, MRAnimatedMofXarAnimation xarAnimation) {
+            this.part = part;
+            this.xarAnimation = xarAnimation;
+            this.frameCount = xarAnimation.getFrameCount();
+
+            List<SVector> vertices = partCel.getVertices();
+            this.vertexCount = vertices.size();
+            this.positions = new short[this.frameCount * this.vertexCount * 3];
+
+            MRAnimatedMof animatedMof = xarAnimation.getParentCelSet().getParentModelSet().getParentMof();
+            IVector result = new IVector();
+            int index = 0;
+            for (int frame = 0; frame < this.frameCount; frame++) {
+                PSXMatrix transformMatrix = animatedMof.getTransformMatrix(part, xarAnimation, frame);
+                for (int i = 0; i < vertices.size(); i++) {
+                    PSXMatrix.MRApplyMatrix(transformMatrix, vertices.get(i), result);
+                    this.positions[index++] = (short) result.getX();
+                    this.positions[index++] = (short) result.getY();
+                    this.positions[index++] = (short) result.getZ();
+                }
+            }
+        }
+
+        /**
+         * Gets the number of bytes used by the baked positions.
+         */
+        public long getSizeInBytes() {
+            return (long) this.positions.length * Short.BYTES;
+        }
+
+        /**
+         * Gets the baked frame shown at the given animation tick.
+         * @param animationTick the animation tick to resolve
+         * @return frameIndex
+         */
+        public int getFrameIndex(int animationTick) {
+            return Math.floorMod(animationTick, this.frameCount);
+        }
+
+        /**
+         * Copies the position of a single vertex into an SVector.
+         * @param animationTick the animation tick to get the position at
+         * @param vertexIndex the index of the vertex within the part cel
+         * @param output the vector to store the position in
+         * @return output
+         */
+        public SVector getVertex(int animationTick, int vertexIndex, SVector output) {
+            int index = ((getFrameIndex(animationTick) * this.vertexCount) + vertexIndex) * 3;
+            output.setValues(this.positions[index], this.positions[index + 1], this.positions[index + 2]);
+            return output;
+        }
+
+        /**
+         * Writes the positions of every vertex at the given animation tick as floats, in the format used by mesh vertex arrays.
+         * @param animationTick the animation tick to get the positions at
+         * @param output the array to write xyz triples to
+         * @param outputIndex the index into the output array to start writing at
+         */
+        public void copyFrame(int animationTick, float[] output, int outputIndex) {
+            int index = getFrameIndex(animationTick) * this.vertexCount * 3;
+            int endIndex = index + (this.vertexCount * 3);
+            while (index < endIndex)
+                output[outputIndex++] = DataUtils.fixedPointShortToFloat4Bit(this.positions[index++]);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 import net.highwayfrogs.editor.games.sony.shared.mof2.MRModel;
+import net.highwayfrogs.editor.games.sony.shared.mof2.animation.MRAnimatedMofFrameCache;
+import net.highwayfrogs.editor.games.sony.shared.mof2.animation.MRAnimatedMofFrameCache.MRBakedPartAnimation;
 import net.highwayfrogs.editor.games.sony.shared.mof2.animation.MRAnimatedMofModel;
 import net.highwayfrogs.editor.games.sony.shared.mof2.animation.MRAnimatedMofXarAnimation;
 import net.highwayfrogs.editor.games.sony.shared.mof2.animation.flipbook.MRMofFlipbookAnimation;
@@ -62,6 +64,23 @@ public class MRModelAnimationPlayer {
         return animations.size() > this.xarAnimationId ? animations.get(this.xarAnimationId) : null;
     }
 
+    /**
+     * Gets the baked vertex positions of the active XAR animation for a mof part.
+     * Baked positions are only available while a XAR animation is playing without a flipbook animation.
+     * @param mofPart the mof part to get the positions for
+     * @return bakedAnimation, or null if there is none
+     */
+    public MRBakedPartAnimation getBakedXarAnimation(MRMofPart mofPart) {
+        if (this.flipbookAnimationId != ANIMATION_ID_NONE)
+            return null; // The part cel can change between frames.
+
+        MRAnimatedMofXarAnimation xarAnimation = getXarAnimation();
+        if (xarAnimation == null)
+            return null;
+
+        return MRAnimatedMofFrameCache.getBakedAnimation(mofPart, mofPart.getPartCel(this.flipbookAnimationId, 0), xarAnimation);
+    }
+
     /**
      * Gets the active flipbook animation, if there is one.
      * @return flipbookAnimation
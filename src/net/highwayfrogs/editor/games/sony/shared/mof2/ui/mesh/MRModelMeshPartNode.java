@@ -8,11 +8,13 @@ import net.highwayfrogs.editor.file.standard.psx.PSXMatrix;
 import net.highwayfrogs.editor.games.sony.shared.mesh.SCPolygonAdapterNode;
 import net.highwayfrogs.editor.games.sony.shared.mof2.MRModel;
 import net.highwayfrogs.editor.games.sony.shared.mof2.animation.MRAnimatedMof;
+import net.highwayfrogs.editor.games.sony.shared.mof2.animation.MRAnimatedMofFrameCache.MRBakedPartAnimation;
 import net.highwayfrogs.editor.games.sony.shared.mof2.animation.MRAnimatedMofXarAnimation;
 import net.highwayfrogs.editor.games.sony.shared.mof2.animation.texture.MRMofTextureAnimationPolygonTarget;
 import net.highwayfrogs.editor.games.sony.shared.mof2.mesh.MRMofPart;
 import net.highwayfrogs.editor.games.sony.shared.mof2.mesh.MRMofPartCel;
 import net.highwayfrogs.editor.games.sony.shared.mof2.mesh.MRMofPolygon;
+import net.highwayfrogs.editor.gui.mesh.DynamicMeshDataEntry;
 import net.highwayfrogs.editor.system.math.Vector2f;
 
 import java.util.ArrayList;
@@ -25,7 +27,9 @@ import java.util.List;
 public class MRModelMeshPartNode extends SCPolygonAdapterNode<MRMofPolygon> {
     @Getter @NonNull private final MRMofPart mofPart;
     private final List<SVector> vertexCache = new ArrayList<>();
+    private final List<SVector> animatedVertices = new ArrayList<>(); // Reused between frames to hold the animated vertex positions.
     private int lastVertexCacheAnimationTick = Integer.MAX_VALUE;
+    private float[] bakedFramePositions = new float[0]; // Reused between frames.
 
     public MRModelMeshPartNode(MRModelMesh mesh, MRMofPart mofPart) {
         super(mesh);
@@ -81,11 +85,23 @@ public class MRModelMeshPartNode extends SCPolygonAdapterNode<MRMofPolygon> {
 
         this.vertexCache.clear();
         MRAnimatedMofXarAnimation xarAnimation = animationPlayer.getXarAnimation();
-        if (xarAnimation != null) {
+        MRBakedPartAnimation bakedAnimation = xarAnimation != null ? animationPlayer.getBakedXarAnimation(this.mofPart) : null;
+        if (bakedAnimation != null) {
+            ensureAnimatedVertexCount(bakedAnimation.getVertexCount());
+            for (int i = 0; i < bakedAnimation.getVertexCount(); i++)
+                this.vertexCache.add(bakedAnimation.getVertex(animationTick, i, this.animatedVertices.get(i)));
+        } else if (xarAnimation != null) {
             MRAnimatedMof animatedMof = xarAnimation.getParentCelSet().getParentModelSet().getParentMof();
             PSXMatrix transformMatrix = animatedMof.getTransformMatrix(this.mofPart, xarAnimation, animationTick);
-            for (SVector vertex : partCel.getVertices())
-                this.vertexCache.add(new SVector(PSXMatrix.MRApplyMatrix(transformMatrix, vertex, new IVector())));
+            List<SVector> vertices = partCel.getVertices();
+            ensureAnimatedVertexCount(vertices.size());
+            IVector result = new IVector();
+            for (int i = 0; i < vertices.size(); i++) {
+                PSXMatrix.MRApplyMatrix(transformMatrix, vertices.get(i), result);
+                SVector vertex = this.animatedVertices.get(i);
+                vertex.setValues((short) result.getX(), (short) result.getY(), (short) result.getZ());
+                this.vertexCache.add(vertex);
+            }
         } else {
             this.vertexCache.addAll(partCel.getVertices());
         }
@@ -98,6 +114,11 @@ public class MRModelMeshPartNode extends SCPolygonAdapterNode<MRMofPolygon> {
         return this.vertexCache;
     }
 
+    private void ensureAnimatedVertexCount(int vertexCount) {
+        while (this.animatedVertices.size() < vertexCount)
+            this.animatedVertices.add(new SVector());
+    }
+
     @Override
     protected int[] getVertices(MRMofPolygon polygon) {
         return polygon.getVertices();
@@ -115,7 +136,8 @@ public class MRModelMeshPartNode extends SCPolygonAdapterNode<MRMofPolygon> {
         // Update texture animations.
         getMesh().pushBatchOperations();
         this.lastVertexCacheAnimationTick = Integer.MAX_VALUE; // Because this forces an update, reset the cache.
-        updateVertices();
+        if (!tryApplyBakedFrame())
+            updateVertices();
 
         getMesh().getTextureAtlas().startBulkOperations();
         for (int i = 0; i < this.mofPart.getTextureAnimationPolygonTargets().size(); i++) {
@@ -130,6 +152,34 @@ public class MRModelMeshPartNode extends SCPolygonAdapterNode<MRMofPolygon> {
         getMesh().popBatchOperations();
     }
 
+    /**
+     * Writes the vertex positions of the active XAR animation frame directly to the mesh, if the animation has been baked.
+     * @return true iff the vertex positions were written
+     */
+    private boolean tryApplyBakedFrame() {
+        MRModelAnimationPlayer animationPlayer = getAnimationPlayer();
+        DynamicMeshDataEntry vertexEntry = getVertexEntry();
+        if (vertexEntry == null || animationPlayer.getXarAnimation() == null)
+            return false;
+
+        MRBakedPartAnimation bakedAnimation = animationPlayer.getBakedXarAnimation(this.mofPart);
+        if (bakedAnimation == null)
+            return false;
+
+        // The weird vertex found in incomplete mofs never moves, so it doesn't need to be written.
+        int vertexCount = bakedAnimation.getVertexCount();
+        int expectedVertexCount = vertexCount + (getMofPart().getParentMof().getModel().isWeirdFrogMOF() ? 1 : 0);
+        if (vertexEntry.getWrittenVertexCount() != expectedVertexCount || vertexEntry.getPendingVertexCount() != expectedVertexCount || getMesh().getPointElementSize() != 3)
+            return false;
+
+        if (this.bakedFramePositions.length < vertexCount * 3)
+            this.bakedFramePositions = new float[vertexCount * 3];
+
+        bakedAnimation.copyFrame(animationPlayer.getAnimationTick(), this.bakedFramePositions, 0);
+        vertexEntry.writeVertexXYZs(0, this.bakedFramePositions, 0, vertexCount);
+        return true;
+    }
+
     /**
      * Gets the active animation data.
      */
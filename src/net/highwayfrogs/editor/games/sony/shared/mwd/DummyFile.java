@@ -29,6 +29,11 @@ public class DummyFile extends SCSharedGameFile {
         this.buffer = ByteBuffer.allocate(length);
     }
 
+    @Override
+    public boolean isParallelLoadSupported() {
+        return true;
+    }
+
     @Override
     public void load(DataReader reader) {
         this.buffer.put(reader.readBytes(length));
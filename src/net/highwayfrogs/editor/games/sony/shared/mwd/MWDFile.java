@@ -1,5 +1,7 @@
 package net.highwayfrogs.editor.games.sony.shared.mwd;
 
+import javafx.scene.control.Alert;
+import lombok.AccessLevel;
 import lombok.Getter;
 import net.highwayfrogs.editor.Constants;
 import net.highwayfrogs.editor.file.vlo.GameImage;
@@ -9,6 +11,7 @@ import net.highwayfrogs.editor.file.vlo.VLOArchive;
 import net.highwayfrogs.editor.games.shared.basic.GameBuildInfo;
 import net.highwayfrogs.editor.games.sony.SCGameData.SCSharedGameData;
 import net.highwayfrogs.editor.games.sony.SCGameFile;
+import net.highwayfrogs.editor.games.sony.SCGameFile.SCGameFileSaveResult;
 import net.highwayfrogs.editor.games.sony.SCGameInstance;
 import net.highwayfrogs.editor.games.sony.shared.mof2.MRModel;
 import net.highwayfrogs.editor.games.sony.shared.mwd.WADFile.WADEntry;
@@ -18,6 +21,7 @@ import net.highwayfrogs.editor.games.sony.shared.pp20.PP20Unpacker.UnpackResult;
 import net.highwayfrogs.editor.games.sony.shared.ui.SCMainMenuUIController;
 import net.highwayfrogs.editor.gui.SelectionMenu;
 import net.highwayfrogs.editor.gui.components.ProgressBarComponent;
+import net.highwayfrogs.editor.utils.FXUtils;
 import net.highwayfrogs.editor.utils.FileUtils;
 import net.highwayfrogs.editor.utils.NumberUtils;
 import net.highwayfrogs.editor.utils.Utils;
@@ -29,12 +33,15 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -46,6 +53,11 @@ import java.util.stream.Collectors;
 public class MWDFile extends SCSharedGameData {
     private String buildNotes;
     private final List<SCGameFile<?>> files = new ArrayList<>();
+    @Getter(AccessLevel.NONE) private final Object fileIndexLock = new Object();
+    @Getter(AccessLevel.NONE) private final Map<Class<?>, List<? extends SCGameFile<?>>> filesByClass = new HashMap<>(); // Built as classes are requested, cleared when the files change.
+    @Getter(AccessLevel.NONE) private Map<Integer, List<GameImage>> imagesByTextureId; // Built on first use, cleared when the files or images change.
+    @Getter(AccessLevel.NONE) private MWDUnpackCache unpackCache; // Only available while the MWD is loading.
+    private volatile int textureIndexVersion; // Increases whenever the texture lookup is invalidated, so caches built from it can tell when they are stale.
 
     public static final String FILE_SIGNATURE = "DAWM";
     public static final int BUILD_NOTES_START_OFFSET = 2 * Constants.INTEGER_SIZE;
@@ -53,6 +65,12 @@ public class MWDFile extends SCSharedGameData {
     private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("EEEE, d MMMM yyyy");
     private static final SimpleDateFormat TIME_FORMAT = new SimpleDateFormat("HH:mm:ss");
     public static final ImageFilterSettings VLO_ICON_SETTING = new ImageFilterSettings(ImageState.EXPORT);
+    private static final boolean PARALLEL_LOAD_ENABLED = true;
+    private static final boolean PARALLEL_SAVE_ENABLED = true;
+    private static final boolean LAZY_LOAD_ENABLED = true; // Files which support it are only loaded once they are used.
+    private static final boolean LAZY_LOAD_WARM_UP_ENABLED = false; // If true, lazily loaded files are loaded on a background thread after the MWD loads.
+    private static final int THREAD_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final ExecutorService MWD_THREAD_POOL = Executors.newWorkStealingPool(THREAD_COUNT);
 
     public MWDFile(SCGameInstance instance) {
         super(instance);
@@ -69,6 +87,29 @@ public class MWDFile extends SCSharedGameData {
      * @param progressBar the progress bar to update, if exists
      */
     public void loadMwdFile(DataReader reader, ProgressBarComponent progressBar) {
+        loadMwdFile(reader, null, progressBar);
+    }
+
+    /**
+     * Loads the MWD file with a progress bar to show progress.
+     * @param reader the reader to read from
+     * @param unpackCache the cache to get decompressed file data from, if there is one. Any files which are not in the cache will be added to it.
+     * @param progressBar the progress bar to update, if exists
+     */
+    public void loadMwdFile(DataReader reader, MWDUnpackCache unpackCache, ProgressBarComponent progressBar) {
+        this.unpackCache = unpackCache;
+        try {
+            readMwdFile(reader, progressBar);
+        } finally {
+            this.unpackCache = null;
+        }
+
+        // Saving the cache doesn't need to hold up the user.
+        if (unpackCache != null)
+            MWD_THREAD_POOL.submit(unpackCache::saveIfChanged);
+    }
+
+    private void readMwdFile(DataReader reader, ProgressBarComponent progressBar) {
         List<MWIResourceEntry> mwiEntries = getGameInstance().getArchiveIndex().getEntries();
         if (progressBar != null)
             progressBar.setTotalProgress(mwiEntries.size());
@@ -80,6 +121,11 @@ public class MWDFile extends SCSharedGameData {
         this.buildNotes = reader.readNullTerminatedFixedSizeString(BUILD_NOTES_SIZE);
         getGameInstance().getLogger().info("Build Notes: \n" + this.buildNotes + (this.buildNotes.endsWith("\n") ? "" : "\n"));
 
+        if (PARALLEL_LOAD_ENABLED) {
+            loadFilesInParallel(reader, mwiEntries, progressBar);
+            return;
+        }
+
         boolean lastFileLoadSuccess = false;
         for (MWIResourceEntry entry : mwiEntries) {
             if (entry.testFlag(MWIResourceEntry.FLAG_GROUP_ACCESS)) {
@@ -159,23 +205,166 @@ public class MWDFile extends SCSharedGameData {
         }
     }
 
+    /**
+     * Loads the files in the MWD using the worker thread pool.
+     * The file data is read sequentially, then decompressed on the worker threads.
+     * Files are created & registered in MWI order (keeping the file list deterministic), and files which support it are loaded on the worker threads.
+     * Anything which needs other files to be loaded should occur after the MWD has loaded, such as in SCGameInstance.onMWDLoad().
+     * Popups created by the worker threads are held back until every file has loaded, then shown in MWI order.
+     * @param reader the reader to read file data from
+     * @param mwiEntries the entries to load files for
+     * @param progressBar the progress bar to update, if exists
+     */
+    private void loadFilesInParallel(DataReader reader, List<MWIResourceEntry> mwiEntries, ProgressBarComponent progressBar) {
+        // Read the raw file data in order, and start decompressing it.
+        List<MWIResourceEntry> loadEntries = new ArrayList<>(mwiEntries.size());
+        List<byte[]> archiveFileBytes = new ArrayList<>(mwiEntries.size());
+        List<Future<byte[]>> unpackTasks = new ArrayList<>(mwiEntries.size());
+        int[] fileStartIndices = new int[mwiEntries.size()];
+        for (MWIResourceEntry entry : mwiEntries) {
+            if (entry.testFlag(MWIResourceEntry.FLAG_GROUP_ACCESS)) {
+                if (progressBar != null)
+                    progressBar.addCompletedProgress(1);
+                continue; // This file is part of a WAD archive, and isn't a file entry in the MWD, so we can't load it here.
+            }
+
+            // The position is validated once it is known if the previous file loaded successfully.
+            fileStartIndices[loadEntries.size()] = reader.getIndex();
+            reader.setIndex(entry.getArchiveOffset());
+            byte[] fileBytes = reader.readBytes(entry.getArchiveSize());
+            reader.align(Constants.CD_SECTOR_SIZE);
+
+            loadEntries.add(entry);
+            archiveFileBytes.add(fileBytes);
+            unpackTasks.add(MWD_THREAD_POOL.submit(() -> unpackFileData(fileBytes, entry)));
+        }
+
+        // Create & register files in MWI order, loading them on worker threads when possible.
+        List<Future<Boolean>> loadTasks = new ArrayList<>(loadEntries.size());
+        List<List<Supplier<Alert>>> deferredPopUps = new ArrayList<>();
+        try {
+            for (int i = 0; i < loadEntries.size(); i++) {
+                MWIResourceEntry entry = loadEntries.get(i);
+                byte[] archiveBytes = archiveFileBytes.get(i);
+                byte[] fileBytes = unpackTasks.get(i).get();
+                archiveFileBytes.set(i, null);
+                unpackTasks.set(i, null);
+
+                SCGameFile<?> file = loadFile(fileBytes, entry);
+                this.files.add(file);
+                invalidateFileIndex();
+                if (tryDeferLoad(file, fileBytes, archiveBytes, entry, progressBar)) {
+                    loadTasks.add(CompletableFuture.completedFuture(true)); // The file will be loaded once it is used.
+                } else if (file.isParallelLoadSupported()) {
+                    List<Supplier<Alert>> filePopUps = new ArrayList<>();
+                    deferredPopUps.add(filePopUps);
+                    loadTasks.add(MWD_THREAD_POOL.submit(() -> FXUtils.runWithDeferredPopUps(filePopUps, () -> loadFileContents(file, fileBytes, archiveBytes, entry, progressBar))));
+                } else {
+                    loadTasks.add(CompletableFuture.completedFuture(loadFileContents(file, fileBytes, archiveBytes, entry, progressBar)));
+                }
+            }
+
+            // Wait for the files to finish loading, and validate file positions the same way as the sequential loader.
+            boolean lastFileLoadSuccess = false;
+            for (int i = 0; i < loadEntries.size(); i++) {
+                MWIResourceEntry entry = loadEntries.get(i);
+                if (lastFileLoadSuccess && fileStartIndices[i] != entry.getArchiveOffset())
+                    getLogger().warning("Expected file contents for '%s' at %s, but it actually started at %s.", entry.getDisplayName(), NumberUtils.toHexString(fileStartIndices[i]), NumberUtils.toHexString(entry.getArchiveOffset()));
+
+                lastFileLoadSuccess = loadTasks.get(i).get();
+            }
+        } catch (InterruptedException | ExecutionException ex) {
+            for (Future<byte[]> unpackTask : unpackTasks)
+                if (unpackTask != null)
+                    unpackTask.cancel(true);
+            for (Future<Boolean> loadTask : loadTasks)
+                loadTask.cancel(true);
+
+            throw new RuntimeException("Failed to load the MWD file contents.", ex);
+        }
+
+        for (List<Supplier<Alert>> filePopUps : deferredPopUps)
+            FXUtils.showDeferredPopUps(filePopUps);
+    }
+
     /**
      * Loads the next file corresponding to the MWI resource.
-     * @param fileBytes the bytes of the file to load. May be compressed.
+     * @param archiveBytes the bytes of the file to load. May be compressed.
      * @param mwiEntry the MWI entry corresponding to the file
      * @param progressBar the progress bar to update, if there is one.
      */
-    private boolean loadNextFile(byte[] fileBytes, MWIResourceEntry mwiEntry, ProgressBarComponent progressBar) {
+    private boolean loadNextFile(byte[] archiveBytes, MWIResourceEntry mwiEntry, ProgressBarComponent progressBar) {
+        byte[] fileBytes = unpackFileData(archiveBytes, mwiEntry);
+        SCGameFile<?> file = loadFile(fileBytes, mwiEntry);
+        this.files.add(file);
+        invalidateFileIndex();
+        if (tryDeferLoad(file, fileBytes, archiveBytes, mwiEntry, progressBar))
+            return true;
+
+        return loadFileContents(file, fileBytes, archiveBytes, mwiEntry, progressBar);
+    }
+
+    /**
+     * Puts off loading a file until it is first used, if lazy loading is enabled and supported by the file.
+     * The file is marked as unmodified, so saving it before it has loaded writes the original bytes without loading it.
+     * @param file the file to defer loading
+     * @param fileBytes the decompressed bytes of the file to load
+     * @param archiveBytes the bytes of the file as read from the archive
+     * @param mwiEntry the MWI entry corresponding to the file
+     * @param progressBar the progress bar to update, if there is one.
+     * @return true iff loading the file has been deferred
+     */
+    private boolean tryDeferLoad(SCGameFile<?> file, byte[] fileBytes, byte[] archiveBytes, MWIResourceEntry mwiEntry, ProgressBarComponent progressBar) {
+        if (!LAZY_LOAD_ENABLED || !file.isLazyLoadSupported() || !file.isParallelLoadSupported())
+            return false;
+
+        file.cacheArchiveBytes(fileBytes, archiveBytes);
+        file.deferLoad(() -> loadFileContents(file, fileBytes, archiveBytes, mwiEntry, null));
         if (progressBar != null)
-            progressBar.setStatusMessage("Reading '" + mwiEntry.getDisplayName() + "'");
+            progressBar.addCompletedProgress(1);
+
+        return true;
+    }
 
+    /**
+     * Starts loading any files which were lazily deferred on a background thread, if enabled.
+     * Files which are used before the background thread reaches them are loaded immediately by the thread using them.
+     */
+    public void startLazyLoadWarmUp() {
+        if (!LAZY_LOAD_ENABLED || !LAZY_LOAD_WARM_UP_ENABLED)
+            return;
+
+        List<SCGameFile<?>> deferredFiles = new ArrayList<>();
+        for (SCGameFile<?> file : this.files)
+            if (!file.isLoaded())
+                deferredFiles.add(file);
+
+        if (deferredFiles.isEmpty())
+            return;
+
+        MWD_THREAD_POOL.submit(() -> {
+            long startTime = System.currentTimeMillis();
+            for (SCGameFile<?> file : deferredFiles)
+                file.ensureLoaded();
+            getLogger().info("Finished loading %d deferred file(s) in the background. (%d ms)", deferredFiles.size(), System.currentTimeMillis() - startTime);
+        });
+    }
+
+    /**
+     * Decompresses the file data, if it is compressed with PP20 compression.
+     * This does not access any other files, so it is safe to call from a worker thread.
+     * @param fileBytes the bytes of the file to load. May be compressed.
+     * @param mwiEntry the MWI entry corresponding to the file
+     * @return unpackedFileBytes
+     */
+    private byte[] unpackFileData(byte[] fileBytes, MWIResourceEntry mwiEntry) {
         // Read the file. Decompress if it is PP20 compression.
         int safetyMarginWordCount = 0;
         byte[] compressedBytes = null;
         if (mwiEntry.isCompressed()) {
             if (PP20Unpacker.isCompressed(fileBytes)) {
                 compressedBytes = fileBytes;
-                UnpackResult unpackResult = PP20Unpacker.unpackData(fileBytes);
+                UnpackResult unpackResult = unpackData(fileBytes, mwiEntry);
                 fileBytes = unpackResult.getUnpackedBytes();
                 safetyMarginWordCount = unpackResult.getSafetyMarginWordCount();
             } else {
@@ -187,8 +376,42 @@ public class MWDFile extends SCSharedGameData {
             getLogger().severe("ERROR: File is marked as being %d bytes large, but is actually %d bytes large.", mwiEntry.getUnpackedSize(), fileBytes.length);
 
         mwiEntry.onLoadData(fileBytes, compressedBytes, safetyMarginWordCount);
-        SCGameFile<?> file = loadFile(fileBytes, mwiEntry);
-        this.files.add(file);
+        return fileBytes;
+    }
+
+    /**
+     * Decompresses PP20 compressed file data, using the unpack cache if the MWD is loading with one.
+     * This is safe to call from a worker thread.
+     * @param compressedBytes the compressed bytes of the file
+     * @param mwiEntry the MWI entry corresponding to the file
+     * @return unpackResult
+     */
+    UnpackResult unpackData(byte[] compressedBytes, MWIResourceEntry mwiEntry) {
+        MWDUnpackCache unpackCache = this.unpackCache;
+        if (unpackCache == null)
+            return PP20Unpacker.unpackData(compressedBytes);
+
+        UnpackResult unpackResult = unpackCache.getUnpackResult(mwiEntry, compressedBytes);
+        if (unpackResult == null) {
+            unpackResult = PP20Unpacker.unpackData(compressedBytes);
+            unpackCache.addUnpackResult(mwiEntry, compressedBytes, unpackResult);
+        }
+
+        return unpackResult;
+    }
+
+    /**
+     * Loads the contents of a file which has already been created.
+     * @param file the file to load
+     * @param fileBytes the decompressed bytes of the file to load
+     * @param archiveBytes the bytes of the file as read from the archive, kept so an unmodified file can be saved without re-compressing it
+     * @param mwiEntry the MWI entry corresponding to the file
+     * @param progressBar the progress bar to update, if there is one.
+     * @return true iff the file loaded successfully
+     */
+    private boolean loadFileContents(SCGameFile<?> file, byte[] fileBytes, byte[] archiveBytes, MWIResourceEntry mwiEntry, ProgressBarComponent progressBar) {
+        if (progressBar != null)
+            progressBar.setStatusMessage("Reading '" + mwiEntry.getDisplayName() + "'");
 
         boolean success = true;
         try {
@@ -196,6 +419,7 @@ public class MWDFile extends SCSharedGameData {
             file.load(singleFileReader);
             if (singleFileReader.hasMore() && file.warnIfEndNotReached()) // Warn if the full file is not read.
                 file.getLogger().warning("File contents were read to index 0x%08X, leaving %d bytes unread. (Length: 0x%08X)", singleFileReader.getIndex(), singleFileReader.getRemaining(), fileBytes.length);
+            file.cacheArchiveBytes(fileBytes, archiveBytes);
         } catch (Exception ex) {
             success = false;
             Utils.handleError(getLogger(), ex, false, "Failed to load %s (%d)", mwiEntry.getDisplayName(), mwiEntry.getResourceId());
@@ -216,6 +440,8 @@ public class MWDFile extends SCSharedGameData {
     @SuppressWarnings("unchecked")
     public <T extends SCGameFile<?>> T replaceFile(String importedFileName, byte[] fileBytes, MWIResourceEntry entry, SCGameFile<?> oldFile, boolean updateUI) {
         T newFile;
+        if (oldFile != null)
+            oldFile.ensureLoaded(); // The old file may be needed to set up the new one.
 
         if (oldFile instanceof MRModel) {
             MRModel oldModel = (MRModel) oldFile;
@@ -273,6 +499,8 @@ public class MWDFile extends SCSharedGameData {
             this.files.set(fileIndex, newFile);
         if (wadEntry != null)
             wadEntry.setFile(newFile);
+
+        invalidateFileIndex();
     }
 
     /**
@@ -321,16 +549,14 @@ public class MWDFile extends SCSharedGameData {
         writer.align(Constants.CD_SECTOR_SIZE);
 
         long mwdStart = System.currentTimeMillis();
-        for (SCGameFile<?> file : this.files) {
-            if ((writer.getIndex() % Constants.CD_SECTOR_SIZE) != 0)
-                throw new RuntimeException("Writer index (" + NumberUtils.toHexString(writer.getIndex()) + ") was not aligned to CD sector size!");
-
-            MWIResourceEntry entry = file.getIndexEntry();
-            int currentSector = writer.getIndex() / Constants.CD_SECTOR_SIZE;
-            entry.setSectorOffset(currentSector);
-
-            file.saveFile(writer, progressBar);
-            writer.align(Constants.CD_SECTOR_SIZE);
+        if (PARALLEL_SAVE_ENABLED) {
+            saveFilesInParallel(writer, progressBar);
+        } else {
+            for (SCGameFile<?> file : this.files) {
+                startFileSector(writer, file);
+                file.saveFile(writer, progressBar);
+                writer.align(Constants.CD_SECTOR_SIZE);
+            }
         }
         getLogger().info("MWD Built. Total Time: %d ms.", (System.currentTimeMillis() - mwdStart));
 
@@ -338,6 +564,64 @@ public class MWDFile extends SCSharedGameData {
         writer.align(Constants.CD_SECTOR_SIZE);
     }
 
+    /**
+     * Saves (and compresses) every file on the worker thread pool, then writes the results to the MWD in MWI order.
+     * Only the writing (and sector alignment) happens on the calling thread, so the output matches a single-threaded save exactly.
+     * Files which do not support parallel saving are saved on the calling thread when they are reached, in the same order as a single-threaded save.
+     * Popups created while saving are held back until every file has been written, then shown in MWI order.
+     * @param writer the writer to write the files to
+     * @param progressBar the progress bar to update, if exists
+     */
+    private void saveFilesInParallel(DataWriter writer, ProgressBarComponent progressBar) {
+        List<Future<SCGameFileSaveResult>> saveTasks = new ArrayList<>(this.files.size());
+        List<List<Supplier<Alert>>> deferredPopUps = new ArrayList<>(this.files.size());
+        for (SCGameFile<?> file : this.files) {
+            List<Supplier<Alert>> filePopUps = new ArrayList<>();
+            deferredPopUps.add(filePopUps);
+            if (file.isParallelSaveSupported()) {
+                saveTasks.add(MWD_THREAD_POOL.submit(() -> FXUtils.runWithDeferredPopUps(filePopUps, () -> file.createSaveResult(progressBar))));
+            } else {
+                saveTasks.add(null);
+            }
+        }
+
+        try {
+            for (int i = 0; i < this.files.size(); i++) {
+                SCGameFile<?> file = this.files.get(i);
+                Future<SCGameFileSaveResult> saveTask = saveTasks.get(i);
+                SCGameFileSaveResult saveResult;
+                if (saveTask != null) {
+                    saveResult = saveTask.get();
+                    saveTasks.set(i, null); // The result can be garbage collected once it has been written.
+                } else {
+                    saveResult = FXUtils.runWithDeferredPopUps(deferredPopUps.get(i), () -> file.createSaveResult(progressBar));
+                }
+
+                startFileSector(writer, file);
+                file.writeSaveResult(writer, saveResult, progressBar);
+                writer.align(Constants.CD_SECTOR_SIZE);
+            }
+        } catch (InterruptedException | ExecutionException ex) {
+            for (Future<SCGameFileSaveResult> saveTask : saveTasks)
+                if (saveTask != null)
+                    saveTask.cancel(true);
+
+            throw new RuntimeException("Failed to save the MWD file contents.", ex);
+        }
+
+        for (List<Supplier<Alert>> filePopUps : deferredPopUps)
+            FXUtils.showDeferredPopUps(filePopUps);
+    }
+
+    private static void startFileSector(DataWriter writer, SCGameFile<?> file) {
+        if ((writer.getIndex() % Constants.CD_SECTOR_SIZE) != 0)
+            throw new RuntimeException("Writer index (" + NumberUtils.toHexString(writer.getIndex()) + ") was not aligned to CD sector size!");
+
+        MWIResourceEntry entry = file.getIndexEntry();
+        int currentSector = writer.getIndex() / Constants.CD_SECTOR_SIZE;
+        entry.setSectorOffset(currentSector);
+    }
+
     /**
      * Grabs the first VLO we can find.
      */
@@ -371,6 +655,33 @@ public class MWDFile extends SCSharedGameData {
      * @param fileClass The type to iterate over.
      */
     public <T extends SCGameFile<?>> List<T> getAllFiles(Class<T> fileClass) {
+        return new ArrayList<>(getIndexedFiles(fileClass));
+    }
+
+    /**
+     * Gets the cached list of files of a given class type, building it if it has not been requested since the files last changed.
+     * @param fileClass The type to get.
+     * @return indexedFiles, which should not be modified
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends SCGameFile<?>> List<T> getIndexedFiles(Class<T> fileClass) {
+        List<T> indexedFiles;
+        synchronized (this.fileIndexLock) {
+            indexedFiles = (List<T>) this.filesByClass.get(fileClass);
+            if (indexedFiles == null) {
+                indexedFiles = Collections.unmodifiableList(findAllFiles(fileClass));
+                this.filesByClass.put(fileClass, indexedFiles);
+            }
+        }
+
+        // Files are loaded outside the lock, since loading a file can invalidate the index.
+        for (int i = 0; i < indexedFiles.size(); i++)
+            indexedFiles.get(i).ensureLoaded();
+
+        return indexedFiles;
+    }
+
+    private <T extends SCGameFile<?>> List<T> findAllFiles(Class<T> fileClass) {
         List<T> results = new ArrayList<>();
 
         for (SCGameFile<?> file : getFiles()) {
@@ -396,19 +707,8 @@ public class MWDFile extends SCSharedGameData {
      * @param handler   The behavior to apply.
      */
     public <T extends SCGameFile<?>> void forEachFile(Class<T> fileClass, Consumer<T> handler) {
-        for (SCGameFile<?> file : getFiles()) {
-            if (fileClass.isInstance(file))
-                handler.accept(fileClass.cast(file));
-
-            if (file instanceof WADFile) {
-                WADFile wadFile = (WADFile) file;
-                for (WADEntry entry : wadFile.getFiles()) {
-                    SCGameFile<?> testFile = entry.getFile();
-                    if (fileClass.isInstance(testFile))
-                        handler.accept(fileClass.cast(testFile));
-                }
-            }
-        }
+        for (T file : getIndexedFiles(fileClass))
+            handler.accept(file);
     }
 
     /**
@@ -417,23 +717,10 @@ public class MWDFile extends SCSharedGameData {
      * @param handler   The behavior to apply.
      */
     public <T extends SCGameFile<?>, R> R resolveForEachFile(Class<T> fileClass, Function<T, R> handler) {
-        for (SCGameFile<?> file : getFiles()) {
-            if (fileClass.isInstance(file)) {
-                R result = handler.apply(fileClass.cast(file));
-                if (result != null)
-                    return result; // If there's a result.
-            }
-
-            if (file instanceof WADFile) {
-                WADFile wadFile = (WADFile) file;
-                for (WADEntry wadEntry : wadFile.getFiles()) {
-                    if (!fileClass.isInstance(wadEntry.getFile()))
-                        continue;
-                    R result = handler.apply(fileClass.cast(wadEntry.getFile()));
-                    if (result != null)
-                        return result;
-                }
-            }
+        for (T file : getIndexedFiles(fileClass)) {
+            R result = handler.apply(file);
+            if (result != null)
+                return result; // If there's a result.
         }
 
         return null; // Nothing found.
@@ -447,13 +734,21 @@ public class MWDFile extends SCSharedGameData {
     @SuppressWarnings("unchecked")
     public <TGameFile extends SCGameFile<? extends SCGameInstance>> TGameFile getFileByName(String fileName) {
         for (SCGameFile<?> gameFile : getFiles()) {
-            if (matchesFileName(gameFile.getIndexEntry(), fileName))
+            if (matchesFileName(gameFile.getIndexEntry(), fileName)) {
+                gameFile.ensureLoaded();
                 return (TGameFile) gameFile;
+            }
 
-            if (gameFile instanceof WADFile)
-                for (WADEntry wadFileEntry : ((WADFile) gameFile).getFiles())
-                    if (matchesFileName(wadFileEntry.getFileEntry(), fileName))
-                        return (TGameFile) wadFileEntry.getFile();
+            if (gameFile instanceof WADFile) {
+                for (WADEntry wadFileEntry : ((WADFile) gameFile).getFiles()) {
+                    if (matchesFileName(wadFileEntry.getFileEntry(), fileName)) {
+                        SCGameFile<?> wadFile = wadFileEntry.getFile();
+                        if (wadFile != null)
+                            wadFile.ensureLoaded();
+                        return (TGameFile) wadFile;
+                    }
+                }
+            }
         }
 
         return null;
@@ -503,12 +798,8 @@ public class MWDFile extends SCSharedGameData {
      * @return gameImage
      */
     public GameImage getImageByTextureId(int textureId) {
-        for (VLOArchive vlo : getAllFiles(VLOArchive.class))
-            for (GameImage testImage : vlo.getImages())
-                if (testImage.getTextureId() == textureId)
-                    return testImage;
-
-        return null;
+        List<GameImage> images = getIndexedImages().get(textureId);
+        return images != null ? images.get(0) : null;
     }
 
     /**
@@ -517,13 +808,60 @@ public class MWDFile extends SCSharedGameData {
      * @return gameImage
      */
     public List<GameImage> getImagesByTextureId(int textureId) {
-        List<GameImage> results = new ArrayList<>();
+        List<GameImage> images = getIndexedImages().get(textureId);
+        return images != null ? new ArrayList<>(images) : new ArrayList<>();
+    }
 
-        for (VLOArchive vlo : getAllFiles(VLOArchive.class))
-            for (GameImage testImage : vlo.getImages())
-                if (testImage.getTextureId() == textureId)
-                    results.add(testImage);
+    /**
+     * Gets the images in every VLO, grouped by texture ID, building the index if it has not been used since the files or images last changed.
+     * The images for each texture ID are in the same order the VLOs (and their images) are found in.
+     */
+    private Map<Integer, List<GameImage>> getIndexedImages() {
+        int textureIndexVersion;
+        synchronized (this.fileIndexLock) {
+            if (this.imagesByTextureId != null)
+                return this.imagesByTextureId;
 
-        return results;
+            textureIndexVersion = this.textureIndexVersion;
+        }
+
+        // The index is built outside the lock, since getting the VLOs may load them, and loading a file can invalidate the index.
+        Map<Integer, List<GameImage>> imagesByTextureId = new HashMap<>();
+        for (VLOArchive vlo : getIndexedFiles(VLOArchive.class))
+            for (GameImage image : vlo.getImages())
+                imagesByTextureId.computeIfAbsent((int) image.getTextureId(), key -> new ArrayList<>(1)).add(image);
+
+        synchronized (this.fileIndexLock) {
+            if (this.imagesByTextureId != null)
+                return this.imagesByTextureId; // Another thread finished building the index first.
+
+            if (this.textureIndexVersion == textureIndexVersion) // If the index was invalidated while it was built, it may already be out of date, so it is not kept.
+                this.imagesByTextureId = imagesByTextureId;
+        }
+
+        return imagesByTextureId;
+    }
+
+    /**
+     * Clears the cached file lists and texture lookup, so they will be rebuilt next time they are used.
+     * This must be called whenever a file is added, removed, or replaced, including within a wad.
+     */
+    public void invalidateFileIndex() {
+        synchronized (this.fileIndexLock) {
+            this.filesByClass.clear();
+            this.imagesByTextureId = null;
+            this.textureIndexVersion++;
+        }
+    }
+
+    /**
+     * Clears the cached texture lookup, so it will be rebuilt next time it is used.
+     * This must be called whenever images are added to or removed from a VLO, or their texture IDs change.
+     */
+    public void invalidateTextureIndex() {
+        synchronized (this.fileIndexLock) {
+            this.imagesByTextureId = null;
+            this.textureIndexVersion++;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,243 @@
+package net.highwayfrogs.editor.games.sony.shared.mwd;
+
+import net.highwayfrogs.editor.FrogLordApplication;
+import net.highwayfrogs.editor.games.sony.SCGameInstance;
+import net.highwayfrogs.editor.games.sony.shared.mwd.mwi.MWIResourceEntry;
+import net.highwayfrogs.editor.games.sony.shared.pp20.PP20Unpacker.UnpackResult;
+import net.highwayfrogs.editor.utils.FileUtils;
+import net.highwayfrogs.editor.utils.Utils;
+import net.highwayfrogs.editor.utils.data.reader.DataReader;
+import net.highwayfrogs.editor.utils.data.reader.RandomAccessFileSource;
+import net.highwayfrogs.editor.utils.data.writer.DataWriter;
+import net.highwayfrogs.editor.utils.data.writer.LargeFileReceiver;
+import net.highwayfrogs.editor.utils.logging.ILogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps the decompressed contents of PP20 compressed MWD files on disk, so they don't need to be decompressed again the next time the same MWD is opened.
+ * Each cache file is named after a hash of the MWD, the executable (which contains the MWI), and the version config.
+ * So, if any of them change, a different cache file is used.
+ * Created by agent on 10/18/2026.
+ */
+public class MWDUnpackCache {
+    private final ILogger logger;
+    private final File cacheFile;
+    private final Map<Integer, CachedUnpackResult> cachedResults = new HashMap<>(); // Read from the cache file. Not modified after opening.
+    private final Map<Integer, CachedUnpackResult> newResults = new ConcurrentHashMap<>(); // Unpacked during this session, and not found in the cache file.
+
+    private static final boolean UNPACK_CACHE_ENABLED = true;
+    private static final String CACHE_FOLDER_NAME = "mwd-cache";
+    private static final String CACHE_FILE_EXTENSION = ".bin";
+    private static final String SIGNATURE = "FLUC";
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAXIMUM_CACHE_FILES = 4; // Each cache file is about as large as the decompressed MWD, so only the most recently used ones are kept.
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private MWDUnpackCache(ILogger logger, File cacheFile) {
+        this.logger = logger;
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * Gets the cached result of unpacking a file, if it was cached.
+     * @param mwiEntry the MWI entry of the file
+     * @param compressedBytes the compressed bytes of the file
+     * @return unpackResult, or null if it was not cached
+     */
+    public UnpackResult getUnpackResult(MWIResourceEntry mwiEntry, byte[] compressedBytes) {
+        CachedUnpackResult cachedResult = this.cachedResults.get(mwiEntry.getResourceId());
+        if (cachedResult == null || !cachedResult.matches(compressedBytes))
+            return null;
+
+        return new UnpackResult(cachedResult.unpackedBytes, cachedResult.minimumByteMargin);
+    }
+
+    /**
+     * Remembers the result of unpacking a file, so it can be saved to the cache.
+     * This can be called from any thread.
+     * @param mwiEntry the MWI entry of the file
+     * @param compressedBytes the compressed bytes of the file
+     * @param unpackResult the result of unpacking the file
+     */
+    public void addUnpackResult(MWIResourceEntry mwiEntry, byte[] compressedBytes, UnpackResult unpackResult) {
+        this.newResults.put(mwiEntry.getResourceId(), new CachedUnpackResult(compressedBytes.length, calculateCrc32(compressedBytes), unpackResult.getUnpackedBytes(), unpackResult.getMinimumByteMargin()));
+    }
+
+    /**
+     * Saves the cache to disk if any files were unpacked which were not already cached.
+     */
+    public void saveIfChanged() {
+        if (this.newResults.isEmpty())
+            return;
+
+        Map<Integer, CachedUnpackResult> results = new TreeMap<>(this.cachedResults);
+        results.putAll(this.newResults);
+
+        File tempFile = new File(this.cacheFile.getParentFile(), this.cacheFile.getName() + ".tmp");
+        long startTime = System.currentTimeMillis();
+        try {
+            DataWriter writer = new DataWriter(new LargeFileReceiver(tempFile));
+            try {
+                writer.writeBytes(SIGNATURE.getBytes(StandardCharsets.US_ASCII));
+                writer.writeInt(FORMAT_VERSION);
+                writer.writeInt(results.size());
+                for (Map.Entry<Integer, CachedUnpackResult> entry : results.entrySet()) {
+                    CachedUnpackResult result = entry.getValue();
+                    writer.writeInt(entry.getKey());
+                    writer.writeInt(result.compressedSize);
+                    writer.writeInt((int) result.compressedCrc32);
+                    writer.writeInt(result.minimumByteMargin);
+                    writer.writeInt(result.unpackedBytes.length);
+                    writer.writeBytes(result.unpackedBytes);
+                }
+            } finally {
+                writer.closeReceiver();
+            }
+
+            Files.move(tempFile.toPath(), this.cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            this.logger.info("Saved %d decompressed file(s) to the MWD cache in %d ms.", results.size(), System.currentTimeMillis() - startTime);
+        } catch (Throwable th) {
+            FileUtils.deleteFile(tempFile);
+            Utils.handleError(this.logger, th, false, "Failed to save the MWD cache file '%s'.", this.cacheFile.getName());
+        }
+
+        removeOldCacheFiles(this.cacheFile.getParentFile());
+    }
+
+    private void readCacheFile() throws Exception {
+        RandomAccessFileSource source = new RandomAccessFileSource(this.cacheFile);
+        try {
+            DataReader reader = new DataReader(source);
+            reader.verifyString(SIGNATURE);
+            int formatVersion = reader.readInt();
+            if (formatVersion != FORMAT_VERSION)
+                return; // The cache will be replaced with the current format.
+
+            int resultCount = reader.readInt();
+            for (int i = 0; i < resultCount; i++) {
+                int resourceId = reader.readInt();
+                int compressedSize = reader.readInt();
+                long compressedCrc32 = reader.readInt() & 0xFFFFFFFFL;
+                int minimumByteMargin = reader.readInt();
+                int unpackedSize = reader.readInt();
+                if (unpackedSize < 0 || unpackedSize > reader.getRemaining()) // Avoids allocating a huge array when the file is damaged.
+                    throw new IOException("The cached file data for resource " + resourceId + " claims to be " + unpackedSize + " bytes, but only " + reader.getRemaining() + " bytes remain.");
+
+                byte[] unpackedBytes = reader.readBytes(unpackedSize);
+                this.cachedResults.put(resourceId, new CachedUnpackResult(compressedSize, compressedCrc32, unpackedBytes, minimumByteMargin));
+            }
+        } finally {
+            source.close();
+        }
+    }
+
+    /**
+     * Opens the cache for an MWD file.
+     * @param instance the game instance which is loading the MWD
+     * @param mwdFile the MWD file to open the cache for
+     * @return cache, or null if caching is disabled or could not be set up
+     */
+    public static MWDUnpackCache open(SCGameInstance instance, File mwdFile) {
+        if (!UNPACK_CACHE_ENABLED || mwdFile == null || FrogLordApplication.getMainApplicationFolder() == null)
+            return null;
+
+        File cacheFolder = new File(FrogLordApplication.getMainApplicationFolder(), CACHE_FOLDER_NAME);
+        long startTime = System.currentTimeMillis();
+        MWDUnpackCache cache;
+        try {
+            String cacheKey = calculateCacheKey(instance, mwdFile);
+            FileUtils.makeDirectory(cacheFolder);
+            cache = new MWDUnpackCache(instance.getLogger(), new File(cacheFolder, cacheKey + CACHE_FILE_EXTENSION));
+        } catch (Throwable th) {
+            Utils.handleError(instance.getLogger(), th, false, "Failed to open the MWD cache. Files will be decompressed normally.");
+            return null;
+        }
+
+        if (!cache.cacheFile.isFile())
+            return cache;
+
+        try {
+            cache.readCacheFile();
+        } catch (Throwable th) {
+            // A damaged cache file is deleted, and the cache will be rebuilt from the files decompressed during this load.
+            Utils.handleError(instance.getLogger(), th, false, "Failed to read the MWD cache file '%s', so it will be rebuilt.", cache.cacheFile.getName());
+            cache.cachedResults.clear();
+            FileUtils.deleteFile(cache.cacheFile);
+            return cache;
+        }
+
+        if (!cache.cacheFile.setLastModified(System.currentTimeMillis())) // Marks the cache as recently used.
+            instance.getLogger().warning("Failed to update the last modified time of the MWD cache file '%s'.", cache.cacheFile.getName());
+        instance.getLogger().info("Read %d decompressed file(s) from the MWD cache in %d ms.", cache.cachedResults.size(), System.currentTimeMillis() - startTime);
+        return cache;
+    }
+
+    private static String calculateCacheKey(SCGameInstance instance, File mwdFile) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        digest.update((SIGNATURE + FORMAT_VERSION + "|" + instance.getVersionConfig().getInternalName() + "|").getBytes(StandardCharsets.UTF_8));
+        digest.update(instance.getExecutableBytes());
+
+        byte[] buffer = new byte[HASH_BUFFER_SIZE];
+        try (InputStream inputStream = Files.newInputStream(mwdFile.toPath())) {
+            int readBytes;
+            while ((readBytes = inputStream.read(buffer)) > 0)
+                digest.update(buffer, 0, readBytes);
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (byte value : digest.digest())
+            builder.append(String.format("%02x", value));
+        return builder.toString();
+    }
+
+    private static void removeOldCacheFiles(File cacheFolder) {
+        File[] cacheFiles = cacheFolder.listFiles((folder, name) -> name.endsWith(CACHE_FILE_EXTENSION));
+        if (cacheFiles == null || cacheFiles.length <= MAXIMUM_CACHE_FILES)
+            return;
+
+        Arrays.sort(cacheFiles, Comparator.comparingLong(File::lastModified).reversed());
+        for (int i = MAXIMUM_CACHE_FILES; i < cacheFiles.length; i++)
+            FileUtils.deleteFile(cacheFiles[i]);
+    }
+
+    private static long calculateCrc32(byte[] data) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(data);
+        return crc32.getValue();
+    }
+
+    private static class CachedUnpackResult {
+        private final int compressedSize;
+        private final long compressedCrc32;
+        private final byte[] unpackedBytes;
+        private final int minimumByteMargin;
+
+        public CachedUnpackResult(int compressedSize, long compressedCrc32, byte[] unpackedBytes, int minimumByteMargin) {
+            this.compressedSize = compressedSize;
+            this.compressedCrc32 = compressedCrc32;
+            this.unpackedBytes = unpackedBytes;
+            this.minimumByteMargin = minimumByteMargin;
+        }
+
+        /**
+         * Tests if this result was unpacked from the given compressed bytes.
+         * The cache key should already guarantee this, but checking is cheap compared to decompressing, and protects against a damaged cache file.
+         * @param compressedBytes the compressed bytes to test
+         * @return true iff the compressed bytes match
+         */
+        public boolean matches(byte[] compressedBytes) {
+            return compressedBytes.length == this.compressedSize && calculateCrc32(compressedBytes) == this.compressedCrc32;
+        }
+    }
+}
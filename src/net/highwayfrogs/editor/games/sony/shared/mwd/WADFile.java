@@ -6,12 +6,11 @@ import javafx.scene.image.Image;
 import lombok.Getter;
 import net.highwayfrogs.editor.Constants;
 import net.highwayfrogs.editor.games.sony.SCGameFile;
+import net.highwayfrogs.editor.games.sony.SCGameFile.SCGameFileSaveResult;
 import net.highwayfrogs.editor.games.sony.SCGameFile.SCSharedGameFile;
 import net.highwayfrogs.editor.games.sony.SCGameInstance;
 import net.highwayfrogs.editor.games.sony.shared.mof2.MRModel;
 import net.highwayfrogs.editor.games.sony.shared.mwd.mwi.MWIResourceEntry;
-import net.highwayfrogs.editor.games.sony.shared.pp20.PP20Packer;
-import net.highwayfrogs.editor.games.sony.shared.pp20.PP20Packer.PackResult;
 import net.highwayfrogs.editor.games.sony.shared.pp20.PP20Unpacker;
 import net.highwayfrogs.editor.games.sony.shared.pp20.PP20Unpacker.UnpackResult;
 import net.highwayfrogs.editor.games.sony.shared.ui.file.WADController;
@@ -22,7 +21,6 @@ import net.highwayfrogs.editor.utils.FileUtils.SavedFilePath;
 import net.highwayfrogs.editor.utils.Utils;
 import net.highwayfrogs.editor.utils.data.reader.ArraySource;
 import net.highwayfrogs.editor.utils.data.reader.DataReader;
-import net.highwayfrogs.editor.utils.data.writer.ArrayReceiver;
 import net.highwayfrogs.editor.utils.data.writer.DataWriter;
 
 import java.io.File;
@@ -51,6 +49,10 @@ public class WADFile extends SCSharedGameFile {
     @Override
     public void load(DataReader reader) {
         this.files.clear();
+        MWDFile archive = getArchive();
+        if (archive != null)
+            archive.invalidateFileIndex();
+
         int lastFileCount = -1;
         while (reader.hasMore()) {
             int resourceId = reader.readInt();
@@ -72,6 +74,7 @@ public class WADFile extends SCSharedGameFile {
 
             // Read file contents.
             byte[] fileBytes = reader.readBytes(fileSizeInBytes);
+            byte[] archiveBytes = fileBytes;
             reader.alignRequireEmpty(Constants.INTEGER_SIZE);
 
             // Decompress if compressed.
@@ -82,7 +85,7 @@ public class WADFile extends SCSharedGameFile {
                 getLogger().severe("The wad entry '%s' appears%s to be compressed, but the MWI entry disagrees.", fileMwiEntry.getDisplayName(), (dataAppearsCompressed ? "" : " NOT"));
             if (dataAppearsCompressed) {
                 compressedFileBytes = fileBytes;
-                UnpackResult unpackResult = PP20Unpacker.unpackData(fileBytes);
+                UnpackResult unpackResult = archive != null ? archive.unpackData(fileBytes, fileMwiEntry) : PP20Unpacker.unpackData(fileBytes);
                 fileBytes = unpackResult.getUnpackedBytes();
                 safetyMarginWordCount = unpackResult.getSafetyMarginWordCount();
             }
@@ -109,6 +112,7 @@ public class WADFile extends SCSharedGameFile {
                 file.load(wadFileReader);
                 if (wadFileReader.hasMore() && file.warnIfEndNotReached())
                     file.getLogger().warning("File contents were read to index 0x%08X, leaving %d bytes unread. (Length: 0x%08X)", wadFileReader.getIndex(), wadFileReader.getRemaining(), wadFileReader.getSize());
+                file.cacheArchiveBytes(fileBytes, archiveBytes);
             } catch (Exception ex) {
                 Utils.handleError(getLogger(), ex, false, "Failed to load %s. (%d)", fileName, resourceId);
 
@@ -129,15 +133,14 @@ public class WADFile extends SCSharedGameFile {
             writer.writeInt(entry.getResourceId());
             writer.writeInt(entry.getFileEntry().getTypeId());
 
-            MWIResourceEntry mwiEntry = entry.getFileEntry();
-            ArrayReceiver receiver = new ArrayReceiver();
-            entry.getFile().save(new DataWriter(receiver));
-
-            byte[] fileBytes = receiver.toArray();
-            PackResult packResult = entry.isCompressed() ? PP20Packer.packData(fileBytes) : null;
-            mwiEntry.onSaveData(fileBytes, packResult);
+            // Unmodified files reuse the bytes they were loaded with.
+            SCGameFile<?> file = entry.getFile();
+            SCGameFileSaveResult saveResult = file.createSaveResult(null, entry.isCompressed());
+            if (saveResult.getError() != null)
+                throw new RuntimeException("Failed to save '" + entry.getDisplayName() + "' to the WAD.", saveResult.getError());
 
-            byte[] writtenBytes = packResult != null ? packResult.getPackedBytes() : fileBytes;
+            file.applySaveResult(saveResult);
+            byte[] writtenBytes = saveResult.getWrittenBytes();
             writer.writeInt(writtenBytes.length); // File length.
             writer.writeInt(this.files.size()); // File count.
             writer.writeBytes(writtenBytes); // Write file contents.
@@ -282,6 +285,10 @@ public class WADFile extends SCSharedGameFile {
             getGameInstance().getFileObjectsByFileEntries().put(mwiEntry, newFile);
             if (newFile != null)
                 newFile.setFileDefinition(mwiEntry);
+
+            MWDFile archive = getArchive();
+            if (archive != null)
+                archive.invalidateFileIndex();
         }
     }
 }
\ No newline at end of file
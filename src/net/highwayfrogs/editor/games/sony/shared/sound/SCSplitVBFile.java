@@ -36,6 +36,11 @@ public class SCSplitVBFile extends SCSharedGameFile {
         this.body.save(writer);
     }
 
+    @Override
+    public boolean isParallelSaveSupported() {
+        return false; // Saving the body updates the header's copy of the body size, so the two files must not be saved at the same time.
+    }
+
     @Override
     public boolean warnIfEndNotReached() {
         return false;
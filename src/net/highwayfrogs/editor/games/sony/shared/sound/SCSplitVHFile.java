@@ -37,6 +37,11 @@ public class SCSplitVHFile extends SCSharedGameFile {
         this.header.save(writer);
     }
 
+    @Override
+    public boolean isParallelSaveSupported() {
+        return false; // The header is written using the body size stored when the body file was saved.
+    }
+
     @Override
     public Image getCollectionViewIcon() {
         return ImageResource.MUSIC_NOTE_32.getFxImage();
@@ -19,9 +19,12 @@ import net.highwayfrogs.editor.games.sony.shared.sound.header.SCPlayStationVabSo
 import net.highwayfrogs.editor.utils.FXUtils;
 import net.highwayfrogs.editor.utils.FileUtils;
 
+import javax.sound.sampled.AudioInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Implements the VAB audio data body.
@@ -67,6 +70,25 @@ public class SCPlayStationSoundBankBody extends SCSplitSoundBankBody<SCPlayStati
             ((SCPlayStationVabSoundBankHeader) other).setSavedBodyTotalSize(writer.getIndex() - dataStartIndex);
     }
 
+    /**
+     * Imports .wav files as the audio for many sounds at once, encoding them in parallel.
+     * @param sounds the sounds to import audio for
+     * @param wavFiles the .wav file to import for each sound, in the same order as the sounds
+     * @throws IOException Thrown if a file cannot be read.
+     */
+    public static void importSoundsFromFiles(List<SCPlayStationVabSound> sounds, List<File> wavFiles) throws IOException {
+        if (sounds.size() != wavFiles.size())
+            throw new IllegalArgumentException("There were " + sounds.size() + " sound(s), but " + wavFiles.size() + " file(s) to import.");
+
+        List<byte[]> wavFileBytes = new ArrayList<>(wavFiles.size());
+        for (File wavFile : wavFiles)
+            wavFileBytes.add(Files.readAllBytes(wavFile.toPath()));
+
+        List<byte[]> vagAudioData = VAGUtil.wavToVag(wavFileBytes);
+        for (int i = 0; i < sounds.size(); i++)
+            sounds.get(i).vagAudioData = vagAudioData.get(i);
+    }
+
     @Getter
     public static class SCPlayStationVabSound extends SCSplitSoundBankBodyEntry implements ISoundSample {
         private final int expectedReadLength;
@@ -95,6 +117,11 @@ public class SCPlayStationSoundBankBody extends SCSplitSoundBankBody<SCPlayStati
             return VAGUtil.rawVagToWav(this.vagAudioData);
         }
 
+        @Override
+        public AudioInputStream getAudioInputStream() {
+            return VAGUtil.createAudioInputStream(this.vagAudioData, getAudioFormat().getSampleRate());
+        }
+
         @Override
         public void saveToImportableFile(File saveTo) throws IOException {
             Files.write(saveTo.toPath(), VAGUtil.rawVagToWav(this.vagAudioData, (int) getAudioFormat().getSampleRate()));
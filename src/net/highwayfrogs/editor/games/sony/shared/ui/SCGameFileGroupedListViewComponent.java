@@ -34,6 +34,7 @@ public class SCGameFileGroupedListViewComponent<TGameInstance extends SCGameInst
 
     @Override
     protected void onDoubleClick(SCGameFile<?> file) {
+        file.ensureLoaded();
         file.performDefaultUIAction();
     }
 
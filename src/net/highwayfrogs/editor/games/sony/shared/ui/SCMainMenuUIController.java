@@ -213,6 +213,9 @@ public class SCMainMenuUIController<TGameInstance extends SCGameInstance> extend
      * @param file the file to display UI for
      */
     public void showEditor(SCGameFile<?> file) {
+        if (file != null)
+            file.ensureLoaded();
+
         GameUIController<?> controller = getCurrentEditor();
         if (controller instanceof SCFileEditorUIController) {
             @SuppressWarnings("unchecked")
@@ -13,21 +13,25 @@ import net.highwayfrogs.editor.games.shared.sound.ISoundSample;
 import net.highwayfrogs.editor.games.sony.SCGameInstance;
 import net.highwayfrogs.editor.games.sony.shared.sound.SCSplitSoundBankBodyEntry;
 import net.highwayfrogs.editor.games.sony.shared.sound.SCSplitVBFile;
+import net.highwayfrogs.editor.games.sony.shared.sound.body.SCPlayStationSoundBankBody;
+import net.highwayfrogs.editor.games.sony.shared.sound.body.SCPlayStationSoundBankBody.SCPlayStationVabSound;
 import net.highwayfrogs.editor.games.sony.shared.ui.SCFileEditorUIController;
 import net.highwayfrogs.editor.system.AbstractAttachmentCell;
+import net.highwayfrogs.editor.utils.AudioStreamPlayer;
 import net.highwayfrogs.editor.utils.FXUtils;
+import net.highwayfrogs.editor.utils.FileUtils;
+import net.highwayfrogs.editor.utils.FileUtils.SavedFilePath;
 
-import javax.sound.sampled.Clip;
-import javax.sound.sampled.LineEvent.Type;
 import javax.sound.sampled.LineUnavailableException;
 import javax.sound.sampled.UnsupportedAudioFileException;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Controls the VAB sound screen.
- * TODO: This menu has speed issues due to usage of Clip.close(). We should switch to a cached Clip model to avoid this issue.
- *  -> Alternatively, it might be feasible to use AudioClip.getProvider().create()? Perhaps this would give us more control and be less likely to fail?
+ * Sounds are streamed to the audio device as they are decoded, instead of being loaded into a Clip.
  * Created by Kneesnap on 5/13/2024.
  */
 public class SCVABUIController extends SCFileEditorUIController<SCGameInstance, SCSplitVBFile> {
@@ -40,7 +44,9 @@ public class SCVABUIController extends SCFileEditorUIController<SCGameInstance,
 
     private SCSplitSoundBankBodyEntry selectedSoundBodyEntry;
     private ISoundSample selectedSound;
-    private Clip currentClip;
+    private final AudioStreamPlayer audioPlayer = new AudioStreamPlayer();
+
+    private static final SavedFilePath SOUND_IMPORT_FOLDER = new SavedFilePath("vabSoundImportPath", "Select the directory to import sounds from.");
 
     public SCVABUIController(SCGameInstance instance) {
         super(instance);
@@ -49,6 +55,7 @@ public class SCVABUIController extends SCFileEditorUIController<SCGameInstance,
     @Override
     protected void onControllerLoad(Node rootNode) {
         super.onControllerLoad(rootNode);
+        this.audioPlayer.setOnPlaybackFinish(() -> Platform.runLater(this::resetUIOnPlaybackStop));
 
         this.sliderSampleRate.valueProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue.equals(oldValue))
@@ -82,7 +89,7 @@ public class SCVABUIController extends SCFileEditorUIController<SCGameInstance,
     @Override
     public void onSceneRemove(Scene oldScene) {
         super.onSceneRemove(oldScene);
-        closeClip();
+        stopSound();
     }
 
     @FXML
@@ -126,24 +133,62 @@ public class SCVABUIController extends SCFileEditorUIController<SCGameInstance,
         }
     }
 
+    @FXML
+    private void importAllSounds(ActionEvent event) {
+        File selectedFolder = FileUtils.askUserToSelectFolder(getGameInstance(), SOUND_IMPORT_FOLDER);
+        if (selectedFolder == null)
+            return; // Cancelled.
+
+        // Sounds are imported from files named the same way "Export All" names them.
+        // PlayStation sounds are imported together, so they can be encoded in parallel.
+        List<SCPlayStationVabSound> vabSounds = new ArrayList<>();
+        List<File> vabSoundFiles = new ArrayList<>();
+        int importedSoundCount = 0;
+        for (ISoundSample sound : getFile().getBody().getEntries()) {
+            File soundFile = new File(selectedFolder, sound.getSoundName() + ".wav");
+            if (!soundFile.isFile())
+                continue;
+
+            if (sound instanceof SCPlayStationVabSound) {
+                vabSounds.add((SCPlayStationVabSound) sound);
+                vabSoundFiles.add(soundFile);
+                continue;
+            }
+
+            try {
+                sound.importSoundFromFile(soundFile);
+                importedSoundCount++;
+            } catch (UnsupportedAudioFileException | IOException ex) {
+                FXUtils.makeErrorPopUp("Failed to import sound file " + soundFile.getName(), ex, true);
+            }
+        }
+
+        if (vabSounds.size() > 0) {
+            try {
+                SCPlayStationSoundBankBody.importSoundsFromFiles(vabSounds, vabSoundFiles);
+                importedSoundCount += vabSounds.size();
+            } catch (IOException ex) {
+                FXUtils.makeErrorPopUp("Failed to import the sound files.", ex, true);
+            }
+        }
+
+        getLogger().info("Imported %d sound(s).", importedSoundCount);
+        updateInterface();
+    }
+
     @FXML
     private void togglePlay(ActionEvent event) {
-        if (this.currentClip == null)
+        if (this.selectedSound == null)
             return;
 
-        if (this.currentClip.isActive()) {
-            this.currentClip.stop();
-            this.currentClip.setMicrosecondPosition(0); // Reset play position.
+        if (this.audioPlayer.isPlaying()) {
+            stopSound();
         } else {
             toggleComponents(true);
             this.playButton.setText("Stop");
 
-            this.currentClip.setMicrosecondPosition(0); // Reset play position.
-            if (this.repeatCheckBox.isSelected()) {
-                this.currentClip.loop(Clip.LOOP_CONTINUOUSLY);
-            } else {
-                this.currentClip.start();
-            }
+            ISoundSample sound = this.selectedSound;
+            this.audioPlayer.play(sound.getAudioInputStream(), this.repeatCheckBox.isSelected() ? sound::getAudioInputStream : null);
         }
     }
 
@@ -190,47 +235,22 @@ public class SCVABUIController extends SCFileEditorUIController<SCGameInstance,
         }
     }
 
-    private void closeClip() {
-        if (this.currentClip == null)
-            return;
+    private void stopSound() {
+        this.audioPlayer.stop();
+        resetUIOnPlaybackStop();
+    }
 
-        this.currentClip.stop(); //Stop the old playing clip. Also sets the play button back to "Play", enables the repeat button, etc.
-        this.currentClip.close(); // Tell the old clip that we aren't going to use it again.
+    private void resetUIOnPlaybackStop() {
+        this.playButton.setText("Play");
+        toggleComponents(false);
     }
 
     /**
-     * Update the displayed image.
+     * Stops the sound, since the selected sound (or its sample rate) has changed.
+     * The sound is decoded again the next time it is played.
      */
     public void updateSound() {
-        closeClip();
-        if (this.selectedSound == null)
-            return;
-
-        if (this.currentClip != null) {
-            byte[] pcmData = this.selectedSound.getRawAudioPlaybackData();
-
-            try {
-                this.currentClip.open(this.selectedSound.getAudioFormat(), pcmData, 0, pcmData.length);
-            } catch (LineUnavailableException exception) {
-                handleError(exception, true, "Could not load audio data from file.");
-            }
-        } else {
-            try {
-                this.currentClip = this.selectedSound.getAudioClip();
-            } catch (LineUnavailableException e) {
-                handleError(e, true, "Could not get AudioClip from file.");
-            }
-
-            this.currentClip.addLineListener(e -> {
-                if (e.getType() != Type.STOP)
-                    return;
-
-                Platform.runLater(() -> {
-                    this.playButton.setText("Play");
-                    toggleComponents(false);
-                });
-            });
-        }
+        stopSound();
     }
 
     private void toggleComponents(boolean newState) {
@@ -119,6 +119,7 @@ public class VLOController extends SCFileEditorUIController<SCGameInstance, VLOA
 
             int newView = getFile().getImages().size();
             getFile().getImages().add(gameImage.clone());
+            getFile().getArchive().invalidateTextureIndex();
             imageList.setItems(FXCollections.observableArrayList(getFile().getImages()));
             imageList.getSelectionModel().select(newView);
             imageList.scrollTo(newView);
@@ -130,9 +131,7 @@ public class VLOController extends SCFileEditorUIController<SCGameInstance, VLOA
         CheckBox checkbox = new CheckBox(display);
 
         checkbox.selectedProperty().addListener((observable, oldValue, newValue) -> {
-            if (this.selectedImage.setFlag(flag, newValue))
-                this.imageFilterSettings.invalidateRenderCache();
-
+            this.selectedImage.setFlag(flag, newValue); // Filtered images are cached by flags, so a new image will be made if needed.
             this.updateDisplay();
         });
 
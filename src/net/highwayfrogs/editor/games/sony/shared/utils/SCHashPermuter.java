@@ -2,8 +2,10 @@ package net.highwayfrogs.editor.games.sony.shared.utils;
 
 import lombok.Getter;
 import net.highwayfrogs.editor.gui.extra.hash.FroggerHashUtil;
+import net.highwayfrogs.editor.gui.extra.hash.HashRange;
+import net.highwayfrogs.editor.gui.extra.hash.HashRange.HashRangeType;
+import net.highwayfrogs.editor.gui.extra.hash.LinkerHashPermutationSearch;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -305,62 +307,36 @@ public class SCHashPermuter {
         if (words == null || words.isEmpty())
             throw new IllegalArgumentException("Cannot find linker hash when no words were specified.");
 
-        // 1) Calculate number of permutations, and verify ok.
-        BigInteger permutationCount = BigInteger.ONE;
+        // 1) Calculate the hash of each word up-front, since the linker hash doesn't care about the order of characters.
+        List<String[]> slotWords = new ArrayList<>(words.size());
         for (int i = 0; i < words.size(); i++) {
             Word word = words.get(i);
             int wordCount = word.getPermutationWordCount();
             if (wordCount <= 0)
                 throw new IllegalArgumentException("Word '" + word + "' had " + wordCount + " permutation words, but at least one is required!");
 
-            permutationCount = permutationCount.multiply(BigInteger.valueOf(wordCount));
-            //System.out.println("Word #" + (i + 1) + ": " + word.toString());
+            slotWords.add(word.getPermutationWords());
         }
 
-        System.out.println("Testing " + permutationCount + " possible permutations.");
+        HashRange linkerHashRange = new HashRange(HashRangeType.PSYQ, minLinkerHash, maxLinkerHash);
+        LinkerHashPermutationSearch search = new LinkerHashPermutationSearch(prefix, suffix, slotWords, slotWords.size(), linkerHashRange, null);
+        search.setFilter((result, wordIndices, slotCount) -> shouldShowWord(result, words, wordIndices)); // Frogger global variables always start with a capital letter, (Although PSX SDK ones do not), so we can skip ones that don't.
+        System.out.println("Testing " + search.getPermutationCount() + " possible permutations.");
 
-        // 2) Permute results
+        // 2) Permute results. Only permutations which match the linker hash are visited, so strings are only built for matches.
         long permuteStart = System.currentTimeMillis();
-        int tempIndex;
-        int[] wordIndices = new int[words.size()];
-        StringBuilder builder = new StringBuilder();
-        do {
-            // a) Generate string.
-            builder.setLength(0);
-            if (prefix != null && !prefix.isEmpty())
-                builder.append(prefix);
-            for (int i = 0; i < words.size(); i++)
-                builder.append(words.get(i).getPermutationWord(wordIndices[i]));
-            if (suffix != null && !suffix.isEmpty())
-                builder.append(suffix);
-
-            // b) Check result against linker hash.
-            String result = builder.toString();
-            int linkerHash = FroggerHashUtil.getPsyQLinkerHash(result);
-            if (linkerHash >= minLinkerHash && linkerHash <= maxLinkerHash && shouldShowWord(result, words, wordIndices))
-                printResult(result); // Frogger global variables always start with a capital letter, (Although PSX SDK ones do not), so we can skip ones that don't.
-
-            // c) Move on to the next permutation.
-            tempIndex = wordIndices.length - 1;
-            while (tempIndex >= 0 && ++wordIndices[tempIndex] >= words.get(tempIndex).getPermutationWordCount()) {
-                wordIndices[tempIndex] = 0;
-                tempIndex--; // Try again but with the next one.
-            }
-        } while (tempIndex >= 0);
+        search.search(SCHashPermuter::printResult);
 
         // Done.
         long permuteEnd = System.currentTimeMillis();
-        System.out.println("Done permuting in " + (permuteEnd - permuteStart) + " ms.");
+        System.out.println("Done permuting in " + (permuteEnd - permuteStart) + " ms. (" + search.getMatchCount().get() + " result(s))");
         System.out.println();
     }
 
     private static void printResult(String result) {
-        System.out.print("Result '");
-        System.out.print(result);
-        System.out.print("', Linker Hash: ");
-        System.out.print(FroggerHashUtil.getPsyQLinkerHash(result));
-        System.out.print(", Assembler Hash: ");
-        System.out.println(FroggerHashUtil.getPsyQAssemblerHash(result));
+        // Built as a single line, since results can be found by several threads at once.
+        System.out.println("Result '" + result + "', Linker Hash: " + FroggerHashUtil.getPsyQLinkerHash(result)
+                + ", Assembler Hash: " + FroggerHashUtil.getPsyQAssemblerHash(result));
     }
 
     public static abstract class Word {
@@ -376,6 +352,16 @@ public class SCHashPermuter {
          */
         public abstract int getPermutationWordCount();
 
+        /**
+         * Gets all of the permutation words as an array.
+         */
+        public String[] getPermutationWords() {
+            String[] permutationWords = new String[getPermutationWordCount()];
+            for (int i = 0; i < permutationWords.length; i++)
+                permutationWords[i] = getPermutationWord(i);
+            return permutationWords;
+        }
+
         /**
          * Write the permutation words to the builder.
          * @param builder The builder to write to.
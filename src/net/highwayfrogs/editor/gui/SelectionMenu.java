@@ -20,6 +20,7 @@ import net.highwayfrogs.editor.file.vlo.GameImage;
 import net.highwayfrogs.editor.games.generic.GameInstance;
 import net.highwayfrogs.editor.games.sony.frogger.FroggerGameInstance;
 import net.highwayfrogs.editor.games.sony.frogger.map.FroggerMapTheme;
+import net.highwayfrogs.editor.gui.components.ThumbnailLoader;
 import net.highwayfrogs.editor.utils.FXUtils;
 
 import java.util.ArrayList;
@@ -155,15 +156,18 @@ public class SelectionMenu {
 
             setText(nameFunction.apply(selection));
             if (imageFunction != null) {
-                ImageView newView = null;
-
                 if (selection != null) {
-                    newView = new ImageView(imageFunction.apply(selection));
-                    newView.setFitWidth(25);
-                    newView.setFitHeight(25);
+                    // Creating the image may require decoding a texture, so it's done in the background to keep scrolling smooth.
+                    // The images shown here are created from game images, so they are created again after any image has been changed.
+                    ThumbnailLoader.applyCellGraphic(this, selection, this.imageFunction, GameImage.getModificationCount(), () -> this.imageFunction.apply(selection), image -> {
+                        ImageView newView = new ImageView(image);
+                        newView.setFitWidth(25);
+                        newView.setFitHeight(25);
+                        return newView;
+                    });
+                } else {
+                    setGraphic(null);
                 }
-
-                setGraphic(newView);
             }
         }
     }
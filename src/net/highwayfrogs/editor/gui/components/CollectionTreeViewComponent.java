@@ -322,6 +322,16 @@ public abstract class CollectionTreeViewComponent<TGameInstance extends GameInst
             return this.value != null ? this.value.getCollectionViewIcon() : ImageResource.GHIDRA_ICON_OPEN_FOLDER_16.getFxImage();
         }
 
+        @Override
+        public boolean isCollectionViewIconSlow() {
+            return this.value != null && this.value.isCollectionViewIconSlow();
+        }
+
+        @Override
+        public long getCollectionViewIconStamp() {
+            return this.value != null ? this.value.getCollectionViewIconStamp() : 0;
+        }
+
         @Override
         public int compareTo(CollectionViewTreeNode<TViewEntry> other) {
             if (this.name == null && other.name != null) {
@@ -126,6 +126,21 @@ public abstract class CollectionViewComponent<TGameInstance extends GameInstance
          */
         Image getCollectionViewIcon();
 
+        /**
+         * Tests if the icon is slow to create (such as a preview of a texture), and should be created in the background instead of while the entry is being drawn.
+         */
+        default boolean isCollectionViewIconSlow() {
+            return false;
+        }
+
+        /**
+         * Gets a value which changes whenever the icon changes.
+         * Icons created in the background are cached by the entry and this value, so a new value will cause the icon to be created again.
+         */
+        default long getCollectionViewIconStamp() {
+            return 0;
+        }
+
         /**
          * Sets up right-click menu items when clicked.
          * @param contextMenu the menu to add the right-click menu items to.
@@ -25,8 +25,12 @@ public class CollectionViewEntryListCell<TViewEntry extends ICollectionViewEntry
         }
 
         // Apply icon.
-        Image iconImage = viewEntry.getCollectionViewIcon();
-        setGraphic(iconImage != null ? new ImageView(iconImage) : null);
+        if (viewEntry.isCollectionViewIconSlow()) {
+            ThumbnailLoader.applyCellGraphic(this, viewEntry, ICollectionViewEntry.class, viewEntry.getCollectionViewIconStamp(), viewEntry::getCollectionViewIcon, ImageView::new);
+        } else {
+            Image iconImage = viewEntry.getCollectionViewIcon();
+            setGraphic(iconImage != null ? new ImageView(iconImage) : null);
+        }
 
         // Update text.
         setStyle(viewEntry.getCollectionViewDisplayStyle());
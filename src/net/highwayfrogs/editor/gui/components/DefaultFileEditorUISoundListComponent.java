@@ -17,14 +17,17 @@ import net.highwayfrogs.editor.gui.ImageResource;
 import net.highwayfrogs.editor.gui.components.CollectionViewComponent.ICollectionViewEntry;
 import net.highwayfrogs.editor.gui.components.DefaultFileEditorUISoundListComponent.IBasicSoundList;
 import net.highwayfrogs.editor.gui.components.PropertyListViewerComponent.IPropertyListCreator;
+import net.highwayfrogs.editor.utils.AudioStreamPlayer;
 import net.highwayfrogs.editor.utils.FXUtils;
 
+import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.Clip;
 import javax.sound.sampled.LineEvent.Type;
 import javax.sound.sampled.LineListener;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Represents editor UI for a sound list.
@@ -38,6 +41,7 @@ public class DefaultFileEditorUISoundListComponent<TGameInstance extends GameIns
     private final CheckBox forceRepeatCheckBox = new CheckBox("Force Repeat");
     private final HBox audioPlaybackControlBar = new HBox(10);
     private Clip activeAudioClip;
+    private final AudioStreamPlayer audioStreamPlayer = new AudioStreamPlayer();
     private final LineListener audioEventListener = event -> {
         if (event.getType() != Type.STOP || event.getSource() != this.activeAudioClip)
             return;
@@ -57,6 +61,7 @@ public class DefaultFileEditorUISoundListComponent<TGameInstance extends GameIns
         super(instance, fileNameText, icon);
         this.soundListComponent = createListViewComponent();
         this.collectionEditorComponent = new CollectionEditorComponent<>(instance, this.soundListComponent, true);
+        this.audioStreamPlayer.setOnPlaybackFinish(() -> FXUtils.runOnFXThread(this::resetUIOnPlaybackStop));
     }
 
     /**
@@ -90,7 +95,7 @@ public class DefaultFileEditorUISoundListComponent<TGameInstance extends GameIns
         this.playSelectedSoundButton.setDisable(this.soundListComponent.getSelectedViewEntry() == null);
         this.playSelectedSoundButton.setOnAction(evt -> {
             evt.consume();
-            if (this.activeAudioClip != null && this.activeAudioClip.isRunning()) {
+            if ((this.activeAudioClip != null && this.activeAudioClip.isRunning()) || this.audioStreamPlayer.isPlaying()) {
                 stopActiveAudioClip();
             } else {
                 playSelectedSound();
@@ -124,19 +129,32 @@ public class DefaultFileEditorUISoundListComponent<TGameInstance extends GameIns
      * @param sound the sound to play
      */
     public void playSound(IBasicSound sound) {
-        if (sound != null) {
-            Clip audioClip = sound.getClip();
-            if (audioClip != null)
-                playNewAudioClip(audioClip, sound.isRepeatEnabled() || this.forceRepeatCheckBox.isSelected());
-        } else {
+        if (sound == null) {
             stopActiveAudioClip();
+            return;
+        }
+
+        boolean repeat = sound.isRepeatEnabled() || this.forceRepeatCheckBox.isSelected();
+        AudioInputStream audioStream = sound.createAudioStream();
+        if (audioStream != null) {
+            playNewAudioStream(audioStream, repeat ? sound::createAudioStream : null);
+            return;
         }
+
+        Clip audioClip = sound.getClip();
+        if (audioClip != null)
+            playNewAudioClip(audioClip, repeat);
     }
 
     /**
      * Stops the active audio clip.
      */
     public void stopActiveAudioClip() {
+        if (this.audioStreamPlayer.isPlaying()) {
+            this.audioStreamPlayer.stop();
+            resetUIOnPlaybackStop();
+        }
+
         if (this.activeAudioClip == null)
             return;
 
@@ -177,6 +195,23 @@ public class DefaultFileEditorUISoundListComponent<TGameInstance extends GameIns
         this.activeAudioClip.addLineListener(this.audioEventListener);
     }
 
+    /**
+     * Plays the new audio stream, decoding it as it plays.
+     * @param audioStream the audio stream to play
+     * @param repeatStreamSupplier supplies a new stream each time the sound repeats, or null if the sound should not repeat
+     */
+    public void playNewAudioStream(AudioInputStream audioStream, Supplier<AudioInputStream> repeatStreamSupplier) {
+        if (audioStream == null)
+            throw new NullPointerException("audioStream");
+
+        stopActiveAudioClip();
+        this.audioStreamPlayer.play(audioStream, repeatStreamSupplier);
+
+        // Update UI.
+        this.playSelectedSoundButton.setText("Stop");
+        this.forceRepeatCheckBox.setDisable(true);
+    }
+
     private void resetUIOnPlaybackStop() {
         this.playSelectedSoundButton.setText("Play");
         this.forceRepeatCheckBox.setDisable(false);
@@ -195,6 +230,15 @@ public class DefaultFileEditorUISoundListComponent<TGameInstance extends GameIns
          */
         Clip getClip();
 
+        /**
+         * Creates a stream which decodes the sound as it is played, so playback can start without decoding the whole sound first.
+         * A new stream is created each time the sound is played or repeats.
+         * @return audioStream, or null if the sound should be played with getClip() instead
+         */
+        default AudioInputStream createAudioStream() {
+            return null;
+        }
+
         /**
          * Gets the file name to export the sound as if an export were to occur, with or without the extension.
          */
@@ -0,0 +1,151 @@
+package net.highwayfrogs.editor.gui.components;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.control.Cell;
+import javafx.scene.image.Image;
+import net.highwayfrogs.editor.gui.ImageResource;
+import net.highwayfrogs.editor.utils.Utils;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Creates thumbnails (such as previews of textures) in the background, so list and tree cells don't need to create them while they are being drawn.
+ * Until a thumbnail is ready, cells show a placeholder instead.
+ * If the same thumbnail is requested again while it is being created, the requests share the result instead of creating it twice.
+ * Finished thumbnails are cached, and the least recently used ones are removed once there are too many.
+ * Created by agent on 10/18/2026.
+ */
+public class ThumbnailLoader {
+    private static final Map<ThumbnailKey, Image> CACHED_THUMBNAILS = new LinkedHashMap<ThumbnailKey, Image>(64, .75F, true) { // Access-ordered, so the first entry is the least recently used.
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ThumbnailKey, Image> eldest) {
+            return size() > MAXIMUM_CACHED_THUMBNAILS;
+        }
+    };
+    private static final Map<ThumbnailKey, List<Consumer<Image>>> PENDING_THUMBNAILS = new HashMap<>(); // Guarded by CACHED_THUMBNAILS.
+
+    private static final boolean ASYNC_THUMBNAILS_ENABLED = true;
+    public static final Image PLACEHOLDER_IMAGE = ImageResource.WIN98_TIME_16.getFxImage();
+    private static final int MAXIMUM_CACHED_THUMBNAILS = 2048;
+    private static final int THREAD_COUNT = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static final ExecutorService THUMBNAIL_EXECUTOR = Executors.newFixedThreadPool(THREAD_COUNT, runnable -> {
+        Thread thread = new Thread(runnable, "Thumbnail Loader");
+        thread.setDaemon(true); // Don't prevent the application from closing.
+        return thread;
+    });
+
+    /**
+     * Applies a thumbnail to a cell as its graphic, showing a placeholder until the thumbnail has been created.
+     * If the cell is showing a different item once the thumbnail is ready, the thumbnail will not be applied.
+     * Must be called on the FX thread.
+     * @param cell the cell to apply the graphic to
+     * @param item the item which the cell is showing
+     * @param source the object which creates the thumbnail, in case the same item can have different thumbnails. Compared by identity.
+     * @param stamp a value which should change whenever the thumbnail changes
+     * @param thumbnailFactory creates the thumbnail. This is run on a background thread, and may return null.
+     * @param graphicFactory creates the cell graphic from the thumbnail, or the placeholder. This is run on the FX thread, and is never given null.
+     */
+    public static <T> void applyCellGraphic(Cell<T> cell, T item, Object source, long stamp, Supplier<Image> thumbnailFactory, Function<Image, Node> graphicFactory) {
+        if (!ASYNC_THUMBNAILS_ENABLED) {
+            Image thumbnail = thumbnailFactory.get();
+            cell.setGraphic(thumbnail != null ? graphicFactory.apply(thumbnail) : null);
+            return;
+        }
+
+        ThumbnailKey key = new ThumbnailKey(item, source, stamp);
+        synchronized (CACHED_THUMBNAILS) {
+            if (CACHED_THUMBNAILS.containsKey(key)) {
+                Image thumbnail = CACHED_THUMBNAILS.get(key);
+                cell.setGraphic(thumbnail != null ? graphicFactory.apply(thumbnail) : null);
+                return;
+            }
+        }
+
+        cell.setGraphic(graphicFactory.apply(PLACEHOLDER_IMAGE));
+        requestThumbnail(key, thumbnailFactory, thumbnail -> {
+            if (cell.isEmpty() || cell.getItem() != item)
+                return; // The cell has been reused for another item.
+
+            cell.setGraphic(thumbnail != null ? graphicFactory.apply(thumbnail) : null);
+        });
+    }
+
+    /**
+     * Removes all cached thumbnails, so the items they were created for are no longer referenced.
+     */
+    public static void clear() {
+        synchronized (CACHED_THUMBNAILS) {
+            CACHED_THUMBNAILS.clear();
+        }
+    }
+
+    private static void requestThumbnail(ThumbnailKey key, Supplier<Image> thumbnailFactory, Consumer<Image> callback) {
+        synchronized (CACHED_THUMBNAILS) {
+            List<Consumer<Image>> pendingCallbacks = PENDING_THUMBNAILS.get(key);
+            if (pendingCallbacks != null) { // The thumbnail is already being created.
+                pendingCallbacks.add(callback);
+                return;
+            }
+
+            pendingCallbacks = new ArrayList<>();
+            pendingCallbacks.add(callback);
+            PENDING_THUMBNAILS.put(key, pendingCallbacks);
+        }
+
+        THUMBNAIL_EXECUTOR.execute(() -> {
+            Image thumbnail = null;
+            boolean success = false;
+            try {
+                thumbnail = thumbnailFactory.get();
+                success = true;
+            } catch (Throwable th) {
+                Utils.handleError(null, th, false, "Failed to create a thumbnail for '%s'.", key.item);
+            }
+
+            List<Consumer<Image>> callbacks;
+            synchronized (CACHED_THUMBNAILS) {
+                callbacks = PENDING_THUMBNAILS.remove(key);
+                if (success) // Failures are not cached, so they will be attempted again next time.
+                    CACHED_THUMBNAILS.put(key, thumbnail);
+            }
+
+            final Image finalThumbnail = thumbnail;
+            Platform.runLater(() -> {
+                for (int i = 0; i < callbacks.size(); i++)
+                    callbacks.get(i).accept(finalThumbnail);
+            });
+        });
+    }
+
+    private static class ThumbnailKey {
+        private final Object item;
+        private final Object source;
+        private final long stamp;
+
+        public ThumbnailKey(Object item, Object source, long stamp) {
+            this.item = item;
+            this.source = source;
+            this.stamp = stamp;
+        }
+
+        @Override
+        public int hashCode() {
+            return (((System.identityHashCode(this.item) * 31) + System.identityHashCode(this.source)) * 31) + Long.hashCode(this.stamp);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ThumbnailKey))
+                return false;
+
+            ThumbnailKey otherKey = (ThumbnailKey) other;
+            return this.item == otherKey.item && this.source == otherKey.source && this.stamp == otherKey.stamp;
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package net.highwayfrogs.editor.gui.extra.hash;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
+import javafx.scene.Scene;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import net.highwayfrogs.editor.FrogLordApplication;
 import net.highwayfrogs.editor.games.sony.SCGameInstance;
@@ -21,13 +25,14 @@ import net.highwayfrogs.editor.utils.FileUtils;
 import net.highwayfrogs.editor.utils.FileUtils.BrowserFileType;
 import net.highwayfrogs.editor.utils.FileUtils.SavedFilePath;
 import net.highwayfrogs.editor.utils.NumberUtils;
+import net.highwayfrogs.editor.utils.Utils;
 
 import java.io.File;
 import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * Manages the hash playground.
@@ -52,6 +57,7 @@ public class HashPlaygroundController extends GameUIController<SCGameInstance> {
     @FXML private ListView<String> stringsListView;
     @Getter private HashRange psyqTargetHashRange;
     @Getter private HashRange msvcTargetHashRange;
+    private final List<LinkerHashPermutationSearch> activeSearches = new ArrayList<>();
 
     private static final BrowserFileType TABLE_EXPORT_FILE_TYPE = new BrowserFileType("Exported BSS Table", "c");
     private static final SavedFilePath TABLE_EXPORT_FILE_PATH = new SavedFilePath("bssTableExport", "Please select the file to save the BSS table export as...", TABLE_EXPORT_FILE_TYPE);
@@ -132,28 +138,59 @@ public class HashPlaygroundController extends GameUIController<SCGameInstance> {
 
     @FXML
     private void generateStrings(ActionEvent evt) {
+        cancelActiveSearches();
         String searchQuery = this.searchFilterField.getText();
         int maxWordSize = NumberUtils.isInteger(this.maxWordSizeField.getText()) ? Integer.parseInt(this.maxWordSizeField.getText()) : 0;
 
-        List<String> output = new ArrayList<>();
+        ObservableList<String> output = FXCollections.observableArrayList();
         Set<String> seenAlready = new HashSet<>();
+        this.stringsListView.setItems(output);
         generateStrings(output, seenAlready, this.dictionaryGenerator, maxWordSize, searchQuery);
         if (this.showPermutations.isSelected())
             generateStrings(output, seenAlready, this.characterGenerator, maxWordSize, searchQuery);
         generateStrings(output, seenAlready, this.hexadecimalGenerator, maxWordSize, searchQuery);
-        this.stringsListView.setItems(FXCollections.observableArrayList(output));
     }
 
     private void generateStrings(List<String> results, Set<String> seenAlready, IHashStringGenerator generator, int maxWordSize, String searchQuery) {
-        List<String> newStrings = generator.generateStrings(this);
-        if (newStrings == null || newStrings.isEmpty())
+        LinkerHashPermutationSearch search = generator.createSearch(this);
+        if (search != null) {
+            // Results are added to the list as they're found, so the UI doesn't wait for the whole search.
+            this.activeSearches.add(search);
+            StreamedStringBatcher batcher = new StreamedStringBatcher(search, newStrings -> addStrings(results, seenAlready, newStrings, maxWordSize, searchQuery));
+            search.searchAsync(batcher).whenComplete((result, th) -> {
+                if (th != null)
+                    Utils.handleError(getLogger(), th, false, "Failed to search permutations for matching hashes.");
+            });
             return;
+        }
+
+        List<String> newStrings = generator.generateStrings(this);
+        if (newStrings != null && !newStrings.isEmpty())
+            addStrings(results, seenAlready, newStrings, maxWordSize, searchQuery);
+    }
 
+    private static void addStrings(List<String> results, Set<String> seenAlready, List<String> newStrings, int maxWordSize, String searchQuery) {
+        List<String> filteredStrings = new ArrayList<>();
         for (int i = 0; i < newStrings.size(); i++) {
             String word = newStrings.get(i);
             if (seenAlready.add(word) && (searchQuery == null || searchQuery.isEmpty() || word.contains(searchQuery)) && (maxWordSize <= 0 || word.length() <= maxWordSize))
-                results.add(word);
+                filteredStrings.add(word);
         }
+
+        if (filteredStrings.size() > 0)
+            results.addAll(filteredStrings);
+    }
+
+    private void cancelActiveSearches() {
+        for (int i = 0; i < this.activeSearches.size(); i++)
+            this.activeSearches.get(i).cancel();
+        this.activeSearches.clear();
+    }
+
+    @Override
+    public void onSceneRemove(Scene oldScene) {
+        super.onSceneRemove(oldScene);
+        cancelActiveSearches();
     }
 
     /**
@@ -185,4 +222,33 @@ public class HashPlaygroundController extends GameUIController<SCGameInstance> {
     public static void openEditor(SCGameInstance gameInstance) {
         FXUtils.createWindowFromFXMLTemplate("window-hash-playground", new HashPlaygroundController(gameInstance), "Hash Playground", false);
     }
-}
\ No newline at end of file
+
+    /**
+     * Passes strings found by a background search to the FX thread in batches, instead of queueing an update for every string found.
+     */
+    @RequiredArgsConstructor
+    private static class StreamedStringBatcher implements Consumer<String> {
+        private final LinkerHashPermutationSearch search;
+        private final Consumer<List<String>> batchHandler;
+        private final Queue<String> queuedStrings = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+        @Override
+        public void accept(String str) {
+            this.queuedStrings.add(str);
+            if (this.flushQueued.compareAndSet(false, true))
+                Platform.runLater(this::flush);
+        }
+
+        private void flush() {
+            this.flushQueued.set(false); // Cleared before polling, so strings queued while flushing will queue another flush.
+            List<String> batch = new ArrayList<>();
+            String str;
+            while ((str = this.queuedStrings.poll()) != null)
+                batch.add(str);
+
+            if (!this.search.isCancelled() && batch.size() > 0)
+                this.batchHandler.accept(batch);
+        }
+    }
+}
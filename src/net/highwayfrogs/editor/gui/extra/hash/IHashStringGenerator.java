@@ -14,6 +14,15 @@ public interface IHashStringGenerator {
      */
     List<String> generateStrings(HashPlaygroundController controller);
 
+    /**
+     * Creates a search which finds strings in the background, streaming them as they are found instead of generating them all at once.
+     * @param controller the controller to generate strings for
+     * @return search, or null if generateStrings() should be used instead
+     */
+    default LinkerHashPermutationSearch createSearch(HashPlaygroundController controller) {
+        return null;
+    }
+
     /**
      * Called to set up the string generator.
      * @param controller The UI controller which is using this generator. Null should be supported.
@@ -0,0 +1,253 @@
+package net.highwayfrogs.editor.gui.extra.hash;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Searches permutations of words for strings whose PsyQ linker hash is within a target range.
+ * The linker hash is the string length plus the sum of its characters, so the order of the characters does not matter.
+ * This means the hash of each word only needs to be calculated once, and the hash of a permutation is just the sum of the hashes of the words chosen.
+ * Before searching, a table is built of which partial sums can still reach the target range.
+ * So, only permutations which match are ever visited, and strings are only created once a match is found.
+ * Created by agent on 10/18/2026.
+ */
+public class LinkerHashPermutationSearch {
+    private final String prefix;
+    private final String suffix;
+    private final String[][] slotWords; // [slot][option]
+    private final int[][] slotHashes; // [slot][option] -> The linker hash of the word.
+    private final int minimumSlotCount;
+    private final int prefixSuffixHash;
+    private final HashRange psyqRange;
+    private final HashRange msvcRange;
+    private final boolean[][] reachableSums; // [slot][partialSum] -> Whether the words from this slot onward can still reach the target range.
+    @Getter private final AtomicLong matchCount = new AtomicLong();
+    @Setter private PermutationFilter filter;
+    @Setter private boolean outputPermutationOnly; // If true, the prefix and suffix are left out of the strings passed to the output.
+    private volatile boolean cancelled;
+
+    private static final boolean PARALLEL_SEARCH_ENABLED = true;
+    private static final int PARALLEL_SPLIT_DEPTH = 2; // Each choice for the first slots becomes its own task.
+    private static final int THREAD_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final ForkJoinPool SEARCH_POOL = new ForkJoinPool(THREAD_COUNT);
+
+    /**
+     * Creates a new search.
+     * @param prefix           The text to put before each permutation. Can be null.
+     * @param suffix           The text to put after each permutation. Can be null.
+     * @param slotWords        The words available in each slot. A permutation uses one word from each slot, in order.
+     * @param minimumSlotCount The minimum number of slots a permutation must fill. Permutations may end after any slot from this point onward.
+     * @param psyqRange        The PsyQ linker hash range to find. If null, all permutations are allowed.
+     * @param msvcRange        The MSVC hash range to find. If null, it is not checked.
+     */
+    public LinkerHashPermutationSearch(String prefix, String suffix, List<String[]> slotWords, int minimumSlotCount, HashRange psyqRange, HashRange msvcRange) {
+        if (slotWords == null || slotWords.isEmpty())
+            throw new IllegalArgumentException("At least one slot of words is required.");
+        if (minimumSlotCount < 0 || minimumSlotCount > slotWords.size())
+            throw new IllegalArgumentException("The minimum slot count (" + minimumSlotCount + ") must be within [0, " + slotWords.size() + "].");
+
+        this.prefix = prefix != null ? prefix : "";
+        this.suffix = suffix != null ? suffix : "";
+        this.minimumSlotCount = minimumSlotCount;
+        this.psyqRange = psyqRange;
+        this.msvcRange = msvcRange;
+        this.prefixSuffixHash = FroggerHashUtil.getPsyQLinkerHash(this.prefix + this.suffix);
+
+        this.slotWords = new String[slotWords.size()][];
+        this.slotHashes = new int[slotWords.size()][];
+        for (int i = 0; i < this.slotWords.length; i++) {
+            String[] words = slotWords.get(i);
+            if (words == null || words.length == 0)
+                throw new IllegalArgumentException("Slot #" + i + " had no words, but at least one is required!");
+
+            this.slotWords[i] = words;
+            this.slotHashes[i] = new int[words.length];
+            for (int j = 0; j < words.length; j++)
+                this.slotHashes[i][j] = FroggerHashUtil.getPsyQLinkerHash(words[j]);
+        }
+
+        this.reachableSums = calculateReachableSums();
+    }
+
+    private boolean[][] calculateReachableSums() {
+        // Work backwards from the last slot, since whether a sum can reach the target depends on the slots after it.
+        boolean[][] reachableSums = new boolean[this.slotWords.length + 1][FroggerHashUtil.PSYQ_LINKER_HASH_TABLE_SIZE];
+        for (int slot = this.slotWords.length; slot >= 0; slot--) {
+            boolean[] reachable = reachableSums[slot];
+            for (int sum = 0; sum < reachable.length; sum++) {
+                if (slot >= this.minimumSlotCount && isTargetSum(sum)) {
+                    reachable[sum] = true;
+                } else if (slot < this.slotWords.length) {
+                    int[] hashes = this.slotHashes[slot];
+                    boolean[] nextReachable = reachableSums[slot + 1];
+                    for (int i = 0; i < hashes.length && !reachable[sum]; i++)
+                        reachable[sum] = nextReachable[addLinkerHash(sum, hashes[i])];
+                }
+            }
+        }
+
+        return reachableSums;
+    }
+
+    private boolean isTargetSum(int sum) {
+        return this.psyqRange == null || this.psyqRange.isInRange(addLinkerHash(sum, this.prefixSuffixHash));
+    }
+
+    /**
+     * Gets the total number of permutations covered by this search, including ones which are skipped because they cannot match.
+     */
+    public BigInteger getPermutationCount() {
+        BigInteger permutationCount = BigInteger.ZERO;
+        BigInteger slotPermutations = BigInteger.ONE;
+        for (int i = 0; i < this.slotWords.length; i++) {
+            if (i >= this.minimumSlotCount)
+                permutationCount = permutationCount.add(slotPermutations);
+            slotPermutations = slotPermutations.multiply(BigInteger.valueOf(this.slotWords[i].length));
+        }
+
+        return permutationCount.add(slotPermutations);
+    }
+
+    /**
+     * Stops the search as soon as possible. Results may still be found by threads which have not yet seen the cancellation.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Tests if the search has been cancelled.
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Runs the search, waiting until it completes or is cancelled.
+     * @param output The consumer to pass matching strings to. This may be called from several threads at once.
+     */
+    public void search(Consumer<String> output) {
+        if (output == null)
+            throw new NullPointerException("output");
+
+        int splitDepth = PARALLEL_SEARCH_ENABLED ? Math.min(PARALLEL_SPLIT_DEPTH, this.slotWords.length) : 0;
+        PermutationSearchTask task = new PermutationSearchTask(output, splitDepth, new int[this.slotWords.length], 0, 0);
+        if (splitDepth > 0) {
+            SEARCH_POOL.invoke(task);
+        } else {
+            task.compute();
+        }
+    }
+
+    /**
+     * Runs the search in the background.
+     * @param output The consumer to pass matching strings to. This may be called from several threads at once.
+     * @return future which completes when the search is finished or cancelled
+     */
+    public CompletableFuture<Void> searchAsync(Consumer<String> output) {
+        return CompletableFuture.runAsync(() -> search(output), SEARCH_POOL);
+    }
+
+    private static int addLinkerHash(int hash, int value) {
+        return (hash + value) % FroggerHashUtil.PSYQ_LINKER_HASH_TABLE_SIZE;
+    }
+
+    @SuppressWarnings("serial") // Tasks are never serialized.
+    private class PermutationSearchTask extends RecursiveAction {
+        private final Consumer<String> output;
+        private final int splitDepth;
+        private final int[] wordIndices;
+        private final int startSlot;
+        private final int startSum;
+        private final StringBuilder builder = new StringBuilder();
+
+        public PermutationSearchTask(Consumer<String> output, int splitDepth, int[] wordIndices, int startSlot, int startSum) {
+            this.output = output;
+            this.splitDepth = splitDepth;
+            this.wordIndices = wordIndices;
+            this.startSlot = startSlot;
+            this.startSum = startSum;
+        }
+
+        @Override
+        protected void compute() {
+            search(this.startSlot, this.startSum);
+        }
+
+        private void search(int slot, int sum) {
+            if (LinkerHashPermutationSearch.this.cancelled)
+                return;
+
+            if (slot >= LinkerHashPermutationSearch.this.minimumSlotCount && isTargetSum(sum))
+                onMatchFound(slot);
+            if (slot >= LinkerHashPermutationSearch.this.slotWords.length)
+                return;
+
+            // Only continue with words which leave a sum that can still reach the target.
+            int[] hashes = LinkerHashPermutationSearch.this.slotHashes[slot];
+            boolean[] nextReachable = LinkerHashPermutationSearch.this.reachableSums[slot + 1];
+            List<PermutationSearchTask> forkedTasks = (slot < this.splitDepth) ? new ArrayList<>() : null;
+            for (int i = 0; i < hashes.length; i++) {
+                int newSum = addLinkerHash(sum, hashes[i]);
+                if (!nextReachable[newSum])
+                    continue;
+
+                this.wordIndices[slot] = i;
+                if (forkedTasks != null) {
+                    forkedTasks.add(new PermutationSearchTask(this.output, this.splitDepth, this.wordIndices.clone(), slot + 1, newSum));
+                } else {
+                    search(slot + 1, newSum);
+                }
+            }
+
+            if (forkedTasks != null)
+                ForkJoinTask.invokeAll(forkedTasks);
+        }
+
+        private void onMatchFound(int slotCount) {
+            this.builder.setLength(0);
+            this.builder.append(LinkerHashPermutationSearch.this.prefix);
+            for (int i = 0; i < slotCount; i++)
+                this.builder.append(LinkerHashPermutationSearch.this.slotWords[i][this.wordIndices[i]]);
+            this.builder.append(LinkerHashPermutationSearch.this.suffix);
+
+            String result = this.builder.toString();
+            HashRange msvcRange = LinkerHashPermutationSearch.this.msvcRange;
+            if (msvcRange != null && !msvcRange.isInRange(FroggerHashUtil.getMsvcCompilerC1HashTableKey(result)))
+                return;
+
+            PermutationFilter filter = LinkerHashPermutationSearch.this.filter;
+            if (filter != null && !filter.test(result, this.wordIndices, slotCount))
+                return;
+
+            LinkerHashPermutationSearch.this.matchCount.incrementAndGet();
+            if (LinkerHashPermutationSearch.this.outputPermutationOnly)
+                result = result.substring(LinkerHashPermutationSearch.this.prefix.length(), result.length() - LinkerHashPermutationSearch.this.suffix.length());
+            this.output.accept(result);
+        }
+    }
+
+    /**
+     * Decides if a string which matched the target hash should be included in the search results.
+     */
+    public interface PermutationFilter {
+        /**
+         * Tests if the string should be included in the results.
+         * @param result      The string created by the permutation, including the prefix and suffix.
+         * @param wordIndices The index of the word chosen in each slot. This array is reused, and should not be kept.
+         * @param slotCount   The number of slots which were used by the permutation.
+         * @return true iff the string should be included
+         */
+        boolean test(String result, int[] wordIndices, int slotCount);
+    }
+}
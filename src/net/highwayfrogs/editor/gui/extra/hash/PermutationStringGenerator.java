@@ -4,8 +4,7 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import net.highwayfrogs.editor.utils.StringUtils;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * Generates permutation-based strings.
@@ -17,8 +16,6 @@ public class PermutationStringGenerator implements IHashStringGenerator {
     private final String permutationPrefix;
     private final String permutationSuffix;
     @NonNull private final char[] availableCharacters;
-    private final List<String> allPermutations = new ArrayList<>();
-    @SuppressWarnings("unchecked") private final List<String>[] permutedStringsByPsyQHash = new List[FroggerHashUtil.PSYQ_LINKER_HASH_TABLE_SIZE];
 
     public static final char[] ALLOWED_CHARACTERS_ALPHANUMERIC = { // 37 entries.
             '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '_',
@@ -35,8 +32,22 @@ public class PermutationStringGenerator implements IHashStringGenerator {
 
     @Override
     public List<String> generateStrings(HashPlaygroundController controller) {
+        LinkerHashPermutationSearch search = createSearch(controller);
+        if (search == null)
+            return Collections.emptyList();
+
+        List<String> results = Collections.synchronizedList(new ArrayList<>());
+        search.search(results::add);
+        return results;
+    }
+
+    @Override
+    public LinkerHashPermutationSearch createSearch(HashPlaygroundController controller) {
         HashRange psyqRange = controller.getPsyqTargetHashRange();
         HashRange msvcRange = controller.getMsvcTargetHashRange();
+        if (psyqRange == null && msvcRange == null)
+            return null;
+
         String prefix = controller.getPrefix();
         String suffix = controller.getSuffix();
         if (!StringUtils.isNullOrWhiteSpace(this.permutationPrefix))
@@ -44,114 +55,22 @@ public class PermutationStringGenerator implements IHashStringGenerator {
         if (!StringUtils.isNullOrWhiteSpace(this.permutationSuffix))
             suffix = this.permutationSuffix + suffix;
 
-        List<String> results = new ArrayList<>();
-        if (psyqRange != null) {
-            generateStringsPsyQ(results, psyqRange, msvcRange, prefix, suffix);
-        } else if (msvcRange != null) { // Slowly test all words.
-            generateStringsMsvc(results, msvcRange, prefix, suffix);
-        }
+        // Each slot is one character, and permutations can stop after any of them.
+        String[] characters = new String[this.availableCharacters.length];
+        for (int i = 0; i < characters.length; i++)
+            characters[i] = String.valueOf(this.availableCharacters[i]);
 
-        return results;
-    }
-
-    private void generateStringsPsyQ(List<String> output, HashRange psyqRange, HashRange msvcRange, String prefix, String suffix) {
-        int hash = -1;
-        while ((hash = psyqRange.getNextValue(hash)) >= 0) {
-            int targetLinkerHash = FroggerHashUtil.getPsyQLinkerHashWithoutPrefixSuffix(hash, prefix, suffix);
-            List<String> words = this.permutedStringsByPsyQHash[targetLinkerHash];
-            if (words == null)
-                continue;
-
-            if (msvcRange != null) {
-                // Ensure they match the msvc range too.
-                for (int i = 0; i < words.size(); i++) {
-                    String word = words.get(i);
-                    String testStr = prefix + word + suffix;
-                    if (msvcRange.isInRange(FroggerHashUtil.getMsvcCompilerC1HashTableKey(testStr)))
-                        output.add(word);
-                }
-            } else { // No MSVC range, so use them directly.
-                output.addAll(words);
-            }
-        }
-    }
+        List<String[]> slots = new ArrayList<>(this.maxPermutationLength);
+        for (int i = 0; i < this.maxPermutationLength; i++)
+            slots.add(characters);
 
-    private void generateStringsMsvc(List<String> output, HashRange msvcRange, String prefix, String suffix) {
-        for (int i = 0; i < this.allPermutations.size(); i++) {
-            String word = this.allPermutations.get(i);
-            String testStr = prefix + word + suffix;
-            if (msvcRange.isInRange(FroggerHashUtil.getMsvcCompilerC1HashTableKey(testStr)))
-                output.add(word);
-        }
+        LinkerHashPermutationSearch search = new LinkerHashPermutationSearch(prefix, suffix, slots, 1, psyqRange, msvcRange);
+        search.setOutputPermutationOnly(true);
+        return search;
     }
 
     @Override
     public void onSetup(HashPlaygroundController controller) {
-        long startTime = System.currentTimeMillis();
-        char[] allowedNameCharacters = this.availableCharacters;
-
-        // Setup first string group.
-        List<PermutationStringNode> queue = new ArrayList<>();
-        for (int i = 0; i < allowedNameCharacters.length; i++)
-            queue.add(new PermutationStringNode(null, allowedNameCharacters[i]));
-
-        int currLength = 1;
-        StringBuilder builder = new StringBuilder();
-        List<PermutationStringNode> nextQueue = new ArrayList<>();
-        while (this.maxPermutationLength > currLength++) {
-            while (queue.size() > 0) {
-                PermutationStringNode node = queue.remove(queue.size() - 1);
-                addString(node, builder);
-                for (int i = 0; i < allowedNameCharacters.length; i++)
-                    nextQueue.add(new PermutationStringNode(node, allowedNameCharacters[i]));
-            }
-
-            // Prepare for next time.
-            queue.addAll(nextQueue);
-            nextQueue.clear();
-        }
-
-        // Add pending strings.
-        for (int i = 0; i < queue.size(); i++)
-            addString(queue.get(i), builder);
-
-        controller.getLogger().info("Generated %d permutations (length %d) in %d ms.", this.allPermutations.size(), this.maxPermutationLength, System.currentTimeMillis() - startTime);
-    }
-
-    private void addString(PermutationStringNode node, StringBuilder builder) {
-        String str = node.toString(builder);
-        int psyqHash = FroggerHashUtil.getPsyQLinkerHash(str);
-
-        // Add string to list-based hash.
-        List<String> list = this.permutedStringsByPsyQHash[psyqHash];
-        if (list == null)
-            this.permutedStringsByPsyQHash[psyqHash] = list = new ArrayList<>();
-        list.add(str);
-
-        this.allPermutations.add(str);
-    }
-
-    @RequiredArgsConstructor
-    private static final class PermutationStringNode {
-        private final PermutationStringNode parentNode;
-        private final char currChar;
-
-        private void recursiveWriteChar(StringBuilder builder) {
-            if (this.parentNode != null)
-                this.parentNode.recursiveWriteChar(builder);
-
-            builder.append(this.currChar);
-        }
-
-        /**
-         * Gets the node as a string
-         * @param builder the builder to write the string with
-         * @return string
-         */
-        public String toString(StringBuilder builder) {
-            builder.setLength(0);
-            this.recursiveWriteChar(builder);
-            return builder.toString();
-        }
+        // Permutations are found by searching on demand, so there's nothing to generate ahead of time.
     }
 }
@@ -283,6 +283,30 @@ public class DynamicMeshDataEntry {
         writeVertexXYZ(localVtxIndex, position.getX(), position.getY(), position.getZ());
     }
 
+    /**
+     * Writes the position data for several consecutive vertices at once.
+     * @param localVtxIndex The index of the first vertex to write.
+     * @param positions     The array containing the positions to write, as xyz triples.
+     * @param positionIndex The index into the positions array to start reading from.
+     * @param vertexCount   The number of vertices to write.
+     */
+    public void writeVertexXYZs(int localVtxIndex, float[] positions, int positionIndex, int vertexCount) {
+        if (!this.active)
+            throw new IllegalStateException("Cannot write vertex data while the entry is not active.");
+        if (localVtxIndex < 0 || vertexCount < 0 || localVtxIndex + vertexCount > this.writtenVertexCount)
+            throw new IllegalArgumentException("The local vertex range [" + localVtxIndex + ", " + (localVtxIndex + vertexCount) + ") is not available to write, and thus we cannot write data to it. (Pending: " + this.pendingVertexCount + ", Written: " + this.writtenVertexCount + ")");
+
+        int vertexElementSize = this.mesh.getPointElementSize(); // 3
+        if (vertexElementSize != 3)
+            throw new UnsupportedOperationException("Cannot write xyz positions to a mesh with " + vertexElementSize + " values per vertex.");
+
+        int rawArrayStartIndex = (this.vertexStartIndex + localVtxIndex) * vertexElementSize;
+        this.mesh.getEditableVertices().set(rawArrayStartIndex, positions, positionIndex, vertexCount * vertexElementSize);
+
+        // Trigger an update. (If batching is enabled, this will occur after all changes are ready)
+        this.mesh.getEditableVertices().applyToFxArray();
+    }
+
     /**
      * Removes a vertex position from the array.
      * @param localVtxIndex The local index of the position to remove.
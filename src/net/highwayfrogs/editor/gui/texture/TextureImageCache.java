@@ -0,0 +1,255 @@
+package net.highwayfrogs.editor.gui.texture;
+
+import lombok.NonNull;
+import net.highwayfrogs.editor.utils.DataSizeUnit;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.*;
+import java.util.Map.Entry;
+import java.util.function.Supplier;
+
+/**
+ * Keeps decoded images in memory, up to a memory limit.
+ * Image files keep their pixel data in its original form, and only decode it into a BufferedImage when the image is actually used.
+ * Decoded images (and variants of them, such as images with filters applied) are cached here, shared between all games.
+ * Once the cache grows beyond its memory limit, the least recently used images are removed, and will be decoded again if they are needed later.
+ * Created by agent on 10/18/2026.
+ */
+public class TextureImageCache {
+    private static final Map<CachedImageKey, CachedImage> CACHED_IMAGES = new LinkedHashMap<>(64, .75F, true); // Access-ordered, so the first entry is the least recently used.
+    private static final Map<BufferedImage, Integer> IMAGE_REFERENCE_COUNTS = new IdentityHashMap<>(); // The number of entries holding each image, so an image shared by several entries only counts against the limit once.
+    private static long cacheSizeInBytes;
+    private static long invalidationCount; // Used to avoid caching an image which was decoded from data which changed while it was being decoded.
+    private static long hitCount;
+    private static long missCount;
+    private static long evictionCount;
+
+    private static final boolean IMAGE_CACHE_ENABLED = true;
+    private static long maximumCacheSizeInBytes = 256L * 1024 * 1024;
+
+    /**
+     * Gets a cached image, decoding it if it is not cached.
+     * The decoder runs outside the cache lock, so images can be decoded by several threads at once.
+     * The returned image is shared, and should not be modified.
+     * @param owner the object which the image belongs to, compared by identity
+     * @param variant identifies which variant of the owner's image this is, such as the filters applied to it. Null is used for the unmodified image.
+     * @param decoder creates the image if it is not cached
+     * @return image
+     */
+    public static BufferedImage getImage(@NonNull Object owner, Object variant, @NonNull Supplier<BufferedImage> decoder) {
+        if (!IMAGE_CACHE_ENABLED)
+            return decoder.get();
+
+        CachedImageKey key = new CachedImageKey(owner, variant);
+        long startInvalidationCount;
+        synchronized (CACHED_IMAGES) {
+            CachedImage cachedImage = CACHED_IMAGES.get(key);
+            if (cachedImage != null) {
+                hitCount++;
+                return cachedImage.image;
+            }
+
+            missCount++;
+            startInvalidationCount = invalidationCount;
+        }
+
+        BufferedImage image = decoder.get();
+        if (image == null)
+            return null;
+
+        long sizeInBytes = getSizeInBytes(image);
+        synchronized (CACHED_IMAGES) {
+            CachedImage cachedImage = CACHED_IMAGES.get(key);
+            if (cachedImage != null) // Another thread decoded the same image first.
+                return cachedImage.image;
+
+            if (startInvalidationCount != invalidationCount || sizeInBytes > maximumCacheSizeInBytes)
+                return image; // The image may already be out of date, or it would evict the entire cache.
+
+            addEntry(key, new CachedImage(image, sizeInBytes));
+            removeLeastRecentlyUsed();
+        }
+
+        return image;
+    }
+
+    /**
+     * Removes all cached images (including all variants) belonging to an owner.
+     * This should be called whenever the data an image is decoded from changes.
+     * @param owner the owner to remove cached images for
+     */
+    public static void invalidate(Object owner) {
+        if (owner == null)
+            return;
+
+        synchronized (CACHED_IMAGES) {
+            invalidationCount++;
+            Iterator<Entry<CachedImageKey, CachedImage>> iterator = CACHED_IMAGES.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Entry<CachedImageKey, CachedImage> entry = iterator.next();
+                if (entry.getKey().owner == owner) {
+                    iterator.remove();
+                    onEntryRemoved(entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all cached images.
+     */
+    public static void clear() {
+        synchronized (CACHED_IMAGES) {
+            invalidationCount++;
+            CACHED_IMAGES.clear();
+            IMAGE_REFERENCE_COUNTS.clear();
+            cacheSizeInBytes = 0;
+        }
+    }
+
+    /**
+     * Gets the maximum number of bytes which decoded images may use before the least recently used ones are removed.
+     */
+    public static long getMaximumCacheSizeInBytes() {
+        synchronized (CACHED_IMAGES) {
+            return maximumCacheSizeInBytes;
+        }
+    }
+
+    /**
+     * Sets the maximum number of bytes which decoded images may use, removing images if the cache is now too large.
+     * @param newMaximumSizeInBytes the new memory limit, in bytes
+     */
+    public static void setMaximumCacheSizeInBytes(long newMaximumSizeInBytes) {
+        if (newMaximumSizeInBytes < 0)
+            throw new IllegalArgumentException("The maximum cache size cannot be negative! (Got: " + newMaximumSizeInBytes + ")");
+
+        synchronized (CACHED_IMAGES) {
+            maximumCacheSizeInBytes = newMaximumSizeInBytes;
+            removeLeastRecentlyUsed();
+        }
+    }
+
+    /**
+     * Gets the number of bytes currently used by cached images.
+     */
+    public static long getCacheSizeInBytes() {
+        synchronized (CACHED_IMAGES) {
+            return cacheSizeInBytes;
+        }
+    }
+
+    /**
+     * Gets the number of images currently cached.
+     */
+    public static int getCachedImageCount() {
+        synchronized (CACHED_IMAGES) {
+            return CACHED_IMAGES.size();
+        }
+    }
+
+    /**
+     * Gets the number of times a requested image was already cached.
+     */
+    public static long getHitCount() {
+        synchronized (CACHED_IMAGES) {
+            return hitCount;
+        }
+    }
+
+    /**
+     * Gets the number of times a requested image had to be decoded.
+     */
+    public static long getMissCount() {
+        synchronized (CACHED_IMAGES) {
+            return missCount;
+        }
+    }
+
+    /**
+     * Gets the number of images which have been removed to stay within the memory limit.
+     */
+    public static long getEvictionCount() {
+        synchronized (CACHED_IMAGES) {
+            return evictionCount;
+        }
+    }
+
+    /**
+     * Gets a summary of the cache metrics, for display or logging.
+     */
+    public static String getMetricsSummary() {
+        synchronized (CACHED_IMAGES) {
+            long requestCount = hitCount + missCount;
+            return String.format("%d image(s), %s/%s, %d hit(s), %d miss(es) (%.1f%% hit rate), %d eviction(s)",
+                    CACHED_IMAGES.size(), DataSizeUnit.formatSize(cacheSizeInBytes), DataSizeUnit.formatSize(maximumCacheSizeInBytes),
+                    hitCount, missCount, requestCount > 0 ? (100D * hitCount) / requestCount : 0D, evictionCount);
+        }
+    }
+
+    private static void addEntry(CachedImageKey key, CachedImage cachedImage) {
+        CACHED_IMAGES.put(key, cachedImage);
+        if (IMAGE_REFERENCE_COUNTS.merge(cachedImage.image, 1, Integer::sum) == 1) // A variant is often the unmodified image itself (such as when no filters apply).
+            cacheSizeInBytes += cachedImage.sizeInBytes;
+    }
+
+    private static void onEntryRemoved(CachedImage cachedImage) {
+        Integer referenceCount = IMAGE_REFERENCE_COUNTS.get(cachedImage.image);
+        if (referenceCount != null && referenceCount > 1) {
+            IMAGE_REFERENCE_COUNTS.put(cachedImage.image, referenceCount - 1);
+        } else {
+            IMAGE_REFERENCE_COUNTS.remove(cachedImage.image);
+            cacheSizeInBytes -= cachedImage.sizeInBytes;
+        }
+    }
+
+    private static void removeLeastRecentlyUsed() {
+        Iterator<CachedImage> iterator = CACHED_IMAGES.values().iterator();
+        while (cacheSizeInBytes > maximumCacheSizeInBytes && iterator.hasNext()) {
+            CachedImage cachedImage = iterator.next();
+            iterator.remove();
+            onEntryRemoved(cachedImage);
+            evictionCount++;
+        }
+    }
+
+    private static long getSizeInBytes(BufferedImage image) {
+        DataBuffer dataBuffer = image.getRaster().getDataBuffer();
+        return ((long) dataBuffer.getSize() * dataBuffer.getNumBanks() * DataBuffer.getDataTypeSize(dataBuffer.getDataType())) / 8;
+    }
+
+    private static class CachedImageKey {
+        private final Object owner;
+        private final Object variant;
+
+        public CachedImageKey(Object owner, Object variant) {
+            this.owner = owner;
+            this.variant = variant;
+        }
+
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(this.owner) * 31) + Objects.hashCode(this.variant);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof CachedImageKey))
+                return false;
+
+            CachedImageKey otherKey = (CachedImageKey) other;
+            return this.owner == otherKey.owner && Objects.equals(this.variant, otherKey.variant);
+        }
+    }
+
+    private static class CachedImage {
+        private final BufferedImage image;
+        private final long sizeInBytes;
+
+        public CachedImage(BufferedImage image, long sizeInBytes) {
+            this.image = image;
+            this.sizeInBytes = sizeInBytes;
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package net.highwayfrogs.editor.scripting;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import net.highwayfrogs.editor.Constants;
 import net.highwayfrogs.editor.scripting.compiler.NoodleCallHolder;
 import net.highwayfrogs.editor.scripting.instructions.NoodleInstruction;
+import net.highwayfrogs.editor.scripting.runtime.compiled.NoodleCompiledScript;
 import net.highwayfrogs.editor.scripting.tracking.NoodleRuntimeCodeSource;
 import net.highwayfrogs.editor.system.Config;
 import net.highwayfrogs.editor.utils.NumberUtils;
@@ -26,7 +28,9 @@ public class NoodleScript {
     private final List<NoodleRuntimeCodeSource> codeSources = new ArrayList<>();
     private final List<NoodleInstruction> instructions = new ArrayList<>(); // An ordered list of all instructions in this script.
     private final Map<String, Integer> labels = new HashMap<>();
+    private final List<String> variableNames = new ArrayList<>(); // [slot] -> The name of the variable stored in the slot.
     private final NoodleCallHolder<NoodleScriptFunction> functions = new NoodleCallHolder<>();
+    @Getter(AccessLevel.NONE) private volatile NoodleCompiledScript compiledScript; // Compiled the first time the script runs.
     public static final String CONFIG_CHILD_NAME = "Config";
 
     public NoodleScript(NoodleScriptEngine engine, String scriptName) {
@@ -113,7 +117,39 @@ public class NoodleScript {
         this.instructions.clear();
         this.codeSources.clear();
         this.labels.clear();
+        this.variableNames.clear();
         this.functions.clear();
+        this.compiledScript = null;
+    }
+
+    /**
+     * Gets the compiled form of this script, compiling it if it has not been compiled yet.
+     * If the script fails to compile, it will be interpreted instead.
+     * @return compiledScript
+     */
+    public NoodleCompiledScript getCompiledScript() {
+        NoodleCompiledScript compiledScript = this.compiledScript;
+        if (compiledScript != null && compiledScript.isUpToDate(this))
+            return compiledScript;
+
+        try {
+            compiledScript = NoodleCompiledScript.compile(this);
+        } catch (Throwable th) {
+            Utils.handleError(this.engine.getLogger(), th, false, "Failed to compile script '%s', it will be interpreted instead.", this.name);
+            compiledScript = NoodleCompiledScript.createInterpreted(this);
+        }
+
+        this.compiledScript = compiledScript;
+        return compiledScript;
+    }
+
+    /**
+     * Gets the slot which a variable is stored in at runtime.
+     * @param variableName The name of the variable.
+     * @return variableSlot, or -1 if the script does not use the variable
+     */
+    public int getVariableSlot(String variableName) {
+        return this.variableNames.indexOf(variableName);
     }
 
     /**
@@ -16,6 +16,9 @@ public class NoodleScriptFunction implements INoodleCallable {
     @Setter private int startAddress;
     @Setter private int endAddress;
     private final List<String> argumentNames;
+    @Setter private int[] argumentSlots; // [argumentIndex] -> The variable slot which the argument is stored in.
+    @Setter private int[] localSlots; // [variableSlot] -> The index which the variable is stored at in the function's local variables, or -1 if the function does not use it.
+    @Setter private int localSlotCount; // The number of local variables the function can have.
 
     public NoodleScriptFunction(NoodleScript script, String functionName, List<String> argumentNames) {
         this.script = script;
@@ -32,6 +35,15 @@ public class NoodleScriptFunction implements INoodleCallable {
         return instructionAddress >= this.startAddress && instructionAddress <= this.endAddress;
     }
 
+    /**
+     * Gets the index which a variable is stored at in the function's local variables.
+     * @param variableSlot The slot of the variable.
+     * @return localSlot, or -1 if the function does not use the variable
+     */
+    public int getLocalSlot(int variableSlot) {
+        return this.localSlots != null && variableSlot >= 0 && variableSlot < this.localSlots.length ? this.localSlots[variableSlot] : -1;
+    }
+
     /**
      * Gets the number of arguments this function accepts.
      */
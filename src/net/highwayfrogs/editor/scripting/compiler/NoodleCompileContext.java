@@ -14,6 +14,8 @@ import net.highwayfrogs.editor.scripting.compiler.tokens.NoodleToken;
 import net.highwayfrogs.editor.scripting.instructions.NoodleInstruction;
 import net.highwayfrogs.editor.scripting.instructions.NoodleInstructionJump;
 import net.highwayfrogs.editor.scripting.instructions.NoodleInstructionJumpPush;
+import net.highwayfrogs.editor.scripting.instructions.NoodleInstructionPushIdentifier;
+import net.highwayfrogs.editor.scripting.instructions.NoodleInstructionSetIdentifier;
 import net.highwayfrogs.editor.scripting.tracking.NoodleCodeLocation;
 import net.highwayfrogs.editor.scripting.tracking.NoodleFileCodeSource;
 import net.highwayfrogs.editor.scripting.tracking.NoodleRuntimeCodeSource;
@@ -52,6 +54,8 @@ public class NoodleCompileContext {
     private final Map<File, NoodleFileCodeSource> codeSourcesByFile = new HashMap<>();
     private final Set<NoodleMacro> macrosCurrentlyEvaluating = new HashSet<>();
     private final List<String> mainArgumentNames = new ArrayList<>();
+    private final List<String> variableNames = new ArrayList<>(); // [slot] -> The name of the variable.
+    private final Map<String, Integer> variableSlots = new HashMap<>();
 
     public NoodleCompileContext(NoodleScriptEngine engine, String scriptText, NoodleScript targetScript) {
         this.engine = engine;
@@ -80,6 +84,8 @@ public class NoodleCompileContext {
         this.runtimeCodeSources.clear();
         this.mainArgumentNames.clear();
         this.codeSourcesByFile.clear();
+        this.variableNames.clear();
+        this.variableSlots.clear();
 
         // Clear preprocessor data too.
         this.macrosCurrentlyEvaluating.clear();
@@ -148,6 +154,73 @@ public class NoodleCompileContext {
         return this.tokens.size() - x >= this.currentTokenIndex;
     }
 
+    /**
+     * Gets the slot which a variable is stored in at runtime, assigning a new slot if the variable does not have one yet.
+     * Each variable name gets a single slot for the whole script, which is used for both global and local variables.
+     * @param variableName The name of the variable.
+     * @return variableSlot
+     */
+    public int getVariableSlot(String variableName) {
+        Integer variableSlot = this.variableSlots.get(variableName);
+        if (variableSlot == null) {
+            this.variableSlots.put(variableName, variableSlot = this.variableNames.size());
+            this.variableNames.add(variableName);
+        }
+
+        return variableSlot;
+    }
+
+    /**
+     * Assigns the slots which function arguments are stored in.
+     */
+    private void applyArgumentSlots() {
+        for (List<NoodleScriptFunction> functions : this.functions.values()) {
+            for (NoodleScriptFunction function : functions) {
+                int[] argumentSlots = new int[function.getArgumentCount()];
+                for (int i = 0; i < argumentSlots.length; i++)
+                    argumentSlots[i] = getVariableSlot(function.getArgumentNames().get(i));
+                function.setArgumentSlots(argumentSlots);
+            }
+        }
+    }
+
+    /**
+     * Assigns each function an index for every variable it uses, so its local variables only need to be as large as the function.
+     * This must run after every variable slot has been assigned.
+     */
+    private void applyLocalSlots() {
+        for (List<NoodleScriptFunction> functions : this.functions.values()) {
+            for (NoodleScriptFunction function : functions) {
+                int[] localSlots = new int[this.variableNames.size()];
+                Arrays.fill(localSlots, -1);
+
+                int localSlotCount = 0;
+                for (int argumentSlot : function.getArgumentSlots())
+                    if (localSlots[argumentSlot] < 0)
+                        localSlots[argumentSlot] = localSlotCount++;
+
+                for (int i = function.getStartAddress(); i <= function.getEndAddress() && i < this.instructions.size(); i++) {
+                    int variableSlot = getInstructionVariableSlot(this.instructions.get(i));
+                    if (variableSlot >= 0 && localSlots[variableSlot] < 0)
+                        localSlots[variableSlot] = localSlotCount++;
+                }
+
+                function.setLocalSlots(localSlots);
+                function.setLocalSlotCount(localSlotCount);
+            }
+        }
+    }
+
+    private static int getInstructionVariableSlot(NoodleInstruction instruction) {
+        if (instruction instanceof NoodleInstructionPushIdentifier) {
+            return ((NoodleInstructionPushIdentifier) instruction).getVariableSlot();
+        } else if (instruction instanceof NoodleInstructionSetIdentifier) {
+            return ((NoodleInstructionSetIdentifier) instruction).getVariableSlot();
+        } else {
+            return -1;
+        }
+    }
+
     /**
      * Apply the code labels to the compiled instructions.
      */
@@ -174,6 +247,8 @@ public class NoodleCompileContext {
      */
     public void applyToScript() {
         this.applyLabels();
+        this.applyArgumentSlots();
+        this.applyLocalSlots();
 
         // Write instructions to the script.
         this.targetScript.getInstructions().clear();
@@ -187,6 +262,10 @@ public class NoodleCompileContext {
         this.targetScript.getFunctions().getCallablesByName()
                 .putAll(this.functions.getCallablesByName());
 
+        // Write variable slots.
+        this.targetScript.getVariableNames().clear();
+        this.targetScript.getVariableNames().addAll(this.variableNames);
+
         // Write labels.
         this.targetScript.getLabels().clear();
         this.targetScript.getLabels().putAll(this.labels);
@@ -505,7 +505,7 @@ public class NoodleCompiler {
             int argIndex = context.getMainArgumentNames().indexOf(strValue);
             out.add(new NoodleInstructionPushArgument(pos, (short) argIndex));
         } else {
-            out.add(new NoodleInstructionPushIdentifier(pos, strValue));
+            out.add(new NoodleInstructionPushIdentifier(pos, strValue, context.getVariableSlot(strValue)));
         }
     }
 
@@ -577,7 +577,7 @@ public class NoodleCompiler {
             throw new NoodleSyntaxException("Cannot modify read-only constant: '%s'.", node, identName);
 
         // Add identifier.
-        return new NoodleInstructionSetIdentifier(pos, identName);
+        return new NoodleInstructionSetIdentifier(pos, identName, context.getVariableSlot(identName));
     }
 
     private static boolean canIdentifierBeAssigned(NoodleCompileContext context, String identifier) {
@@ -18,8 +18,6 @@ import java.util.Objects;
 public class NoodleInstructionBinaryOperation extends NoodleInstruction {
     private NoodleOperator operator;
 
-    private static final ThreadLocal<NoodleStack> OPERATION_STACK = ThreadLocal.withInitial(NoodleStack::new);
-
     public NoodleInstructionBinaryOperation() {
         super(NoodleInstructionType.BINARY_OP);
     }
@@ -37,9 +35,24 @@ public class NoodleInstructionBinaryOperation extends NoodleInstruction {
 
     @Override
     public void execute(NoodleThread<? extends NoodleScript> thread) {
-        NoodlePrimitive b = thread.getStack().popWithGC();
-        NoodlePrimitive a = thread.getStack().popWithGC();
-        executeBinaryOperation(thread.getStack(), a, b, this.operator);
+        NoodleStack stack = thread.getStack();
+        if (stack.isNumber(0) && stack.isNumber(1)) { // Numbers are calculated without creating primitives.
+            double b = stack.popNumber();
+            double a = stack.popNumber();
+            if (this.operator == NoodleOperator.EQ) {
+                stack.pushBooleanValue(a == b);
+            } else if (this.operator == NoodleOperator.NEQ) {
+                stack.pushBooleanValue(a != b);
+            } else {
+                stack.pushNumberValue(calculateNumberOperation(a, b, this.operator));
+            }
+
+            return;
+        }
+
+        NoodlePrimitive b = stack.popWithGC();
+        NoodlePrimitive a = stack.popWithGC();
+        executeBinaryOperation(stack, a, b, this.operator);
     }
 
     /**
@@ -50,9 +63,7 @@ public class NoodleInstructionBinaryOperation extends NoodleInstruction {
      * @return operationResult
      */
     public static NoodlePrimitive executeBinaryOperation(NoodlePrimitive a, NoodlePrimitive b, NoodleOperator operator) {
-        NoodleStack stack = OPERATION_STACK.get();
-        executeBinaryOperation(stack, a, b, operator);
-        return stack.popWithGC();
+        return calculateBinaryOperation(a, b, operator);
     }
 
     /**
@@ -64,74 +75,94 @@ public class NoodleInstructionBinaryOperation extends NoodleInstruction {
      * @return operationResult
      */
     public static NoodlePrimitive executeBinaryOperation(NoodleStack stack, NoodlePrimitive a, NoodlePrimitive b, NoodleOperator operator) {
+        return stack.pushPrimitive(calculateBinaryOperation(a, b, operator));
+    }
+
+    /**
+     * Calculates the result of a binary operation on two values, without using a stack.
+     * @param a The value on the left side of the operation.
+     * @param b The value on the right side of the operation.
+     * @param operator The binary operator representing the operation to apply.
+     * @return operationResult, which is always a new primitive
+     */
+    public static NoodlePrimitive calculateBinaryOperation(NoodlePrimitive a, NoodlePrimitive b, NoodleOperator operator) {
         if (operator == NoodleOperator.EQ) {
-            return stack.pushBoolean(Objects.equals(a, b));
+            return new NoodlePrimitive(Objects.equals(a, b));
         } else if (operator == NoodleOperator.NEQ) {
-            return stack.pushBoolean(!Objects.equals(a, b));
+            return new NoodlePrimitive(!Objects.equals(a, b));
         } else if (a.isString() || b.isString()) {
             if (operator == NoodleOperator.ADD) {
-                return stack.pushString(a.getAsString() + b.getAsString());
+                return new NoodlePrimitive(a.getAsString() + b.getAsString());
             } else {
                 throw new NoodleRuntimeException("Can't apply %s operator to `%s` and `%s`.", operator, a, b);
             }
         } else if (a.isNumber() && b.isNumber()) {
-            double aVal = a.getNumberValue();
-            double bVal = b.getNumberValue();
-
-            switch (operator) {
-                case ADD:
-                    aVal += bVal;
-                    break;
-                case SUB:
-                    aVal -= bVal;
-                    break;
-                case MUL:
-                    aVal *= bVal;
-                    break;
-                case DIV:
-                    if (bVal == 0)
-                        throw new NoodleRuntimeException("Tried to divide %f by zero!", aVal);
-                    aVal /= bVal;
-                    break;
-                case MOD:
-                    if (bVal == 0)
-                        throw new NoodleRuntimeException("Tried to modulo %f by zero!", aVal);
-                    aVal %= bVal;
-                    break;
-                case SHL: // Bitwise operations can only be done on integers. This is a java limitation, however I can't think of any use-cases where we'd possibly need to bit-shift floating point numbers.
-                    aVal = (((int) aVal) << (int) bVal);
-                    break;
-                case SHR:
-                    aVal = (((int) aVal) >> (int) bVal);
-                    break;
-                case LAND:
-                    aVal = ((int) aVal) & ((int) bVal);
-                    break;
-                case LOR:
-                    aVal = ((int) aVal) | ((int) bVal);
-                    break;
-                case LXOR:
-                    aVal = ((int) aVal) ^ ((int) bVal);
-                    break;
-                case LT:
-                    aVal = (aVal < bVal) ? 1D : 0D;
-                    break;
-                case LTE:
-                    aVal = (aVal <= bVal) ? 1D : 0D;
-                    break;
-                case GT:
-                    aVal = (aVal > bVal) ? 1D : 0D;
-                    break;
-                case GTE:
-                    aVal = (aVal >= bVal) ? 1D : 0D;
-                    break;
-                default:
-                    throw new NoodleRuntimeException("Can't perform unsupported binary operation `%s`.", operator);
-            }
-
-            return stack.pushNumber(aVal);
+            return new NoodlePrimitive(calculateNumberOperation(a.getNumberValue(), b.getNumberValue(), operator));
         } else {
             throw new NoodleRuntimeException("Can't apply %s operator to `%s` and `%s`.", operator, a, b);
         }
     }
+
+    /**
+     * Calculates the result of a binary operation on two numbers.
+     * Equality operators are not supported, as they are not specific to numbers.
+     * @param aVal The number on the left side of the operation.
+     * @param bVal The number on the right side of the operation.
+     * @param operator The binary operator representing the operation to apply.
+     * @return operationResult
+     */
+    public static double calculateNumberOperation(double aVal, double bVal, NoodleOperator operator) {
+        switch (operator) {
+            case ADD:
+                aVal += bVal;
+                break;
+            case SUB:
+                aVal -= bVal;
+                break;
+            case MUL:
+                aVal *= bVal;
+                break;
+            case DIV:
+                if (bVal == 0)
+                    throw new NoodleRuntimeException("Tried to divide %f by zero!", aVal);
+                aVal /= bVal;
+                break;
+            case MOD:
+                if (bVal == 0)
+                    throw new NoodleRuntimeException("Tried to modulo %f by zero!", aVal);
+                aVal %= bVal;
+                break;
+            case SHL: // Bitwise operations can only be done on integers. This is a java limitation, however I can't think of any use-cases where we'd possibly need to bit-shift floating point numbers.
+                aVal = (((int) aVal) << (int) bVal);
+                break;
+            case SHR:
+                aVal = (((int) aVal) >> (int) bVal);
+                break;
+            case LAND:
+                aVal = ((int) aVal) & ((int) bVal);
+                break;
+            case LOR:
+                aVal = ((int) aVal) | ((int) bVal);
+                break;
+            case LXOR:
+                aVal = ((int) aVal) ^ ((int) bVal);
+                break;
+            case LT:
+                aVal = (aVal < bVal) ? 1D : 0D;
+                break;
+            case LTE:
+                aVal = (aVal <= bVal) ? 1D : 0D;
+                break;
+            case GT:
+                aVal = (aVal > bVal) ? 1D : 0D;
+                break;
+            case GTE:
+                aVal = (aVal >= bVal) ? 1D : 0D;
+                break;
+            default:
+                throw new NoodleRuntimeException("Can't perform unsupported binary operation `%s`.", operator);
+        }
+
+        return aVal;
+    }
 }
\ No newline at end of file
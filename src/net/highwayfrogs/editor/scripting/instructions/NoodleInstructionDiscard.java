@@ -18,6 +18,6 @@ public class NoodleInstructionDiscard extends NoodleInstruction {
 
     @Override
     public void execute(NoodleThread<? extends NoodleScript> thread) {
-        thread.getStack().popWithGC();
+        thread.getStack().discardWithGC();
     }
 }
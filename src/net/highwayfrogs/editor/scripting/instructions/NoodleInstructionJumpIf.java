@@ -31,7 +31,7 @@ public class NoodleInstructionJumpIf extends NoodleInstruction {
 
     @Override
     public void execute(NoodleThread<? extends NoodleScript> thread) {
-        if (thread.getStack().popWithGC().isTrueValue())
+        if (thread.getStack().popCondition())
             thread.setPosition(this.jumpPosition);
     }
 }
@@ -1,5 +1,6 @@
 package net.highwayfrogs.editor.scripting.instructions;
 
+import lombok.Getter;
 import net.highwayfrogs.editor.scripting.NoodleScript;
 import net.highwayfrogs.editor.scripting.runtime.NoodleRuntimeException;
 import net.highwayfrogs.editor.scripting.runtime.NoodleThread;
@@ -8,6 +9,7 @@ import net.highwayfrogs.editor.scripting.tracking.NoodleCodeLocation;
 /**
  * Pushes the argument passed into the 'main' function onto the stack.
  */
+@Getter
 public class NoodleInstructionPushArgument extends NoodleInstruction {
     private short argumentIndex;
 
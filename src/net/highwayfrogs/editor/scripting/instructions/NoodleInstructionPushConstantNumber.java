@@ -30,6 +30,6 @@ public class NoodleInstructionPushConstantNumber extends NoodleInstruction {
 
     @Override
     public void execute(NoodleThread<? extends NoodleScript> thread) {
-        thread.getStack().pushNumber(this.numberValue);
+        thread.getStack().pushNumberValue(this.numberValue);
     }
 }
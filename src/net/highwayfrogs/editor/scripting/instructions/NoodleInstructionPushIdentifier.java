@@ -11,14 +11,16 @@ import net.highwayfrogs.editor.scripting.tracking.NoodleCodeLocation;
 @Getter
 public class NoodleInstructionPushIdentifier extends NoodleInstruction {
     private String variableName;
+    private int variableSlot = -1;
 
     public NoodleInstructionPushIdentifier() {
         super(NoodleInstructionType.PUSHVAR);
     }
 
-    public NoodleInstructionPushIdentifier(NoodleCodeLocation codeLocation, String variableName) {
+    public NoodleInstructionPushIdentifier(NoodleCodeLocation codeLocation, String variableName, int variableSlot) {
         super(NoodleInstructionType.PUSHVAR, codeLocation);
         this.variableName = variableName;
+        this.variableSlot = variableSlot;
     }
 
     @Override
@@ -29,6 +31,6 @@ public class NoodleInstructionPushIdentifier extends NoodleInstruction {
 
     @Override
     public void execute(NoodleThread<? extends NoodleScript> thread) {
-        thread.getStack().pushPrimitive(thread.getHeap().getVariable(this.variableName));
+        thread.getHeap().pushVariable(this.variableSlot, thread.getStack());
     }
 }
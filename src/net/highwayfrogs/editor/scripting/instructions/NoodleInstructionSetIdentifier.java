@@ -1,23 +1,26 @@
 package net.highwayfrogs.editor.scripting.instructions;
 
+import lombok.Getter;
 import net.highwayfrogs.editor.scripting.NoodleScript;
-import net.highwayfrogs.editor.scripting.runtime.NoodlePrimitive;
 import net.highwayfrogs.editor.scripting.runtime.NoodleThread;
 import net.highwayfrogs.editor.scripting.tracking.NoodleCodeLocation;
 
 /**
  * This instruction sets the value of an identifier to a value popped from the stack.
  */
+@Getter
 public class NoodleInstructionSetIdentifier extends NoodleInstruction {
     private String variableName;
+    private int variableSlot = -1;
 
     public NoodleInstructionSetIdentifier() {
         super(NoodleInstructionType.SETVAR);
     }
 
-    public NoodleInstructionSetIdentifier(NoodleCodeLocation codeLocation, String variableName) {
+    public NoodleInstructionSetIdentifier(NoodleCodeLocation codeLocation, String variableName, int variableSlot) {
         super(NoodleInstructionType.SETVAR, codeLocation);
         this.variableName = variableName;
+        this.variableSlot = variableSlot;
     }
 
     @Override
@@ -28,9 +31,6 @@ public class NoodleInstructionSetIdentifier extends NoodleInstruction {
 
     @Override
     public void execute(NoodleThread<? extends NoodleScript> thread) {
-        NoodlePrimitive value = thread.getStack().popWithoutGC();
-        thread.getHeap().setVariable(this.variableName, value);
-        if (value != null) // Remove stack reference (Must run after we call set, so we don't garbage collect it before setting the variable, which should cause it to not GC.)
-            value.tryDecreaseRefCount();
+        thread.getHeap().popVariable(this.variableSlot, thread.getStack());
     }
 }
@@ -5,6 +5,7 @@ import net.highwayfrogs.editor.scripting.NoodleScript;
 import net.highwayfrogs.editor.scripting.compiler.NoodleUnaryOperator;
 import net.highwayfrogs.editor.scripting.runtime.NoodlePrimitive;
 import net.highwayfrogs.editor.scripting.runtime.NoodleRuntimeException;
+import net.highwayfrogs.editor.scripting.runtime.NoodleStack;
 import net.highwayfrogs.editor.scripting.runtime.NoodleThread;
 import net.highwayfrogs.editor.scripting.tracking.NoodleCodeLocation;
 
@@ -32,14 +33,35 @@ public class NoodleInstructionUnaryOperation extends NoodleInstruction {
 
     @Override
     public void execute(NoodleThread<? extends NoodleScript> thread) {
-        NoodlePrimitive primitive = thread.getStack().popWithGC();
-        if (this.operator == NoodleUnaryOperator.INVERT) {
-            thread.getStack().pushBoolean(!primitive.isTrueValue());
-        } else {
-            if (!primitive.isNumber())
-                throw new NoodleRuntimeException("Can only apply unary negate to a number.");
-
-            thread.getStack().pushNumber(-primitive.getNumberValue());
+        NoodleStack stack = thread.getStack();
+        if (stack.isNumber(0)) { // Numbers are calculated without creating primitives.
+            double value = stack.popNumber();
+            if (this.operator == NoodleUnaryOperator.INVERT) {
+                stack.pushBooleanValue(value == 0D);
+            } else {
+                stack.pushNumberValue(-value);
+            }
+
+            return;
         }
+
+        NoodlePrimitive primitive = stack.popWithGC();
+        stack.pushPrimitive(calculateUnaryOperation(primitive, this.operator));
+    }
+
+    /**
+     * Calculates the result of a unary operation on a value, without using a stack.
+     * @param primitive The value to apply the operation to.
+     * @param operator The operator to apply.
+     * @return operationResult, which is always a new primitive
+     */
+    public static NoodlePrimitive calculateUnaryOperation(NoodlePrimitive primitive, NoodleUnaryOperator operator) {
+        if (operator == NoodleUnaryOperator.INVERT)
+            return new NoodlePrimitive(!primitive.isTrueValue());
+
+        if (!primitive.isNumber())
+            throw new NoodleRuntimeException("Can only apply unary negate to a number.");
+
+        return new NoodlePrimitive(-primitive.getNumberValue());
     }
 }
\ No newline at end of file
@@ -12,8 +12,8 @@ import java.util.*;
 @Getter
 public class NoodleHeap {
     private final NoodleThread<?> thread;
-    private final NoodleVariableMap globalVariables;
-    private final Stack<NoodleVariableMap> functionVariables = new Stack<>();
+    private final NoodleVariableFrame globalVariables;
+    private final Stack<NoodleVariableFrame> functionVariables = new Stack<>();
 
     // Object Heap:
     // This contains heap object instances. This should never include null.
@@ -27,7 +27,7 @@ public class NoodleHeap {
 
     public NoodleHeap(NoodleThread<?> thread) {
         this.thread = thread;
-        this.globalVariables = new NoodleVariableMap();
+        this.globalVariables = new NoodleVariableFrame(null, getVariableSlotCount());
     }
 
     /**
@@ -58,35 +58,131 @@ public class NoodleHeap {
         }
     }
 
+    private int getVariableSlotCount() {
+        return this.thread.getScript() != null ? this.thread.getScript().getVariableNames().size() : 0;
+    }
+
     /**
      * Gets the variable stored by its name.
      * Prefers local variables over global variables, but will check both.
+     * This is slower than using the variable slot, so it should only be used when the slot is not known.
      * @param variableName The name of the variable to get.
      * @return variable
      */
     public NoodlePrimitive getVariable(String variableName) {
+        int variableSlot = this.thread.getScript() != null ? this.thread.getScript().getVariableSlot(variableName) : -1;
+        return variableSlot >= 0 ? getVariable(variableSlot) : null;
+    }
+
+    /**
+     * Gets the variable stored in a slot.
+     * Prefers local variables over global variables, but will check both.
+     * @param variableSlot The slot of the variable to get.
+     * @return variable
+     */
+    public NoodlePrimitive getVariable(int variableSlot) {
+        NoodleVariableFrame frame = getFrameToGet(variableSlot);
+        return frame.variables.get(frame.getIndex(variableSlot));
+    }
+
+    /**
+     * Pushes the variable stored in a slot onto the stack, without creating a NoodlePrimitive for it.
+     * Prefers local variables over global variables, but will check both.
+     * @param variableSlot The slot of the variable to push.
+     * @param stack The stack to push the variable onto.
+     */
+    public void pushVariable(int variableSlot, NoodleStack stack) {
+        NoodleVariableFrame frame = getFrameToGet(variableSlot);
+        stack.pushValue(frame.variables, frame.getIndex(variableSlot));
+    }
+
+    /**
+     * Copies the variable stored in a slot into an array, without creating a NoodlePrimitive for it.
+     * Reference counts are not changed. If the variable is not defined, null is copied.
+     * Prefers local variables over global variables, but will check both.
+     * @param variableSlot The slot of the variable to copy.
+     * @param target The array to copy the variable into.
+     * @param targetIndex The index to copy the variable to.
+     */
+    public void copyVariable(int variableSlot, NoodleValueArray target, int targetIndex) {
+        NoodleVariableFrame frame = getFrameToGet(variableSlot);
+        target.copy(targetIndex, frame.variables, frame.getIndex(variableSlot));
+    }
+
+    private NoodleVariableFrame getFrameToGet(int variableSlot) {
         if (this.functionVariables.size() > 0) {
-            NoodlePrimitive localVariable = this.functionVariables.peek().get(variableName);
-            if (localVariable != null)
-                return localVariable;
+            NoodleVariableFrame localFrame = this.functionVariables.peek();
+            int localIndex = localFrame.getIndex(variableSlot);
+            if (localIndex >= 0 && !localFrame.variables.isEmpty(localIndex))
+                return localFrame;
         }
 
-        return this.globalVariables.get(variableName);
+        return this.globalVariables;
+    }
+
+    /**
+     * Pops the top value of the stack into the variable stored in a slot, without creating a NoodlePrimitive for it.
+     * Will always prefer local variables over global variables.
+     * @param variableSlot The slot of the variable to set.
+     * @param stack The stack to pop the value from.
+     */
+    public void popVariable(int variableSlot, NoodleStack stack) {
+        NoodleVariableFrame frame = getFrameToSet(variableSlot);
+        int index = frame.getIndex(variableSlot);
+        frame.variables.ensureCapacity(index + 1); // The script may have gained variables since the frame was created.
+        stack.popInto(frame.variables, index);
+    }
+
+    /**
+     * Stores a value from another array in the variable stored in a slot, without creating a NoodlePrimitive for it.
+     * The value previously stored in the variable is released, and reference counts are updated the same way as storing a popped primitive would.
+     * Will always prefer local variables over global variables.
+     * @param variableSlot The slot of the variable to set.
+     * @param source The array containing the value.
+     * @param sourceIndex The index of the value.
+     */
+    public void storeVariable(int variableSlot, NoodleValueArray source, int sourceIndex) {
+        NoodleVariableFrame frame = getFrameToSet(variableSlot);
+        int index = frame.getIndex(variableSlot);
+        frame.variables.ensureCapacity(index + 1); // The script may have gained variables since the frame was created.
+        NoodleObjectInstance oldInstance = frame.variables.getObjectInstance(index);
+        frame.variables.copy(index, source, sourceIndex);
+        frame.variables.tryIncreaseRefCount(index); // Run before the old value gets decreased in case they are the same.
+        if (oldInstance != null)
+            oldInstance.decrementRefCount();
     }
 
     /**
      * Sets the variable stored by its name.
+     * This is slower than using the variable slot, so it should only be used when the slot is not known.
+     * @param variableName The name of the variable to set.
+     * @param primitive The new value to store.
+     */
+    public void setVariable(String variableName, NoodlePrimitive primitive) {
+        int variableSlot = this.thread.getScript() != null ? this.thread.getScript().getVariableSlot(variableName) : -1;
+        if (variableSlot < 0)
+            throw new NoodleRuntimeException("The script does not have a variable named '%s'.", variableName);
+
+        setVariable(variableSlot, primitive);
+    }
+
+    /**
+     * Sets the variable stored in a slot.
      * Will always prefer local variables over global variables.
      * TODO: FUTURE (Could we require the 'var' keyword in order to declare a variable? It would make this much more explicit.)
-     * @param variableName The name of the variable to create.
+     * @param variableSlot The slot of the variable to set.
      * @param primitive The new value to store.
      */
-    public void setVariable(String variableName, NoodlePrimitive primitive) {
-        if (this.functionVariables.size() > 0) {
-            this.functionVariables.peek().put(variableName, primitive);
-        } else {
-            this.globalVariables.put(variableName, primitive);
-        }
+    public void setVariable(int variableSlot, NoodlePrimitive primitive) {
+        getFrameToSet(variableSlot).put(variableSlot, primitive);
+    }
+
+    private NoodleVariableFrame getFrameToSet(int variableSlot) {
+        // Every variable a function's code uses has a local index, so only the name-based API can reach a variable which does not, and it is stored globally.
+        if (this.functionVariables.size() > 0 && this.functionVariables.peek().getIndex(variableSlot) >= 0)
+            return this.functionVariables.peek();
+
+        return this.globalVariables;
     }
 
     /**
@@ -117,14 +213,14 @@ public class NoodleHeap {
 
     public void pushFunctionContext(NoodleScriptFunction function, NoodlePrimitive[] arguments) {
         // Setup new local variable context.
-        NoodleVariableMap newVariableContext = new NoodleVariableMap();
+        NoodleVariableFrame newVariableContext = new NoodleVariableFrame(function, function.getLocalSlotCount());
         this.functionVariables.push(newVariableContext);
 
         // Setup function parameters as local variables.
+        int[] argumentSlots = function.getArgumentSlots();
         for (int i = 0; i < function.getArgumentCount(); i++) {
-            String argumentName = function.getArgumentNames().get(i);
             if (arguments.length > i)
-                newVariableContext.put(argumentName, arguments[i].clone());
+                newVariableContext.put(argumentSlots[i], arguments[i].clone());
         }
 
         // Increase ref counts.
@@ -139,52 +235,59 @@ public class NoodleHeap {
         if (this.functionVariables.isEmpty())
             return false;
 
-        NoodleVariableMap map = this.functionVariables.pop();
-        map.changeRefCount(false);
+        NoodleVariableFrame frame = this.functionVariables.pop();
+        frame.changeRefCount(false);
         return true;
     }
 
     /**
      * Holds a variable set.
+     * The global variables are indexed by variable slot, and the local variables of a function are indexed by the function's local slots.
      */
-    private static class NoodleVariableMap {
-        private final Map<String, NoodlePrimitive> variableMap = new HashMap<>();
+    private static class NoodleVariableFrame {
+        private final NoodleScriptFunction function; // Null for the global variables.
+        private final NoodleValueArray variables;
+
+        public NoodleVariableFrame(NoodleScriptFunction function, int slotCount) {
+            this.function = function;
+            this.variables = new NoodleValueArray(slotCount);
+        }
 
         /**
-         * Gets the noodle primitive value stored for the given variable name.
-         * @param name The name to lookup.
-         * @return variable value
+         * Gets the index in this frame which the given variable is stored at.
+         * @param variableSlot The slot of the variable.
+         * @return index, or -1 if the variable cannot be stored in this frame
          */
-        public NoodlePrimitive get(String name) {
-            return this.variableMap.get(name);
+        public int getIndex(int variableSlot) {
+            return this.function != null ? this.function.getLocalSlot(variableSlot) : variableSlot;
         }
 
         /**
-         * Stores a variable with a given name.
-         * @param variableName The name of the variable to store.
+         * Stores a variable in a given slot.
+         * @param variableSlot The slot to store the variable in.
          * @param primitive The variable.
          */
-        public void put(String variableName, NoodlePrimitive primitive) {
-            NoodlePrimitive oldPrimitive = this.variableMap.put(variableName, primitive);
-            if (primitive != null) // Run before the oldPrimitive gets decreased in case they are the same.
+        public void put(int variableSlot, NoodlePrimitive primitive) {
+            int index = getIndex(variableSlot);
+            this.variables.ensureCapacity(index + 1); // The script may have gained variables since the frame was created.
+            NoodleObjectInstance oldInstance = this.variables.getObjectInstance(index);
+            this.variables.set(index, primitive);
+            if (primitive != null) // Run before the oldInstance gets decreased in case they are the same.
                 primitive.tryIncreaseRefCount();
-            if (oldPrimitive != null)
-                oldPrimitive.tryDecreaseRefCount();
+            if (oldInstance != null)
+                oldInstance.decrementRefCount();
         }
 
         /**
-         * Changes the ref count of all values tracked within the map.
+         * Changes the ref count of all values tracked within the frame.
          * @param shouldIncrease Whether the ref count should be increased or decreased.
          */
         public void changeRefCount(boolean shouldIncrease) {
-            for (NoodlePrimitive primitive : this.variableMap.values()) {
-                if (primitive == null)
-                    continue;
-
+            for (int i = 0; i < this.variables.getCapacity(); i++) {
                 if (shouldIncrease) {
-                    primitive.tryIncreaseRefCount();
+                    this.variables.tryIncreaseRefCount(i);
                 } else {
-                    primitive.tryDecreaseRefCount();
+                    this.variables.tryDecreaseRefCount(i);
                 }
             }
         }
@@ -3,16 +3,17 @@ package net.highwayfrogs.editor.scripting.runtime;
 import net.highwayfrogs.editor.scripting.runtime.templates.NoodleObjectTemplate;
 import net.highwayfrogs.editor.utils.Utils;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Represents a Noodle thread's stack.
- * TODO: (FUTURE) Reduce object allocations by never adding / removing from the stack list, but instead just updating existing primitives. Make sure to call reset() on values removed, after decreasing object references.
+ * Values are stored in a NoodleValueArray, so numbers can be pushed, calculated and popped without creating NoodlePrimitive objects.
+ * A NoodlePrimitive is only created when a value is popped or peeked as one.
  */
 public class NoodleStack {
     private NoodleThread<?> thread;
-    private final List<NoodlePrimitive> stack = new ArrayList<>();
+    private final NoodleValueArray values = new NoodleValueArray(INITIAL_CAPACITY);
+    private int size;
+
+    private static final int INITIAL_CAPACITY = 16;
 
     // TODO: (FUTURE) Make local variables be stack-based. Basically, every function + main() will define the number of local variable slots it will define.
     // TODO: Then, We'll have instructions PUSHLOCAL and SETLOCAL, which we'll give a single number relative to the stack position when the function was called.
@@ -31,7 +32,19 @@ public class NoodleStack {
      * Gets the number of values in the stack.
      */
     public int size() {
-        return this.stack.size();
+        return this.size;
+    }
+
+    private int pushIndex() {
+        this.values.ensureCapacity(this.size + 1);
+        return this.size++;
+    }
+
+    private int getTopIndex(String action) {
+        if (this.size == 0)
+            throw new NoodleRuntimeException("Cannot %s value from the stack, because the stack is empty.", action);
+
+        return this.size - 1;
     }
 
     /**
@@ -46,10 +59,38 @@ public class NoodleStack {
         // Increase object usages.
         primitive.tryIncreaseRefCount();
 
-        this.stack.add(primitive);
+        this.values.set(pushIndex(), primitive);
         return primitive;
     }
 
+    /**
+     * Pushes a copy of a value stored in another array onto the stack, without creating a NoodlePrimitive.
+     * If there is no value, null is pushed.
+     * @param source The array containing the value.
+     * @param sourceIndex The index of the value.
+     */
+    public void pushValue(NoodleValueArray source, int sourceIndex) {
+        int index = pushIndex();
+        this.values.copy(index, source, sourceIndex);
+        this.values.tryIncreaseRefCount(index);
+    }
+
+    /**
+     * Pushes a numeric value onto the stack, without creating a NoodlePrimitive.
+     * @param value The value to push on the stack.
+     */
+    public void pushNumberValue(double value) {
+        this.values.setNumber(pushIndex(), value);
+    }
+
+    /**
+     * Pushes a boolean value onto the stack, without creating a NoodlePrimitive.
+     * @param value The value to push on the stack.
+     */
+    public void pushBooleanValue(boolean value) {
+        this.values.setNumber(pushIndex(), value ? 1D : 0D);
+    }
+
     /**
      * Pushes a numeric value onto the stack.
      * @param value The value to push on the stack.
@@ -57,7 +98,7 @@ public class NoodleStack {
      */
     public NoodlePrimitive pushNumber(double value) {
         NoodlePrimitive primitive = new NoodlePrimitive(value);
-        this.stack.add(primitive);
+        this.values.set(pushIndex(), primitive);
         return primitive;
     }
 
@@ -68,7 +109,7 @@ public class NoodleStack {
      */
     public NoodlePrimitive pushBoolean(boolean value) {
         NoodlePrimitive primitive = new NoodlePrimitive(value);
-        this.stack.add(primitive);
+        this.values.set(pushIndex(), primitive);
         return primitive;
     }
 
@@ -79,7 +120,7 @@ public class NoodleStack {
      */
     public NoodlePrimitive pushString(String value) {
         NoodlePrimitive primitive = new NoodlePrimitive(value);
-        this.stack.add(primitive);
+        this.values.set(pushIndex(), primitive);
         return primitive;
     }
 
@@ -99,7 +140,7 @@ public class NoodleStack {
      */
     public NoodlePrimitive pushNull() {
         NoodlePrimitive primitive = new NoodlePrimitive();
-        this.stack.add(primitive);
+        this.values.set(pushIndex(), primitive);
         return primitive;
     }
 
@@ -161,14 +202,74 @@ public class NoodleStack {
      * @return The popped primitive.
      */
     public NoodlePrimitive popWithGC() {
-        if (this.stack.isEmpty())
-            throw new NoodleRuntimeException("Cannot pop value from the stack, because the stack is empty.");
-
-        NoodlePrimitive poppedPrimitive = this.stack.remove(this.stack.size() - 1);
-        poppedPrimitive.tryDecreaseRefCount();
+        int index = getTopIndex("pop");
+        NoodlePrimitive poppedPrimitive = this.values.get(index);
+        this.values.tryDecreaseRefCount(index);
+        this.values.clear(index);
+        this.size--;
         return poppedPrimitive;
     }
 
+    /**
+     * Pops a value from the stack, and discards it without creating a NoodlePrimitive.
+     * NOTE: Just like popWithGC(), this will cause the garbage collector to free the value if there are no more references.
+     */
+    public void discardWithGC() {
+        int index = getTopIndex("discard");
+        this.values.tryDecreaseRefCount(index);
+        this.values.clear(index);
+        this.size--;
+    }
+
+    /**
+     * Pops a value from the stack, returning whether it should be considered "true", without creating a NoodlePrimitive.
+     * @return isTrueValue
+     */
+    public boolean popCondition() {
+        int index = getTopIndex("pop");
+        boolean trueValue = this.values.isTrueValue(index);
+        discardWithGC();
+        return trueValue;
+    }
+
+    /**
+     * Pops a number from the stack, without creating a NoodlePrimitive.
+     * The value must be known to be a number, see isNumber().
+     * @return numberValue
+     */
+    public double popNumber() {
+        int index = getTopIndex("pop");
+        double value = this.values.getNumber(index);
+        this.values.clear(index);
+        this.size--;
+        return value;
+    }
+
+    /**
+     * Tests if a value on the stack is a number.
+     * @param depth The position of the value, where 0 is the top of the stack.
+     * @return isNumber
+     */
+    public boolean isNumber(int depth) {
+        return depth < this.size && this.values.isNumber(this.size - depth - 1);
+    }
+
+    /**
+     * Moves the top value of the stack into another array, without creating a NoodlePrimitive.
+     * The value previously stored in the array is released, and reference counts are updated the same way as storing a popped primitive would.
+     * @param target The array to store the value in.
+     * @param targetIndex The index to store the value at.
+     */
+    public void popInto(NoodleValueArray target, int targetIndex) {
+        int index = getTopIndex("pop");
+        NoodleObjectInstance oldInstance = target.getObjectInstance(targetIndex);
+        target.copy(targetIndex, this.values, index);
+        target.tryIncreaseRefCount(targetIndex); // Run before the old value gets decreased in case they are the same.
+        if (oldInstance != null)
+            oldInstance.decrementRefCount();
+        discardWithGC(); // Remove stack reference. (Must run after the value is stored, so it isn't garbage collected.)
+    }
+
     /**
      * Pops a NoodlePrimitive from the stack, without garbage collecting.
      * The purpose of this is to allow moving a value from the stack to somewhere else.
@@ -177,10 +278,11 @@ public class NoodleStack {
      * @return The popped primitive.
      */
     public NoodlePrimitive popWithoutGC() {
-        if (this.stack.isEmpty())
-            throw new NoodleRuntimeException("Cannot pop value from the stack, because the stack is empty.");
-
-        return this.stack.remove(this.stack.size() - 1);
+        int index = getTopIndex("pop");
+        NoodlePrimitive poppedPrimitive = this.values.get(index);
+        this.values.clear(index);
+        this.size--;
+        return poppedPrimitive;
     }
 
     /**
@@ -188,9 +290,6 @@ public class NoodleStack {
      * @return The peeked primitive.
      */
     public NoodlePrimitive peek() {
-        if (this.stack.isEmpty())
-            throw new NoodleRuntimeException("Cannot peek value from the stack, because the stack is empty.");
-
-        return this.stack.get(this.stack.size() - 1);
+        return this.values.get(getTopIndex("peek"));
     }
 }
\ No newline at end of file
@@ -14,6 +14,8 @@ import net.highwayfrogs.editor.scripting.instructions.NoodleInstruction;
 import net.highwayfrogs.editor.scripting.instructions.NoodleInstructionCall;
 import net.highwayfrogs.editor.scripting.instructions.NoodleInstructionCallInstance;
 import net.highwayfrogs.editor.scripting.instructions.NoodleInstructionCallStatic;
+import net.highwayfrogs.editor.scripting.runtime.compiled.NoodleCompiledBlock;
+import net.highwayfrogs.editor.scripting.runtime.compiled.NoodleCompiledScript;
 import net.highwayfrogs.editor.scripting.runtime.templates.NoodleObjectTemplate;
 import net.highwayfrogs.editor.utils.Utils;
 import net.highwayfrogs.editor.utils.logging.ILogger;
@@ -35,6 +37,7 @@ public class NoodleThread<T extends NoodleScript> extends SharedGameObject {
     // Main State:
     private final transient NoodleStack stack;
     private final transient NoodleHeap heap;
+    private final transient NoodleValueArray registers = new NoodleValueArray(8); // Used to calculate values in compiled blocks.
     private transient NoodlePrimitive result; // Script return/result value.
     private transient final List<NoodlePrimitive> arguments = new ArrayList<>();
     private transient int yieldRestoredLabel = -1;
@@ -244,17 +247,30 @@ public class NoodleThread<T extends NoodleScript> extends SharedGameObject {
 
         this.status = NoodleThreadStatus.RUNNING;
 
+        NoodleCompiledScript compiledScript = NoodleCompiledScript.COMPILED_EXECUTION_ENABLED ? getScript().getCompiledScript() : null;
         while (this.position < getScript().getInstructions().size()) {
             if (getStatus() != NoodleThreadStatus.RUNNING)
                 return getStatus(); // If the status has changed, stop execution for now.
 
+            // Run a whole compiled block if one starts here, otherwise interpret a single instruction until one is reached.
+            NoodleCompiledBlock block = compiledScript != null ? compiledScript.getBlock(this.position) : null;
+            if (block != null) {
+                try {
+                    block.execute(this);
+                } catch (Throwable th) {
+                    onInstructionError(getScript().getInstructions().get(this.position - 1), th);
+                    return this.status;
+                }
+
+                continue;
+            }
+
             NoodleInstruction instruction = getScript().getInstructions().get(this.position++);
 
             try {
                 instruction.execute(this);
             } catch (Throwable th) {
-                Utils.handleError(getLogger(), th, false, "Error running script instruction: `%s`. [%s]\n%s\n\n%s", instruction, NoodleUtils.getErrorPositionText(instruction), Utils.getErrorMessagesString(th), this.buildScriptInformation());
-                handleError(th);
+                onInstructionError(instruction, th);
                 return this.status;
             }
         }
@@ -263,6 +279,11 @@ public class NoodleThread<T extends NoodleScript> extends SharedGameObject {
         return this.status;
     }
 
+    private void onInstructionError(NoodleInstruction instruction, Throwable th) {
+        Utils.handleError(getLogger(), th, false, "Error running script instruction: `%s`. [%s]\n%s\n\n%s", instruction, NoodleUtils.getErrorPositionText(instruction), Utils.getErrorMessagesString(th), this.buildScriptInformation());
+        handleError(th);
+    }
+
     /**
      * Gets information to identify the script.
      * @return scriptError
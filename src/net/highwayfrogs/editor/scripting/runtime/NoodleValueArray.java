@@ -0,0 +1,254 @@
+package net.highwayfrogs.editor.scripting.runtime;
+
+import java.util.Arrays;
+
+/**
+ * An array of Noodle values, stored as a tagged union in parallel arrays instead of as NoodlePrimitive objects.
+ * This allows numbers to be stored and calculated without creating any garbage.
+ * A NoodlePrimitive is only created when one is requested, and is then remembered until the value changes, so it is not created again.
+ * Created by agent on 10/18/2026.
+ */
+public class NoodleValueArray {
+    private byte[] types;
+    private double[] numbers;
+    private Object[] references; // Either a String or a NoodleObjectInstance.
+    private NoodlePrimitive[] primitives; // The primitive representing each value, if one has been created.
+
+    public static final byte TYPE_EMPTY = 0;
+    public static final byte TYPE_NUMBER = 1;
+    public static final byte TYPE_STRING = 2;
+    public static final byte TYPE_OBJECT_REFERENCE = 3;
+
+    public NoodleValueArray(int capacity) {
+        this.types = new byte[capacity];
+        this.numbers = new double[capacity];
+        this.references = new Object[capacity];
+        this.primitives = new NoodlePrimitive[capacity];
+    }
+
+    /**
+     * Gets the number of values which can be stored.
+     */
+    public int getCapacity() {
+        return this.types.length;
+    }
+
+    /**
+     * Ensures at least the given number of values can be stored.
+     * @param capacity the number of values which must fit
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= this.types.length)
+            return;
+
+        int newCapacity = Math.max(capacity, this.types.length * 2);
+        this.types = Arrays.copyOf(this.types, newCapacity);
+        this.numbers = Arrays.copyOf(this.numbers, newCapacity);
+        this.references = Arrays.copyOf(this.references, newCapacity);
+        this.primitives = Arrays.copyOf(this.primitives, newCapacity);
+    }
+
+    /**
+     * Gets the type of the value at the given index.
+     * @param index the index of the value
+     * @return valueType, or TYPE_EMPTY if there is no value
+     */
+    public byte getType(int index) {
+        return index < this.types.length ? this.types[index] : TYPE_EMPTY;
+    }
+
+    /**
+     * Tests if there is no value at the given index.
+     * @param index the index to test
+     */
+    public boolean isEmpty(int index) {
+        return getType(index) == TYPE_EMPTY;
+    }
+
+    /**
+     * Tests if the value at the given index is a number.
+     * @param index the index to test
+     */
+    public boolean isNumber(int index) {
+        return getType(index) == TYPE_NUMBER;
+    }
+
+    /**
+     * Gets the number stored at the given index. The value must be a number.
+     * @param index the index of the value
+     * @return numberValue
+     */
+    public double getNumber(int index) {
+        return this.numbers[index];
+    }
+
+    /**
+     * Gets the object instance stored at the given index.
+     * @param index the index of the value
+     * @return objectInstance, or null if the value is not a (non-null) object reference
+     */
+    public NoodleObjectInstance getObjectInstance(int index) {
+        return getType(index) == TYPE_OBJECT_REFERENCE ? (NoodleObjectInstance) this.references[index] : null;
+    }
+
+    /**
+     * Gets the value at the given index as a NoodlePrimitive, creating one if necessary.
+     * @param index the index of the value
+     * @return primitive, or null if there is no value
+     */
+    public NoodlePrimitive get(int index) {
+        if (index >= this.types.length)
+            return null;
+
+        NoodlePrimitive primitive = this.primitives[index];
+        if (primitive != null)
+            return primitive;
+
+        switch (this.types[index]) {
+            case TYPE_NUMBER:
+                primitive = new NoodlePrimitive(this.numbers[index]);
+                break;
+            case TYPE_STRING:
+                primitive = new NoodlePrimitive((String) this.references[index]);
+                break;
+            case TYPE_OBJECT_REFERENCE:
+                primitive = new NoodlePrimitive((NoodleObjectInstance) this.references[index]);
+                break;
+            default:
+                return null;
+        }
+
+        this.primitives[index] = primitive;
+        return primitive;
+    }
+
+    /**
+     * Stores a primitive at the given index. Reference counts are not changed.
+     * @param index the index to store the value at
+     * @param primitive the value to store. If null, the index will be emptied.
+     */
+    public void set(int index, NoodlePrimitive primitive) {
+        if (primitive == null) {
+            clear(index);
+            return;
+        }
+
+        switch (primitive.getPrimitiveType()) {
+            case NUMBER:
+                this.types[index] = TYPE_NUMBER;
+                this.numbers[index] = primitive.getNumberValue();
+                this.references[index] = null;
+                break;
+            case STRING:
+                this.types[index] = TYPE_STRING;
+                this.references[index] = primitive.getStringValue();
+                break;
+            case OBJECT_REFERENCE:
+                this.types[index] = TYPE_OBJECT_REFERENCE;
+                this.references[index] = primitive.getObjectReference();
+                break;
+            default:
+                throw new NoodleRuntimeException("Unsupported PrimitiveType for %s.", primitive);
+        }
+
+        this.primitives[index] = primitive;
+    }
+
+    /**
+     * Stores a number at the given index.
+     * @param index the index to store the value at
+     * @param value the number to store
+     */
+    public void setNumber(int index, double value) {
+        this.types[index] = TYPE_NUMBER;
+        this.numbers[index] = value;
+        this.references[index] = null;
+        this.primitives[index] = null;
+    }
+
+    /**
+     * Stores a string at the given index.
+     * @param index the index to store the value at
+     * @param value the string to store. Null strings are stored as null.
+     */
+    public void setString(int index, String value) {
+        this.types[index] = value != null ? TYPE_STRING : TYPE_OBJECT_REFERENCE;
+        this.references[index] = value;
+        this.primitives[index] = null;
+    }
+
+    /**
+     * Stores null at the given index.
+     * @param index the index to store the value at
+     */
+    public void setNull(int index) {
+        this.types[index] = TYPE_OBJECT_REFERENCE;
+        this.references[index] = null;
+        this.primitives[index] = null;
+    }
+
+    /**
+     * Copies a value from another array. Reference counts are not changed.
+     * If the value being copied is empty, null is stored.
+     * @param index the index to store the value at
+     * @param source the array to copy the value from
+     * @param sourceIndex the index of the value to copy
+     */
+    public void copy(int index, NoodleValueArray source, int sourceIndex) {
+        byte type = source.getType(sourceIndex);
+        if (type == TYPE_EMPTY) {
+            setNull(index);
+            return;
+        }
+
+        this.types[index] = type;
+        this.numbers[index] = source.numbers[sourceIndex];
+        this.references[index] = source.references[sourceIndex];
+        this.primitives[index] = source.primitives[sourceIndex];
+    }
+
+    /**
+     * Removes the value at the given index. Reference counts are not changed.
+     * @param index the index of the value to remove
+     */
+    public void clear(int index) {
+        this.types[index] = TYPE_EMPTY;
+        this.references[index] = null;
+        this.primitives[index] = null;
+    }
+
+    /**
+     * Tests if the value at the given index should be considered "true".
+     * This matches NoodlePrimitive.isTrueValue().
+     * @param index the index of the value
+     */
+    public boolean isTrueValue(int index) {
+        switch (getType(index)) {
+            case TYPE_NUMBER:
+                return this.numbers[index] != 0D;
+            case TYPE_STRING:
+            case TYPE_OBJECT_REFERENCE:
+                return this.references[index] != null;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Increases the reference count of the object at the given index, if there is one.
+     * @param index the index of the value
+     */
+    public void tryIncreaseRefCount(int index) {
+        if (this.types[index] == TYPE_OBJECT_REFERENCE && this.references[index] != null)
+            ((NoodleObjectInstance) this.references[index]).incrementRefCount();
+    }
+
+    /**
+     * Decreases the reference count of the object at the given index, if there is one.
+     * @param index the index of the value
+     */
+    public void tryDecreaseRefCount(int index) {
+        if (this.types[index] == TYPE_OBJECT_REFERENCE && this.references[index] != null)
+            ((NoodleObjectInstance) this.references[index]).decrementRefCount();
+    }
+}
@@ -0,0 +1,46 @@
+package net.highwayfrogs.editor.scripting.runtime.compiled;
+
+import lombok.Getter;
+import net.highwayfrogs.editor.scripting.runtime.NoodleThread;
+import net.highwayfrogs.editor.scripting.runtime.NoodleValueArray;
+
+/**
+ * A compiled sequence of instructions which always run together.
+ * Blocks can only be entered at their start address, and only leave through their last statement, which is the only one allowed to jump, call a function, or yield.
+ * This makes the blocks the states of the state machine that a compiled script runs as, since execution can always resume at the start of a block.
+ * Created by agent on 10/18/2026.
+ */
+@Getter
+public class NoodleCompiledBlock {
+    private final int startAddress;
+    private final int endAddress; // The address of the first instruction after this block.
+    private final NoodleCompiledStatement[] statements;
+    private final int registerCount; // The number of registers needed to execute the block.
+
+    public NoodleCompiledBlock(int startAddress, int endAddress, NoodleCompiledStatement[] statements) {
+        this.startAddress = startAddress;
+        this.endAddress = endAddress;
+        this.statements = statements;
+
+        int registerCount = 0;
+        for (int i = 0; i < statements.length; i++)
+            registerCount = Math.max(registerCount, statements[i].getRegisterCount());
+        this.registerCount = registerCount;
+    }
+
+    /**
+     * Executes the block.
+     * When this returns, the thread position is either the end of the block, or wherever the last statement moved it to.
+     * If an error occurs, the thread position is left just past the instruction which caused it, the same as the interpreter.
+     * @param thread The thread to execute the block for.
+     */
+    public void execute(NoodleThread<?> thread) {
+        NoodleValueArray registers = thread.getRegisters();
+        registers.ensureCapacity(this.registerCount);
+        for (int i = 0; i < this.statements.length; i++) {
+            NoodleCompiledStatement statement = this.statements[i];
+            thread.setPosition(statement.getAddress() + 1);
+            statement.execute(thread, registers);
+        }
+    }
+}
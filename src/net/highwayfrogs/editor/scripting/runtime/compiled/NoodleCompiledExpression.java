@@ -0,0 +1,225 @@
+package net.highwayfrogs.editor.scripting.runtime.compiled;
+
+import lombok.Getter;
+import net.highwayfrogs.editor.scripting.compiler.NoodleOperator;
+import net.highwayfrogs.editor.scripting.compiler.NoodleUnaryOperator;
+import net.highwayfrogs.editor.scripting.instructions.NoodleInstructionBinaryOperation;
+import net.highwayfrogs.editor.scripting.instructions.NoodleInstructionUnaryOperation;
+import net.highwayfrogs.editor.scripting.runtime.NoodlePrimitive;
+import net.highwayfrogs.editor.scripting.runtime.NoodleRuntimeException;
+import net.highwayfrogs.editor.scripting.runtime.NoodleThread;
+import net.highwayfrogs.editor.scripting.runtime.NoodleValueArray;
+
+import java.util.List;
+
+/**
+ * Represents a value calculated by a sequence of instructions which would otherwise have been pushed to the stack one at a time.
+ * Expressions never call functions, change variables, or change the thread position, so they can be evaluated without the stack.
+ * Values are calculated in the thread's registers instead, which are allocated like a stack: an expression evaluated into a register may use every register after it.
+ * Registers store values the same way as the stack does, so numbers are calculated without creating NoodlePrimitive objects.
+ * Created by agent on 10/18/2026.
+ */
+@Getter
+public abstract class NoodleCompiledExpression {
+    private final int registerCount; // The number of registers needed to evaluate the expression.
+
+    protected NoodleCompiledExpression(int registerCount) {
+        this.registerCount = registerCount;
+    }
+
+    /**
+     * Evaluates the expression, storing the value in a register.
+     * Registers do not hold references, so reference counts are not changed.
+     * @param thread The thread to evaluate the expression for.
+     * @param registers The registers to evaluate the expression with.
+     * @param register The register to store the value in.
+     */
+    public abstract void evaluate(NoodleThread<?> thread, NoodleValueArray registers, int register);
+
+    /**
+     * Evaluates the expression as the condition of a jump.
+     * @param thread The thread to evaluate the expression for.
+     * @param registers The registers to evaluate the expression with.
+     * @param register The first register which the expression may use.
+     * @return isTrueValue
+     */
+    public boolean evaluateCondition(NoodleThread<?> thread, NoodleValueArray registers, int register) {
+        evaluate(thread, registers, register);
+        return registers.isTrueValue(register);
+    }
+
+    /**
+     * A constant number, string, or null.
+     */
+    public static class ConstantExpression extends NoodleCompiledExpression {
+        private final NoodleValueArray value = new NoodleValueArray(1);
+
+        public ConstantExpression(NoodlePrimitive value) {
+            super(1);
+            // The value is stored without its primitive, since stored primitives are mutable, so each push must get its own, just like the interpreter.
+            if (value.isNumber()) {
+                this.value.setNumber(0, value.getNumberValue());
+            } else if (value.isString()) {
+                this.value.setString(0, value.getStringValue());
+            } else if (value.isNull()) {
+                this.value.setNull(0);
+            } else {
+                throw new NoodleRuntimeException("Unsupported constant %s.", value);
+            }
+        }
+
+        @Override
+        public void evaluate(NoodleThread<?> thread, NoodleValueArray registers, int register) {
+            registers.copy(register, this.value, 0);
+        }
+
+        @Override
+        public boolean evaluateCondition(NoodleThread<?> thread, NoodleValueArray registers, int register) {
+            return this.value.isTrueValue(0);
+        }
+    }
+
+    /**
+     * Reads a variable from its slot.
+     */
+    public static class VariableExpression extends NoodleCompiledExpression {
+        private final int variableSlot;
+
+        public VariableExpression(int variableSlot) {
+            super(1);
+            this.variableSlot = variableSlot;
+        }
+
+        @Override
+        public void evaluate(NoodleThread<?> thread, NoodleValueArray registers, int register) {
+            thread.getHeap().copyVariable(this.variableSlot, registers, register); // Undefined variables are null.
+        }
+    }
+
+    /**
+     * Reads an argument passed to the thread.
+     */
+    public static class ArgumentExpression extends NoodleCompiledExpression {
+        private final int argumentIndex;
+
+        public ArgumentExpression(int argumentIndex) {
+            super(1);
+            this.argumentIndex = argumentIndex;
+        }
+
+        @Override
+        public void evaluate(NoodleThread<?> thread, NoodleValueArray registers, int register) {
+            List<NoodlePrimitive> arguments = thread.getArguments();
+            if (this.argumentIndex >= arguments.size())
+                throw new NoodleRuntimeException("Tried to use thread argument %d, but no such argument was actually provided to the thread.", this.argumentIndex);
+
+            NoodlePrimitive value = arguments.get(this.argumentIndex);
+            if (value != null) {
+                registers.set(register, value);
+            } else {
+                registers.setNull(register);
+            }
+        }
+    }
+
+    /**
+     * Applies a unary operator to another expression.
+     */
+    public static class UnaryExpression extends NoodleCompiledExpression {
+        private final NoodleUnaryOperator operator;
+        private final NoodleCompiledExpression operand;
+
+        public UnaryExpression(NoodleUnaryOperator operator, NoodleCompiledExpression operand) {
+            super(operand.getRegisterCount());
+            this.operator = operator;
+            this.operand = operand;
+        }
+
+        @Override
+        public void evaluate(NoodleThread<?> thread, NoodleValueArray registers, int register) {
+            this.operand.evaluate(thread, registers, register);
+            if (registers.isNumber(register)) { // Numbers are calculated without creating primitives.
+                double value = registers.getNumber(register);
+                registers.setNumber(register, this.operator == NoodleUnaryOperator.INVERT ? (value == 0D ? 1D : 0D) : -value);
+            } else {
+                registers.set(register, NoodleInstructionUnaryOperation.calculateUnaryOperation(registers.get(register), this.operator));
+            }
+        }
+
+        @Override
+        public boolean evaluateCondition(NoodleThread<?> thread, NoodleValueArray registers, int register) {
+            if (this.operator == NoodleUnaryOperator.INVERT)
+                return !this.operand.evaluateCondition(thread, registers, register);
+
+            return super.evaluateCondition(thread, registers, register);
+        }
+    }
+
+    /**
+     * Applies a binary operator to two other expressions.
+     */
+    public static class BinaryExpression extends NoodleCompiledExpression {
+        private final NoodleOperator operator;
+        private final NoodleCompiledExpression left;
+        private final NoodleCompiledExpression right;
+
+        public BinaryExpression(NoodleOperator operator, NoodleCompiledExpression left, NoodleCompiledExpression right) {
+            super(Math.max(left.getRegisterCount(), right.getRegisterCount() + 1)); // The left value is kept in its register while the right value is evaluated.
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public void evaluate(NoodleThread<?> thread, NoodleValueArray registers, int register) {
+            this.left.evaluate(thread, registers, register);
+            this.right.evaluate(thread, registers, register + 1);
+            if (registers.isNumber(register) && registers.isNumber(register + 1)) { // Numbers are calculated without creating primitives.
+                double a = registers.getNumber(register);
+                double b = registers.getNumber(register + 1);
+                if (this.operator == NoodleOperator.EQ) {
+                    registers.setNumber(register, a == b ? 1D : 0D);
+                } else if (this.operator == NoodleOperator.NEQ) {
+                    registers.setNumber(register, a != b ? 1D : 0D);
+                } else {
+                    registers.setNumber(register, NoodleInstructionBinaryOperation.calculateNumberOperation(a, b, this.operator));
+                }
+            } else {
+                NoodlePrimitive a = registers.get(register);
+                NoodlePrimitive b = registers.get(register + 1);
+                registers.set(register, NoodleInstructionBinaryOperation.calculateBinaryOperation(a, b, this.operator));
+            }
+        }
+
+        @Override
+        public boolean evaluateCondition(NoodleThread<?> thread, NoodleValueArray registers, int register) {
+            this.left.evaluate(thread, registers, register);
+            this.right.evaluate(thread, registers, register + 1);
+            if (!registers.isNumber(register) || !registers.isNumber(register + 1)) {
+                NoodlePrimitive a = registers.get(register);
+                NoodlePrimitive b = registers.get(register + 1);
+                return NoodleInstructionBinaryOperation.calculateBinaryOperation(a, b, this.operator).isTrueValue();
+            }
+
+            // Comparisons are the most common jump conditions, so they skip storing the result.
+            double a = registers.getNumber(register);
+            double b = registers.getNumber(register + 1);
+            switch (this.operator) {
+                case EQ:
+                    return a == b;
+                case NEQ:
+                    return a != b;
+                case LT:
+                    return a < b;
+                case LTE:
+                    return a <= b;
+                case GT:
+                    return a > b;
+                case GTE:
+                    return a >= b;
+                default:
+                    return NoodleInstructionBinaryOperation.calculateNumberOperation(a, b, this.operator) != 0D;
+            }
+        }
+    }
+}
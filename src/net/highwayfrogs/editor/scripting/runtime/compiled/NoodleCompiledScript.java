@@ -0,0 +1,229 @@
+package net.highwayfrogs.editor.scripting.runtime.compiled;
+
+import net.highwayfrogs.editor.scripting.NoodleScript;
+import net.highwayfrogs.editor.scripting.NoodleScriptFunction;
+import net.highwayfrogs.editor.scripting.instructions.*;
+import net.highwayfrogs.editor.scripting.runtime.NoodlePrimitive;
+import net.highwayfrogs.editor.scripting.runtime.compiled.NoodleCompiledExpression.*;
+import net.highwayfrogs.editor.scripting.runtime.compiled.NoodleCompiledStatement.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A noodle script compiled into blocks of pre-resolved statements, instead of being interpreted one instruction at a time.
+ * Within a block, values which the interpreter would push and immediately pop (constants, variables, operators) are instead combined into expression trees.
+ * Anything which can jump, call a function, or yield is left to the interpreter, and ends the block, so yielding and resuming works exactly the same as before.
+ * The blocks act as the states of a state machine. A thread at the start of a block runs the block, and otherwise runs the interpreter until it reaches one.
+ * Created by agent on 10/18/2026.
+ */
+public class NoodleCompiledScript {
+    private final int instructionCount;
+    private final NoodleCompiledBlock[] blocksByAddress; // [address] -> The block starting at the address, if there is one.
+
+    public static final boolean COMPILED_EXECUTION_ENABLED = true;
+
+    private NoodleCompiledScript(int instructionCount) {
+        this.instructionCount = instructionCount;
+        this.blocksByAddress = new NoodleCompiledBlock[instructionCount];
+    }
+
+    /**
+     * Gets the compiled block which starts at the given address.
+     * @param address The address of the instruction to get the block for.
+     * @return block, or null if no block starts at the address
+     */
+    public NoodleCompiledBlock getBlock(int address) {
+        return address >= 0 && address < this.blocksByAddress.length ? this.blocksByAddress[address] : null;
+    }
+
+    /**
+     * Tests if this was compiled from the script as it currently is.
+     * @param script The script to test.
+     * @return isUpToDate
+     */
+    public boolean isUpToDate(NoodleScript script) {
+        return script.getInstructions().size() == this.instructionCount;
+    }
+
+    /**
+     * Creates a compiled script which has no blocks, so everything is interpreted.
+     * @param script The script to create the compiled script for.
+     * @return interpretedScript
+     */
+    public static NoodleCompiledScript createInterpreted(NoodleScript script) {
+        return new NoodleCompiledScript(script.getInstructions().size());
+    }
+
+    /**
+     * Compiles a script.
+     * @param script The script to compile.
+     * @return compiledScript
+     */
+    public static NoodleCompiledScript compile(NoodleScript script) {
+        List<NoodleInstruction> instructions = script.getInstructions();
+        NoodleCompiledScript compiledScript = new NoodleCompiledScript(instructions.size());
+        boolean[] blockStarts = findBlockStarts(script);
+
+        int blockStart = 0;
+        for (int i = 1; i <= instructions.size(); i++) {
+            if (blockStarts[i]) {
+                compiledScript.blocksByAddress[blockStart] = compileBlock(instructions, blockStart, i);
+                blockStart = i;
+            }
+        }
+
+        return compiledScript;
+    }
+
+    private static boolean[] findBlockStarts(NoodleScript script) {
+        List<NoodleInstruction> instructions = script.getInstructions();
+        boolean[] blockStarts = new boolean[instructions.size() + 1];
+        blockStarts[0] = true;
+        blockStarts[instructions.size()] = true;
+
+        // Any address which can be jumped to must start a block.
+        for (Integer labelAddress : script.getLabels().values())
+            markBlockStart(blockStarts, labelAddress);
+        for (List<NoodleScriptFunction> functions : script.getFunctions().values())
+            for (NoodleScriptFunction function : functions)
+                markBlockStart(blockStarts, function.getStartAddress());
+
+        for (int i = 0; i < instructions.size(); i++) {
+            NoodleInstruction instruction = instructions.get(i);
+            markBlockStart(blockStarts, getJumpPosition(instruction));
+            if (isControlInstruction(instruction))
+                blockStarts[i + 1] = true; // Function calls return here, and yielding resumes here.
+        }
+
+        return blockStarts;
+    }
+
+    private static void markBlockStart(boolean[] blockStarts, int address) {
+        if (address >= 0 && address < blockStarts.length)
+            blockStarts[address] = true;
+    }
+
+    private static int getJumpPosition(NoodleInstruction instruction) {
+        if (instruction instanceof NoodleInstructionJump) {
+            return ((NoodleInstructionJump) instruction).getJumpPosition();
+        } else if (instruction instanceof NoodleInstructionJumpIf) {
+            return ((NoodleInstructionJumpIf) instruction).getJumpPosition();
+        } else if (instruction instanceof NoodleInstructionJumpUnless) {
+            return ((NoodleInstructionJumpUnless) instruction).getJumpPosition();
+        } else if (instruction instanceof NoodleInstructionJumpPush) {
+            return ((NoodleInstructionJumpPush) instruction).getJumpPosition();
+        } else if (instruction instanceof NoodleInstructionSwitchJump) {
+            return ((NoodleInstructionSwitchJump) instruction).getJumpPosition();
+        } else if (instruction instanceof NoodleInstructionBinaryAnd) {
+            return ((NoodleInstructionBinaryAnd) instruction).getFailJump();
+        } else if (instruction instanceof NoodleInstructionBinaryOr) {
+            return ((NoodleInstructionBinaryOr) instruction).getJumpTo();
+        } else {
+            return -1;
+        }
+    }
+
+    /**
+     * Tests if an instruction is allowed to change the thread position or status, meaning it must end a block.
+     * @param instruction The instruction to test.
+     */
+    private static boolean isControlInstruction(NoodleInstruction instruction) {
+        switch (instruction.getInstructionType()) {
+            case CALL:
+            case CALL_INST:
+            case CALL_STATIC:
+            case PUSHFIELD: // Getters and setters run Java code, so they are treated like function calls.
+            case SETFIELD:
+            case RET:
+            case JUMP:
+            case JUMP_IF:
+            case JUMP_UNLESS:
+            case JUMP_PUSH:
+            case JUMP_POP:
+            case SWITCH_JUMP:
+            case BAND:
+            case BOR:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static NoodleCompiledBlock compileBlock(List<NoodleInstruction> instructions, int startAddress, int endAddress) {
+        List<NoodleCompiledStatement> statements = new ArrayList<>();
+        List<PendingValue> pendingValues = new ArrayList<>(); // Values which have not been pushed to the real stack yet, ordered from the bottom of the stack to the top.
+        for (int address = startAddress; address < endAddress; address++) {
+            NoodleInstruction instruction = instructions.get(address);
+            int pendingCount = pendingValues.size();
+
+            if (instruction instanceof NoodleInstructionPushConstantNumber) {
+                double value = ((NoodleInstructionPushConstantNumber) instruction).getNumberValue();
+                pendingValues.add(new PendingValue(address, new ConstantExpression(new NoodlePrimitive(value))));
+            } else if (instruction instanceof NoodleInstructionPushConstantString) {
+                String value = ((NoodleInstructionPushConstantString) instruction).getStringValue();
+                pendingValues.add(new PendingValue(address, new ConstantExpression(new NoodlePrimitive(value))));
+            } else if (instruction instanceof NoodleInstructionPushNull) {
+                pendingValues.add(new PendingValue(address, new ConstantExpression(new NoodlePrimitive())));
+            } else if (instruction instanceof NoodleInstructionPushIdentifier) {
+                int variableSlot = ((NoodleInstructionPushIdentifier) instruction).getVariableSlot();
+                pendingValues.add(new PendingValue(address, new VariableExpression(variableSlot)));
+            } else if (instruction instanceof NoodleInstructionPushArgument) {
+                int argumentIndex = ((NoodleInstructionPushArgument) instruction).getArgumentIndex();
+                pendingValues.add(new PendingValue(address, new ArgumentExpression(argumentIndex)));
+            } else if (instruction instanceof NoodleInstructionUnaryOperation && pendingCount >= 1) {
+                NoodleCompiledExpression operand = pendingValues.remove(pendingCount - 1).expression;
+                pendingValues.add(new PendingValue(address, new UnaryExpression(((NoodleInstructionUnaryOperation) instruction).getOperator(), operand)));
+            } else if (instruction instanceof NoodleInstructionBinaryOperation && pendingCount >= 2) {
+                NoodleCompiledExpression right = pendingValues.remove(pendingCount - 1).expression;
+                NoodleCompiledExpression left = pendingValues.remove(pendingCount - 2).expression;
+                pendingValues.add(new PendingValue(address, new BinaryExpression(((NoodleInstructionBinaryOperation) instruction).getOperator(), left, right)));
+            } else if (instruction instanceof NoodleInstructionSetIdentifier && pendingCount >= 1) {
+                NoodleCompiledExpression value = pendingValues.remove(pendingCount - 1).expression;
+                pushPendingValues(statements, pendingValues);
+                statements.add(new SetVariableStatement(address, ((NoodleInstructionSetIdentifier) instruction).getVariableSlot(), value));
+            } else if (instruction instanceof NoodleInstructionDiscard && pendingCount >= 1) {
+                NoodleCompiledExpression value = pendingValues.remove(pendingCount - 1).expression;
+                pushPendingValues(statements, pendingValues);
+                statements.add(new DiscardStatement(address, value));
+            } else if (instruction instanceof NoodleInstructionJump) {
+                pushPendingValues(statements, pendingValues);
+                statements.add(new JumpStatement(address, ((NoodleInstructionJump) instruction).getJumpPosition()));
+            } else if (instruction instanceof NoodleInstructionJumpIf && pendingCount >= 1) {
+                NoodleCompiledExpression condition = pendingValues.remove(pendingCount - 1).expression;
+                pushPendingValues(statements, pendingValues);
+                statements.add(new ConditionalJumpStatement(address, condition, true, ((NoodleInstructionJumpIf) instruction).getJumpPosition()));
+            } else if (instruction instanceof NoodleInstructionJumpUnless && pendingCount >= 1) {
+                NoodleCompiledExpression condition = pendingValues.remove(pendingCount - 1).expression;
+                pushPendingValues(statements, pendingValues);
+                statements.add(new ConditionalJumpStatement(address, condition, false, ((NoodleInstructionJumpUnless) instruction).getJumpPosition()));
+            } else {
+                // The instruction uses the real stack, so any pending values must be pushed to it first.
+                pushPendingValues(statements, pendingValues);
+                statements.add(new InterpretedStatement(address, instruction));
+            }
+        }
+
+        pushPendingValues(statements, pendingValues);
+        return new NoodleCompiledBlock(startAddress, endAddress, statements.toArray(new NoodleCompiledStatement[0]));
+    }
+
+    private static void pushPendingValues(List<NoodleCompiledStatement> statements, List<PendingValue> pendingValues) {
+        for (int i = 0; i < pendingValues.size(); i++) {
+            PendingValue pendingValue = pendingValues.get(i);
+            statements.add(new PushStatement(pendingValue.address, pendingValue.expression));
+        }
+
+        pendingValues.clear();
+    }
+
+    private static class PendingValue {
+        private final int address; // The address of the last instruction which calculates the value.
+        private final NoodleCompiledExpression expression;
+
+        public PendingValue(int address, NoodleCompiledExpression expression) {
+            this.address = address;
+            this.expression = expression;
+        }
+    }
+}
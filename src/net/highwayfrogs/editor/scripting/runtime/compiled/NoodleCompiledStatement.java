@@ -0,0 +1,169 @@
+package net.highwayfrogs.editor.scripting.runtime.compiled;
+
+import lombok.Getter;
+import net.highwayfrogs.editor.scripting.instructions.NoodleInstruction;
+import net.highwayfrogs.editor.scripting.runtime.NoodleThread;
+import net.highwayfrogs.editor.scripting.runtime.NoodleValueArray;
+
+/**
+ * Represents a single step of a compiled block.
+ * Each statement replaces one or more instructions, and is identified by the address of the last instruction it replaces.
+ * Created by agent on 10/18/2026.
+ */
+@Getter
+public abstract class NoodleCompiledStatement {
+    private final int address;
+
+    protected NoodleCompiledStatement(int address) {
+        this.address = address;
+    }
+
+    /**
+     * Executes the statement.
+     * The thread position has already been moved past the instruction at the address of this statement.
+     * @param thread The thread to execute the statement for.
+     * @param registers The registers to evaluate expressions with.
+     */
+    public abstract void execute(NoodleThread<?> thread, NoodleValueArray registers);
+
+    /**
+     * Gets the number of registers needed to execute the statement.
+     */
+    public int getRegisterCount() {
+        return 0;
+    }
+
+    /**
+     * Pushes the value of an expression onto the stack.
+     */
+    public static class PushStatement extends NoodleCompiledStatement {
+        private final NoodleCompiledExpression expression;
+
+        public PushStatement(int address, NoodleCompiledExpression expression) {
+            super(address);
+            this.expression = expression;
+        }
+
+        @Override
+        public void execute(NoodleThread<?> thread, NoodleValueArray registers) {
+            this.expression.evaluate(thread, registers, 0);
+            thread.getStack().pushValue(registers, 0);
+        }
+
+        @Override
+        public int getRegisterCount() {
+            return this.expression.getRegisterCount();
+        }
+    }
+
+    /**
+     * Sets a variable to the value of an expression.
+     */
+    public static class SetVariableStatement extends NoodleCompiledStatement {
+        private final int variableSlot;
+        private final NoodleCompiledExpression expression;
+
+        public SetVariableStatement(int address, int variableSlot, NoodleCompiledExpression expression) {
+            super(address);
+            this.variableSlot = variableSlot;
+            this.expression = expression;
+        }
+
+        @Override
+        public void execute(NoodleThread<?> thread, NoodleValueArray registers) {
+            this.expression.evaluate(thread, registers, 0);
+            thread.getHeap().storeVariable(this.variableSlot, registers, 0);
+        }
+
+        @Override
+        public int getRegisterCount() {
+            return this.expression.getRegisterCount();
+        }
+    }
+
+    /**
+     * Evaluates an expression, and discards its value.
+     */
+    public static class DiscardStatement extends NoodleCompiledStatement {
+        private final NoodleCompiledExpression expression;
+
+        public DiscardStatement(int address, NoodleCompiledExpression expression) {
+            super(address);
+            this.expression = expression;
+        }
+
+        @Override
+        public void execute(NoodleThread<?> thread, NoodleValueArray registers) {
+            this.expression.evaluate(thread, registers, 0);
+            registers.tryIncreaseRefCount(0); // The value is garbage collected the same way as if it had been pushed and popped.
+            registers.tryDecreaseRefCount(0);
+        }
+
+        @Override
+        public int getRegisterCount() {
+            return this.expression.getRegisterCount();
+        }
+    }
+
+    /**
+     * Jumps to another instruction.
+     */
+    public static class JumpStatement extends NoodleCompiledStatement {
+        private final int jumpPosition;
+
+        public JumpStatement(int address, int jumpPosition) {
+            super(address);
+            this.jumpPosition = jumpPosition;
+        }
+
+        @Override
+        public void execute(NoodleThread<?> thread, NoodleValueArray registers) {
+            thread.setPosition(this.jumpPosition);
+        }
+    }
+
+    /**
+     * Jumps to another instruction based on the value of an expression.
+     */
+    public static class ConditionalJumpStatement extends NoodleCompiledStatement {
+        private final NoodleCompiledExpression condition;
+        private final boolean jumpIfTrue;
+        private final int jumpPosition;
+
+        public ConditionalJumpStatement(int address, NoodleCompiledExpression condition, boolean jumpIfTrue, int jumpPosition) {
+            super(address);
+            this.condition = condition;
+            this.jumpIfTrue = jumpIfTrue;
+            this.jumpPosition = jumpPosition;
+        }
+
+        @Override
+        public void execute(NoodleThread<?> thread, NoodleValueArray registers) {
+            if (this.condition.evaluateCondition(thread, registers, 0) == this.jumpIfTrue)
+                thread.setPosition(this.jumpPosition);
+        }
+
+        @Override
+        public int getRegisterCount() {
+            return this.condition.getRegisterCount();
+        }
+    }
+
+    /**
+     * Runs an instruction with the interpreter.
+     * This is used for any instruction which the compiler does not support, such as function calls, which may yield.
+     */
+    public static class InterpretedStatement extends NoodleCompiledStatement {
+        private final NoodleInstruction instruction;
+
+        public InterpretedStatement(int address, NoodleInstruction instruction) {
+            super(address);
+            this.instruction = instruction;
+        }
+
+        @Override
+        public void execute(NoodleThread<?> thread, NoodleValueArray registers) {
+            this.instruction.execute(thread);
+        }
+    }
+}
@@ -10,12 +10,17 @@ import net.highwayfrogs.editor.scripting.runtime.templates.functions.NoodleStati
 import net.highwayfrogs.editor.scripting.runtime.templates.functions.NoodleTemplateConstructor;
 import net.highwayfrogs.editor.utils.Utils;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.*;
 import java.util.Map.Entry;
 
 /**
  * This object is a helper which allows easily bridging Java code with Noodle.
+ * Each registered method and constructor is turned into a MethodHandle invoker when it is registered, along with a converter for each of its arguments.
+ * The overload chosen for a set of argument types is remembered by each registered function, so overload resolution only runs once per combination of types.
  * Created by Kneesnap on 10/23/2024.
  */
 public class NoodleJvmWrapper<TWrappedType> {
@@ -26,6 +31,7 @@ public class NoodleJvmWrapper<TWrappedType> {
     private final Set<Method> registeredMethods = new HashSet<>();
 
     private static final NoodlePrimitive[] EMPTY_ARGUMENTS = new NoodlePrimitive[0];
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class); // (thisRef, arguments) -> result
 
     public NoodleJvmWrapper(@NonNull Class<TWrappedType> wrappedClass) {
         this.wrappedClass = wrappedClass;
@@ -229,46 +235,52 @@ public class NoodleJvmWrapper<TWrappedType> {
                 CachedMethod method = methods.get(0);
 
                 // Create a getter binding.
-                if (method.getParameterCount() == 0 && methodName.charAt(0) == 'g')
-                    template.addGetter(fieldName, (thread, object) -> thread.getStack().pushObject(executeMethod(methodName, object, EMPTY_ARGUMENTS)));
+                if (method.getParameterCount() == 0 && methodName.charAt(0) == 'g') {
+                    JvmCallSite<CachedMethod> getterCallSite = createMethodCallSite(methodName);
+                    template.addGetter(fieldName, (thread, object) -> thread.getStack().pushObject(executeMethod(getterCallSite, methodName, object, EMPTY_ARGUMENTS)));
+                }
 
                 // Create a setter binding.
-                if (method.getParameterCount() == 1 && methodName.charAt(0) == 's')
-                    template.addSetter(fieldName, (thread, object, newValue) -> executeMethod(methodName, object, new NoodlePrimitive[] {newValue}));
+                if (method.getParameterCount() == 1 && methodName.charAt(0) == 's') {
+                    JvmCallSite<CachedMethod> setterCallSite = createMethodCallSite(methodName);
+                    template.addSetter(fieldName, (thread, object, newValue) -> executeMethod(setterCallSite, methodName, object, new NoodlePrimitive[] {newValue}));
+                }
             }
         }
     }
 
-    private Object executeMethod(String methodName, TWrappedType thisRef, NoodlePrimitive[] args) {
-        if (args == null)
-            throw new NullPointerException("args");
-
+    private JvmCallSite<CachedMethod> createMethodCallSite(String methodName) {
         List<CachedMethod> methods = this.cachedMethods.get(methodName);
         if (methods == null)
-            throw new NoodleRuntimeException("The method %s.%s(%s) is not tracked", this.wrappedClass.getSimpleName(), methodName, NoodlePrimitive.getArgumentDisplayTypesAsString(args));
+            throw new NoodleRuntimeException("The method %s.%s is not tracked", this.wrappedClass.getSimpleName(), methodName);
 
-        CachedMethod bestMethod = getBestMatch(methods, args);
+        return new JvmCallSite<>(methods);
+    }
+
+    private Object executeMethod(JvmCallSite<CachedMethod> callSite, String methodName, TWrappedType thisRef, NoodlePrimitive[] args) {
+        if (args == null)
+            throw new NullPointerException("args");
+
+        CachedMethod bestMethod = callSite.getBestMatch(args);
         if (bestMethod == null)
             throw new NoodleRuntimeException("Could not find a method executable as '%s.%s(%s)'.", this.wrappedClass.getSimpleName(), methodName, NoodlePrimitive.getArgumentDisplayTypesAsString(args));
 
         // Execute the function.
-        Object[] javaArguments = getInvocationArguments(bestMethod.getParameterTypes(), args);
         try {
-            return bestMethod.getExecutable().invoke(thisRef, javaArguments);
+            return bestMethod.invoke(thisRef, args);
         } catch (Throwable th) {
             throw new NoodleRuntimeException(th, "Encountered an error while executing %s.%s(%s)", this.wrappedClass.getSimpleName(), methodName, NoodlePrimitive.getArgumentDisplayTypesAsString(args));
         }
     }
 
-    private Object invokeConstructor(NoodlePrimitive[] args) {
-        CachedConstructor<TWrappedType> bestConstructor = getBestMatch(this.cachedConstructors, args);
+    private Object invokeConstructor(JvmCallSite<CachedConstructor<TWrappedType>> callSite, NoodlePrimitive[] args) {
+        CachedConstructor<TWrappedType> bestConstructor = callSite.getBestMatch(args);
         if (bestConstructor == null)
             throw new NoodleRuntimeException("Could not find a constructor executable as '%s(%s)'.", this.wrappedClass.getSimpleName(), NoodlePrimitive.getArgumentDisplayTypesAsString(args));
 
         // Invoke the constructor.
-        Object[] javaArguments = getInvocationArguments(bestConstructor.getParameterTypes(), args);
         try {
-            return bestConstructor.getExecutable().newInstance(javaArguments);
+            return bestConstructor.invoke(null, args);
         } catch (Throwable th) {
             throw new NoodleRuntimeException(th, "Encountered an error while invoking 'new %s(%s)'", this.wrappedClass.getSimpleName(), NoodlePrimitive.getArgumentDisplayTypesAsString(args));
         }
@@ -401,106 +413,240 @@ public class NoodleJvmWrapper<TWrappedType> {
         }
     }
 
-    private static Object castValue(Class<?> target, NoodlePrimitive input) {
-        if (input == null || input.isNull()) {
-            if (target.isPrimitive())
-                throw new NoodleRuntimeException("Cannot return null for '%s', since it is a primitive!", target.getSimpleName());
+    /**
+     * Creates the converter which turns a NoodlePrimitive into the Java value passed for a parameter of the given type.
+     * @param target the parameter type
+     * @return argumentConverter
+     */
+    private static ArgumentConverter createArgumentConverter(Class<?> target) {
+        if (String.class.equals(target)) {
+            return input -> (input == null || input.isNull()) ? null : input.getAsString();
+        } else if (!target.isPrimitive()) {
+            return input -> {
+                if (input == null || input.isNull())
+                    return null;
+                if (!input.isObjectReference())
+                    throw new NoodleRuntimeException("Tried to obtain the %s as a(n) %s, but the primitive was not an object reference!", input, target);
+
+                return input.getObjectReference().getRequiredObjectInstance(target);
+            };
+        } else if (int.class.equals(target)) {
+            return createNumberConverter(target, NoodlePrimitive::getAsIntegerValue);
+        } else if (float.class.equals(target)) {
+            return createNumberConverter(target, input -> (float) input.getNumberValue());
+        } else if (boolean.class.equals(target)) {
+            return createNumberConverter(target, NoodlePrimitive::isTrueValue);
+        } else if (long.class.equals(target)) {
+            return createNumberConverter(target, input -> (long) input.getAsIntegerValue());
+        } else if (double.class.equals(target)) {
+            return createNumberConverter(target, NoodlePrimitive::getNumberValue);
+        } else if (short.class.equals(target)) {
+            return createNumberConverter(target, input -> (short) input.getAsIntegerValue());
+        } else if (byte.class.equals(target)) {
+            return createNumberConverter(target, input -> (byte) input.getAsIntegerValue());
+        } else {
+            return input -> {
+                throw new NoodleRuntimeException("Unsupported primitive type: '%s'", target.getSimpleName());
+            };
+        }
+    }
 
-            return null;
-        } else if (String.class.equals(target)) {
-            return input.getAsString();
-        } else if (target.isPrimitive()) {
+    private static ArgumentConverter createNumberConverter(Class<?> target, ArgumentConverter converter) {
+        return input -> {
+            if (input == null || input.isNull())
+                throw new NoodleRuntimeException("Cannot return null for '%s', since it is a primitive!", target.getSimpleName());
             if (!input.isNumber())
                 throw new NoodleRuntimeException("Tried to obtain the %s as a(n) %s, but the primitive was not a number!", input, target);
 
-            if (int.class.equals(target)) {
-                return input.getAsIntegerValue();
-            } else if (float.class.equals(target)) {
-                return (float) input.getNumberValue();
-            } else if (boolean.class.equals(target)) {
-                return input.isTrueValue();
-            } else if (long.class.equals(target)) {
-                return input.getAsIntegerValue();
-            } else if (double.class.equals(target)) {
-                return input.getNumberValue();
-            } else if (short.class.equals(target)) {
-                return (short) input.getAsIntegerValue();
-            } else if (byte.class.equals(target)) {
-                return (byte) input.getAsIntegerValue();
+            return converter.convert(input);
+        };
+    }
+
+    /**
+     * Gets the value which decides which overloads can accept an argument.
+     * Two arguments with the same key will always pick the same overload.
+     * @param value the argument value
+     * @return argumentTypeKey, or null if the argument cannot be cached
+     */
+    private static Object getArgumentTypeKey(NoodlePrimitive value) {
+        if (value == null || value.isNull()) {
+            return JvmArgumentType.NULL;
+        } else if (value.isString()) {
+            return JvmArgumentType.STRING;
+        } else if (value.isNumber()) {
+            if (value.isBoolean()) {
+                return JvmArgumentType.BOOLEAN;
+            } else if (value.isInteger()) {
+                return JvmArgumentType.INTEGER;
             } else {
-                throw new NoodleRuntimeException("Unsupported primitive type: '%s'", target.getSimpleName());
+                return JvmArgumentType.FLOAT;
             }
+        } else if (value.isObjectReference()) {
+            Object refObject = value.getObjectReference().getObject();
+            return refObject != null ? refObject.getClass() : null;
         } else {
-            if (!input.isObjectReference())
-                throw new NoodleRuntimeException("Tried to obtain the %s as a(n) %s, but the primitive was not an object reference!", input, target);
+            return null;
+        }
+    }
+
+    private enum JvmArgumentType {
+        NULL,
+        STRING,
+        BOOLEAN,
+        INTEGER,
+        FLOAT
+    }
+
+    /**
+     * Converts a NoodlePrimitive into the Java value passed for a parameter.
+     */
+    private interface ArgumentConverter {
+        Object convert(NoodlePrimitive input);
+    }
+
+    /**
+     * Remembers which overload was picked for each combination of argument types passed to a function.
+     * Entries are never removed, but only a small number are kept, since a function is rarely called with many different argument types.
+     */
+    private static class JvmCallSite<TExecutable extends CachedExecutable<?>> {
+        private final List<TExecutable> executables;
+        private volatile JvmCallSiteEntry[] entries = new JvmCallSiteEntry[0]; // Replaced instead of modified, so it can be read from any thread without locking.
 
-            return input.getObjectReference().getRequiredObjectInstance(target);
+        private static final int MAXIMUM_ENTRIES = 8;
+
+        public JvmCallSite(List<TExecutable> executables) {
+            this.executables = executables;
+        }
+
+        /**
+         * Gets the executable which best matches the given arguments.
+         * @param args the arguments to match
+         * @return bestMatch, or null if there is no executable accepting the arguments
+         */
+        @SuppressWarnings("unchecked")
+        public TExecutable getBestMatch(NoodlePrimitive[] args) {
+            JvmCallSiteEntry[] entries = this.entries;
+            for (int i = 0; i < entries.length; i++)
+                if (entries[i].matches(args))
+                    return (TExecutable) entries[i].executable;
+
+            TExecutable bestMatch = NoodleJvmWrapper.getBestMatch(this.executables, args);
+            if (bestMatch != null && entries.length < MAXIMUM_ENTRIES) {
+                Object[] argumentTypeKeys = new Object[args.length];
+                for (int i = 0; i < args.length; i++)
+                    if ((argumentTypeKeys[i] = getArgumentTypeKey(args[i])) == null)
+                        return bestMatch; // Can't be cached.
+
+                JvmCallSiteEntry[] newEntries = Arrays.copyOf(entries, entries.length + 1);
+                newEntries[entries.length] = new JvmCallSiteEntry(argumentTypeKeys, bestMatch);
+                this.entries = newEntries;
+            }
+
+            return bestMatch;
         }
     }
 
-    private static Object[] getInvocationArguments(Class<?>[] parameterTypes, NoodlePrimitive[] args) {
-        if (parameterTypes.length != args.length)
-            throw new NoodleRuntimeException("parameterTypeCount (%d) did not match the provided argument count (%d).", parameterTypes.length, args.length);
+    private static class JvmCallSiteEntry {
+        private final Object[] argumentTypeKeys;
+        private final CachedExecutable<?> executable;
+
+        public JvmCallSiteEntry(Object[] argumentTypeKeys, CachedExecutable<?> executable) {
+            this.argumentTypeKeys = argumentTypeKeys;
+            this.executable = executable;
+        }
+
+        /**
+         * Tests if the arguments have the same types as the ones this entry was created for.
+         * @param args the arguments to test
+         * @return true iff the arguments match
+         */
+        public boolean matches(NoodlePrimitive[] args) {
+            if (args.length != this.argumentTypeKeys.length)
+                return false;
 
-        Object[] tempArguments = new Object[args.length];
-        for (int i = 0; i < tempArguments.length; i++)
-            tempArguments[i] = castValue(parameterTypes[i], args[i]);
+            for (int i = 0; i < args.length; i++)
+                if (this.argumentTypeKeys[i] != getArgumentTypeKey(args[i]))
+                    return false;
 
-        return tempArguments;
+            return true;
+        }
     }
 
     private static class NoodleJvmTemplateFunction<TObject> extends NoodleTemplateFunction<TObject> {
         private final NoodleJvmWrapper<TObject> jvmWrapper;
+        private final JvmCallSite<CachedMethod> callSite;
 
         public NoodleJvmTemplateFunction(NoodleJvmWrapper<TObject> jvmWrapper, String methodName, int argumentCount) {
             super(methodName, jvmWrapper.getWrappedClass(), jvmWrapper.getArgumentNames(methodName, argumentCount));
             this.jvmWrapper = jvmWrapper;
+            this.callSite = jvmWrapper.createMethodCallSite(methodName);
         }
 
         @Override
         protected NoodlePrimitive executeImpl(NoodleThread<?> thread, TObject thisRef, NoodlePrimitive[] args) {
-            return thread.getStack().pushObject(this.jvmWrapper.executeMethod(getName(), thisRef, args), false);
+            return thread.getStack().pushObject(this.jvmWrapper.executeMethod(this.callSite, getName(), thisRef, args), false);
         }
     }
 
     private static class NoodleJvmStaticFunction<TObject> extends NoodleStaticTemplateFunction<TObject> {
         private final NoodleJvmWrapper<TObject> jvmWrapper;
+        private final JvmCallSite<CachedMethod> callSite;
 
         public NoodleJvmStaticFunction(NoodleJvmWrapper<TObject> jvmWrapper, String methodName, int argumentCount) {
             super(methodName, jvmWrapper.getWrappedClass(), jvmWrapper.getArgumentNames(methodName, argumentCount));
             this.jvmWrapper = jvmWrapper;
+            this.callSite = jvmWrapper.createMethodCallSite(methodName);
         }
 
         @Override
         protected NoodlePrimitive executeImpl(NoodleThread<?> thread, NoodlePrimitive[] args) {
-            return thread.getStack().pushObject(this.jvmWrapper.executeMethod(getName(), null, args), false);
+            return thread.getStack().pushObject(this.jvmWrapper.executeMethod(this.callSite, getName(), null, args), false);
         }
     }
 
     private static class NoodleJvmConstructor<TObject> extends NoodleTemplateConstructor<TObject> {
         private final NoodleJvmWrapper<TObject> jvmWrapper;
+        private final JvmCallSite<CachedConstructor<TObject>> callSite;
 
         public NoodleJvmConstructor(NoodleJvmWrapper<TObject> jvmWrapper, int argumentCount) {
             super(jvmWrapper.getWrappedClass(), jvmWrapper.getArgumentNames(jvmWrapper.cachedConstructors, argumentCount));
             this.jvmWrapper = jvmWrapper;
+            this.callSite = new JvmCallSite<>(jvmWrapper.cachedConstructors);
         }
 
         @Override
         protected NoodlePrimitive executeImpl(NoodleThread<?> thread, NoodlePrimitive[] args) {
-            return thread.getStack().pushObject(this.jvmWrapper.invokeConstructor(args));
+            return thread.getStack().pushObject(this.jvmWrapper.invokeConstructor(this.callSite, args));
         }
     }
 
     @Getter
-    private static class CachedExecutable<TExecutable extends Executable> {
+    private static abstract class CachedExecutable<TExecutable extends Executable> {
         private final TExecutable executable;
         private final Class<?>[] parameterTypes;
         private final String[] parameterNames;
+        private final ArgumentConverter[] argumentConverters;
+        private final MethodHandle invoker; // (Object thisRef, Object[] arguments) -> Object. Null if a method handle could not be created, in which case reflection is used.
 
         public CachedExecutable(TExecutable executable) {
             this.executable = executable;
             this.parameterTypes = executable.getParameterTypes();
             this.parameterNames = getParameterNames(executable);
+            this.argumentConverters = new ArgumentConverter[this.parameterTypes.length];
+            for (int i = 0; i < this.parameterTypes.length; i++)
+                this.argumentConverters[i] = createArgumentConverter(this.parameterTypes[i]);
+
+            MethodHandle invoker;
+            try {
+                invoker = createMethodHandle(MethodHandles.publicLookup())
+                        .asFixedArity() // Variable arity methods take their arguments as an array, just like with reflection.
+                        .asSpreader(Object[].class, this.parameterTypes.length)
+                        .asType(INVOKER_TYPE);
+            } catch (IllegalAccessException | RuntimeException ex) {
+                invoker = null;
+            }
+
+            this.invoker = invoker;
         }
 
         /**
@@ -510,6 +656,41 @@ public class NoodleJvmWrapper<TWrappedType> {
             return this.parameterTypes.length;
         }
 
+        /**
+         * Invokes the executable.
+         * @param thisRef the object to invoke the executable on, or null if it is static
+         * @param args the Noodle arguments to pass
+         * @return returnValue
+         */
+        public Object invoke(Object thisRef, NoodlePrimitive[] args) throws Throwable {
+            if (this.parameterTypes.length != args.length)
+                throw new NoodleRuntimeException("parameterTypeCount (%d) did not match the provided argument count (%d).", this.parameterTypes.length, args.length);
+
+            Object[] javaArguments = new Object[args.length];
+            for (int i = 0; i < javaArguments.length; i++)
+                javaArguments[i] = this.argumentConverters[i].convert(args[i]);
+
+            if (this.invoker != null)
+                return (Object) this.invoker.invokeExact(thisRef, javaArguments);
+
+            return invokeWithReflection(thisRef, javaArguments);
+        }
+
+        /**
+         * Creates a method handle for the executable, taking the object to invoke it on (if there is one) followed by the parameters.
+         * @param lookup the lookup to create the method handle with
+         * @return methodHandle
+         */
+        protected abstract MethodHandle createMethodHandle(MethodHandles.Lookup lookup) throws IllegalAccessException;
+
+        /**
+         * Invokes the executable using reflection.
+         * @param thisRef the object to invoke the executable on, or null if it is static
+         * @param javaArguments the converted arguments to pass
+         * @return returnValue
+         */
+        protected abstract Object invokeWithReflection(Object thisRef, Object[] javaArguments) throws ReflectiveOperationException;
+
         private static String[] getParameterNames(Executable executable) {
             List<String> parameterNames = new ArrayList<>();
             for (Parameter parameter : executable.getParameters())
@@ -527,6 +708,17 @@ public class NoodleJvmWrapper<TWrappedType> {
             super(method);
             this.staticMethod = Modifier.isStatic(method.getModifiers());
         }
+
+        @Override
+        protected MethodHandle createMethodHandle(MethodHandles.Lookup lookup) throws IllegalAccessException {
+            MethodHandle methodHandle = lookup.unreflect(getExecutable());
+            return Modifier.isStatic(getExecutable().getModifiers()) ? MethodHandles.dropArguments(methodHandle, 0, Object.class) : methodHandle;
+        }
+
+        @Override
+        protected Object invokeWithReflection(Object thisRef, Object[] javaArguments) throws ReflectiveOperationException {
+            return getExecutable().invoke(thisRef, javaArguments);
+        }
     }
 
     @Getter
@@ -534,5 +726,15 @@ public class NoodleJvmWrapper<TWrappedType> {
         public CachedConstructor(Constructor<TWrappedType> constructor) {
             super(constructor);
         }
+
+        @Override
+        protected MethodHandle createMethodHandle(MethodHandles.Lookup lookup) throws IllegalAccessException {
+            return MethodHandles.dropArguments(lookup.unreflectConstructor(getExecutable()), 0, Object.class);
+        }
+
+        @Override
+        protected Object invokeWithReflection(Object thisRef, Object[] javaArguments) throws ReflectiveOperationException {
+            return getExecutable().newInstance(javaArguments);
+        }
     }
 }
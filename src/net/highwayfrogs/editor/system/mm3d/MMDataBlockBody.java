@@ -28,8 +28,7 @@ public abstract class MMDataBlockBody implements IBinarySerializable {
      * Reads a float array from a reader.
      */
     public static void readFloatArray(DataReader reader, float[] readTo) {
-        for (int i = 0; i < readTo.length; i++)
-            readTo[i] = reader.readFloat();
+        reader.readFloats(readTo);
     }
 
     /**
@@ -44,8 +43,7 @@ public abstract class MMDataBlockBody implements IBinarySerializable {
      * Reads an int array from a reader.
      */
     public static void readIntArray(DataReader reader, int[] readTo) {
-        for (int i = 0; i < readTo.length; i++)
-            readTo[i] = reader.readInt();
+        reader.readInts(readTo);
     }
 
     /**
@@ -0,0 +1,135 @@
+package net.highwayfrogs.editor.utils;
+
+import lombok.Setter;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.SourceDataLine;
+import java.util.function.Supplier;
+
+/**
+ * Plays audio by feeding an AudioInputStream to a SourceDataLine on a background thread.
+ * Unlike a Clip, the audio is read as it is played, so sounds which are decoded by the stream can start playing right away.
+ * Created by agent on 10/18/2026.
+ */
+public class AudioStreamPlayer {
+    @Setter private Runnable onPlaybackFinish; // Runs on the playback thread when a sound finishes playing on its own. Not run when stopped.
+    private PlaybackSession activeSession;
+
+    private static final int BUFFER_SIZE_IN_FRAMES = 2048;
+
+    /**
+     * Starts playing the given audio stream, stopping any audio which is already playing.
+     * @param audioStream the audio stream to play
+     * @param repeatStreamSupplier supplies a new stream each time the sound repeats. If null, the sound will not repeat.
+     */
+    public synchronized void play(AudioInputStream audioStream, Supplier<AudioInputStream> repeatStreamSupplier) {
+        if (audioStream == null)
+            throw new NullPointerException("audioStream");
+
+        stop();
+        this.activeSession = new PlaybackSession(audioStream, repeatStreamSupplier);
+        Thread playbackThread = new Thread(this.activeSession, "FrogLord Audio Playback");
+        playbackThread.setDaemon(true);
+        playbackThread.start();
+    }
+
+    /**
+     * Stops the audio which is currently playing, if there is any.
+     */
+    public synchronized void stop() {
+        if (this.activeSession != null) {
+            this.activeSession.stop();
+            this.activeSession = null;
+        }
+    }
+
+    /**
+     * Tests if audio is currently playing.
+     */
+    public synchronized boolean isPlaying() {
+        return this.activeSession != null && !this.activeSession.finished;
+    }
+
+    private class PlaybackSession implements Runnable {
+        private final Supplier<AudioInputStream> repeatStreamSupplier;
+        private AudioInputStream audioStream;
+        private volatile SourceDataLine line;
+        private volatile boolean stopRequested;
+        private volatile boolean finished;
+
+        public PlaybackSession(AudioInputStream audioStream, Supplier<AudioInputStream> repeatStreamSupplier) {
+            this.audioStream = audioStream;
+            this.repeatStreamSupplier = repeatStreamSupplier;
+        }
+
+        @Override
+        public void run() {
+            try {
+                playUntilFinished();
+            } catch (Throwable th) {
+                Utils.handleError(null, th, false, "Failed to play audio.");
+            } finally {
+                this.finished = true;
+                closeStream();
+                if (this.line != null)
+                    this.line.close();
+            }
+
+            Runnable onPlaybackFinish = AudioStreamPlayer.this.onPlaybackFinish;
+            if (!this.stopRequested && onPlaybackFinish != null)
+                onPlaybackFinish.run();
+        }
+
+        private void playUntilFinished() throws Exception {
+            AudioFormat format = this.audioStream.getFormat();
+            byte[] buffer = new byte[BUFFER_SIZE_IN_FRAMES * Math.max(1, format.getFrameSize())];
+            SourceDataLine line = AudioSystem.getSourceDataLine(format);
+            line.open(format, buffer.length * 2);
+            this.line = line;
+            if (this.stopRequested)
+                return;
+
+            line.start();
+            while (!this.stopRequested) {
+                int bytesRead;
+                while (!this.stopRequested && (bytesRead = this.audioStream.read(buffer, 0, buffer.length)) > 0)
+                    line.write(buffer, 0, bytesRead);
+
+                // Repeating sounds are written back to back, so there's no gap between them.
+                closeStream();
+                if (this.repeatStreamSupplier == null || this.stopRequested || (this.audioStream = this.repeatStreamSupplier.get()) == null)
+                    break;
+            }
+
+            if (!this.stopRequested)
+                line.drain();
+        }
+
+        private void closeStream() {
+            if (this.audioStream == null)
+                return;
+
+            try {
+                this.audioStream.close();
+            } catch (Throwable th) {
+                Utils.handleError(null, th, false, "Failed to close the audio stream.");
+            }
+
+            this.audioStream = null;
+        }
+
+        /**
+         * Stops playback. Any write which is blocked waiting for the line will return once the line is stopped.
+         */
+        public void stop() {
+            this.stopRequested = true;
+            SourceDataLine line = this.line;
+            if (line != null) {
+                line.stop();
+                line.flush();
+            }
+        }
+    }
+}
@@ -7,10 +7,7 @@ import net.highwayfrogs.editor.utils.data.writer.ArrayReceiver;
 import net.highwayfrogs.editor.utils.data.writer.DataWriter;
 
 import javax.sound.sampled.*;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
 
 /**
  * Contains static utilities for working with audio.
@@ -87,20 +84,63 @@ public class AudioUtils {
         // Write the WAV file.
         ArrayReceiver receiver = new ArrayReceiver();
         DataWriter writer = new DataWriter(receiver);
+        writeWavHeader(writer, waveFormatEx, rawAudioData.length);
+        writer.writeBytes(rawAudioData);
+        writer.closeReceiver();
+        return receiver.toArray();
+    }
+
+    /**
+     * Creates a stream which reads as a wav file with the given data, without copying the raw audio data into a new array.
+     * @param formatHeader a byte array containing ONLY a wave format header
+     * @param rawAudioData a byte array containing ONLY the raw audio data
+     * @return wavInputStream
+     */
+    public static InputStream createWavInputStream(byte[] formatHeader, byte[] rawAudioData) {
+        if (formatHeader == null)
+            throw new NullPointerException("formatHeader");
+        if (rawAudioData == null)
+            throw new NullPointerException("rawAudioData");
+        if (formatHeader.length < 16)
+            throw new IllegalArgumentException("The size of a wave audio header format must be at least 16 bytes! (Was: " + formatHeader.length + ")");
+
+        ArrayReceiver receiver = new ArrayReceiver();
+        DataWriter writer = new DataWriter(receiver);
+        writeWavHeader(writer, formatHeader, rawAudioData.length);
+        writer.closeReceiver();
+        return new SequenceInputStream(new ByteArrayInputStream(receiver.toArray()), new ByteArrayInputStream(rawAudioData));
+    }
 
+    private static void writeWavHeader(DataWriter writer, byte[] waveFormatEx, int rawAudioDataLength) {
         writer.writeStringBytes("RIFF");
-        int fileSizeAddress = writer.writeNullPointer();
+        writer.writeInt((4 * Constants.INTEGER_SIZE) + waveFormatEx.length + rawAudioDataLength + Constants.INTEGER_SIZE); // File size: "WAVE", "fmt ", chunk 1 size, format, "data", chunk 2 size, audio data.
         writer.writeStringBytes("WAVE");
         writer.writeStringBytes("fmt ");
         writer.writeInt(waveFormatEx.length); // Write chunk 1 size.
         writer.writeBytes(waveFormatEx);
         writer.writeStringBytes("data");
-        writer.writeInt(rawAudioData.length);
-        writer.writeBytes(rawAudioData);
-        writer.writeIntAtPos(fileSizeAddress, writer.getIndex() - (fileSizeAddress + Constants.INTEGER_SIZE));
+        writer.writeInt(rawAudioDataLength);
+    }
 
-        writer.closeReceiver();
-        return receiver.toArray();
+    /**
+     * Gets an audio stream from a stream of a supported audio file type (Usually .wav), if it can be played by a SourceDataLine.
+     * @param fileInputStream the stream to read the file from
+     * @return audioInputStream, or null if the audio cannot be played this way
+     */
+    public static AudioInputStream getPlayableAudioStream(InputStream fileInputStream) {
+        if (fileInputStream == null)
+            throw new NullPointerException("fileInputStream");
+
+        try {
+            AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(fileInputStream.markSupported() ? fileInputStream : new BufferedInputStream(fileInputStream));
+            if (AudioSystem.isLineSupported(new DataLine.Info(SourceDataLine.class, audioInputStream.getFormat())))
+                return audioInputStream;
+
+            audioInputStream.close();
+            return null;
+        } catch (UnsupportedAudioFileException | IOException ex) {
+            return null;
+        }
     }
 
     /**
@@ -11,7 +11,6 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.util.Arrays;
 import java.util.zip.CRC32;
 
 /**
@@ -19,8 +18,6 @@ import java.util.zip.CRC32;
  * Created by Kneesnap on 10/25/2024.
  */
 public class DataUtils {
-    private static final CRC32 crc32 = new CRC32();
-    private static final ByteBuffer FLOAT_BUFFER = ByteBuffer.allocate(Constants.FLOAT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
 
     /**
      * Convert a byte array to a number.
@@ -67,8 +64,7 @@ public class DataUtils {
      * @return byteArray
      */
     public static byte[] writeFloatToBytes(float value) {
-        FLOAT_BUFFER.clear();
-        return Arrays.copyOf(FLOAT_BUFFER.order(ByteOrder.LITTLE_ENDIAN).putFloat(value).array(), Constants.FLOAT_SIZE);
+        return toByteArray(Float.floatToRawIntBits(value));
     }
 
     /**
@@ -373,7 +369,7 @@ public class DataUtils {
      * @return crc32Hash
      */
     public static long getCRC32(byte[] bytes) {
-        crc32.reset();
+        CRC32 crc32 = new CRC32(); // Not shared, so this can be called from multiple threads.
         crc32.update(bytes);
         return crc32.getValue();
     }
@@ -47,6 +47,7 @@ import java.util.logging.Level;
  * Created by Kneesnap on 10/25/2024.
  */
 public class FXUtils {
+    private static final ThreadLocal<List<Supplier<Alert>>> DEFERRED_POP_UPS = new ThreadLocal<>();
     private static final Map<BufferedImage, TextureCache> imageCacheMap = new HashMap<>();
     private static final long IMAGE_CACHE_EXPIRE = TimeUnit.MINUTES.toMillis(5);
     private static final Map<String, FXMLLoader> CACHED_RESOURCE_PATH_FXML_LOADERS = new HashMap<>();
@@ -435,7 +436,7 @@ public class FXUtils {
         } else {
             String errorMessage = stringWriter.toString();
 
-            showPopUpAndWait(() -> {
+            showPopUp(() -> {
                 Alert alert = new Alert(AlertType.ERROR, errorMessage, ButtonType.OK);
                 if (ex != null) {
                     alert.setResizable(true);
@@ -448,6 +449,50 @@ public class FXUtils {
         }
     }
 
+    /**
+     * Runs a task while holding back any popups it creates, instead of showing them.
+     * Worker threads use this so they don't wait on the FX thread (which may itself be waiting on the workers) to report problems.
+     * Prompts which require an answer are still shown immediately.
+     * @param deferredPopUps the list to add the held back popups to
+     * @param task the task to run
+     * @return the result of the task
+     */
+    public static <T> T runWithDeferredPopUps(List<Supplier<Alert>> deferredPopUps, Supplier<T> task) {
+        if (deferredPopUps == null)
+            throw new NullPointerException("deferredPopUps");
+
+        List<Supplier<Alert>> oldDeferredPopUps = DEFERRED_POP_UPS.get();
+        DEFERRED_POP_UPS.set(deferredPopUps);
+        try {
+            return task.get();
+        } finally {
+            if (oldDeferredPopUps != null) {
+                DEFERRED_POP_UPS.set(oldDeferredPopUps);
+            } else {
+                DEFERRED_POP_UPS.remove();
+            }
+        }
+    }
+
+    /**
+     * Shows popups which were held back by runWithDeferredPopUps(), waiting for each one to be closed.
+     * @param deferredPopUps the popups to show
+     */
+    public static void showDeferredPopUps(List<Supplier<Alert>> deferredPopUps) {
+        for (Supplier<Alert> alertMaker : deferredPopUps)
+            showPopUp(alertMaker);
+    }
+
+    // Shows a popup which doesn't need a response, unless popups are being held back on this thread.
+    private static void showPopUp(Supplier<Alert> alertMaker) {
+        List<Supplier<Alert>> deferredPopUps = DEFERRED_POP_UPS.get();
+        if (deferredPopUps != null) {
+            deferredPopUps.add(alertMaker);
+        } else {
+            showPopUpAndWait(alertMaker);
+        }
+    }
+
     // Shows a popup and waits for a response, even if async.
     private static Optional<ButtonType> showPopUpAndWait(Supplier<Alert> alertMaker) {
         if (Platform.isFxApplicationThread())
@@ -474,7 +519,7 @@ public class FXUtils {
      * @param message The message to display.
      */
     public static void makePopUp(String message, AlertType type) {
-        showPopUpAndWait(() -> new Alert(type, message, ButtonType.OK));
+        showPopUp(() -> new Alert(type, message, ButtonType.OK));
     }
 
     /**
@@ -4,6 +4,8 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /**
  * Allows reading from a byte array.
@@ -13,31 +15,48 @@ import java.io.IOException;
 public class ArraySource implements DataSource {
     @Setter private int index;
     private byte[] data;
+    private final int offset;
+    private final int length;
 
     public ArraySource(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    public ArraySource(byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > data.length)
+            throw new IllegalArgumentException("Invalid array range [" + offset + ", " + (offset + length) + ") for an array of size " + data.length + ".");
+
         this.data = data;
+        this.offset = offset;
+        this.length = length;
     }
 
     @Override
     public byte readByte() {
-        return data[this.index++];
+        if (this.index >= this.length)
+            throw new ArrayIndexOutOfBoundsException(this.index);
+
+        return data[this.offset + this.index++];
     }
 
     @Override
     public byte[] readBytes(int amount) {
+        if (amount > this.length - this.index)
+            throw new ArrayIndexOutOfBoundsException("Cannot read " + amount + " bytes, as there are only " + (this.length - this.index) + " bytes left.");
+
         byte[] readBytes = new byte[amount];
-        System.arraycopy(this.data, this.index, readBytes, 0, amount);
+        System.arraycopy(this.data, this.offset + this.index, readBytes, 0, amount);
         this.index += amount;
         return readBytes;
     }
 
     @Override
     public int readBytes(byte[] output, int offset, int amount) throws IOException {
-        amount = Math.max(0, Math.min(amount, this.data.length - this.index));
+        amount = Math.max(0, Math.min(amount, this.length - this.index));
         if (amount == 0)
             return 0;
 
-        System.arraycopy(this.data, this.index, output, offset, amount);
+        System.arraycopy(this.data, this.offset + this.index, output, offset, amount);
         this.index += amount;
         return amount;
     }
@@ -50,6 +69,55 @@ public class ArraySource implements DataSource {
 
     @Override
     public int getSize() {
-        return data.length;
+        return this.length;
+    }
+
+    @Override
+    public DataSource createSlice(int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > this.length)
+            throw new IllegalArgumentException("Invalid slice range [" + offset + ", " + (offset + length) + ") for a source of size " + this.length + ".");
+
+        return new ArraySource(this.data, this.offset + offset, length);
+    }
+
+    /**
+     * Reads a little-endian short directly from the backing array.
+     * @return shortValue
+     */
+    public short readShort() {
+        if (this.index > this.length - 2)
+            throw new ArrayIndexOutOfBoundsException("Cannot read a short, as there are only " + (this.length - this.index) + " bytes left.");
+
+        int pos = this.offset + this.index;
+        this.index += 2;
+        return (short) ((this.data[pos] & 0xFF) | (this.data[pos + 1] << 8));
+    }
+
+    /**
+     * Reads a little-endian integer directly from the backing array.
+     * @return intValue
+     */
+    public int readInt() {
+        if (this.index > this.length - 4)
+            throw new ArrayIndexOutOfBoundsException("Cannot read an integer, as there are only " + (this.length - this.index) + " bytes left.");
+
+        int pos = this.offset + this.index;
+        this.index += 4;
+        return (this.data[pos] & 0xFF) | ((this.data[pos + 1] & 0xFF) << 8)
+                | ((this.data[pos + 2] & 0xFF) << 16) | (this.data[pos + 3] << 24);
+    }
+
+    /**
+     * Creates a little-endian ByteBuffer view of the next bytes, and moves past them.
+     * @param amount the number of bytes to view
+     * @return byteBuffer
+     */
+    public ByteBuffer readByteBuffer(int amount) {
+        if (amount < 0 || amount > this.length - this.index)
+            throw new ArrayIndexOutOfBoundsException("Cannot read " + amount + " bytes, as there are only " + (this.length - this.index) + " bytes left.");
+
+        ByteBuffer buffer = ByteBuffer.wrap(this.data, this.offset + this.index, amount).order(ByteOrder.LITTLE_ENDIAN);
+        this.index += amount;
+        return buffer;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package net.highwayfrogs.editor.utils.data.reader;
+
+import lombok.Getter;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Allows reading from a ByteBuffer, such as a memory-mapped file.
+ * Created by agent on 10/18/2026.
+ */
+public class ByteBufferSource implements DataSource {
+    @Getter private final ByteBuffer buffer;
+
+    public ByteBufferSource(ByteBuffer buffer) {
+        if (buffer == null)
+            throw new NullPointerException("buffer");
+
+        this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        if (!this.buffer.hasRemaining())
+            throw new EOFException("Cannot read beyond the end of the buffer. (Size: " + this.buffer.limit() + ")");
+
+        return this.buffer.get();
+    }
+
+    @Override
+    public byte[] readBytes(int amount) throws IOException {
+        if (amount > this.buffer.remaining())
+            throw new EOFException("Cannot read " + amount + " bytes, as there are only " + this.buffer.remaining() + " bytes left.");
+
+        byte[] bytes = new byte[amount];
+        this.buffer.get(bytes, 0, amount);
+        return bytes;
+    }
+
+    @Override
+    public int readBytes(byte[] output, int offset, int amount) throws IOException {
+        amount = Math.max(0, Math.min(amount, this.buffer.remaining()));
+        if (amount == 0)
+            return 0;
+
+        this.buffer.get(output, offset, amount);
+        return amount;
+    }
+
+    @Override
+    public void skip(int byteCount) throws IOException {
+        this.buffer.position(this.buffer.position() + byteCount);
+    }
+
+    @Override
+    public void setIndex(int newIndex) throws IOException {
+        this.buffer.position(newIndex);
+    }
+
+    @Override
+    public int getIndex() throws IOException {
+        return this.buffer.position();
+    }
+
+    @Override
+    public int getSize() throws IOException {
+        return this.buffer.limit();
+    }
+
+    @Override
+    public DataSource createSlice(int offset, int length) throws IOException {
+        ByteBuffer slice = this.buffer.duplicate();
+        slice.limit(offset + length);
+        slice.position(offset);
+        return new ByteBufferSource(slice);
+    }
+
+    /**
+     * Creates a little-endian ByteBuffer view of the next bytes, and moves past them.
+     * @param amount the number of bytes to view
+     * @return byteBuffer
+     */
+    public ByteBuffer readByteBuffer(int amount) {
+        if (amount < 0 || amount > this.buffer.remaining())
+            throw new IndexOutOfBoundsException("Cannot read " + amount + " bytes, as there are only " + this.buffer.remaining() + " bytes left.");
+
+        int startIndex = this.buffer.position();
+        ByteBuffer view = this.buffer.duplicate();
+        view.limit(startIndex + amount);
+        this.buffer.position(startIndex + amount);
+        return view.order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
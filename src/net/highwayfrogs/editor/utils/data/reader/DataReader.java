@@ -8,6 +8,8 @@ import net.highwayfrogs.editor.utils.logging.ILogger;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Stack;
@@ -18,10 +20,14 @@ import java.util.Stack;
  */
 public class DataReader {
     private final DataSource source;
+    private final ArraySource arraySource; // Non-null when the source is array-backed, allowing values to be decoded directly from the array.
+    private final ByteBufferSource bufferSource; // Non-null when the source is buffer-backed.
     private final Stack<Integer> jumpStack = new Stack<>();
 
     public DataReader(DataSource source) {
         this.source = source;
+        this.arraySource = (source instanceof ArraySource) ? (ArraySource) source : null;
+        this.bufferSource = (source instanceof ByteBufferSource) ? (ByteBufferSource) source : null;
     }
 
     /**
@@ -143,7 +149,7 @@ public class DataReader {
      * @return floatValue
      */
     public float readFloat() {
-        return DataUtils.readFloatFromBytes(readBytes(Constants.FLOAT_SIZE));
+        return Float.intBitsToFloat(readInt());
     }
 
     /**
@@ -152,6 +158,11 @@ public class DataReader {
      * @return intValue
      */
     public int readInt() {
+        if (this.arraySource != null)
+            return this.arraySource.readInt();
+        if (this.bufferSource != null)
+            return this.bufferSource.getBuffer().getInt();
+
         return readInt(Constants.INTEGER_SIZE);
     }
 
@@ -161,12 +172,92 @@ public class DataReader {
      * @return shortValue
      */
     public short readShort() {
+        if (this.arraySource != null)
+            return this.arraySource.readShort();
+        if (this.bufferSource != null)
+            return this.bufferSource.getBuffer().getShort();
+
         short value = 0;
         for (int i = 0; i < Constants.SHORT_SIZE; i++)
             value += (short) ((readByte() & 0xFF) << (Constants.BITS_PER_BYTE * i));
         return value;
     }
 
+    /**
+     * Read consecutive shorts into an array.
+     * @param destination the array to read values into
+     * @return destination
+     */
+    public short[] readShorts(short[] destination) {
+        return readShorts(destination, 0, destination.length);
+    }
+
+    /**
+     * Read consecutive shorts into an array.
+     * @param destination the array to read values into
+     * @param offset the index into the array to start placing values at
+     * @param amount the number of values to read
+     * @return destination
+     */
+    public short[] readShorts(short[] destination, int offset, int amount) {
+        readPrimitiveBlock(amount * Constants.SHORT_SIZE).asShortBuffer().get(destination, offset, amount);
+        return destination;
+    }
+
+    /**
+     * Read consecutive integers into an array.
+     * @param destination the array to read values into
+     * @return destination
+     */
+    public int[] readInts(int[] destination) {
+        return readInts(destination, 0, destination.length);
+    }
+
+    /**
+     * Read consecutive integers into an array.
+     * @param destination the array to read values into
+     * @param offset the index into the array to start placing values at
+     * @param amount the number of values to read
+     * @return destination
+     */
+    public int[] readInts(int[] destination, int offset, int amount) {
+        readPrimitiveBlock(amount * Constants.INTEGER_SIZE).asIntBuffer().get(destination, offset, amount);
+        return destination;
+    }
+
+    /**
+     * Read consecutive float32 values into an array.
+     * @param destination the array to read values into
+     * @return destination
+     */
+    public float[] readFloats(float[] destination) {
+        return readFloats(destination, 0, destination.length);
+    }
+
+    /**
+     * Read consecutive float32 values into an array.
+     * @param destination the array to read values into
+     * @param offset the index into the array to start placing values at
+     * @param amount the number of values to read
+     * @return destination
+     */
+    public float[] readFloats(float[] destination, int offset, int amount) {
+        readPrimitiveBlock(amount * Constants.FLOAT_SIZE).asFloatBuffer().get(destination, offset, amount);
+        return destination;
+    }
+
+    private ByteBuffer readPrimitiveBlock(int byteCount) {
+        if (byteCount < 0)
+            throw new IllegalArgumentException("Invalid byte count: " + byteCount);
+
+        if (this.arraySource != null)
+            return this.arraySource.readByteBuffer(byteCount);
+        if (this.bufferSource != null)
+            return this.bufferSource.readByteBuffer(byteCount);
+
+        return ByteBuffer.wrap(readBytes(byteCount)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
     /**
      * Read a variable number of bytes into an integer.
      * @param bytes The number of bytes to read.
@@ -480,4 +571,24 @@ public class DataReader {
         byte[] bytes = readBytes(length);
         return new DataReader(new ArraySource(bytes));
     }
-}
\ No newline at end of file
+
+    /**
+     * Create a sub-reader which views the next bytes of this reader without copying them.
+     * This reader is moved past the viewed bytes.
+     * @param length The number of bytes the sub-reader can read.
+     * @return newReader
+     */
+    public DataReader readSubReader(int length) {
+        if (length < 0)
+            throw new IllegalArgumentException("Invalid length: " + length);
+
+        try {
+            int startIndex = this.source.getIndex();
+            DataReader newReader = new DataReader(this.source.createSlice(startIndex, length));
+            this.source.setIndex(startIndex + length);
+            return newReader;
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to create a sub-reader of " + length + " bytes.", ex);
+        }
+    }
+}
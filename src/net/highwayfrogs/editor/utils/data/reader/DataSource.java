@@ -53,4 +53,15 @@ public interface DataSource {
      * @return size
      */
     public int getSize() throws IOException;
-}
\ No newline at end of file
+
+    /**
+     * Creates a view of a range of this source, without copying the data.
+     * The returned source has its own read index, starting at zero.
+     * @param offset The index into this source where the slice begins.
+     * @param length The number of bytes included in the slice.
+     * @return sliceSource
+     */
+    default DataSource createSlice(int offset, int length) throws IOException {
+        return new SliceSource(this, offset, length);
+    }
+}
@@ -61,4 +61,9 @@ public class FileSource implements DataSource {
     public int getSize() throws IOException {
         return this.fileData.length;
     }
-}
\ No newline at end of file
+
+    @Override
+    public DataSource createSlice(int offset, int length) throws IOException {
+        return new ArraySource(this.fileData, offset, length);
+    }
+}
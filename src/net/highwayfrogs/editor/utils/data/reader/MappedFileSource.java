@@ -0,0 +1,34 @@
+package net.highwayfrogs.editor.utils.data.reader;
+
+import lombok.Getter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Turns a file into a data source by memory-mapping it, instead of reading the whole file onto the heap.
+ * The mapping remains valid until it is garbage collected, so this should not be used for files which may be overwritten while loaded.
+ * Created by agent on 10/18/2026.
+ */
+public class MappedFileSource extends ByteBufferSource {
+    @Getter private final File file;
+
+    public MappedFileSource(File file) throws IOException {
+        super(mapFile(file));
+        this.file = file;
+    }
+
+    private static MappedByteBuffer mapFile(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE)
+                throw new IOException("The file '" + file.getName() + "' is too large to be read. (" + fileSize + " bytes)");
+
+            return channel.map(MapMode.READ_ONLY, 0, fileSize);
+        }
+    }
+}
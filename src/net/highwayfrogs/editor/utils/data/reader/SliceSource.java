@@ -0,0 +1,88 @@
+package net.highwayfrogs.editor.utils.data.reader;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * Exposes a sub-range of another data source without copying the data.
+ * The parent source's read index is moved when reading, so the parent should not be read from concurrently.
+ * Created by agent on 10/18/2026.
+ */
+public class SliceSource implements DataSource {
+    @Getter private final DataSource parent;
+    @Getter private final int offset;
+    private final int length;
+    private int index;
+
+    public SliceSource(DataSource parent, int offset, int length) throws IOException {
+        if (parent == null)
+            throw new NullPointerException("parent");
+        if (offset < 0 || length < 0 || offset + length > parent.getSize())
+            throw new IllegalArgumentException("Invalid slice range [" + offset + ", " + (offset + length) + ") for a source of size " + parent.getSize() + ".");
+
+        this.parent = parent;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        if (this.index >= this.length)
+            throw new IOException("Cannot read beyond the end of the slice. (Size: " + this.length + ")");
+
+        this.parent.setIndex(this.offset + this.index++);
+        return this.parent.readByte();
+    }
+
+    @Override
+    public byte[] readBytes(int amount) throws IOException {
+        if (amount > this.length - this.index)
+            throw new IOException("Cannot read " + amount + " bytes, as there are only " + (this.length - this.index) + " bytes left.");
+
+        this.parent.setIndex(this.offset + this.index);
+        byte[] bytes = this.parent.readBytes(amount);
+        this.index += amount;
+        return bytes;
+    }
+
+    @Override
+    public int readBytes(byte[] output, int offset, int amount) throws IOException {
+        amount = Math.max(0, Math.min(amount, this.length - this.index));
+        if (amount == 0)
+            return 0;
+
+        this.parent.setIndex(this.offset + this.index);
+        int bytesRead = this.parent.readBytes(output, offset, amount);
+        this.index += bytesRead;
+        return bytesRead;
+    }
+
+    @Override
+    public void skip(int byteCount) throws IOException {
+        this.index += byteCount;
+    }
+
+    @Override
+    public void setIndex(int newIndex) throws IOException {
+        this.index = newIndex;
+    }
+
+    @Override
+    public int getIndex() throws IOException {
+        return this.index;
+    }
+
+    @Override
+    public int getSize() throws IOException {
+        return this.length;
+    }
+
+    @Override
+    public DataSource createSlice(int offset, int length) throws IOException {
+        if (offset < 0 || length < 0 || offset + length > this.length)
+            throw new IllegalArgumentException("Invalid slice range [" + offset + ", " + (offset + length) + ") for a source of size " + this.length + ".");
+
+        return this.parent.createSlice(this.offset + offset, length);
+    }
+}
@@ -0,0 +1,205 @@
+package net.highwayfrogs.editor.utils.data.writer;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * An in-memory data receiver backed by a growable ByteBuffer.
+ * Unlike ArrayReceiver, this does not box each byte, and supports bulk writes of primitive arrays.
+ * Created by agent on 10/18/2026.
+ */
+public class ByteBufferReceiver implements DataReceiver {
+    private ByteBuffer buffer;
+    @Getter private int index;
+    @Getter private int size; // The number of bytes which have been written, including any gaps skipped over.
+    private final boolean direct;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    public ByteBufferReceiver() {
+        this(DEFAULT_CAPACITY, false);
+    }
+
+    public ByteBufferReceiver(int startingCapacity) {
+        this(startingCapacity, false);
+    }
+
+    public ByteBufferReceiver(int startingCapacity, boolean direct) {
+        if (startingCapacity < 0)
+            throw new IllegalArgumentException("Invalid starting capacity: " + startingCapacity);
+
+        this.direct = direct;
+        this.buffer = allocate(startingCapacity);
+    }
+
+    @Override
+    public void writeByte(byte value) {
+        ensureCapacity(this.index + 1);
+        this.buffer.put(this.index++, value);
+        markWritten();
+    }
+
+    @Override
+    public void writeBytes(byte[] values) {
+        writeBytes(values, 0, values.length);
+    }
+
+    @Override
+    public void writeBytes(byte[] values, int offset, int amount) {
+        if (amount <= 0)
+            return;
+
+        ensureCapacity(this.index + amount);
+        this.buffer.position(this.index);
+        this.buffer.put(values, offset, amount);
+        this.index += amount;
+        markWritten();
+    }
+
+    @Override
+    public void writeByte(byte value, int amount) {
+        if (amount <= 0)
+            return;
+
+        ensureCapacity(this.index + amount);
+        if (this.buffer.hasArray()) {
+            int startIndex = this.buffer.arrayOffset() + this.index;
+            Arrays.fill(this.buffer.array(), startIndex, startIndex + amount, value);
+        } else {
+            for (int i = 0; i < amount; i++)
+                this.buffer.put(this.index + i, value);
+        }
+
+        this.index += amount;
+        markWritten();
+    }
+
+    /**
+     * Write an array of shorts to this receiver.
+     * @param values the values to write
+     * @param offset the index into the array of the first value to write
+     * @param amount the number of values to write
+     * @param byteOrder the byte order to write the values with
+     */
+    public void writeShorts(short[] values, int offset, int amount, ByteOrder byteOrder) {
+        if (amount <= 0)
+            return;
+
+        int byteCount = amount * 2;
+        createView(byteCount, byteOrder).asShortBuffer().put(values, offset, amount);
+        this.index += byteCount;
+        markWritten();
+    }
+
+    /**
+     * Write an array of integers to this receiver.
+     * @param values the values to write
+     * @param offset the index into the array of the first value to write
+     * @param amount the number of values to write
+     * @param byteOrder the byte order to write the values with
+     */
+    public void writeInts(int[] values, int offset, int amount, ByteOrder byteOrder) {
+        if (amount <= 0)
+            return;
+
+        int byteCount = amount * 4;
+        createView(byteCount, byteOrder).asIntBuffer().put(values, offset, amount);
+        this.index += byteCount;
+        markWritten();
+    }
+
+    /**
+     * Write an array of floats to this receiver.
+     * @param values the values to write
+     * @param offset the index into the array of the first value to write
+     * @param amount the number of values to write
+     * @param byteOrder the byte order to write the values with
+     */
+    public void writeFloats(float[] values, int offset, int amount, ByteOrder byteOrder) {
+        if (amount <= 0)
+            return;
+
+        int byteCount = amount * 4;
+        createView(byteCount, byteOrder).asFloatBuffer().put(values, offset, amount);
+        this.index += byteCount;
+        markWritten();
+    }
+
+    @Override
+    public void setIndex(int newIndex) throws IOException {
+        if (newIndex < 0)
+            throw new IOException("Cannot set the index to " + newIndex + ".");
+
+        this.index = newIndex;
+    }
+
+    /**
+     * Get a copy of the bytes written to this receiver.
+     * @return array
+     */
+    public byte[] toArray() {
+        byte[] result = new byte[this.size];
+        ByteBuffer view = this.buffer.duplicate();
+        view.position(0);
+        view.get(result, 0, this.size);
+        return result;
+    }
+
+    /**
+     * Gets the bytes written to this receiver, and resets the receiver to be empty.
+     * If the written bytes exactly fill a heap buffer, the backing array is handed over directly instead of being copied.
+     * @return array
+     */
+    public byte[] releaseArray() {
+        byte[] result;
+        if (this.buffer.hasArray() && this.buffer.arrayOffset() == 0 && this.buffer.array().length == this.size) {
+            result = this.buffer.array();
+        } else {
+            result = toArray();
+        }
+
+        this.buffer = allocate(0);
+        this.index = 0;
+        this.size = 0;
+        return result;
+    }
+
+    private ByteBuffer createView(int byteCount, ByteOrder byteOrder) {
+        ensureCapacity(this.index + byteCount);
+        ByteBuffer view = this.buffer.duplicate();
+        view.limit(this.index + byteCount);
+        view.position(this.index);
+        return view.order(byteOrder);
+    }
+
+    private void markWritten() {
+        if (this.index > this.size)
+            this.size = this.index;
+    }
+
+    private void ensureCapacity(int requiredCapacity) {
+        if (requiredCapacity <= this.buffer.capacity())
+            return;
+        if (requiredCapacity < 0)
+            throw new OutOfMemoryError("The buffer cannot grow beyond " + Integer.MAX_VALUE + " bytes.");
+
+        int newCapacity = Math.max(requiredCapacity, this.buffer.capacity() + (this.buffer.capacity() >> 1));
+        if (newCapacity < 0) // Overflow.
+            newCapacity = Integer.MAX_VALUE;
+
+        ByteBuffer newBuffer = allocate(newCapacity);
+        ByteBuffer oldBuffer = this.buffer.duplicate();
+        oldBuffer.position(0);
+        oldBuffer.limit(this.size);
+        newBuffer.put(oldBuffer);
+        this.buffer = newBuffer;
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return this.direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+}
@@ -28,6 +28,16 @@ public interface DataReceiver {
      */
     public void writeBytes(byte[] values, int offset, int amount) throws IOException;
 
+    /**
+     * Write the same byte to this receiver several times.
+     * @param value The value to write.
+     * @param amount The number of times to write it.
+     */
+    default void writeByte(byte value, int amount) throws IOException {
+        for (int i = 0; i < amount; i++)
+            writeByte(value);
+    }
+
     /**
      * Set the current write index.
      * @param newIndex The new index to write data at.
@@ -7,11 +7,9 @@ import net.highwayfrogs.editor.utils.DataUtils;
 import net.highwayfrogs.editor.utils.NumberUtils;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.Stack;
 
 /**
@@ -26,8 +24,6 @@ public class DataWriter {
     private final Stack<Integer> anchorPoints = new Stack<>();
     private int currentAnchorPoint;
 
-    private static final ByteBuffer FLOAT_BUFFER = ByteBuffer.allocate(Constants.INTEGER_SIZE);
-
     public DataWriter(DataReceiver output) {
         this.output = output;
     }
@@ -51,8 +47,7 @@ public class DataWriter {
             throw new RuntimeException("Cannot write a byte (" + DataUtils.toByteString(value) + ") " + amount + " times to " + NumberUtils.toHexString(startIndex) + ".");
 
         try {
-            for (int i = 0; i < amount; i++)
-                this.output.writeByte(value);
+            this.output.writeByte(value, amount);
         } catch (IOException ex) {
             throw new RuntimeException("Failed to write byte (" + DataUtils.toByteString(value) + ") " + amount + " times to " + NumberUtils.toHexString(startIndex) + ".");
         }
@@ -75,8 +70,7 @@ public class DataWriter {
         int index = getIndex();
         int offsetAmount = (index % alignment);
         if (offsetAmount != 0)
-            for (int i = 0; i < alignment - offsetAmount; i++)
-                writeByte(padding); // Alignment.
+            writeByte(padding, alignment - offsetAmount); // Alignment.
     }
     /**
      * Write null bytes to a given address.
@@ -95,11 +89,7 @@ public class DataWriter {
         if (bytes < 0)
             throw new RuntimeException("writeTo cannot write backwards! (" + bytes + ")");
 
-        byte[] byteArray = new byte[bytes];
-        if (writeByte != Constants.NULL_BYTE)
-            Arrays.fill(byteArray, writeByte);
-
-        writeBytes(byteArray);
+        writeByte(writeByte, bytes);
     }
 
     /**
@@ -223,8 +213,7 @@ public class DataWriter {
      * @param value The integer to write.
      */
     public void writeFloat(float value) {
-        FLOAT_BUFFER.clear();
-        writeBytes(FLOAT_BUFFER.order(getEndian()).putFloat(value).array());
+        writeInt(Float.floatToRawIntBits(value)); // Avoids shared state, so multiple writers can be used at once.
     }
 
     /**
@@ -245,6 +234,75 @@ public class DataWriter {
         }
     }
 
+    /**
+     * Write an array of shorts to the receiver.
+     * @param values The values to write.
+     */
+    public void writeShorts(short[] values) {
+        writeShorts(values, 0, values.length);
+    }
+
+    /**
+     * Write an array of shorts to the receiver.
+     * @param values The values to write.
+     * @param offset The index into the array of the first value to write.
+     * @param amount The number of values to write.
+     */
+    public void writeShorts(short[] values, int offset, int amount) {
+        if (this.output instanceof ByteBufferReceiver) {
+            ((ByteBufferReceiver) this.output).writeShorts(values, offset, amount, this.endian);
+        } else {
+            for (int i = 0; i < amount; i++)
+                writeShort(values[offset + i]);
+        }
+    }
+
+    /**
+     * Write an array of integers to the receiver.
+     * @param values The values to write.
+     */
+    public void writeInts(int[] values) {
+        writeInts(values, 0, values.length);
+    }
+
+    /**
+     * Write an array of integers to the receiver.
+     * @param values The values to write.
+     * @param offset The index into the array of the first value to write.
+     * @param amount The number of values to write.
+     */
+    public void writeInts(int[] values, int offset, int amount) {
+        if (this.output instanceof ByteBufferReceiver) {
+            ((ByteBufferReceiver) this.output).writeInts(values, offset, amount, this.endian);
+        } else {
+            for (int i = 0; i < amount; i++)
+                writeInt(values[offset + i]);
+        }
+    }
+
+    /**
+     * Write an array of floats to the receiver.
+     * @param values The values to write.
+     */
+    public void writeFloats(float[] values) {
+        writeFloats(values, 0, values.length);
+    }
+
+    /**
+     * Write an array of floats to the receiver.
+     * @param values The values to write.
+     * @param offset The index into the array of the first value to write.
+     * @param amount The number of values to write.
+     */
+    public void writeFloats(float[] values, int offset, int amount) {
+        if (this.output instanceof ByteBufferReceiver) {
+            ((ByteBufferReceiver) this.output).writeFloats(values, offset, amount, this.endian);
+        } else {
+            for (int i = 0; i < amount; i++)
+                writeFloat(values[offset + i]);
+        }
+    }
+
     /**
      * Write a pointer which we'll come back to later.
      * @return address
@@ -3,6 +3,7 @@ package net.highwayfrogs.editor.utils.data.writer;
 import lombok.Getter;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * An in-memory data receiver.
@@ -38,6 +39,15 @@ public class FixedArrayReceiver implements DataReceiver {
             writeByte(values[offset + i]);
     }
 
+    @Override
+    public void writeByte(byte value, int amount) {
+        if (amount <= 0)
+            return;
+
+        Arrays.fill(this.array, this.index, this.index + amount, value);
+        this.index += amount;
+    }
+
     @Override
     public void setIndex(int newIndex) {
         this.index = newIndex;
@@ -6,6 +6,7 @@ import net.highwayfrogs.editor.utils.FileUtils;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.util.Arrays;
 
 /**
  * Writes data to large files without storing it in memory.
@@ -15,6 +16,8 @@ public class LargeFileReceiver implements DataReceiver {
     private final File targetFile;
     private final RandomAccessFile randomAccessFile;
 
+    private static final int FILL_CHUNK_SIZE = 4096;
+
     @SneakyThrows
     public LargeFileReceiver(File file) {
         this.targetFile = file;
@@ -37,6 +40,23 @@ public class LargeFileReceiver implements DataReceiver {
         this.randomAccessFile.write(values, offset, amount);
     }
 
+    @Override
+    public void writeByte(byte value, int amount) throws IOException {
+        if (amount <= 0)
+            return;
+
+        // Write in chunks, since each write to the file is a system call.
+        byte[] chunk = new byte[Math.min(amount, FILL_CHUNK_SIZE)];
+        if (value != 0)
+            Arrays.fill(chunk, value);
+
+        while (amount > 0) {
+            int writeAmount = Math.min(amount, chunk.length);
+            this.randomAccessFile.write(chunk, 0, writeAmount);
+            amount -= writeAmount;
+        }
+    }
+
     @Override
     public void setIndex(int newIndex) throws IOException {
         this.randomAccessFile.seek(newIndex);
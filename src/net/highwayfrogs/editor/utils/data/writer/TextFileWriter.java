@@ -0,0 +1,234 @@
+package net.highwayfrogs.editor.utils.data.writer;
+
+import lombok.SneakyThrows;
+import net.highwayfrogs.editor.Constants;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes text to a file as it is generated, instead of building the whole file in memory first.
+ * Numbers are written directly into the buffer, so writing large amounts of numeric data (such as .obj files) does not create a String per value.
+ * Created by agent on 10/18/2026.
+ */
+public class TextFileWriter implements Appendable, Closeable {
+    private final Writer writer;
+    private final char[] buffer;
+    private int bufferPosition;
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int FAST_FLOAT_MINIMUM_SIGNIFICANT_DIGITS = 6; // Six significant decimal digits are always kept exactly by a float, so fewer are never enough.
+    private static final int FAST_FLOAT_SIGNIFICANT_DIGITS = 9; // Nine significant decimal digits are always enough to read back the exact same float.
+    private static final int FAST_FLOAT_MAXIMUM_FRACTION_DIGITS = 11; // Values just above FAST_FLOAT_MINIMUM have two zeros before their significant digits.
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L, 10000000000L, 100000000000L};
+    private static final double FAST_FLOAT_MINIMUM = .001D; // Smaller values would need too many zeros, so they use Float.toString().
+    private static final double FAST_FLOAT_MAXIMUM = 10000000D; // Larger values would need scientific notation to remain readable.
+    private static final int MAXIMUM_INTEGER_CHARACTERS = 11; // "-2147483648"
+
+    public TextFileWriter(File file) throws IOException {
+        this(file, StandardCharsets.UTF_8);
+    }
+
+    public TextFileWriter(File file, Charset charset) throws IOException {
+        this(new OutputStreamWriter(new FileOutputStream(file), charset));
+    }
+
+    public TextFileWriter(Writer writer) {
+        if (writer == null)
+            throw new NullPointerException("writer");
+
+        this.writer = writer;
+        this.buffer = new char[DEFAULT_BUFFER_SIZE];
+    }
+
+    @Override
+    public TextFileWriter append(CharSequence text) {
+        if (text == null)
+            text = "null";
+
+        return append(text, 0, text.length());
+    }
+
+    @Override
+    public TextFileWriter append(CharSequence text, int start, int end) {
+        if (text == null)
+            text = "null";
+
+        while (start < end) {
+            if (this.bufferPosition == this.buffer.length)
+                flushBuffer();
+
+            int copyAmount = Math.min(end - start, this.buffer.length - this.bufferPosition);
+            if (text instanceof String) {
+                ((String) text).getChars(start, start + copyAmount, this.buffer, this.bufferPosition);
+                this.bufferPosition += copyAmount;
+            } else {
+                for (int i = 0; i < copyAmount; i++)
+                    this.buffer[this.bufferPosition++] = text.charAt(start + i);
+            }
+
+            start += copyAmount;
+        }
+
+        return this;
+    }
+
+    @Override
+    public TextFileWriter append(char value) {
+        if (this.bufferPosition == this.buffer.length)
+            flushBuffer();
+
+        this.buffer[this.bufferPosition++] = value;
+        return this;
+    }
+
+    /**
+     * Writes an integer as text.
+     * @param value the value to write
+     * @return this
+     */
+    public TextFileWriter append(int value) {
+        if (value == Integer.MIN_VALUE)
+            return append(String.valueOf(value));
+
+        ensureSpace(MAXIMUM_INTEGER_CHARACTERS);
+        if (value < 0) {
+            this.buffer[this.bufferPosition++] = '-';
+            value = -value;
+        }
+
+        writeDigits(value, 0);
+        return this;
+    }
+
+    /**
+     * Writes a float as text.
+     * Like Float.toString(), the fewest significant digits (from six to nine) which read back as the same float are written.
+     * Unlike Float.toString(), this is done without creating any objects, which is considerably faster.
+     * Values which cannot be represented well in this form (very small, very large, NaN, infinite) are written with Float.toString().
+     * @param value the value to write
+     * @return this
+     */
+    public TextFileWriter append(float value) {
+        double absValue = Math.abs((double) value);
+        if (value != 0 && !(absValue >= FAST_FLOAT_MINIMUM && absValue < FAST_FLOAT_MAXIMUM))
+            return append(Float.toString(value)); // NaN fails both comparisons, so it also ends up here.
+
+        // Count the digits before the significant digits start, either in the integer part, or as zeros after the decimal point.
+        int integerDigits = 0;
+        while (integerDigits < FAST_FLOAT_SIGNIFICANT_DIGITS && absValue >= POWERS_OF_TEN[integerDigits])
+            integerDigits++;
+
+        int leadingZeros = 0;
+        if (value != 0)
+            while (absValue * POWERS_OF_TEN[leadingZeros + 1] < 1D)
+                leadingZeros++;
+
+        // Try the fewest significant digits first, stopping once the rounded value reads back as the same float.
+        int fractionDigits = 0;
+        long scale = 1;
+        long scaledValue = 0;
+        for (int significantDigits = FAST_FLOAT_MINIMUM_SIGNIFICANT_DIGITS; significantDigits <= FAST_FLOAT_SIGNIFICANT_DIGITS; significantDigits++) {
+            fractionDigits = Math.max(1, Math.min(FAST_FLOAT_MAXIMUM_FRACTION_DIGITS, significantDigits - integerDigits + leadingZeros));
+            scale = POWERS_OF_TEN[fractionDigits];
+            scaledValue = Math.round(absValue * scale);
+            if (isNearestFloat(absValue, scaledValue, scale))
+                break; // Nine digits are always enough, so it's fine that the check isn't made for them.
+        }
+
+        long integerPart = scaledValue / scale;
+        long fractionPart = scaledValue % scale;
+
+        ensureSpace(MAXIMUM_INTEGER_CHARACTERS + FAST_FLOAT_MAXIMUM_FRACTION_DIGITS + 1);
+        if (value < 0)
+            this.buffer[this.bufferPosition++] = '-';
+
+        writeDigits(integerPart, 0);
+        this.buffer[this.bufferPosition++] = '.';
+        if (fractionPart == 0) {
+            this.buffer[this.bufferPosition++] = '0';
+            return this;
+        }
+
+        // Trailing zeros are not written.
+        while (fractionPart % 10 == 0) {
+            fractionPart /= 10;
+            fractionDigits--;
+        }
+
+        writeDigits(fractionPart, fractionDigits);
+        return this;
+    }
+
+    /**
+     * Writes the system line separator.
+     * @return this
+     */
+    public TextFileWriter newLine() {
+        return append(Constants.NEWLINE);
+    }
+
+    /**
+     * Writes any buffered text to the underlying writer, then flushes it.
+     */
+    @SneakyThrows
+    public void flush() {
+        flushBuffer();
+        this.writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            this.writer.close();
+        }
+    }
+
+    /**
+     * Tests if the decimal value scaledValue / scale is certain to be read back as the given float.
+     * The quotient is calculated as a double, so it is only trusted if it is further from the edge of the float's rounding range than the double could be wrong by.
+     * @param floatValue the float which should be read back, as a positive double
+     * @param scaledValue the decimal value, multiplied by scale
+     * @param scale the power of ten the decimal value was multiplied by
+     * @return true iff the decimal value will be read back as floatValue
+     */
+    private static boolean isNearestFloat(double floatValue, long scaledValue, long scale) {
+        double decimalValue = (double) scaledValue / scale;
+        float value = (float) floatValue;
+        double halfGap = (decimalValue < floatValue ? floatValue - Math.nextDown(value) : Math.nextUp(value) - floatValue) / 2; // The distance to the next float is halved at powers of two.
+        return Math.abs(decimalValue - floatValue) + Math.ulp(decimalValue) < halfGap;
+    }
+
+    private void writeDigits(long value, int minimumDigits) {
+        int digitCount = 1;
+        for (long temp = value / 10; temp > 0; temp /= 10)
+            digitCount++;
+        if (digitCount < minimumDigits)
+            digitCount = minimumDigits;
+
+        int endPosition = this.bufferPosition + digitCount;
+        for (int i = endPosition - 1; i >= this.bufferPosition; i--) {
+            this.buffer[i] = (char) ('0' + (value % 10));
+            value /= 10;
+        }
+
+        this.bufferPosition = endPosition;
+    }
+
+    private void ensureSpace(int characterCount) {
+        if (this.bufferPosition + characterCount > this.buffer.length)
+            flushBuffer();
+    }
+
+    @SneakyThrows
+    private void flushBuffer() {
+        if (this.bufferPosition == 0)
+            return;
+
+        this.writer.write(this.buffer, 0, this.bufferPosition);
+        this.bufferPosition = 0;
+    }
+}